@@ -0,0 +1,246 @@
+package frc.lib;
+
+import java.util.List;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import frc.lib.driver.IDriver;
+import frc.lib.helpers.ExceptionHelpers;
+import frc.lib.helpers.FieldSnapshot;
+import frc.lib.helpers.IDeferredWork;
+import frc.lib.mechanisms.LoggingManager;
+import frc.lib.mechanisms.MechanismManager;
+import frc.lib.robotprovider.RobotMode;
+import frc.robot.TuningConstants;
+import frc.robot.WarmupModule;
+
+/**
+ * Warms up the JIT compiler for the control loop while the robot is disabled (see TuningConstants.JIT_WARMUP), so that the first
+ * loops of a match don't run as interpreted code.  A throwaway copy of the robot (see WarmupModule) runs thousands of loops through
+ * the same code as the real one (the Driver and its macros, path following, the mechanisms and their PID controllers), alternating
+ * between autonomous and teleop, without any real devices or logs.
+ *
+ * Creating the throwaway robot takes much longer than a slice of a disabled loop, so the warm-up is meant to be run on the deferred
+ * work's background thread (see DeferredWorkScheduler.scheduleInBackground), and each step stops early if the robot is enabled.
+ *
+ * The throwaway robot shares nothing with the real one other than the classes' static state, so the real driver and mechanisms
+ * shouldn't change during the warm-up.  That is checked from the robot's own thread in each disabled loop (see checkUnchanged), as
+ * the real robot is only changed from that thread, and the warm-up is abandoned if they do.
+ */
+public class ControlLoopWarmup implements IDeferredWork
+{
+    private static final double NANOSECONDS_PER_MILLISECOND = 1000000.0;
+    private static final int LOOPS_PER_MODE = 500;
+
+    private final int loops;
+    private final int loopsPerStep;
+    private final Object[] checkedObjects;
+
+    private volatile boolean interrupted;
+    private volatile boolean finished;
+    private FieldSnapshot snapshot;
+
+    private WarmupModule module;
+    private IDriver driver;
+    private MechanismManager mechanisms;
+    private LoggingManager logger;
+    private RobotMode mode;
+
+    private int loopCount;
+    private long totalNanos;
+    private double firstLoopTime;
+    private double lastLoopTime;
+
+    /**
+     * Initializes a new ControlLoopWarmup
+     * @param loops the number of throwaway loops to run
+     * @param loopsPerStep the number of throwaway loops to run in each step
+     * @param checkedObjects the real robot's objects (e.g. the driver and mechanisms) that the warm-up shouldn't change
+     */
+    public ControlLoopWarmup(int loops, int loopsPerStep, Object... checkedObjects)
+    {
+        this.loops = loops;
+        this.loopsPerStep = Math.max(1, loopsPerStep);
+        this.checkedObjects = checkedObjects;
+
+        this.interrupted = false;
+        this.finished = false;
+        this.snapshot = null;
+
+        this.loopCount = 0;
+        this.totalNanos = 0L;
+    }
+
+    /**
+     * Run the next step of the warm-up, creating the throwaway robot in the first step
+     * @return true if the warm-up has completed (or has been abandoned)
+     */
+    @Override
+    public boolean runStep()
+    {
+        if (this.finished)
+        {
+            // abandoned because the real robot's state changed
+            this.discard();
+            return true;
+        }
+
+        long startTime = System.nanoTime();
+        boolean completed;
+        if (this.driver == null)
+        {
+            this.create();
+            completed = false;
+        }
+        else
+        {
+            completed = this.runLoops();
+        }
+
+        this.totalNanos += System.nanoTime() - startTime;
+        this.interrupted = false;
+
+        if (completed)
+        {
+            this.finished = true;
+            this.discard();
+            System.out.println(this.getReport());
+        }
+
+        return completed;
+    }
+
+    /**
+     * Stop the current step after the loop that it is running (creating the throwaway robot can't be stopped part-way)
+     */
+    @Override
+    public void interrupt()
+    {
+        this.interrupted = true;
+    }
+
+    /**
+     * Check that the real robot's objects haven't changed since the last check, abandoning the warm-up if they have.  This should be
+     * called from the robot's thread in each disabled loop, as the real robot doesn't change them while it is disabled.
+     */
+    public void checkUnchanged()
+    {
+        if (this.finished)
+        {
+            return;
+        }
+
+        FieldSnapshot current = FieldSnapshot.capture(this.checkedObjects);
+        if (this.snapshot != null)
+        {
+            List<String> differences = this.snapshot.getDifferences(current);
+            if (!differences.isEmpty())
+            {
+                this.finished = true;
+                this.interrupted = true;
+                this.snapshot = null;
+                ExceptionHelpers.Assert(false, "JIT warm-up changed the real robot's state: %s", String.join("; ", differences));
+                return;
+            }
+        }
+
+        this.snapshot = current;
+    }
+
+    /**
+     * Forget the last check of the real robot's objects, as the real robot changes them when it is enabled or disabled
+     */
+    public void resetCheck()
+    {
+        this.snapshot = null;
+    }
+
+    /**
+     * Get the number of throwaway loops that have been run so far
+     * @return the number of loops
+     */
+    public int getLoopCount()
+    {
+        return this.loopCount;
+    }
+
+    /**
+     * Get a report of how the warm-up went
+     * @return the report
+     */
+    public String getReport()
+    {
+        return String.format(
+            "JIT warm-up ran %1$d loops in %2$.1f ms (%3$.3f ms per loop at first, %4$.3f ms per loop by the end)",
+            this.loopCount,
+            this.totalNanos / ControlLoopWarmup.NANOSECONDS_PER_MILLISECOND,
+            this.firstLoopTime,
+            this.lastLoopTime);
+    }
+
+    private void create()
+    {
+        this.module = new WarmupModule();
+        Injector injector = Guice.createInjector(this.module);
+
+        this.driver = injector.getInstance(IDriver.class);
+        this.mechanisms = injector.getInstance(MechanismManager.class);
+        this.logger = injector.getInstance(LoggingManager.class);
+        this.mode = RobotMode.Autonomous;
+        this.driver.startMode(this.mode);
+    }
+
+    private boolean runLoops()
+    {
+        long startTime = System.nanoTime();
+        int stepLoops = Math.min(this.loopsPerStep, this.loops - this.loopCount);
+        int loopsRun = 0;
+        while (loopsRun < stepLoops && !this.interrupted)
+        {
+            if (this.loopCount > 0 && this.loopCount % ControlLoopWarmup.LOOPS_PER_MODE == 0)
+            {
+                this.driver.stop();
+                this.mechanisms.stop();
+                this.mode = this.mode == RobotMode.Autonomous ? RobotMode.Teleop : RobotMode.Autonomous;
+                this.driver.startMode(this.mode);
+            }
+
+            this.module.getTimer().advance(TuningConstants.LOOP_DURATION);
+            this.mechanisms.readSensors();
+            this.driver.update();
+            this.mechanisms.update(this.mode);
+            this.logger.update();
+            this.loopCount++;
+            loopsRun++;
+        }
+
+        if (loopsRun > 0)
+        {
+            double loopTime = (System.nanoTime() - startTime) / ControlLoopWarmup.NANOSECONDS_PER_MILLISECOND / loopsRun;
+            if (this.loopCount == loopsRun)
+            {
+                this.firstLoopTime = loopTime;
+            }
+
+            this.lastLoopTime = loopTime;
+        }
+
+        return this.loopCount >= this.loops;
+    }
+
+    private void discard()
+    {
+        if (this.driver != null)
+        {
+            this.driver.stop();
+            this.mechanisms.stop();
+        }
+
+        // drop the throwaway robot, so that it can be garbage collected before the match
+        this.module = null;
+        this.driver = null;
+        this.mechanisms = null;
+        this.logger = null;
+    }
+}
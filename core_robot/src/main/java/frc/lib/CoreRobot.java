@@ -1,20 +1,26 @@
 package frc.lib;
 
 import frc.lib.driver.IDriver;
+import frc.lib.helpers.DeferredWorkScheduler;
 import frc.lib.helpers.ExceptionHelpers;
+import frc.lib.helpers.StartupProfiler;
+import frc.lib.helpers.TickTracer;
 import frc.lib.mechanisms.LoggingManager;
 import frc.lib.mechanisms.MechanismManager;
 import frc.lib.robotprovider.*;
 import frc.robot.LoggingKey;
 import frc.robot.TuningConstants;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.matcher.Matchers;
 
 /**
  * Main class for the FRC Competition Robot
@@ -29,8 +35,27 @@ import com.google.inject.Injector;
  */
 public class CoreRobot<T extends AbstractModule>
 {
+    /**
+     * The phases of each periodic loop, in the order that they run
+     */
+    private enum LoopPhase
+    {
+        ReadSensors,
+        DriverUpdate,
+        MechanismsUpdate,
+        LoggerUpdate,
+        LoggerFlush,
+    }
+
     private final T module;
 
+    // Tracer - keeps track of how long each phase of the recent loops took
+    private final TickTracer<LoopPhase> tracer;
+    private int loopsSinceTraceDump;
+
+    // Startup profiler - times robotInit, set until robotInit completes
+    private StartupProfiler startupProfiler;
+
     // Driver - used both for autonomous and teleop mode.
     private IDriver driver;
 
@@ -42,15 +67,22 @@ public class CoreRobot<T extends AbstractModule>
     private ITimer timer;
     private boolean timerStarted;
 
+    // set when the robot provider records or replays each loop
+    private ILoopAware loopAwareProvider;
+
     private RobotMode currentMode;
     private int loggerUpdates;
 
-    private int disabledCount;
-    private boolean completedCostlyTasks;
+    // Deferred work - costly tasks to do while disabled
+    private DeferredWorkScheduler deferredWork;
+    private ControlLoopWarmup warmup;
 
     public CoreRobot(T module)
     {
         this.module = module;
+
+        this.tracer = new TickTracer<LoopPhase>(LoopPhase.class, TuningConstants.LOOP_TRACE_CAPACITY, (long)(TuningConstants.LOOP_TRACE_BUDGET * 1000000000.0));
+        this.loopsSinceTraceDump = TuningConstants.LOOP_TRACE_DUMP_COOLDOWN;
     }
 
     /**
@@ -60,15 +92,43 @@ public class CoreRobot<T extends AbstractModule>
      */
     public void robotInit()
     {
+        // profile everything until the robot code is ready (the report is printed and logged at the end of robotInit)
+        this.startupProfiler = TuningConstants.STARTUP_PROFILE ? new StartupProfiler() : null;
+
         // create mechanisms
         Injector injector = this.getInjector();
 
         // create driver
-        this.driver = injector.getInstance(IDriver.class);
+        StartupProfiler.Phase driverPhase = StartupProfiler.phase("robotInit: create driver");
+        try
+        {
+            this.driver = injector.getInstance(IDriver.class);
+        }
+        finally
+        {
+            driverPhase.close();
+        }
+
+        StartupProfiler.Phase mechanismsPhase = StartupProfiler.phase("robotInit: create mechanisms");
+        try
+        {
+            this.mechanisms = injector.getInstance(MechanismManager.class);
+        }
+        finally
+        {
+            mechanismsPhase.close();
+        }
 
-        this.mechanisms = injector.getInstance(MechanismManager.class);
-        this.logger = injector.getInstance(LoggingManager.class);
-        this.logger.refresh(injector);
+        StartupProfiler.Phase loggerPhase = StartupProfiler.phase("robotInit: create logger");
+        try
+        {
+            this.logger = injector.getInstance(LoggingManager.class);
+            this.logger.refresh(injector);
+        }
+        finally
+        {
+            loggerPhase.close();
+        }
 
         this.logger.logString(LoggingKey.RobotState, "Init");
 
@@ -76,10 +136,37 @@ public class CoreRobot<T extends AbstractModule>
         this.logger.logNumber(LoggingKey.RobotTime, this.timer.get());
         this.timerStarted = false;
 
+        IRobotProvider robotProvider = injector.getInstance(IRobotProvider.class);
+        if (robotProvider instanceof ILoopAware)
+        {
+            this.loopAwareProvider = (ILoopAware)robotProvider;
+        }
+
         // reset number of logger updates
         this.loggerUpdates = 0;
 
-        this.completedCostlyTasks = false;
+        this.deferredWork = injector.getInstance(DeferredWorkScheduler.class);
+        if (TuningConstants.JIT_WARMUP && TuningConstants.PERFORM_COSTLY_TASKS_WHILE_DISABLED)
+        {
+            // the warm-up shouldn't change the real driver or mechanisms, which it checks
+            List<Object> checkedObjects = new ArrayList<Object>();
+            checkedObjects.add(this.driver);
+            checkedObjects.add(this.mechanisms);
+            checkedObjects.addAll(this.mechanisms.mechanismList);
+
+            // creating the throwaway robot never fits within a slice of a disabled loop, so run the warm-up in the background
+            this.warmup = new ControlLoopWarmup(TuningConstants.JIT_WARMUP_LOOPS, TuningConstants.JIT_WARMUP_LOOPS_PER_STEP, checkedObjects.toArray());
+            this.deferredWork.scheduleInBackground("JIT warm-up", this.warmup);
+        }
+
+        if (this.startupProfiler != null)
+        {
+            String report = this.startupProfiler.finish();
+            System.out.println(report);
+            this.logger.logNumber(LoggingKey.RobotStartupDuration, this.startupProfiler.getElapsedTime());
+            this.logger.logString(LoggingKey.RobotStartupReport, report);
+            this.startupProfiler = null;
+        }
     }
 
     /**
@@ -104,10 +191,17 @@ public class CoreRobot<T extends AbstractModule>
             this.mechanisms.stop();
         }
 
+        // flushing waits for any rows that are still queued for the asynchronous log writer to be written out
         this.logger.logString(LoggingKey.RobotState, "Disabled");
         this.logger.update();
         this.logger.flush();
-        this.disabledCount = 0;
+
+        if (this.warmup != null)
+        {
+            this.warmup.resetCheck();
+        }
+
+        this.deferredWork.setDisabled(true);
     }
 
     /**
@@ -153,25 +247,22 @@ public class CoreRobot<T extends AbstractModule>
      */
     public void disabledPeriodic()
     {
-        if (!TuningConstants.LOG_NULL_WHILE_DISABLED)
+        this.startLoop(RobotMode.Disabled);
+        if (TuningConstants.PERFORM_COSTLY_TASKS_WHILE_DISABLED)
         {
-            return;
+            // perform a bounded slice of any costly tasks that have been deferred until we're disabled
+            this.deferredWork.runSlice();
         }
 
-        this.disabledCount++;
-        if ((this.disabledCount % 500) == 0)
+        if (this.warmup != null)
         {
-            if (!this.completedCostlyTasks)
-            {
-                if (TuningConstants.PERFORM_COSTLY_TASKS_WHILE_DISABLED)
-                {
-                    // perform costly tasks here
-                }
-
-                this.completedCostlyTasks = true;
-            }
+            // the warm-up runs in the background, so check that it hasn't changed the real robot from the robot's own thread
+            this.warmup.checkUnchanged();
+        }
 
-            this.disabledCount = 0;
+        if (!TuningConstants.LOG_NULL_WHILE_DISABLED)
+        {
+            return;
         }
 
         for (LoggingKey key : LoggingKey.values())
@@ -260,7 +351,24 @@ public class CoreRobot<T extends AbstractModule>
     {
         if (this.injector == null)
         {
-            this.injector = Guice.createInjector(this.module);
+            StartupProfiler profiler = this.startupProfiler;
+            if (profiler != null)
+            {
+                // time the construction of everything that the injector provisions, as well as creating the injector itself
+                StartupProfiler.Phase phase = profiler.startPhase("Guice.createInjector");
+                try
+                {
+                    this.injector = Guice.createInjector(this.module, binder -> binder.bindListener(Matchers.any(), profiler));
+                }
+                finally
+                {
+                    phase.close();
+                }
+            }
+            else
+            {
+                this.injector = Guice.createInjector(this.module);
+            }
         }
 
         return this.injector;
@@ -274,6 +382,7 @@ public class CoreRobot<T extends AbstractModule>
         try
         {
             this.currentMode = robotMode;
+            this.deferredWork.setDisabled(false);
             this.driver.startMode(robotMode);
 
             Injector injector = this.getInjector();
@@ -310,21 +419,41 @@ public class CoreRobot<T extends AbstractModule>
     {
         try
         {
+            this.startLoop(this.currentMode);
+            this.tracer.startTick();
+
             this.mechanisms.readSensors();
+            this.tracer.markPhase(LoopPhase.ReadSensors);
 
             this.driver.update();
+            this.tracer.markPhase(LoopPhase.DriverUpdate);
 
             // run each mechanism
             this.mechanisms.update(this.currentMode);
+            this.tracer.markPhase(LoopPhase.MechanismsUpdate);
 
             this.logger.logNumber(LoggingKey.RobotTime, this.timer.get());
+            this.logger.logNumber(LoggingKey.RobotLoopDuration, this.tracer.getLastTickDuration());
             this.logger.update();
+            this.tracer.markPhase(LoopPhase.LoggerUpdate);
 
-            if (this.loggerUpdates++ > TuningConstants.LOG_FLUSH_THRESHOLD)
+            if (!TuningConstants.LOG_ASYNC && this.loggerUpdates++ > TuningConstants.LOG_FLUSH_THRESHOLD)
             {
-                // lazily flush the log, in case of power-off.
+                // lazily flush the log, in case of power-off.  (the async writer thread flushes by itself)
                 this.logger.flush();
                 this.loggerUpdates = 0;
+                this.tracer.markPhase(LoopPhase.LoggerFlush);
+            }
+
+            boolean overrun = this.tracer.endTick();
+            this.loopsSinceTraceDump++;
+            if (overrun &&
+                TuningConstants.LOOP_TRACE_DUMP_ON_OVERRUN &&
+                this.loopsSinceTraceDump >= TuningConstants.LOOP_TRACE_DUMP_COOLDOWN)
+            {
+                // dump the recent loops so we can see which phase blew the loop budget
+                this.loopsSinceTraceDump = 0;
+                this.dumpTrace(TuningConstants.LOOP_TRACE_DUMP_LOOPS);
             }
         }
         catch (RuntimeException ex)
@@ -332,12 +461,38 @@ public class CoreRobot<T extends AbstractModule>
             if (TuningConstants.LOG_EXCEPTIONS)
             {
                 this.logger.logString(LoggingKey.RobotCrash, ExceptionHelpers.exceptionString(ex));
+
+                this.tracer.endTick();
+                this.dumpTrace(TuningConstants.LOOP_TRACE_CAPACITY);
             }
 
             throw ex;
         }
     }
 
+    /**
+     * Let the robot provider know that a new periodic loop is starting, if it needs to know (to record or replay each loop)
+     * @param mode that the robot is in for the loop
+     */
+    private void startLoop(RobotMode mode)
+    {
+        if (this.loopAwareProvider != null)
+        {
+            this.loopAwareProvider.startLoop(mode);
+        }
+    }
+
+    /**
+     * Dump the phase breakdown of the most recent loops to the console and the log
+     * @param loops the number of most-recent loops to dump
+     */
+    private void dumpTrace(int loops)
+    {
+        String trace = this.tracer.dump(loops);
+        System.err.println("Loop trace (overrun #" + this.tracer.getOverrunCount() + "):\r\n" + trace);
+        this.logger.logString(LoggingKey.RobotLoopTrace, trace);
+    }
+
     private String generateMatchString(IDriverStation driverStation)
     {
         String eventName = driverStation.getEventName();
@@ -1,5 +1,6 @@
 package frc.lib.driver;
 
+import java.util.BitSet;
 import java.util.EnumMap;
 import java.util.EnumSet;
 
@@ -10,7 +11,7 @@ import frc.robot.TuningConstants;
 import frc.lib.driver.descriptions.*;
 import frc.lib.driver.states.*;
 import frc.lib.helpers.ExceptionHelpers;
-import frc.lib.helpers.SetHelper;
+import frc.lib.helpers.StartupProfiler;
 import frc.lib.mechanisms.*;
 import frc.lib.robotprovider.*;
 import frc.robot.driver.*;
@@ -21,6 +22,10 @@ import com.google.inject.Injector;
 /**
  * Driver that represents something that operates the robot.  This is either autonomous or teleop/user driver.
  *
+ * The update runs every loop, so it keeps track of shifts, operations and macros using preallocated sets (bitsets indexed by ordinal)
+ * rather than allocating new collections each time, and only rebuilds the strings that it logs when the active macros/shifts change.
+ * The user inputs are checked through an InputDispatchTable compiled from the button map, with the active shifts as a bitmask, against
+ * a snapshot of each joystick captured once at the start of the update.
  */
 @Singleton
 public class Driver implements IDriver
@@ -32,15 +37,38 @@ public class Driver implements IDriver
     protected final EnumMap<DigitalOperation, DigitalOperationState> digitalOperationStateMap;
 
     private final IJoystick[] joysticks;
+    private final JoystickSnapshot[] joystickSnapshots; // indexed by UserInputDevice id, null if there isn't a joystick
     private final DigitalOperation[] allDigitalOperations;
     private final AnalogOperation[] allAnalogOperations;
-
-    private final EnumMap<Shift, ShiftDescription> shiftMap;
-    private final EnumMap<MacroOperation, IMacroOperationState> macroStateMap;
+    private final MacroOperation[] allMacroOperations;
+    private final Shift[] allShifts;
+
+    private final IMacroOperationState[] macroStates; // indexed by MacroOperation ordinal, null if not in the schema
+    private final InputDispatchTable inputTable;
+    private final MacroConflictGraph macroConflicts;
+    private final InputLatencyTracer inputLatencyTracer; // null unless TuningConstants.INPUT_LATENCY_TRACING
+
+    // preallocated state used within each update
+    private final BitSet previouslyActiveMacroOperations;
+    private final BitSet activeMacroOperations;
+    private final BitSet macroOperationsToCancel;
+    private final BitSet modifiedAnalogOperations;
+    private final BitSet modifiedDigitalOperations;
+
+    // the most recently logged values, which are only rebuilt when they change
+    private final BitSet loggedActiveMacroOperations;
+    private int loggedActiveShiftMask;
+    private String activeMacrosString;
+    private String activeShiftsString;
 
     private final AutonomousRoutineSelector routineSelector;
     private IControlTask autonomousTask;
 
+    private final OperationSnapshot[] snapshots;
+    private volatile OperationSnapshot currentSnapshot;
+    private long snapshotUpdateNumber;
+    private int inputLatencyUpdates;
+
     private RobotMode currentMode;
 
     /**
@@ -66,6 +94,8 @@ public class Driver implements IDriver
 
         this.allDigitalOperations = DigitalOperation.values();
         this.allAnalogOperations = AnalogOperation.values();
+        this.allMacroOperations = MacroOperation.values();
+        this.allShifts = Shift.values();
 
         this.digitalOperationStateMap = new EnumMap<DigitalOperation, DigitalOperationState>(DigitalOperation.class);
         for (DigitalOperationDescription description : digitalOperationSchema)
@@ -104,29 +134,84 @@ public class Driver implements IDriver
         this.routineSelector = injector.getInstance(AutonomousRoutineSelector.class);
 
         ShiftDescription[] shiftSchema = buttonMap.getShiftSchema();
-        this.shiftMap = new EnumMap<Shift, ShiftDescription>(Shift.class);
+        ShiftDescription[] shiftDescriptions = new ShiftDescription[this.allShifts.length];
         for (ShiftDescription description : shiftSchema)
         {
-            this.shiftMap.put(description.getShift(), description);
+            shiftDescriptions[description.getShift().ordinal()] = description;
         }
 
-        this.macroStateMap = new EnumMap<MacroOperation, IMacroOperationState>(MacroOperation.class);
+        this.macroStates = new IMacroOperationState[this.allMacroOperations.length];
         MacroOperationDescription[] macroSchema = buttonMap.getMacroOperationSchema();
         for (MacroOperationDescription description : macroSchema)
         {
             devices.add(description.getUserInputDevice());
-            this.macroStateMap.put(
-                (MacroOperation)description.getOperation(),
+            this.macroStates[description.getOperation().ordinal()] =
                 new MacroOperationState(
                     description,
                     this.analogOperationStateMap,
                     this.digitalOperationStateMap,
-                    this.injector));
+                    this.injector);
+        }
+
+        // compile the inputs of the shifts, operations and macros into a table that can be checked without going through the descriptions
+        OperationState[] analogStates = new OperationState[this.allAnalogOperations.length];
+        for (AnalogOperation operation : this.allAnalogOperations)
+        {
+            analogStates[operation.ordinal()] = this.analogOperationStateMap.get(operation);
+        }
+
+        OperationState[] digitalStates = new OperationState[this.allDigitalOperations.length];
+        for (DigitalOperation operation : this.allDigitalOperations)
+        {
+            digitalStates[operation.ordinal()] = this.digitalOperationStateMap.get(operation);
         }
 
-        ButtonMapVerifier.Verify(buttonMap);
+        OperationState[] macroInputStates = new OperationState[this.allMacroOperations.length];
+        for (int i = 0; i < this.macroStates.length; i++)
+        {
+            macroInputStates[i] = (OperationState)this.macroStates[i];
+        }
+
+        this.inputTable = new InputDispatchTable(shiftDescriptions, analogStates, digitalStates, macroInputStates);
+
+        // compute which macros conflict with each other, including the autonomous routine (which cancels every operation)
+        AnalogOperation[][] macroAnalogOperations = new AnalogOperation[this.allMacroOperations.length][];
+        DigitalOperation[][] macroDigitalOperations = new DigitalOperation[this.allMacroOperations.length][];
+        for (MacroOperationDescription description : macroSchema)
+        {
+            int ordinal = description.getOperation().ordinal();
+            macroAnalogOperations[ordinal] = description.getMacroCancelAnalogOperations();
+            macroDigitalOperations[ordinal] = description.getMacroCancelDigitalOperations();
+        }
+
+        macroAnalogOperations[MacroOperation.AutonomousRoutine.ordinal()] = this.allAnalogOperations;
+        macroDigitalOperations[MacroOperation.AutonomousRoutine.ordinal()] = this.allDigitalOperations;
+        this.macroConflicts = new MacroConflictGraph(macroAnalogOperations, macroDigitalOperations);
+
+        int macroCount = this.allMacroOperations.length;
+        this.previouslyActiveMacroOperations = new BitSet(macroCount);
+        this.activeMacroOperations = new BitSet(macroCount);
+        this.macroOperationsToCancel = new BitSet(macroCount);
+        this.modifiedAnalogOperations = new BitSet(this.allAnalogOperations.length);
+        this.modifiedDigitalOperations = new BitSet(this.allDigitalOperations.length);
+
+        this.loggedActiveMacroOperations = new BitSet(macroCount);
+        this.loggedActiveShiftMask = 0;
+        this.activeMacrosString = "";
+        this.activeShiftsString = this.getShiftsString(this.loggedActiveShiftMask);
+
+        StartupProfiler.Phase phase = StartupProfiler.phase("ButtonMapVerifier.Verify");
+        try
+        {
+            ButtonMapVerifier.Verify(buttonMap);
+        }
+        finally
+        {
+            phase.close();
+        }
 
         this.joysticks = new IJoystick[UserInputDevice.MaxCount.getId()];
+        this.joystickSnapshots = new JoystickSnapshot[UserInputDevice.MaxCount.getId()];
         for (UserInputDevice device : UserInputDevice.values())
         {
             if (device != UserInputDevice.None &&
@@ -134,11 +219,55 @@ public class Driver implements IDriver
             {
                 int id = device.getId();
                 this.joysticks[id] = provider.getJoystick(id);
+                if (this.joysticks[id] != null)
+                {
+                    this.joystickSnapshots[id] = this.inputTable.createSnapshot(id);
+                }
             }
         }
 
         this.currentMode = RobotMode.Disabled;
 
+        this.snapshots = new OperationSnapshot[2];
+        this.snapshots[0] = new OperationSnapshot(this.allAnalogOperations.length, this.allDigitalOperations.length);
+        this.snapshots[1] = new OperationSnapshot(this.allAnalogOperations.length, this.allDigitalOperations.length);
+        this.snapshotUpdateNumber = 0L;
+        this.publishSnapshot();
+
+        if (TuningConstants.INPUT_LATENCY_TRACING)
+        {
+            EnumSet<AnalogOperation> tracedAnalogOperations = EnumSet.noneOf(AnalogOperation.class);
+            for (AnalogOperationDescription description : analogOperationSchema)
+            {
+                if (description.getUserInputDevice() != UserInputDevice.None)
+                {
+                    tracedAnalogOperations.add(description.getOperation());
+                }
+            }
+
+            EnumSet<DigitalOperation> tracedDigitalOperations = EnumSet.noneOf(DigitalOperation.class);
+            for (DigitalOperationDescription description : digitalOperationSchema)
+            {
+                if (description.getUserInputDevice() != UserInputDevice.None)
+                {
+                    tracedDigitalOperations.add(description.getOperation());
+                }
+            }
+
+            this.inputLatencyTracer =
+                new InputLatencyTracer(
+                    tracedAnalogOperations,
+                    tracedDigitalOperations,
+                    TuningConstants.INPUT_LATENCY_WINDOW,
+                    TuningConstants.INPUT_LATENCY_MAX_UPDATES);
+        }
+        else
+        {
+            this.inputLatencyTracer = null;
+        }
+
+        this.inputLatencyUpdates = 0;
+
         // initialize the path manager and load all of the paths
         injector.getInstance(TrajectoryManager.class);
     }
@@ -160,106 +289,47 @@ public class Driver implements IDriver
     {
         this.logger.logString(LoggingKey.DriverMode, this.currentMode.toString());
 
-        // keep track of macros that were running before we checked user input...
-        EnumSet<MacroOperation> previouslyActiveMacroOperations = EnumSet.noneOf(MacroOperation.class);
-        for (MacroOperation macroOperation : this.macroStateMap.keySet())
+        // capture each joystick once, so that everything checked in this update sees the same state
+        long inputNanos = this.inputLatencyTracer != null ? System.nanoTime() : 0L;
+        for (int i = 0; i < this.joysticks.length; i++)
         {
-            IMacroOperationState macroState = this.macroStateMap.get(macroOperation);
-            if (macroState.getIsActive())
+            IJoystick joystick = this.joysticks[i];
+            if (joystick != null)
             {
-                previouslyActiveMacroOperations.add(macroOperation);
+                joystick.capture(this.joystickSnapshots[i]);
             }
         }
 
-        // check inputs and update shifts based on it...
-        EnumSet<Shift> activeShifts = EnumSet.noneOf(Shift.class);
-        for (Shift shift : this.shiftMap.keySet())
-        {
-            ShiftDescription shiftDescription = this.shiftMap.get(shift);
-            if (this.currentMode != RobotMode.Autonomous && shiftDescription.checkInput(this.joysticks))
-            {
-                activeShifts.add(shift);
-            }
-        }
-
-        // check user inputs for various analog operations and keep track of:
-        // operations that were interrupted already, and operations that were modified by user input in this update
-        EnumSet<AnalogOperation> modifiedAnalogOperations = EnumSet.noneOf(AnalogOperation.class);
-        EnumSet<AnalogOperation> interruptedAnalogOperations = EnumSet.noneOf(AnalogOperation.class);
-        for (AnalogOperation analogOperation : this.allAnalogOperations)
+        // keep track of macros that were running before we checked user input...
+        this.previouslyActiveMacroOperations.clear();
+        for (int i = 0; i < this.macroStates.length; i++)
         {
-            AnalogOperationState opState = this.analogOperationStateMap.get(analogOperation);
-            boolean receivedInput = this.currentMode != RobotMode.Autonomous && opState.checkInput(this.joysticks, activeShifts);
-            if (receivedInput)
-            {
-                modifiedAnalogOperations.add(analogOperation);
-            }
-
-            if (this.analogOperationStateMap.get(analogOperation).getIsInterrupted())
+            IMacroOperationState macroState = this.macroStates[i];
+            if (macroState != null && macroState.getIsActive())
             {
-                interruptedAnalogOperations.add(analogOperation);
+                this.previouslyActiveMacroOperations.set(i);
             }
         }
 
-        // check user inputs for various digital operations and keep track of:
-        // operations that were interrupted already, and operations that were modified by user input in this update
-        EnumSet<DigitalOperation> modifiedDigitalOperations = EnumSet.noneOf(DigitalOperation.class);
-        EnumSet<DigitalOperation> interruptedDigitalOperations = EnumSet.noneOf(DigitalOperation.class);
-        for (DigitalOperation digitalOperation : this.allDigitalOperations)
+        // check inputs and update shifts based on it, and then check user inputs for the various analog, digital and macro operations,
+        // keeping track of the analog and digital operations that were modified by user input in this update
+        int activeShiftMask = 0;
+        this.modifiedAnalogOperations.clear();
+        this.modifiedDigitalOperations.clear();
+        if (this.currentMode != RobotMode.Autonomous)
         {
-            DigitalOperationState opState = this.digitalOperationStateMap.get(digitalOperation);
-            boolean receivedInput = this.currentMode != RobotMode.Autonomous && opState.checkInput(this.joysticks, activeShifts);
-            if (receivedInput)
-            {
-                modifiedDigitalOperations.add(digitalOperation);
-            }
-
-            if (this.digitalOperationStateMap.get(digitalOperation).getIsInterrupted())
-            {
-                interruptedDigitalOperations.add(digitalOperation);
-            }
+            activeShiftMask = this.inputTable.checkShifts(this.joystickSnapshots);
+            this.inputTable.checkInputs(this.joystickSnapshots, activeShiftMask, this.modifiedAnalogOperations, this.modifiedDigitalOperations);
         }
 
-        // check user inputs for various macro operations
-        // also keep track of modified and active macro operations, and how macro operations and operations link together
-        EnumSet<MacroOperation> activeMacroOperations = EnumSet.noneOf(MacroOperation.class);
-        EnumMap<AnalogOperation, EnumSet<MacroOperation>> activeMacroAnalogOperationMap = new EnumMap<AnalogOperation, EnumSet<MacroOperation>>(AnalogOperation.class);
-        EnumMap<DigitalOperation, EnumSet<MacroOperation>> activeMacroDigitalOperationMap = new EnumMap<DigitalOperation, EnumSet<MacroOperation>>(DigitalOperation.class);
-        for (MacroOperation macroOperation : this.macroStateMap.keySet())
+        // keep track of active macro operations
+        this.activeMacroOperations.clear();
+        for (int i = 0; i < this.macroStates.length; i++)
         {
-            IMacroOperationState macroState = this.macroStateMap.get(macroOperation);
-            if (this.currentMode != RobotMode.Autonomous)
+            IMacroOperationState macroState = this.macroStates[i];
+            if (macroState != null && macroState.getIsActive())
             {
-                macroState.checkInput(this.joysticks, activeShifts);
-            }
-
-            if (macroState.getIsActive())
-            {
-                activeMacroOperations.add(macroOperation);
-
-                for (AnalogOperation affectedAnalogOperation : macroState.getMacroCancelAnalogOperations())
-                {
-                    EnumSet<MacroOperation> relevantMacroOperations = activeMacroAnalogOperationMap.get(affectedAnalogOperation);
-                    if (relevantMacroOperations == null)
-                    {
-                        relevantMacroOperations = EnumSet.noneOf(MacroOperation.class);
-                        activeMacroAnalogOperationMap.put(affectedAnalogOperation, relevantMacroOperations);
-                    }
-
-                    relevantMacroOperations.add(macroOperation);
-                }
-
-                for (DigitalOperation affectedDigitalOperation : macroState.getMacroCancelDigitalOperations())
-                {
-                    EnumSet<MacroOperation> relevantMacroOperations = activeMacroDigitalOperationMap.get(affectedDigitalOperation);
-                    if (relevantMacroOperations == null)
-                    {
-                        relevantMacroOperations = EnumSet.noneOf(MacroOperation.class);
-                        activeMacroDigitalOperationMap.put(affectedDigitalOperation, relevantMacroOperations);
-                    }
-
-                    relevantMacroOperations.add(macroOperation);
-                }
+                this.activeMacroOperations.set(i);
             }
         }
 
@@ -267,97 +337,71 @@ public class Driver implements IDriver
         // 1. have not been usurped by a user action
         // 2. have not been usurped by a new macro (i.e. that was started in this round)
         // 3. are new macros that do not overlap with other new macros
-        EnumSet<MacroOperation> macroOperationsToCancel = EnumSet.noneOf(MacroOperation.class);
+        // (using the conflicts between each pair of macros, computed when the Driver was created)
+        this.macroOperationsToCancel.clear();
+        this.macroConflicts.findMacrosToCancel(
+            this.activeMacroOperations,
+            this.previouslyActiveMacroOperations,
+            this.modifiedAnalogOperations,
+            this.modifiedDigitalOperations,
+            this.macroOperationsToCancel);
 
-        // first perform checks for analog operations:
-        for (AnalogOperation operation : activeMacroAnalogOperationMap.keySet())
+        // cancel macros that didn't follow the rules list above
+        for (int i = this.macroOperationsToCancel.nextSetBit(0); i >= 0; i = this.macroOperationsToCancel.nextSetBit(i + 1))
         {
-            EnumSet<MacroOperation> relevantMacroOperations = activeMacroAnalogOperationMap.get(operation);
-            if (modifiedAnalogOperations.contains(operation))
-            {
-                // disobeys rule #1:
-                // (macro usurped by user action)
-                macroOperationsToCancel.addAll(relevantMacroOperations);
-            }
-            else if (SetHelper.<MacroOperation>Count(relevantMacroOperations) > 1)
-            {
-                EnumSet<MacroOperation> newRelevantMacroOperations = SetHelper.<MacroOperation>RelativeComplement(previouslyActiveMacroOperations, relevantMacroOperations);
-                if (SetHelper.<MacroOperation>Count(newRelevantMacroOperations) > 1)
-                {
-                    // disobeys rule #3:
-                    // (there are 2 or more active macros that weren't previously active)
-                    macroOperationsToCancel.addAll(relevantMacroOperations);
-                }
-                else
-                {
-                    // some disobey rule #2 (remove only those that were previously active, and not the 1 that is newly active...)
-                    ExceptionHelpers.Assert(!newRelevantMacroOperations.isEmpty(), "how did we end up with conflicting relevant macros for %s when there are no new ones (among %s)?", operation, relevantMacroOperations);
-                    macroOperationsToCancel.addAll(SetHelper.<MacroOperation>RelativeComplement(newRelevantMacroOperations, relevantMacroOperations));
-                }
-            }
+            this.macroStates[i].setIsInterrupted(true);
+            this.activeMacroOperations.clear(i);
         }
 
-        // and then for digital operations:
-        for (DigitalOperation operation : activeMacroDigitalOperationMap.keySet())
+        // first, run all of the inactive macros (to clear any old interrupts)...
+        for (int i = 0; i < this.macroStates.length; i++)
         {
-            EnumSet<MacroOperation> relevantMacroOperations = activeMacroDigitalOperationMap.get(operation);
-            if (modifiedDigitalOperations.contains(operation))
-            {
-                // disobeys rule #1:
-                // (macro usurped by user action)
-                macroOperationsToCancel.addAll(relevantMacroOperations);
-            }
-            else if (SetHelper.<MacroOperation>Count(relevantMacroOperations) > 1)
+            if (this.macroStates[i] != null && !this.activeMacroOperations.get(i))
             {
-                EnumSet<MacroOperation> newRelevantMacroOperations = SetHelper.<MacroOperation>RelativeComplement(previouslyActiveMacroOperations, relevantMacroOperations);
-                if (SetHelper.<MacroOperation>Count(newRelevantMacroOperations) > 1)
-                {
-                    // disobeys rule #3:
-                    // (there are 2 or more active macros that weren't previously active)
-                    macroOperationsToCancel.addAll(relevantMacroOperations);
-                }
-                else
-                {
-                    // some disobey rule #2 (remove only those that were previously active, and not the 1 that is newly active...)
-                    ExceptionHelpers.Assert(!newRelevantMacroOperations.isEmpty(), "how did we end up with conflicting relevant macros for %s when there are no new ones (among %s)?", operation, relevantMacroOperations);
-                    macroOperationsToCancel.addAll(SetHelper.<MacroOperation>RelativeComplement(newRelevantMacroOperations, relevantMacroOperations));
-                }
+                this.macroStates[i].run();
             }
         }
 
-        // cancel macros that didn't follow the rules list above
-        for (MacroOperation macroOperationToCancel : macroOperationsToCancel)
+        // second, run all of the active macros (which could add interrupts that were cleared in the previous phase)...
+        for (int i = this.activeMacroOperations.nextSetBit(0); i >= 0; i = this.activeMacroOperations.nextSetBit(i + 1))
         {
-            this.macroStateMap.get(macroOperationToCancel).setIsInterrupted(true);
-            activeMacroOperations.remove(macroOperationToCancel);
+            this.macroStates[i].run();
         }
 
-        // first, run all of the inactive macros (to clear any old interrupts)...
-        EnumSet<MacroOperation> inactiveMacroOperations = SetHelper.<MacroOperation>RelativeComplement(activeMacroOperations, this.macroStateMap.keySet());
-        for (MacroOperation macroOperation : inactiveMacroOperations)
+        // only rebuild the strings for logging when the set of active macros/shifts has changed
+        if (!this.loggedActiveMacroOperations.equals(this.activeMacroOperations))
         {
-            this.macroStateMap.get(macroOperation).run();
-        }
+            this.loggedActiveMacroOperations.clear();
+            this.loggedActiveMacroOperations.or(this.activeMacroOperations);
 
-        // second, run all of the active macros (which could add interrupts that were cleared in the previous phase)...
-        // while we're doing that, grab the names of the macros for logging
-        String macroString = "";
-        int activeMacroCount = activeMacroOperations.size();
-        if (activeMacroCount > 0)
-        {
-            int i = 0;
-            String[] macroStrings = new String[activeMacroCount];
-            for (MacroOperation macroOperation : activeMacroOperations)
+            StringBuilder builder = new StringBuilder();
+            for (int i = this.activeMacroOperations.nextSetBit(0); i >= 0; i = this.activeMacroOperations.nextSetBit(i + 1))
             {
-                macroStrings[i++] = macroOperation.toString();
-                this.macroStateMap.get(macroOperation).run();
+                if (builder.length() > 0)
+                {
+                    builder.append(", ");
+                }
+
+                builder.append(this.allMacroOperations[i].toString());
             }
 
-            macroString = String.join(", ", macroStrings);
+            this.activeMacrosString = builder.toString();
         }
 
-        this.logger.logString(LoggingKey.DriverActiveMacros, macroString);
-        this.logger.logString(LoggingKey.DriverActiveShifts, activeShifts.toString());
+        if (this.loggedActiveShiftMask != activeShiftMask)
+        {
+            this.loggedActiveShiftMask = activeShiftMask;
+            this.activeShiftsString = this.getShiftsString(activeShiftMask);
+        }
+
+        this.logger.logString(LoggingKey.DriverActiveMacros, this.activeMacrosString);
+        this.logger.logString(LoggingKey.DriverActiveShifts, this.activeShiftsString);
+
+        this.publishSnapshot();
+        if (this.inputLatencyTracer != null)
+        {
+            this.traceInputLatency(inputNanos);
+        }
     }
 
     /**
@@ -368,10 +412,7 @@ public class Driver implements IDriver
     {
         this.currentMode = RobotMode.Disabled;
 
-        if (this.macroStateMap.containsKey(MacroOperation.AutonomousRoutine))
-        {
-            this.macroStateMap.remove(MacroOperation.AutonomousRoutine);
-        }
+        this.macroStates[MacroOperation.AutonomousRoutine.ordinal()] = null;
 
         // cancel all interruption of buttons:
         for (AnalogOperationState state : this.analogOperationStateMap.values())
@@ -386,10 +427,15 @@ public class Driver implements IDriver
         }
 
         // cancel all ongoing macros:
-        for (IMacroOperationState macroOperationState : this.macroStateMap.values())
+        for (IMacroOperationState macroOperationState : this.macroStates)
         {
-            macroOperationState.cancel();
+            if (macroOperationState != null)
+            {
+                macroOperationState.cancel();
+            }
         }
+
+        this.publishSnapshot();
     }
 
     /**
@@ -405,32 +451,50 @@ public class Driver implements IDriver
         if (this.autonomousTask != null)
         {
             this.autonomousTask.initialize(this.analogOperationStateMap, this.digitalOperationStateMap, injector);
-            this.macroStateMap.put(
-                MacroOperation.AutonomousRoutine,
-                new AutonomousOperationState(this.autonomousTask, this.analogOperationStateMap, this.digitalOperationStateMap));
+            this.macroStates[MacroOperation.AutonomousRoutine.ordinal()] =
+                new AutonomousOperationState(this.autonomousTask, this.analogOperationStateMap, this.digitalOperationStateMap);
         }
+
+        this.publishSnapshot();
     }
 
     /**
      * Get a boolean indicating whether the current digital operation is enabled
      * @param digitalOperation to get
-     * @return the current value of the digital operation
+     * @return the value of the digital operation as of the most recent update
      */
     public boolean getDigital(DigitalOperation digitalOperation)
     {
-        DigitalOperationState state = this.digitalOperationStateMap.get(digitalOperation);
-        return state.getState();
+        if (this.inputLatencyTracer != null)
+        {
+            this.inputLatencyTracer.read(digitalOperation);
+        }
+
+        return this.currentSnapshot.getDigital(digitalOperation);
     }
 
     /**
      * Get a double between -1.0 and 1.0 indicating the current value of the analog operation
      * @param analogOperation to get
-     * @return the current value of the analog operation
+     * @return the value of the analog operation as of the most recent update
      */
     public double getAnalog(AnalogOperation analogOperation)
     {
-        AnalogOperationState state = this.analogOperationStateMap.get(analogOperation);
-        return state.getState();
+        if (this.inputLatencyTracer != null)
+        {
+            this.inputLatencyTracer.read(analogOperation);
+        }
+
+        return this.currentSnapshot.getAnalog(analogOperation);
+    }
+
+    /**
+     * Get the snapshot of the values of all of the operations as of the most recent update
+     * @return the current operation snapshot
+     */
+    public OperationSnapshot getSnapshot()
+    {
+        return this.currentSnapshot;
     }
 
     /**
@@ -444,10 +508,94 @@ public class Driver implements IDriver
         IJoystick joystick = this.joysticks[device.getId()];
         if (joystick == null || !joystick.isConnected())
         {
-            ExceptionHelpers.Assert(TuningConstants.EXPECT_UNUSED_JOYSTICKS, "Unexpected user input device " + device.toString());
+            if (!TuningConstants.EXPECT_UNUSED_JOYSTICKS)
+            {
+                // only build the message when it will be reported, as this is checked every loop
+                ExceptionHelpers.Assert(false, "Unexpected user input device " + device.toString());
+            }
             return;
         }
 
         joystick.setRumble(type, value);
     }
+
+    /**
+     * Stamp the operations whose values were changed by user input in this update with the time that the joysticks were captured
+     * (operations changed by macros are interrupted), and periodically log the latencies from user input to the actuators
+     * @param inputNanos the time at which the joysticks were captured
+     */
+    private void traceInputLatency(long inputNanos)
+    {
+        this.inputLatencyTracer.startUpdate();
+        if (this.currentMode != RobotMode.Autonomous)
+        {
+            OperationSnapshot previousSnapshot = this.snapshots[(int)((this.snapshotUpdateNumber + 1L) & 1L)];
+            OperationSnapshot snapshot = this.currentSnapshot;
+            for (AnalogOperation operation : this.allAnalogOperations)
+            {
+                if (snapshot.getAnalog(operation) != previousSnapshot.getAnalog(operation) &&
+                    !this.analogOperationStateMap.get(operation).getIsInterrupted())
+                {
+                    this.inputLatencyTracer.stamp(operation, inputNanos);
+                }
+            }
+
+            for (DigitalOperation operation : this.allDigitalOperations)
+            {
+                if (snapshot.getDigital(operation) != previousSnapshot.getDigital(operation) &&
+                    !this.digitalOperationStateMap.get(operation).getIsInterrupted())
+                {
+                    this.inputLatencyTracer.stamp(operation, inputNanos);
+                }
+            }
+        }
+
+        if (++this.inputLatencyUpdates >= TuningConstants.INPUT_LATENCY_REPORT_FREQUENCY)
+        {
+            this.inputLatencyUpdates = 0;
+            this.logger.logString(LoggingKey.DriverInputLatencies, this.inputLatencyTracer.getReport());
+        }
+    }
+
+    /**
+     * Build the string describing a set of shifts (formatted like the set of shifts would be)
+     * @param shiftMask of the shifts
+     * @return the string
+     */
+    private String getShiftsString(int shiftMask)
+    {
+        StringBuilder builder = new StringBuilder("[");
+        for (Shift shift : this.allShifts)
+        {
+            if ((shiftMask & (1 << shift.ordinal())) != 0)
+            {
+                if (builder.length() > 1)
+                {
+                    builder.append(", ");
+                }
+
+                builder.append(shift.toString());
+            }
+        }
+
+        return builder.append("]").toString();
+    }
+
+    /**
+     * Capture the current state of all of the operations into the back snapshot buffer, and then publish it as the current snapshot
+     * so that mechanisms (potentially running on other threads) read consistent values for the rest of the loop.
+     */
+    private void publishSnapshot()
+    {
+        this.snapshotUpdateNumber++;
+        OperationSnapshot snapshot = this.snapshots[(int)(this.snapshotUpdateNumber & 1L)];
+        snapshot.capture(
+            this.allAnalogOperations,
+            this.analogOperationStateMap,
+            this.allDigitalOperations,
+            this.digitalOperationStateMap,
+            this.snapshotUpdateNumber);
+
+        this.currentSnapshot = snapshot;
+    }
 }
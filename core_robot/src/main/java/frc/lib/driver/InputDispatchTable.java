@@ -0,0 +1,453 @@
+package frc.lib.driver;
+
+import java.util.BitSet;
+import java.util.EnumSet;
+
+import frc.lib.driver.descriptions.*;
+import frc.lib.driver.states.*;
+import frc.lib.helpers.ExceptionHelpers;
+import frc.lib.robotprovider.IJoystickSnapshot;
+import frc.lib.robotprovider.JoystickSnapshot;
+import frc.robot.TuningConstants;
+import frc.robot.driver.Shift;
+
+/**
+ * The user inputs of the button map's shifts, operations and macros, compiled when the Driver is created into flat arrays of
+ * primitives (the joystick, shift masks, and button, POV value or axis numbers of each of them), so that each update checks all of
+ * the inputs with integer mask tests rather than going through the descriptions.
+ *
+ * Shifts are represented as a bitmask of their ordinals.  An operation applies when exactly its required shifts are active among the
+ * shifts that are relevant to it, i.e. when (activeShiftMask & relevantShiftMask) == requiredShiftMask.
+ *
+ * The inputs are read from the joystick snapshots captured at the start of the update (see createSnapshot), which only hold the axes
+ * and buttons that the table reads from each joystick.
+ */
+public class InputDispatchTable
+{
+    // how the input is read from the joystick
+    private static final byte INPUT_NONE = 0;
+    private static final byte INPUT_BUTTON = 1;
+    private static final byte INPUT_POV = 2;
+    private static final byte INPUT_AXIS_RANGE = 3;
+    private static final byte INPUT_AXIS = 4;
+
+    // what the input updates
+    private static final byte KIND_ANALOG = 0;
+    private static final byte KIND_DIGITAL = 1;
+    private static final byte KIND_MACRO = 2;
+
+    private final int shiftCount;
+    private final int[] shiftBits;
+    private final int[] shiftDevices;
+    private final byte[] shiftInputTypes;
+    private final int[] shiftInputs;
+    private final double[] shiftRangeMins;
+    private final double[] shiftRangeMaxes;
+
+    private final int count;
+    private final byte[] kinds;
+    private final int[] ordinals;
+    private final OperationState[] states;
+    private final int[] devices;
+    private final int[] relevantShiftMasks;
+    private final int[] requiredShiftMasks;
+    private final byte[] inputTypes;
+    private final int[] inputs; // the button number, POV value or axis
+    private final int[] secondaryAxes; // -1 if there isn't one
+    private final double[] rangeMins;
+    private final double[] rangeMaxes;
+
+    private final int[] deviceAxisCounts;
+    private final int[] deviceButtonCounts;
+
+    /**
+     * Initializes a new InputDispatchTable
+     * @param shiftDescriptions of the shifts, indexed by Shift ordinal (null if not in the schema)
+     * @param analogStates of the analog operations, indexed by AnalogOperation ordinal
+     * @param digitalStates of the digital operations, indexed by DigitalOperation ordinal
+     * @param macroStates of the macros, indexed by MacroOperation ordinal (null if not in the schema)
+     */
+    public InputDispatchTable(
+        ShiftDescription[] shiftDescriptions,
+        OperationState[] analogStates,
+        OperationState[] digitalStates,
+        OperationState[] macroStates)
+    {
+        ExceptionHelpers.Assert(shiftDescriptions.length <= Integer.SIZE, "Too many shifts for a shift mask: %d", shiftDescriptions.length);
+
+        this.deviceAxisCounts = new int[UserInputDevice.MaxCount.getId()];
+        this.deviceButtonCounts = new int[UserInputDevice.MaxCount.getId()];
+
+        int shiftCount = 0;
+        for (ShiftDescription description : shiftDescriptions)
+        {
+            if (description != null && description.getUserInputDevice() != UserInputDevice.None)
+            {
+                shiftCount++;
+            }
+        }
+
+        this.shiftCount = shiftCount;
+        this.shiftBits = new int[shiftCount];
+        this.shiftDevices = new int[shiftCount];
+        this.shiftInputTypes = new byte[shiftCount];
+        this.shiftInputs = new int[shiftCount];
+        this.shiftRangeMins = new double[shiftCount];
+        this.shiftRangeMaxes = new double[shiftCount];
+
+        int shift = 0;
+        for (ShiftDescription description : shiftDescriptions)
+        {
+            if (description != null && description.getUserInputDevice() != UserInputDevice.None)
+            {
+                this.shiftBits[shift] = 1 << description.getShift().ordinal();
+                this.shiftDevices[shift] = description.getUserInputDevice().getId();
+                this.shiftInputTypes[shift] =
+                    InputDispatchTable.getInputType(description.getUserInputDeviceButton(), description.getUserInputDeviceAxis());
+                this.shiftInputs[shift] =
+                    InputDispatchTable.getInput(
+                        description.getUserInputDeviceButton(),
+                        description.getUserInputDevicePovValue(),
+                        description.getUserInputDeviceAxis());
+                this.shiftRangeMins[shift] = description.getUserInputDeviceAxisRangeMin();
+                this.shiftRangeMaxes[shift] = description.getUserInputDeviceAxisRangeMax();
+                this.addDeviceInput(this.shiftDevices[shift], this.shiftInputTypes[shift], this.shiftInputs[shift]);
+                shift++;
+            }
+        }
+
+        int count = InputDispatchTable.countInputs(analogStates) + InputDispatchTable.countInputs(digitalStates) + InputDispatchTable.countInputs(macroStates);
+        this.count = count;
+        this.kinds = new byte[count];
+        this.ordinals = new int[count];
+        this.states = new OperationState[count];
+        this.devices = new int[count];
+        this.relevantShiftMasks = new int[count];
+        this.requiredShiftMasks = new int[count];
+        this.inputTypes = new byte[count];
+        this.inputs = new int[count];
+        this.secondaryAxes = new int[count];
+        this.rangeMins = new double[count];
+        this.rangeMaxes = new double[count];
+
+        int index = 0;
+        index = this.addInputs(index, InputDispatchTable.KIND_ANALOG, analogStates);
+        index = this.addInputs(index, InputDispatchTable.KIND_DIGITAL, digitalStates);
+        this.addInputs(index, InputDispatchTable.KIND_MACRO, macroStates);
+    }
+
+    /**
+     * Get the shift mask representing a set of shifts
+     * @param shifts to represent
+     * @return the shift mask, with the bit for each shift's ordinal set
+     */
+    public static int getShiftMask(EnumSet<Shift> shifts)
+    {
+        int mask = 0;
+        if (shifts != null)
+        {
+            for (Shift shift : shifts)
+            {
+                mask |= 1 << shift.ordinal();
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * Create a snapshot for capturing the axes and buttons that the table reads from a joystick
+     * @param device the UserInputDevice id of the joystick
+     * @return the snapshot to capture into at the start of each update
+     */
+    public JoystickSnapshot createSnapshot(int device)
+    {
+        return new JoystickSnapshot(this.deviceAxisCounts[device], this.deviceButtonCounts[device]);
+    }
+
+    /**
+     * Check which shifts are active based on the joysticks
+     * @param joysticks snapshots to check, indexed by UserInputDevice id
+     * @return the shift mask of the active shifts
+     */
+    public int checkShifts(IJoystickSnapshot[] joysticks)
+    {
+        int activeShiftMask = 0;
+        for (int i = 0; i < this.shiftCount; i++)
+        {
+            IJoystickSnapshot joystick = InputDispatchTable.getJoystick(joysticks, this.shiftDevices[i]);
+            if (joystick != null &&
+                InputDispatchTable.isPressed(
+                    joystick,
+                    this.shiftInputTypes[i],
+                    this.shiftInputs[i],
+                    this.shiftRangeMins[i],
+                    this.shiftRangeMaxes[i]))
+            {
+                activeShiftMask |= this.shiftBits[i];
+            }
+        }
+
+        return activeShiftMask;
+    }
+
+    /**
+     * Update the operations and macros based on the joysticks
+     * @param joysticks snapshots to check, indexed by UserInputDevice id
+     * @param activeShiftMask of the active shifts
+     * @param modifiedAnalogOperations to set the ordinals of the analog operations that were modified by user input in
+     * @param modifiedDigitalOperations to set the ordinals of the digital operations that were modified by user input in
+     */
+    public void checkInputs(IJoystickSnapshot[] joysticks, int activeShiftMask, BitSet modifiedAnalogOperations, BitSet modifiedDigitalOperations)
+    {
+        for (int i = 0; i < this.count; i++)
+        {
+            byte kind = this.kinds[i];
+            OperationState state = this.states[i];
+            if ((activeShiftMask & this.relevantShiftMasks[i]) != this.requiredShiftMasks[i])
+            {
+                state.clearInput();
+                continue;
+            }
+
+            IJoystickSnapshot joystick = InputDispatchTable.getJoystick(joysticks, this.devices[i]);
+            if (joystick == null)
+            {
+                if (kind == InputDispatchTable.KIND_ANALOG)
+                {
+                    state.clearInput();
+                }
+
+                continue;
+            }
+
+            byte inputType = this.inputTypes[i];
+            if (kind == InputDispatchTable.KIND_ANALOG)
+            {
+                if (inputType == InputDispatchTable.INPUT_NONE)
+                {
+                    continue;
+                }
+
+                AnalogOperationState analogState = (AnalogOperationState)state;
+                double value = joystick.getAxis(this.inputs[i]);
+                int secondaryAxis = this.secondaryAxes[i];
+                boolean modified =
+                    secondaryAxis >= 0 ?
+                        analogState.updateInput(value, joystick.getAxis(secondaryAxis)) :
+                        analogState.updateInput(value);
+
+                if (modified)
+                {
+                    modifiedAnalogOperations.set(this.ordinals[i]);
+                }
+            }
+            else
+            {
+                boolean pressed = InputDispatchTable.isPressed(joystick, inputType, this.inputs[i], this.rangeMins[i], this.rangeMaxes[i]);
+                if (kind == InputDispatchTable.KIND_DIGITAL)
+                {
+                    ((DigitalOperationState)state).updateInput(pressed);
+                    if (pressed)
+                    {
+                        modifiedDigitalOperations.set(this.ordinals[i]);
+                    }
+                }
+                else
+                {
+                    ((MacroOperationState)state).updateInput(pressed);
+                }
+            }
+        }
+    }
+
+    private int addInputs(int index, byte kind, OperationState[] states)
+    {
+        for (int ordinal = 0; ordinal < states.length; ordinal++)
+        {
+            OperationState state = states[ordinal];
+            if (!InputDispatchTable.hasInput(state))
+            {
+                continue;
+            }
+
+            OperationDescription<?> description = state.getDescription();
+            this.kinds[index] = kind;
+            this.ordinals[index] = ordinal;
+            this.states[index] = state;
+            this.devices[index] = description.getUserInputDevice().getId();
+            this.relevantShiftMasks[index] = InputDispatchTable.getShiftMask(description.getRelevantShifts());
+            this.requiredShiftMasks[index] = InputDispatchTable.getShiftMask(description.getRequiredShifts());
+            this.rangeMins[index] = description.getUserInputDeviceRangeMin();
+            this.rangeMaxes[index] = description.getUserInputDeviceRangeMax();
+            this.secondaryAxes[index] = -1;
+
+            if (description instanceof AnalogOperationDescription)
+            {
+                AnalogOperationDescription analogDescription = (AnalogOperationDescription)description;
+                AnalogAxis axis = analogDescription.getUserInputDeviceAxis();
+                AnalogAxis secondaryAxis = analogDescription.getUserInputDeviceSecondaryAxis();
+                boolean hasAxis = axis != null && axis != AnalogAxis.NONE;
+                this.inputTypes[index] = hasAxis ? InputDispatchTable.INPUT_AXIS : InputDispatchTable.INPUT_NONE;
+                this.inputs[index] = hasAxis ? axis.Value : -1;
+                if (secondaryAxis != null && secondaryAxis != AnalogAxis.NONE)
+                {
+                    this.secondaryAxes[index] = secondaryAxis.Value;
+                }
+            }
+            else if (description instanceof DigitalOperationDescription)
+            {
+                DigitalOperationDescription digitalDescription = (DigitalOperationDescription)description;
+                this.inputTypes[index] =
+                    InputDispatchTable.getInputType(digitalDescription.getUserInputDeviceButton(), digitalDescription.getUserInputDeviceAxis());
+                this.inputs[index] =
+                    InputDispatchTable.getInput(
+                        digitalDescription.getUserInputDeviceButton(),
+                        digitalDescription.getUserInputDevicePovValue(),
+                        digitalDescription.getUserInputDeviceAxis());
+            }
+            else if (description instanceof MacroOperationDescription)
+            {
+                MacroOperationDescription macroDescription = (MacroOperationDescription)description;
+                this.inputTypes[index] =
+                    InputDispatchTable.getInputType(macroDescription.getUserInputDeviceButton(), macroDescription.getUserInputDeviceAxis());
+                this.inputs[index] =
+                    InputDispatchTable.getInput(
+                        macroDescription.getUserInputDeviceButton(),
+                        macroDescription.getUserInputDevicePovValue(),
+                        macroDescription.getUserInputDeviceAxis());
+            }
+            else
+            {
+                ExceptionHelpers.Assert(false, "unknown type of description " + description.getClass().getName());
+                this.inputTypes[index] = InputDispatchTable.INPUT_NONE;
+            }
+
+            this.addDeviceInput(this.devices[index], this.inputTypes[index], this.inputs[index]);
+            if (this.secondaryAxes[index] >= 0)
+            {
+                this.addDeviceInput(this.devices[index], InputDispatchTable.INPUT_AXIS, this.secondaryAxes[index]);
+            }
+
+            index++;
+        }
+
+        return index;
+    }
+
+    private void addDeviceInput(int device, byte inputType, int input)
+    {
+        if (inputType == InputDispatchTable.INPUT_AXIS || inputType == InputDispatchTable.INPUT_AXIS_RANGE)
+        {
+            this.deviceAxisCounts[device] = Math.max(this.deviceAxisCounts[device], input + 1);
+        }
+        else if (inputType == InputDispatchTable.INPUT_BUTTON)
+        {
+            ExceptionHelpers.Assert(input <= JoystickSnapshot.MAX_BUTTONS, "Button %d can't be captured in a snapshot", input);
+            this.deviceButtonCounts[device] = Math.max(this.deviceButtonCounts[device], input);
+        }
+    }
+
+    private static IJoystickSnapshot getJoystick(IJoystickSnapshot[] joysticks, int device)
+    {
+        IJoystickSnapshot joystick = joysticks[device];
+        if (joystick == null || !joystick.isConnected())
+        {
+            if (!TuningConstants.EXPECT_UNUSED_JOYSTICKS)
+            {
+                // only build the message when it will be reported, as this is checked every loop
+                ExceptionHelpers.Assert(false, "Unexpected user input device " + InputDispatchTable.getDeviceName(device));
+            }
+
+            return null;
+        }
+
+        return joystick;
+    }
+
+    private static String getDeviceName(int device)
+    {
+        for (UserInputDevice userInputDevice : UserInputDevice.values())
+        {
+            if (userInputDevice.getId() == device)
+            {
+                return userInputDevice.toString();
+            }
+        }
+
+        return Integer.toString(device);
+    }
+
+    private static boolean isPressed(IJoystickSnapshot joystick, byte inputType, int input, double rangeMin, double rangeMax)
+    {
+        switch (inputType)
+        {
+            case InputDispatchTable.INPUT_BUTTON:
+                return joystick.getRawButton(input);
+
+            case InputDispatchTable.INPUT_POV:
+                return joystick.getPOV() == input;
+
+            case InputDispatchTable.INPUT_AXIS_RANGE:
+                double value = joystick.getAxis(input);
+                return value >= rangeMin && value <= rangeMax;
+
+            default:
+                return false;
+        }
+    }
+
+    private static boolean hasInput(OperationState state)
+    {
+        return state != null && state.getDescription() != null && state.getDescription().getUserInputDevice() != UserInputDevice.None;
+    }
+
+    private static int countInputs(OperationState[] states)
+    {
+        int count = 0;
+        for (OperationState state : states)
+        {
+            if (InputDispatchTable.hasInput(state))
+            {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private static byte getInputType(UserInputDeviceButton button, AnalogAxis axis)
+    {
+        if (button == null || button == UserInputDeviceButton.NONE)
+        {
+            return InputDispatchTable.INPUT_NONE;
+        }
+
+        if (button == UserInputDeviceButton.POV)
+        {
+            return InputDispatchTable.INPUT_POV;
+        }
+
+        if (button == UserInputDeviceButton.ANALOG_AXIS_RANGE)
+        {
+            return axis != null && axis != AnalogAxis.NONE ? InputDispatchTable.INPUT_AXIS_RANGE : InputDispatchTable.INPUT_NONE;
+        }
+
+        return InputDispatchTable.INPUT_BUTTON;
+    }
+
+    private static int getInput(UserInputDeviceButton button, int povValue, AnalogAxis axis)
+    {
+        if (button == UserInputDeviceButton.POV)
+        {
+            return povValue;
+        }
+
+        if (button == UserInputDeviceButton.ANALOG_AXIS_RANGE)
+        {
+            return axis != null ? axis.Value : -1;
+        }
+
+        return button != null ? button.Value : -1;
+    }
+}
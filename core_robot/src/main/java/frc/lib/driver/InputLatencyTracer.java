@@ -0,0 +1,319 @@
+package frc.lib.driver;
+
+import java.util.BitSet;
+import java.util.EnumSet;
+
+import frc.lib.helpers.LatencyHistogram;
+import frc.robot.driver.AnalogOperation;
+import frc.robot.driver.DigitalOperation;
+
+/**
+ * Traces the latency from user input to the actuators, keeping a latency histogram for each operation (see
+ * TuningConstants.INPUT_LATENCY_TRACING, as callers only call into the tracer when it is set).
+ *
+ * When user input changes an operation's value, the Driver stamps the operation with the time that the joysticks were captured.
+ * When a mechanism reads a stamped operation through the Driver during its update, the stamp is carried along with that update
+ * (the MechanismManager calls startMechanism and endMechanism around each one).  When that mechanism then sets an actuator, the
+ * actuator's wrapper calls actuated, which records the latency of each operation being carried and clears its stamp.
+ *
+ * A stamp stays on its operation until it reaches an actuator, so a mechanism that only acts on an input in a later update shows up
+ * as added latency.  Stamps that haven't reached an actuator within TuningConstants.INPUT_LATENCY_MAX_UPDATES updates are dropped.
+ * Stamping, reading and recording share the tracer's lock, as mechanisms may be updated on other threads.
+ */
+public class InputLatencyTracer
+{
+    private static final ThreadLocal<MechanismContext> CONTEXT = ThreadLocal.withInitial(MechanismContext::new);
+
+    private final AnalogOperation[] allAnalogOperations;
+    private final DigitalOperation[] allDigitalOperations;
+    private final int maxPendingUpdates;
+
+    private final LatencyHistogram[] analogLatencies; // indexed by AnalogOperation ordinal, null if not traced
+    private final LatencyHistogram[] digitalLatencies; // indexed by DigitalOperation ordinal, null if not traced
+    private final boolean[] analogPending;
+    private final boolean[] digitalPending;
+    private final long[] analogStamps;
+    private final long[] digitalStamps;
+    private final long[] analogStampUpdates;
+    private final long[] digitalStampUpdates;
+
+    private long updateNumber;
+    private long droppedCount;
+
+    /**
+     * Initializes a new InputLatencyTracer
+     * @param analogOperations the analog operations to trace (those with user input)
+     * @param digitalOperations the digital operations to trace (those with user input)
+     * @param windowSize the number of most-recent latencies to keep for each operation
+     * @param maxPendingUpdates the number of updates after which a stamp that hasn't reached an actuator is dropped
+     */
+    public InputLatencyTracer(
+        EnumSet<AnalogOperation> analogOperations,
+        EnumSet<DigitalOperation> digitalOperations,
+        int windowSize,
+        int maxPendingUpdates)
+    {
+        this.allAnalogOperations = AnalogOperation.values();
+        this.allDigitalOperations = DigitalOperation.values();
+        this.maxPendingUpdates = maxPendingUpdates;
+
+        this.analogLatencies = new LatencyHistogram[this.allAnalogOperations.length];
+        for (AnalogOperation operation : analogOperations)
+        {
+            this.analogLatencies[operation.ordinal()] = new LatencyHistogram(windowSize);
+        }
+
+        this.digitalLatencies = new LatencyHistogram[this.allDigitalOperations.length];
+        for (DigitalOperation operation : digitalOperations)
+        {
+            this.digitalLatencies[operation.ordinal()] = new LatencyHistogram(windowSize);
+        }
+
+        this.analogPending = new boolean[this.allAnalogOperations.length];
+        this.digitalPending = new boolean[this.allDigitalOperations.length];
+        this.analogStamps = new long[this.allAnalogOperations.length];
+        this.digitalStamps = new long[this.allDigitalOperations.length];
+        this.analogStampUpdates = new long[this.allAnalogOperations.length];
+        this.digitalStampUpdates = new long[this.allDigitalOperations.length];
+
+        this.updateNumber = 0L;
+        this.droppedCount = 0L;
+    }
+
+    /**
+     * Start tracing a Driver update, dropping the stamps that have been pending for too long
+     */
+    public synchronized void startUpdate()
+    {
+        this.updateNumber++;
+        long oldestUpdate = this.updateNumber - this.maxPendingUpdates;
+        for (int i = 0; i < this.analogPending.length; i++)
+        {
+            if (this.analogPending[i] && this.analogStampUpdates[i] < oldestUpdate)
+            {
+                this.analogPending[i] = false;
+                this.droppedCount++;
+            }
+        }
+
+        for (int i = 0; i < this.digitalPending.length; i++)
+        {
+            if (this.digitalPending[i] && this.digitalStampUpdates[i] < oldestUpdate)
+            {
+                this.digitalPending[i] = false;
+                this.droppedCount++;
+            }
+        }
+    }
+
+    /**
+     * Stamp an analog operation whose value was changed by user input (keeping the earlier stamp if one is still pending)
+     * @param operation that changed
+     * @param inputNanos the time (from System.nanoTime) at which the user input was read
+     */
+    public synchronized void stamp(AnalogOperation operation, long inputNanos)
+    {
+        int ordinal = operation.ordinal();
+        if (this.analogLatencies[ordinal] != null && !this.analogPending[ordinal])
+        {
+            this.analogStamps[ordinal] = inputNanos;
+            this.analogStampUpdates[ordinal] = this.updateNumber;
+            this.analogPending[ordinal] = true;
+        }
+    }
+
+    /**
+     * Stamp a digital operation whose value was changed by user input (keeping the earlier stamp if one is still pending)
+     * @param operation that changed
+     * @param inputNanos the time (from System.nanoTime) at which the user input was read
+     */
+    public synchronized void stamp(DigitalOperation operation, long inputNanos)
+    {
+        int ordinal = operation.ordinal();
+        if (this.digitalLatencies[ordinal] != null && !this.digitalPending[ordinal])
+        {
+            this.digitalStamps[ordinal] = inputNanos;
+            this.digitalStampUpdates[ordinal] = this.updateNumber;
+            this.digitalPending[ordinal] = true;
+        }
+    }
+
+    /**
+     * Note that an analog operation was read, carrying its stamp (if any) with the mechanism being updated on this thread (if any)
+     * @param operation that was read
+     */
+    public synchronized void read(AnalogOperation operation)
+    {
+        int ordinal = operation.ordinal();
+        if (this.analogPending[ordinal])
+        {
+            MechanismContext context = InputLatencyTracer.CONTEXT.get();
+            if (context.isUpdating)
+            {
+                context.tracer = this;
+                context.analogOperations.set(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Note that a digital operation was read, carrying its stamp (if any) with the mechanism being updated on this thread (if any)
+     * @param operation that was read
+     */
+    public synchronized void read(DigitalOperation operation)
+    {
+        int ordinal = operation.ordinal();
+        if (this.digitalPending[ordinal])
+        {
+            MechanismContext context = InputLatencyTracer.CONTEXT.get();
+            if (context.isUpdating)
+            {
+                context.tracer = this;
+                context.digitalOperations.set(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Start carrying stamps with a mechanism that is being updated on this thread
+     */
+    public static void startMechanism()
+    {
+        MechanismContext context = InputLatencyTracer.CONTEXT.get();
+        context.clear();
+        context.isUpdating = true;
+    }
+
+    /**
+     * Stop carrying stamps with the mechanism that was being updated on this thread
+     */
+    public static void endMechanism()
+    {
+        MechanismContext context = InputLatencyTracer.CONTEXT.get();
+        context.clear();
+        context.isUpdating = false;
+    }
+
+    /**
+     * Note that an actuator was set on this thread, recording the latency of each operation that the mechanism being updated carries
+     */
+    public static void actuated()
+    {
+        MechanismContext context = InputLatencyTracer.CONTEXT.get();
+        if (context.tracer != null)
+        {
+            context.tracer.complete(context, System.nanoTime());
+            context.clear();
+        }
+    }
+
+    /**
+     * Retrieve the latency histogram for an analog operation
+     * @param operation to retrieve the latencies for
+     * @return the latency histogram, or null if the operation isn't traced
+     */
+    public LatencyHistogram getLatencies(AnalogOperation operation)
+    {
+        return this.analogLatencies[operation.ordinal()];
+    }
+
+    /**
+     * Retrieve the latency histogram for a digital operation
+     * @param operation to retrieve the latencies for
+     * @return the latency histogram, or null if the operation isn't traced
+     */
+    public LatencyHistogram getLatencies(DigitalOperation operation)
+    {
+        return this.digitalLatencies[operation.ordinal()];
+    }
+
+    /**
+     * Retrieve the number of stamps that were dropped because they didn't reach an actuator in time
+     * @return the number of dropped stamps
+     */
+    public synchronized long getDroppedCount()
+    {
+        return this.droppedCount;
+    }
+
+    /**
+     * Generate a report of the p50/p95/max latencies (in milliseconds) of each operation that has reached an actuator, a la
+     * "DriveTrainMoveForward=21.30/40.12/41.07; DriveTrainSlowMode=20.95/20.98/21.02; dropped=3"
+     * @return the latency report
+     */
+    public synchronized String getReport()
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < this.analogLatencies.length; i++)
+        {
+            InputLatencyTracer.appendLatencies(builder, this.allAnalogOperations[i].toString(), this.analogLatencies[i]);
+        }
+
+        for (int i = 0; i < this.digitalLatencies.length; i++)
+        {
+            InputLatencyTracer.appendLatencies(builder, this.allDigitalOperations[i].toString(), this.digitalLatencies[i]);
+        }
+
+        builder.append("dropped=");
+        builder.append(this.droppedCount);
+        return builder.toString();
+    }
+
+    private synchronized void complete(MechanismContext context, long actuatedNanos)
+    {
+        BitSet analogOperations = context.analogOperations;
+        for (int i = analogOperations.nextSetBit(0); i >= 0; i = analogOperations.nextSetBit(i + 1))
+        {
+            if (this.analogPending[i])
+            {
+                this.analogLatencies[i].update(actuatedNanos - this.analogStamps[i]);
+                this.analogPending[i] = false;
+            }
+        }
+
+        BitSet digitalOperations = context.digitalOperations;
+        for (int i = digitalOperations.nextSetBit(0); i >= 0; i = digitalOperations.nextSetBit(i + 1))
+        {
+            if (this.digitalPending[i])
+            {
+                this.digitalLatencies[i].update(actuatedNanos - this.digitalStamps[i]);
+                this.digitalPending[i] = false;
+            }
+        }
+    }
+
+    private static void appendLatencies(StringBuilder builder, String name, LatencyHistogram latencies)
+    {
+        if (latencies == null || latencies.getCount() == 0)
+        {
+            return;
+        }
+
+        builder.append(
+            String.format(
+                "%1$s=%2$.2f/%3$.2f/%4$.2f; ",
+                name,
+                latencies.getPercentile(50.0),
+                latencies.getPercentile(95.0),
+                latencies.getMax()));
+    }
+
+    /**
+     * The stamped operations read by the mechanism being updated on a thread
+     */
+    private static class MechanismContext
+    {
+        private final BitSet analogOperations = new BitSet();
+        private final BitSet digitalOperations = new BitSet();
+
+        private boolean isUpdating;
+        private InputLatencyTracer tracer;
+
+        private void clear()
+        {
+            this.analogOperations.clear();
+            this.digitalOperations.clear();
+            this.tracer = null;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package frc.lib.driver;
+
+import java.util.BitSet;
+
+import frc.lib.helpers.ExceptionHelpers;
+import frc.robot.driver.AnalogOperation;
+import frc.robot.driver.DigitalOperation;
+
+/**
+ * Which macros conflict with each other (i.e. cancel at least one of the same operations), computed when the Driver is created into a
+ * bit-matrix indexed by MacroOperation ordinal, along with the operations that each macro cancels.  This allows the Driver to decide
+ * which active macros to cancel each update with a few bitset intersections per macro, rather than going through the macros affecting
+ * each operation.  Only keep macros that:
+ * 1. have not been usurped by a user action (i.e. none of the operations they cancel were modified by user input)
+ * 2. have not been usurped by a new macro (i.e. previously active macros that don't conflict with any other active macro)
+ * 3. are new macros that do not overlap with other new macros
+ */
+public class MacroConflictGraph
+{
+    private final BitSet[] analogOperations; // indexed by MacroOperation ordinal, the analog operations that the macro cancels
+    private final BitSet[] digitalOperations; // indexed by MacroOperation ordinal, the digital operations that the macro cancels
+    private final BitSet[] conflicts; // indexed by MacroOperation ordinal, the other macros that cancel some of the same operations
+
+    private final BitSet newMacroOperations;
+
+    /**
+     * Initializes a new MacroConflictGraph
+     * @param macroAnalogOperations the analog operations that each macro cancels, indexed by MacroOperation ordinal (null if none)
+     * @param macroDigitalOperations the digital operations that each macro cancels, indexed by MacroOperation ordinal (null if none)
+     */
+    public MacroConflictGraph(AnalogOperation[][] macroAnalogOperations, DigitalOperation[][] macroDigitalOperations)
+    {
+        int macroCount = macroAnalogOperations.length;
+        ExceptionHelpers.Assert(macroDigitalOperations.length == macroCount, "Expected the same number of macros for analog and digital operations");
+
+        this.analogOperations = new BitSet[macroCount];
+        this.digitalOperations = new BitSet[macroCount];
+        for (int i = 0; i < macroCount; i++)
+        {
+            this.analogOperations[i] = new BitSet();
+            if (macroAnalogOperations[i] != null)
+            {
+                for (AnalogOperation operation : macroAnalogOperations[i])
+                {
+                    this.analogOperations[i].set(operation.ordinal());
+                }
+            }
+
+            this.digitalOperations[i] = new BitSet();
+            if (macroDigitalOperations[i] != null)
+            {
+                for (DigitalOperation operation : macroDigitalOperations[i])
+                {
+                    this.digitalOperations[i].set(operation.ordinal());
+                }
+            }
+        }
+
+        this.conflicts = new BitSet[macroCount];
+        for (int i = 0; i < macroCount; i++)
+        {
+            this.conflicts[i] = new BitSet(macroCount);
+            for (int j = 0; j < macroCount; j++)
+            {
+                if (i != j &&
+                    (this.analogOperations[i].intersects(this.analogOperations[j]) ||
+                        this.digitalOperations[i].intersects(this.digitalOperations[j])))
+                {
+                    this.conflicts[i].set(j);
+                }
+            }
+        }
+
+        this.newMacroOperations = new BitSet(macroCount);
+    }
+
+    /**
+     * Get whether two macros conflict (i.e. cancel at least one of the same operations)
+     * @param macro the MacroOperation ordinal of one macro
+     * @param otherMacro the MacroOperation ordinal of the other macro
+     * @return true if they conflict (a macro doesn't conflict with itself)
+     */
+    public boolean conflicts(int macro, int otherMacro)
+    {
+        return this.conflicts[macro].get(otherMacro);
+    }
+
+    /**
+     * Determine which of the active macros to cancel, based on the rules above
+     * @param activeMacroOperations the ordinals of the macros that are active in this update
+     * @param previouslyActiveMacroOperations the ordinals of the macros that were active before checking user input in this update
+     * @param modifiedAnalogOperations the ordinals of the analog operations that were modified by user input in this update
+     * @param modifiedDigitalOperations the ordinals of the digital operations that were modified by user input in this update
+     * @param macroOperationsToCancel to set the ordinals of the macros to cancel in
+     */
+    public void findMacrosToCancel(
+        BitSet activeMacroOperations,
+        BitSet previouslyActiveMacroOperations,
+        BitSet modifiedAnalogOperations,
+        BitSet modifiedDigitalOperations,
+        BitSet macroOperationsToCancel)
+    {
+        this.newMacroOperations.clear();
+        this.newMacroOperations.or(activeMacroOperations);
+        this.newMacroOperations.andNot(previouslyActiveMacroOperations);
+
+        for (int i = activeMacroOperations.nextSetBit(0); i >= 0; i = activeMacroOperations.nextSetBit(i + 1))
+        {
+            if (this.analogOperations[i].intersects(modifiedAnalogOperations) ||
+                this.digitalOperations[i].intersects(modifiedDigitalOperations))
+            {
+                // disobeys rule #1:
+                // (macro usurped by user action)
+                macroOperationsToCancel.set(i);
+            }
+            else if (this.newMacroOperations.get(i))
+            {
+                if (this.conflicts[i].intersects(this.newMacroOperations))
+                {
+                    // disobeys rule #3:
+                    // (there are 2 or more conflicting active macros that weren't previously active)
+                    macroOperationsToCancel.set(i);
+                }
+            }
+            else if (this.conflicts[i].intersects(activeMacroOperations))
+            {
+                // disobeys rule #2:
+                // (a previously active macro conflicts with a newly active one)
+                if (!this.conflicts[i].intersects(this.newMacroOperations))
+                {
+                    ExceptionHelpers.Assert(false, "how did we end up with conflicting macros for %d when there are no new ones (among %s)?", i, activeMacroOperations);
+                }
+
+                macroOperationsToCancel.set(i);
+            }
+        }
+    }
+}
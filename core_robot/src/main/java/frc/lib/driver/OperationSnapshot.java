@@ -0,0 +1,102 @@
+package frc.lib.driver;
+
+import java.util.EnumMap;
+
+import frc.lib.driver.states.AnalogOperationState;
+import frc.lib.driver.states.DigitalOperationState;
+import frc.robot.driver.AnalogOperation;
+import frc.robot.driver.DigitalOperation;
+
+/**
+ * A snapshot of the values of all of the analog and digital operations as of the end of a Driver update, stored as primitives
+ * indexed by the operation's ordinal.
+ *
+ * The Driver double-buffers its snapshots, so once published a snapshot is not modified until the Driver has published another one
+ * after it.  This means that mechanisms can safely read from the current snapshot from multiple threads within the same loop.
+ */
+public class OperationSnapshot
+{
+    private final double[] analogValues;
+    private final long[] digitalValues;
+
+    private long updateNumber;
+
+    /**
+     * Initializes a new OperationSnapshot
+     * @param analogOperationCount the number of analog operations
+     * @param digitalOperationCount the number of digital operations
+     */
+    OperationSnapshot(int analogOperationCount, int digitalOperationCount)
+    {
+        this.analogValues = new double[analogOperationCount];
+        this.digitalValues = new long[(digitalOperationCount + 63) / 64];
+        this.updateNumber = 0L;
+    }
+
+    /**
+     * Get a boolean indicating whether the digital operation was enabled
+     * @param digitalOperation to get
+     * @return the value of the digital operation
+     */
+    public boolean getDigital(DigitalOperation digitalOperation)
+    {
+        int ordinal = digitalOperation.ordinal();
+        return (this.digitalValues[ordinal >>> 6] & (1L << ordinal)) != 0L;
+    }
+
+    /**
+     * Get a double between -1.0 and 1.0 indicating the value of the analog operation
+     * @param analogOperation to get
+     * @return the value of the analog operation
+     */
+    public double getAnalog(AnalogOperation analogOperation)
+    {
+        return this.analogValues[analogOperation.ordinal()];
+    }
+
+    /**
+     * Get the number of the update that this snapshot was captured during, which increases with each snapshot that is published
+     * @return the update number
+     */
+    public long getUpdateNumber()
+    {
+        return this.updateNumber;
+    }
+
+    /**
+     * Capture the current values of all of the operations into this snapshot
+     * @param analogOperations all of the analog operations
+     * @param analogOperationStateMap the current state of each analog operation
+     * @param digitalOperations all of the digital operations
+     * @param digitalOperationStateMap the current state of each digital operation
+     * @param updateNumber the number of the current update
+     */
+    void capture(
+        AnalogOperation[] analogOperations,
+        EnumMap<AnalogOperation, AnalogOperationState> analogOperationStateMap,
+        DigitalOperation[] digitalOperations,
+        EnumMap<DigitalOperation, DigitalOperationState> digitalOperationStateMap,
+        long updateNumber)
+    {
+        for (AnalogOperation analogOperation : analogOperations)
+        {
+            this.analogValues[analogOperation.ordinal()] = analogOperationStateMap.get(analogOperation).getState();
+        }
+
+        for (int i = 0; i < this.digitalValues.length; i++)
+        {
+            this.digitalValues[i] = 0L;
+        }
+
+        for (DigitalOperation digitalOperation : digitalOperations)
+        {
+            if (digitalOperationStateMap.get(digitalOperation).getState())
+            {
+                int ordinal = digitalOperation.ordinal();
+                this.digitalValues[ordinal >>> 6] |= (1L << ordinal);
+            }
+        }
+
+        this.updateNumber = updateNumber;
+    }
+}
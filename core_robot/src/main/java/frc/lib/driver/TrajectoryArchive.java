@@ -0,0 +1,396 @@
+package frc.lib.driver;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import frc.lib.robotprovider.ITrajectory;
+import frc.lib.robotprovider.TrajectoryState;
+
+/**
+ * Trajectories that were generated ahead of time (on a dev machine, before deploying) and sampled densely into a compact binary
+ * archive, so that the robot can memory-map them at boot rather than generating each of them again.
+ *
+ * The archive is stamped with a hash of the inputs that the trajectories were generated from (see hashInputs), so that an archive
+ * that doesn't match the code on the robot is ignored and the trajectories are generated live instead.
+ *
+ * Layout (big-endian):
+ *   header: "FRCT", version (int), input hash (long), trajectory count (int)
+ *   directory, for each trajectory: name length (short), UTF-8 name, duration (double), sample period (double), sample count (int),
+ *     offset of the samples from the start of the archive (int)
+ *   samples: xPosition, yPosition, angle, xVelocity, yVelocity, angleVelocity (floats) for each sample
+ */
+public class TrajectoryArchive
+{
+    private static final byte[] MAGIC = new byte[] { 'F', 'R', 'C', 'T' };
+    private static final int VERSION = 1;
+    private static final int FLOATS_PER_SAMPLE = 6;
+    private static final int BYTES_PER_SAMPLE = TrajectoryArchive.FLOATS_PER_SAMPLE * Float.BYTES;
+
+    private final HashMap<String, ITrajectory> trajectories;
+
+    private TrajectoryArchive(HashMap<String, ITrajectory> trajectories)
+    {
+        this.trajectories = trajectories;
+    }
+
+    /**
+     * Open an archive, if it exists and was generated from the expected inputs
+     * @param path of the archive
+     * @param inputHash the hash of the inputs that the robot's trajectories would be generated from
+     * @return the archive, or null if it is missing, stale or can't be read
+     */
+    public static TrajectoryArchive open(String path, long inputHash)
+    {
+        Path filePath = Paths.get(path);
+        if (!Files.isRegularFile(filePath))
+        {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ))
+        {
+            // (the mapping remains valid after the channel is closed)
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            return TrajectoryArchive.read(buffer, inputHash);
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            System.err.println("Couldn't read trajectory archive " + path + ": " + ex.toString());
+            return null;
+        }
+    }
+
+    private static TrajectoryArchive read(ByteBuffer buffer, long inputHash) throws IOException
+    {
+        for (byte expected : TrajectoryArchive.MAGIC)
+        {
+            if (buffer.get() != expected)
+            {
+                throw new IOException("Not a trajectory archive");
+            }
+        }
+
+        int version = buffer.getInt();
+        if (version != TrajectoryArchive.VERSION)
+        {
+            throw new IOException("Unsupported trajectory archive version " + version);
+        }
+
+        if (buffer.getLong() != inputHash)
+        {
+            System.out.println("Ignoring trajectory archive, as it was generated from different inputs");
+            return null;
+        }
+
+        int count = buffer.getInt();
+        HashMap<String, ITrajectory> trajectories = new HashMap<String, ITrajectory>(count * 2);
+        for (int i = 0; i < count; i++)
+        {
+            byte[] name = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(name);
+            double duration = buffer.getDouble();
+            double samplePeriod = buffer.getDouble();
+            int sampleCount = buffer.getInt();
+            int offset = buffer.getInt();
+            if (sampleCount < 0 || offset < 0 || (long)offset + (long)sampleCount * TrajectoryArchive.BYTES_PER_SAMPLE > buffer.limit())
+            {
+                throw new IOException("Corrupt trajectory archive: samples out of range");
+            }
+
+            trajectories.put(
+                new String(name, StandardCharsets.UTF_8),
+                new ArchivedTrajectory(buffer, offset, sampleCount, duration, samplePeriod));
+        }
+
+        return new TrajectoryArchive(trajectories);
+    }
+
+    /**
+     * Get a trajectory from the archive
+     * @param name of the trajectory
+     * @return the trajectory, or null if it isn't in the archive
+     */
+    public ITrajectory getTrajectory(String name)
+    {
+        return this.trajectories.get(name);
+    }
+
+    /**
+     * Get the number of trajectories in the archive
+     * @return the number of trajectories
+     */
+    public int size()
+    {
+        return this.trajectories.size();
+    }
+
+    /**
+     * Sample trajectories and write them into an archive
+     * @param path of the archive to write
+     * @param inputHash the hash of the inputs that the trajectories were generated from
+     * @param samplePeriod the time between samples, in seconds
+     * @param trajectories to write, by name
+     * @throws IOException if the archive can't be written
+     */
+    public static void write(String path, long inputHash, double samplePeriod, Map<String, ITrajectory> trajectories) throws IOException
+    {
+        try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path))))
+        {
+            TrajectoryArchive.write(stream, inputHash, samplePeriod, trajectories);
+        }
+    }
+
+    private static void write(DataOutputStream stream, long inputHash, double samplePeriod, Map<String, ITrajectory> trajectories) throws IOException
+    {
+        String[] names = trajectories.keySet().toArray(new String[trajectories.size()]);
+        Arrays.sort(names);
+
+        byte[][] encodedNames = new byte[names.length][];
+        double[] durations = new double[names.length];
+        int[] sampleCounts = new int[names.length];
+        int offset = TrajectoryArchive.MAGIC.length + Integer.BYTES + Long.BYTES + Integer.BYTES;
+        for (int i = 0; i < names.length; i++)
+        {
+            encodedNames[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            ITrajectory trajectory = trajectories.get(names[i]);
+            durations[i] = trajectory.getDuration();
+            sampleCounts[i] = trajectory.get(0.0) == null ? 0 : (int)Math.ceil(durations[i] / samplePeriod) + 1;
+            offset += Short.BYTES + encodedNames[i].length + Double.BYTES + Double.BYTES + Integer.BYTES + Integer.BYTES;
+        }
+
+        stream.write(TrajectoryArchive.MAGIC);
+        stream.writeInt(TrajectoryArchive.VERSION);
+        stream.writeLong(inputHash);
+        stream.writeInt(names.length);
+        for (int i = 0; i < names.length; i++)
+        {
+            stream.writeShort(encodedNames[i].length);
+            stream.write(encodedNames[i]);
+            stream.writeDouble(durations[i]);
+            stream.writeDouble(samplePeriod);
+            stream.writeInt(sampleCounts[i]);
+            stream.writeInt(offset);
+            offset += sampleCounts[i] * TrajectoryArchive.BYTES_PER_SAMPLE;
+        }
+
+        for (int i = 0; i < names.length; i++)
+        {
+            ITrajectory trajectory = trajectories.get(names[i]);
+            for (int sample = 0; sample < sampleCounts[i]; sample++)
+            {
+                TrajectoryState state = trajectory.get(Math.min(sample * samplePeriod, durations[i]));
+                stream.writeFloat((float)state.xPosition);
+                stream.writeFloat((float)state.yPosition);
+                stream.writeFloat((float)state.angle);
+                stream.writeFloat((float)state.xVelocity);
+                stream.writeFloat((float)state.yVelocity);
+                stream.writeFloat((float)state.angleVelocity);
+            }
+        }
+    }
+
+    /**
+     * Hash the inputs that trajectories are generated from: the values of the constants in the provided classes, and the compiled
+     * code of the provided classes (which covers the waypoints in the trajectory generators)
+     * @param constantClasses classes whose static final fields are inputs (such as TuningConstants)
+     * @param codeClasses classes whose code is an input (such as the trajectory generators)
+     * @return the hash of the inputs
+     */
+    public static long hashInputs(List<Class<?>> constantClasses, List<Class<?>> codeClasses)
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException ex)
+        {
+            throw new IllegalStateException(ex);
+        }
+
+        for (Class<?> constantClass : constantClasses)
+        {
+            Field[] fields = constantClass.getDeclaredFields();
+            Arrays.sort(fields, (first, second) -> first.getName().compareTo(second.getName()));
+
+            StringBuilder builder = new StringBuilder();
+            builder.append(constantClass.getName());
+            for (Field field : fields)
+            {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers) || field.isSynthetic())
+                {
+                    continue;
+                }
+
+                try
+                {
+                    field.setAccessible(true);
+                    builder.append(';');
+                    builder.append(field.getName());
+                    builder.append('=');
+                    TrajectoryArchive.appendValue(builder, field.get(null));
+                }
+                catch (IllegalAccessException | RuntimeException ex)
+                {
+                    builder.append('?');
+                }
+            }
+
+            digest.update(builder.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        for (Class<?> codeClass : codeClasses)
+        {
+            digest.update(codeClass.getName().getBytes(StandardCharsets.UTF_8));
+            String resourceName = codeClass.getName().substring(codeClass.getName().lastIndexOf('.') + 1) + ".class";
+            try (InputStream stream = codeClass.getResourceAsStream(resourceName))
+            {
+                if (stream != null)
+                {
+                    digest.update(stream.readAllBytes());
+                }
+            }
+            catch (IOException ex)
+            {
+                // the class name alone will have to do...
+            }
+        }
+
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    private static void appendValue(StringBuilder builder, Object value)
+    {
+        if (value != null && value.getClass().isArray())
+        {
+            builder.append('[');
+            int length = Array.getLength(value);
+            for (int i = 0; i < length; i++)
+            {
+                if (i > 0)
+                {
+                    builder.append(',');
+                }
+
+                TrajectoryArchive.appendValue(builder, Array.get(value, i));
+            }
+
+            builder.append(']');
+        }
+        else if (value instanceof Double || value instanceof Float)
+        {
+            // exactly, rather than rounded
+            builder.append(Double.doubleToLongBits(((Number)value).doubleValue()));
+        }
+        else
+        {
+            builder.append(value);
+        }
+    }
+
+    /**
+     * A trajectory backed by its samples in the archive, interpolating between them
+     */
+    private static class ArchivedTrajectory implements ITrajectory
+    {
+        private final ByteBuffer buffer;
+        private final int offset;
+        private final int sampleCount;
+        private final double duration;
+        private final double samplePeriod;
+
+        ArchivedTrajectory(ByteBuffer buffer, int offset, int sampleCount, double duration, double samplePeriod)
+        {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.sampleCount = sampleCount;
+            this.duration = duration;
+            this.samplePeriod = samplePeriod;
+        }
+
+        @Override
+        public double getDuration()
+        {
+            return this.duration;
+        }
+
+        @Override
+        public TrajectoryState get(double time)
+        {
+            if (this.sampleCount == 0)
+            {
+                return null;
+            }
+
+            if (time <= 0.0 || this.sampleCount == 1)
+            {
+                return this.getSample(0, 0, 0.0);
+            }
+
+            if (time >= this.duration)
+            {
+                return this.getSample(this.sampleCount - 1, this.sampleCount - 1, 0.0);
+            }
+
+            int index = Math.min((int)(time / this.samplePeriod), this.sampleCount - 2);
+            double startTime = index * this.samplePeriod;
+            double endTime = Math.min((index + 1) * this.samplePeriod, this.duration);
+            double ratio = endTime > startTime ? Math.min(Math.max((time - startTime) / (endTime - startTime), 0.0), 1.0) : 0.0;
+            return this.getSample(index, index + 1, ratio);
+        }
+
+        private TrajectoryState getSample(int firstIndex, int secondIndex, double ratio)
+        {
+            // absolute reads don't move the buffer's position, so the buffer can be shared between trajectories (and threads)
+            int first = this.offset + firstIndex * TrajectoryArchive.BYTES_PER_SAMPLE;
+            int second = this.offset + secondIndex * TrajectoryArchive.BYTES_PER_SAMPLE;
+
+            double firstAngle = this.buffer.getFloat(first + 2 * Float.BYTES);
+            double angleDelta = this.buffer.getFloat(second + 2 * Float.BYTES) - firstAngle;
+            if (angleDelta > 180.0)
+            {
+                angleDelta -= 360.0;
+            }
+            else if (angleDelta < -180.0)
+            {
+                angleDelta += 360.0;
+            }
+
+            return new TrajectoryState(
+                this.interpolate(first, second, 0, ratio),
+                this.interpolate(first, second, 1, ratio),
+                firstAngle + ratio * angleDelta,
+                this.interpolate(first, second, 3, ratio),
+                this.interpolate(first, second, 4, ratio),
+                this.interpolate(first, second, 5, ratio));
+        }
+
+        private double interpolate(int first, int second, int field, double ratio)
+        {
+            double firstValue = this.buffer.getFloat(first + field * Float.BYTES);
+            double secondValue = this.buffer.getFloat(second + field * Float.BYTES);
+            return firstValue + ratio * (secondValue - firstValue);
+        }
+    }
+}
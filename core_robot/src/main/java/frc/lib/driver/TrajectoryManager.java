@@ -1,20 +1,42 @@
 package frc.lib.driver;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Supplier;
 
 import com.acmerobotics.roadrunner.trajectory.TrajectoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 import frc.robot.TuningConstants;
-import frc.lib.helpers.ExceptionHelpers;
 import frc.lib.robotprovider.ITrajectory;
 
+/**
+ * Keeps track of the trajectories that the robot can follow, by name.
+ *
+ * Trajectories are built in the background on a fork-join pool (see TuningConstants.TRAJECTORY_BUILD_IN_BACKGROUND) so that building
+ * them doesn't hold up robotInit, and getTrajectory only waits for the one trajectory that it needs if it isn't ready yet.  When a
+ * precomputed TrajectoryArchive has been provided, trajectories found in it aren't generated at all.
+ */
 @Singleton
 public class TrajectoryManager
 {
-    private final HashMap<String, TrajectoryBuilder> trajectoryBuilderMap;
-    private final HashMap<String, ITrajectory> map;
+    private final ForkJoinPool pool; // null when building on the calling thread
+    private final ConcurrentHashMap<String, CompletableFuture<ITrajectory>> map;
+    private final HashMap<String, Supplier<ITrajectory>> pendingMap; // trajectories to build when they're first needed
+    private final ConcurrentHashMap<String, Long> buildTimes; // in nanoseconds
+
+    private TrajectoryArchive archive;
+    private int archivedCount;
 
     /**
      * Initializes a new TrajectoryManager
@@ -22,80 +44,293 @@ public class TrajectoryManager
     @Inject
     public TrajectoryManager()
     {
-        this.map = new HashMap<String, ITrajectory>();
-        this.trajectoryBuilderMap = new HashMap<String, TrajectoryBuilder>();
+        this(TuningConstants.TRAJECTORY_BUILD_IN_BACKGROUND ? TuningConstants.TRAJECTORY_BUILD_PARALLELISM : 0);
+    }
+
+    /**
+     * Initializes a new TrajectoryManager
+     * @param parallelism the number of threads to build trajectories on in the background, or 0 to build them on the calling thread
+     */
+    public TrajectoryManager(int parallelism)
+    {
+        this.map = new ConcurrentHashMap<String, CompletableFuture<ITrajectory>>();
+        this.pendingMap = new HashMap<String, Supplier<ITrajectory>>();
+        this.buildTimes = new ConcurrentHashMap<String, Long>();
+
+        if (parallelism > 0)
+        {
+            // the robot's main loop shouldn't have to compete with building trajectories
+            this.pool =
+                new ForkJoinPool(
+                    parallelism,
+                    pool ->
+                    {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                        thread.setName("TrajectoryBuilder-" + thread.getPoolIndex());
+                        thread.setDaemon(true);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    },
+                    null,
+                    false);
+        }
+        else
+        {
+            this.pool = null;
+        }
     }
 
+    /**
+     * Get a trajectory, waiting for it to be built if it isn't ready yet
+     * @param name of the trajectory
+     * @return the trajectory, or null if there isn't one with that name (or it couldn't be built)
+     */
     public ITrajectory getTrajectory(String name)
     {
-        ITrajectory trajectory = this.map.getOrDefault(name, null);
-        if (trajectory == null)
+        CompletableFuture<ITrajectory> future = this.map.get(name);
+        if (future == null)
         {
-            TrajectoryBuilder trajectoryBuilder = this.trajectoryBuilderMap.getOrDefault(name, null);
-            if (trajectoryBuilder != null)
+            System.out.println(
+                String.format(
+                    "couldn't find trajectory '%s' in '%s'",
+                    name,
+                    String.join(",", this.map.keySet())));
+
+            return null;
+        }
+
+        Supplier<ITrajectory> builder;
+        synchronized (this.pendingMap)
+        {
+            builder = this.pendingMap.remove(name);
+        }
+
+        if (builder != null)
+        {
+            try
             {
-                trajectory = new RoadRunnerTrajectoryWrapper(trajectoryBuilder.build());
-                this.map.put(name, trajectory);
-                this.trajectoryBuilderMap.remove(name);
+                future.complete(this.build(name, builder));
             }
-            else
+            catch (RuntimeException ex)
             {
-                if (this.map.containsKey(name))
-                {
-                    trajectory = this.map.get(name);
-                    System.out.println("HashMap.getOrDefault bug?");
-                }
-                else
-                {
-                    System.out.println(
-                        String.format(
-                            "couldn't find trajectory '%s' in '%s'",
-                            name,
-                            String.join(",", this.map.keySet())));
-                }
+                future.completeExceptionally(ex);
             }
         }
 
-        return trajectory;
+        try
+        {
+            return future.join();
+        }
+        catch (CompletionException | CancellationException ex)
+        {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            System.err.println("Encountered exception generating path " + name + ": " + cause.toString());
+            if (TuningConstants.THROW_EXCEPTIONS && cause instanceof RuntimeException)
+            {
+                throw (RuntimeException)cause;
+            }
+
+            return null;
+        }
     }
 
+    /**
+     * Add a RoadRunner trajectory to build (in the background, or else when it is first needed unless TRAJECTORY_FORCE_BUILD)
+     * @param name of the trajectory
+     * @param trajectoryBuilder to build the trajectory with
+     */
     public void addTrajectory(String name, TrajectoryBuilder trajectoryBuilder)
     {
         this.addTrajectory(name, trajectoryBuilder, TuningConstants.TRAJECTORY_FORCE_BUILD);
     }
 
+    /**
+     * Add a RoadRunner trajectory to build
+     * @param name of the trajectory
+     * @param trajectoryBuilder to build the trajectory with
+     * @param forceBuild whether to build the trajectory now (when not building in the background), rather than when it is first needed
+     */
     public void addTrajectory(String name, TrajectoryBuilder trajectoryBuilder, boolean forceBuild)
     {
-        if (forceBuild)
+        this.addTrajectory(name, () -> new RoadRunnerTrajectoryWrapper(trajectoryBuilder.build()), forceBuild);
+    }
+
+    /**
+     * Add a trajectory to build, such as a PathPlanner path
+     * @param name of the trajectory
+     * @param builder to build the trajectory with
+     * @param forceBuild whether to build the trajectory now (when not building in the background), rather than when it is first needed
+     */
+    public void addTrajectory(String name, Supplier<ITrajectory> builder, boolean forceBuild)
+    {
+        ITrajectory archivedTrajectory = this.archive != null ? this.archive.getTrajectory(name) : null;
+        if (archivedTrajectory != null)
         {
-            this.addTrajectory(name, new RoadRunnerTrajectoryWrapper(trajectoryBuilder.build()));
+            this.addTrajectory(name, archivedTrajectory);
+            this.archivedCount++;
+        }
+        else if (this.pool != null)
+        {
+            this.map.put(name, CompletableFuture.supplyAsync(() -> this.build(name, builder), this.pool));
+        }
+        else if (forceBuild)
+        {
+            this.map.put(name, CompletableFuture.completedFuture(this.build(name, builder)));
         }
         else
         {
-            this.trajectoryBuilderMap.put(name, trajectoryBuilder);
+            synchronized (this.pendingMap)
+            {
+                this.pendingMap.put(name, builder);
+            }
+
+            this.map.put(name, new CompletableFuture<ITrajectory>());
         }
     }
 
+    /**
+     * Add a trajectory that has already been built
+     * @param name of the trajectory
+     * @param builtTrajectory to add
+     */
     public void addTrajectory(String name, ITrajectory builtTrajectory)
     {
-        this.map.put(name, builtTrajectory);
+        synchronized (this.pendingMap)
+        {
+            this.pendingMap.remove(name);
+        }
+
+        this.map.put(name, CompletableFuture.completedFuture(builtTrajectory));
+    }
+
+    /**
+     * Use precomputed trajectories from an archive for the trajectories that are added after this, rather than generating them
+     * @param archive to use, or null to generate all trajectories
+     */
+    public void setArchive(TrajectoryArchive archive)
+    {
+        this.archive = archive;
+    }
+
+    /**
+     * Get all of the trajectories, building any that aren't built yet (such as to write them into a TrajectoryArchive)
+     * @return the trajectories that could be built, by name
+     */
+    public Map<String, ITrajectory> getAllTrajectories()
+    {
+        TreeMap<String, ITrajectory> trajectories = new TreeMap<String, ITrajectory>();
+        for (String name : new ArrayList<String>(this.map.keySet()))
+        {
+            ITrajectory trajectory = this.getTrajectory(name);
+            if (trajectory != null)
+            {
+                trajectories.put(name, trajectory);
+            }
+        }
+
+        return trajectories;
+    }
+
+    /**
+     * Build the next trajectory that is waiting to be built when it is first needed, so that it is ready ahead of time (e.g. as deferred
+     * work while the robot is disabled, see DeferredWorkScheduler)
+     * @return true if there are no more trajectories waiting to be built
+     */
+    public boolean buildNextPending()
+    {
+        String name;
+        synchronized (this.pendingMap)
+        {
+            if (this.pendingMap.isEmpty())
+            {
+                return true;
+            }
+
+            name = this.pendingMap.keySet().iterator().next();
+        }
+
+        this.getTrajectory(name);
+        synchronized (this.pendingMap)
+        {
+            return this.pendingMap.isEmpty();
+        }
     }
 
+    /**
+     * Build all of the trajectories, waiting for any that are being built in the background
+     */
     public void buildAll()
     {
-        for (String name : this.trajectoryBuilderMap.keySet())
+        for (String name : new ArrayList<String>(this.map.keySet()))
+        {
+            this.getTrajectory(name);
+        }
+    }
+
+    /**
+     * Print the build report once all of the trajectories that have been added so far are built
+     */
+    public void reportWhenBuilt()
+    {
+        CompletableFuture<?>[] futures;
+        synchronized (this.pendingMap)
+        {
+            futures =
+                this.map.entrySet().stream()
+                    .filter(entry -> !this.pendingMap.containsKey(entry.getKey()))
+                    .map(entry -> entry.getValue())
+                    .toArray(CompletableFuture<?>[]::new);
+        }
+
+        CompletableFuture.allOf(futures).whenComplete((result, ex) -> System.out.println(this.getBuildReport()));
+    }
+
+    /**
+     * Get a report of how long each trajectory took to build, slowest first
+     * @return the report
+     */
+    public String getBuildReport()
+    {
+        List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(this.buildTimes.entrySet());
+        entries.sort((first, second) -> Long.compare(second.getValue(), first.getValue()));
+
+        long totalTime = 0L;
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Long> entry : entries)
         {
-            TrajectoryBuilder trajectoryBuilder = this.trajectoryBuilderMap.getOrDefault(name, null);
-            if (trajectoryBuilder != null)
+            totalTime += entry.getValue();
+            builder.append(String.format("  %1$8.1f ms  %2$s%n", entry.getValue() / 1000000.0, entry.getKey()));
+        }
+
+        int failed = 0;
+        int waiting = 0;
+        for (CompletableFuture<ITrajectory> future : this.map.values())
+        {
+            if (future.isCompletedExceptionally())
             {
-                this.map.put(name, new RoadRunnerTrajectoryWrapper(trajectoryBuilder.build()));
+                failed++;
             }
-            else
+            else if (!future.isDone())
             {
-                ExceptionHelpers.Assert(false, "Unexpected null trajectory named " + name);
+                waiting++;
             }
         }
 
-        this.trajectoryBuilderMap.clear();
+        return String.format(
+            "Built %1$d trajectories in %2$.1f ms of build time (%3$d failed, %4$d not built yet, %5$d from the archive):%n%6$s",
+            entries.size(),
+            totalTime / 1000000.0,
+            failed,
+            waiting,
+            this.archivedCount,
+            builder.toString());
+    }
+
+    private ITrajectory build(String name, Supplier<ITrajectory> builder)
+    {
+        long startTime = System.nanoTime();
+        ITrajectory trajectory = builder.get();
+        this.buildTimes.put(name, System.nanoTime() - startTime);
+        return trajectory;
     }
-}
\ No newline at end of file
+}
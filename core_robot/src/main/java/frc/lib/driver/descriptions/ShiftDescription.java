@@ -4,7 +4,7 @@ import frc.robot.TuningConstants;
 import frc.lib.driver.AnalogAxis;
 import frc.lib.driver.UserInputDeviceButton;
 import frc.lib.helpers.ExceptionHelpers;
-import frc.lib.robotprovider.IJoystick;
+import frc.lib.robotprovider.IJoystickSnapshot;
 import frc.robot.driver.Shift;
 
 /**
@@ -98,10 +98,25 @@ public class ShiftDescription
         return this.userInputDevicePovValue;
     }
 
-    public boolean checkInput(IJoystick[] joysticks)
+    public AnalogAxis getUserInputDeviceAxis()
+    {
+        return this.userInputDeviceAxis;
+    }
+
+    public double getUserInputDeviceAxisRangeMin()
+    {
+        return this.userInputDeviceAxisRangeMin;
+    }
+
+    public double getUserInputDeviceAxisRangeMax()
+    {
+        return this.userInputDeviceAxisRangeMax;
+    }
+
+    public boolean checkInput(IJoystickSnapshot[] joysticks)
     {
         UserInputDevice userInputDevice = this.getUserInputDevice();
-        IJoystick relevantJoystick = null;
+        IJoystickSnapshot relevantJoystick = null;
         if (userInputDevice != UserInputDevice.None)
         {
             relevantJoystick = joysticks[userInputDevice.getId()];
@@ -109,7 +124,11 @@ public class ShiftDescription
 
         if (relevantJoystick == null || !relevantJoystick.isConnected())
         {
-            ExceptionHelpers.Assert(TuningConstants.EXPECT_UNUSED_JOYSTICKS, "Unexpected user input device " + userInputDevice.toString());
+            if (!TuningConstants.EXPECT_UNUSED_JOYSTICKS)
+            {
+                // only build the message when it will be reported, as this is checked every loop
+                ExceptionHelpers.Assert(false, "Unexpected user input device " + userInputDevice.toString());
+            }
             return false;
         }
 
@@ -1,17 +1,8 @@
 package frc.lib.driver.states;
 
-import frc.robot.TuningConstants;
-
-import java.util.EnumSet;
-
-import frc.lib.driver.AnalogAxis;
 import frc.lib.driver.descriptions.AnalogOperationDescription;
-import frc.lib.driver.descriptions.UserInputDevice;
 import frc.lib.helpers.ExceptionHelpers;
 import frc.lib.helpers.Helpers;
-import frc.lib.helpers.SetHelper;
-import frc.lib.robotprovider.IJoystick;
-import frc.robot.driver.Shift;
 
 /**
  * The state of the current analog operation.
@@ -58,87 +49,73 @@ public class AnalogOperationState extends OperationState
     }
 
     /**
-     * Checks whether the operation state should change based on the joysticks and active stifts. 
-     * @param joysticks to update from
-     * @param activeShifts to update from
-     * @return true if there was any active user input that triggered a state change
+     * Clear the user input for the operation, going back to its default value
      */
     @Override
-    public boolean checkInput(IJoystick[] joysticks, EnumSet<Shift> activeShifts)
+    public void clearInput()
     {
-        AnalogOperationDescription description = (AnalogOperationDescription)this.getDescription();
+        this.currentValue = ((AnalogOperationDescription)this.getDescription()).getDefaultValue();
+    }
 
-        UserInputDevice userInputDevice = description.getUserInputDevice();
-        if (userInputDevice == UserInputDevice.None)
-        {
-            return false;
-        }
+    /**
+     * Update the operation from the value of its axis on the joystick
+     * @param value of the axis
+     * @return true if there was any active user input that triggered a state change
+     */
+    public boolean updateInput(double value)
+    {
+        AnalogOperationDescription description = (AnalogOperationDescription)this.getDescription();
 
-        EnumSet<Shift> relevantShifts = description.getRelevantShifts();
-        EnumSet<Shift> requiredShifts = description.getRequiredShifts();
-        if (relevantShifts != null && requiredShifts != null)
+        double oldValue = this.currentValue;
+        double newValue = value;
+        if (description.getShouldInvert())
         {
-            EnumSet<Shift> relevantActiveShifts = SetHelper.Intersection(relevantShifts, activeShifts);
-            if (!relevantActiveShifts.equals(requiredShifts))
-            {
-                this.currentValue = description.getDefaultValue();
-                return false;
-            }
+            newValue *= -1.0;
         }
 
-        IJoystick relevantJoystick = joysticks[userInputDevice.getId()];
-        if (relevantJoystick == null || !relevantJoystick.isConnected())
-        {
-            ExceptionHelpers.Assert(TuningConstants.EXPECT_UNUSED_JOYSTICKS, "Unexpected user input device " + userInputDevice.toString());
-            this.currentValue = description.getDefaultValue();
-            return false;
-        }
+        this.currentValue = this.adjustForDeadZone(newValue, description.getDeadZoneMin(), description.getDeadZoneMax(), description.getDefaultValue(), description.getMultiplier(), description.getExp());
+        return this.currentValue != oldValue;
+    }
 
-        AnalogAxis relevantAxis = description.getUserInputDeviceAxis();
-        if (relevantAxis == null || relevantAxis == AnalogAxis.NONE)
-        {
-            return false;
-        }
+    /**
+     * Update the operation from the values of its axis and its secondary axis on the joystick
+     * @param value of the axis
+     * @param secondaryValue of the secondary axis
+     * @return true if there was any active user input that triggered a state change
+     */
+    public boolean updateInput(double value, double secondaryValue)
+    {
+        AnalogOperationDescription description = (AnalogOperationDescription)this.getDescription();
 
         double oldValue = this.currentValue;
-        double newValue = relevantJoystick.getAxis(relevantAxis.Value);
+        double newValue = value;
         if (description.getShouldInvert())
         {
             newValue *= -1.0;
         }
 
-        AnalogAxis secondaryAxis = description.getUserInputDeviceSecondaryAxis();
-        if (secondaryAxis != null && secondaryAxis != AnalogAxis.NONE)
+        double newSecondaryValue = secondaryValue;
+        if (description.getShouldInvertSecondary())
         {
-            double secondaryValue = relevantJoystick.getAxis(secondaryAxis.Value);
-            if (description.getShouldInvertSecondary())
-            {
-                secondaryValue *= -1.0;
-            }
-
-            // don't adjust for dead zone, simply check for having both within dead zone
-            if (this.withinDeadZone(newValue, secondaryValue, description.getDeadZoneMin(), description.getDeadZoneMax(), description.getUseSquaredMagnitudeForDeadZone()))
-            {
-                this.currentValue = description.getDefaultValue();
-                return false;
-            }
-
-            AnalogOperationDescription.ResultCalculator calculator = description.getResultCalculator();
-            if (calculator == null)
-            {
-                ExceptionHelpers.Assert(false, "No result calculator provided despite having secondary axis!");
-                this.currentValue = description.getDefaultValue();
-                return false;
-            }
+            newSecondaryValue *= -1.0;
+        }
 
-            newValue = calculator.calculate(newValue, secondaryValue);
+        // don't adjust for dead zone, simply check for having both within dead zone
+        if (this.withinDeadZone(newValue, newSecondaryValue, description.getDeadZoneMin(), description.getDeadZoneMax(), description.getUseSquaredMagnitudeForDeadZone()))
+        {
+            this.currentValue = description.getDefaultValue();
+            return false;
         }
-        else
+
+        AnalogOperationDescription.ResultCalculator calculator = description.getResultCalculator();
+        if (calculator == null)
         {
-            newValue = this.adjustForDeadZone(newValue, description.getDeadZoneMin(), description.getDeadZoneMax(), description.getDefaultValue(), description.getMultiplier(), description.getExp());
+            ExceptionHelpers.Assert(false, "No result calculator provided despite having secondary axis!");
+            this.currentValue = description.getDefaultValue();
+            return false;
         }
 
-        this.currentValue = newValue;
+        this.currentValue = calculator.calculate(newValue, newSecondaryValue);
         return this.currentValue != oldValue;
     }
 
@@ -1,14 +1,11 @@
 package frc.lib.driver.states;
 
 import java.util.EnumMap;
-import java.util.EnumSet;
 
 import frc.lib.driver.IControlTask;
 import frc.lib.driver.IOperation;
-import frc.lib.robotprovider.IJoystick;
 import frc.robot.driver.AnalogOperation;
 import frc.robot.driver.DigitalOperation;
-import frc.robot.driver.Shift;
 
 /**
  * The state of the current autonomous operation.
@@ -84,15 +81,11 @@ public class AutonomousOperationState extends OperationState implements IMacroOp
     }
 
     /**
-     * Checks whether the operation state should change based on the joysticks and active stifts. 
-     * @param joysticks to update from
-     * @param activeShifts to update from
-     * @return true if there was any active user input that triggered a state change
+     * Clear the user input for the operation (the autonomous routine doesn't have any)
      */
     @Override
-    public boolean checkInput(IJoystick[] joysticks, EnumSet<Shift> activeShifts)
+    public void clearInput()
     {
-        return false;
     }
 
     public AnalogOperation[] getMacroCancelAnalogOperations()
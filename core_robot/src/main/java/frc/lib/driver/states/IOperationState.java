@@ -1,10 +1,5 @@
 package frc.lib.driver.states;
 
-import java.util.EnumSet;
-
-import frc.lib.robotprovider.IJoystick;
-import frc.robot.driver.Shift;
-
 /**
  * The state of a current operation.
  *
@@ -22,12 +17,4 @@ public interface IOperationState
      * @return value of true indicates that we are interrupted
      */
     public boolean getIsInterrupted();
-
-    /**
-     * Checks whether the operation state should change based on the joysticks and active stifts. 
-     * @param joysticks to update from
-     * @param activeShifts to update from
-     * @return true if there was any active user input that triggered a state change
-     */
-    public boolean checkInput(IJoystick[] joysticks, EnumSet<Shift> activeShifts);
-}
\ No newline at end of file
+}
@@ -1,14 +1,9 @@
 package frc.lib.driver.states;
 
-import frc.lib.robotprovider.IJoystick;
-
-import java.util.EnumSet;
-
 import frc.lib.driver.descriptions.AnalogOperationDescription;
 import frc.lib.driver.descriptions.DigitalOperationDescription;
 import frc.lib.driver.descriptions.OperationDescription;
 import frc.lib.helpers.ExceptionHelpers;
-import frc.robot.driver.Shift;
 
 /**
  * The state of a current operation.
@@ -23,7 +18,11 @@ public abstract class OperationState implements IOperationState
         this.description = description;
     }
 
-    protected OperationDescription<?> getDescription()
+    /**
+     * Get the description of the operation
+     * @return the description
+     */
+    public OperationDescription<?> getDescription()
     {
         return this.description;
     }
@@ -41,12 +40,9 @@ public abstract class OperationState implements IOperationState
     public abstract boolean getIsInterrupted();
 
     /**
-     * Checks whether the operation state should change based on the joysticks and component sensors. 
-     * @param joysticks to update from
-     * @param activeShifts to update from
-     * @return true if there was any active user input that triggered a state change
+     * Clear the user input for the operation, as it isn't applicable right now (e.g. because of the active shifts)
      */
-    public abstract boolean checkInput(IJoystick[] joysticks, EnumSet<Shift> activeShifts);
+    public abstract void clearInput();
 
     /**
      * Create the state corresponding to the description
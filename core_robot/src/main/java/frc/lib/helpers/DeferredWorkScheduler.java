@@ -0,0 +1,285 @@
+package frc.lib.helpers;
+
+import java.util.ArrayDeque;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import frc.robot.TuningConstants;
+
+/**
+ * Runs work that has been deferred until the robot is disabled (such as building trajectories or precalculating paths), so that it
+ * doesn't compete with the robot while it is enabled.
+ *
+ * Work is done a step at a time (see IDeferredWork) in a slice of each disabled loop, round-robin between the scheduled work, stopping
+ * once the next step wouldn't fit within the slice's budget (judged by the longest step so far, with the first step of any work only
+ * run at the start of a slice).  Work with a step that takes longer than the whole budget is moved onto a
+ * low-priority background thread, as is work scheduled with scheduleInBackground, which only takes new steps while the robot is
+ * disabled (and a step that is running when the robot is enabled is interrupted, see IDeferredWork.interrupt).
+ */
+@Singleton
+public class DeferredWorkScheduler
+{
+    private static final double NANOSECONDS_PER_MILLISECOND = 1000000.0;
+
+    private final long budgetNanos;
+    private final ArrayDeque<WorkItem> slicedWork;
+    private final ArrayDeque<WorkItem> backgroundWork;
+
+    private Thread backgroundThread;
+    private WorkItem runningBackgroundItem;
+    private boolean disabled;
+    private int runningCount; // the number of work items taken off of the queues to run a step
+    private long longestSliceNanos;
+
+    /**
+     * Initializes a new DeferredWorkScheduler
+     */
+    @Inject
+    public DeferredWorkScheduler()
+    {
+        this((long)(TuningConstants.DEFERRED_WORK_BUDGET * 1000000000.0));
+    }
+
+    /**
+     * Initializes a new DeferredWorkScheduler
+     * @param budgetNanos the maximum time to spend on deferred work in each disabled loop, in nanoseconds
+     */
+    public DeferredWorkScheduler(long budgetNanos)
+    {
+        this.budgetNanos = budgetNanos;
+        this.slicedWork = new ArrayDeque<WorkItem>();
+        this.backgroundWork = new ArrayDeque<WorkItem>();
+
+        this.backgroundThread = null;
+        this.runningBackgroundItem = null;
+        this.disabled = false;
+        this.runningCount = 0;
+        this.longestSliceNanos = 0L;
+    }
+
+    /**
+     * Schedule work to run in slices of the disabled loops
+     * @param name of the work (for reporting)
+     * @param work to run
+     */
+    public synchronized void schedule(String name, IDeferredWork work)
+    {
+        this.slicedWork.add(new WorkItem(name, work));
+    }
+
+    /**
+     * Schedule work to run on the low-priority background thread while the robot is disabled
+     * @param name of the work (for reporting)
+     * @param work to run
+     */
+    public synchronized void scheduleInBackground(String name, IDeferredWork work)
+    {
+        this.addBackgroundWork(new WorkItem(name, work));
+    }
+
+    /**
+     * Set whether the robot is disabled, so that background work only takes new steps while it is
+     * @param disabled whether the robot is disabled
+     */
+    public synchronized void setDisabled(boolean disabled)
+    {
+        this.disabled = disabled;
+        if (!disabled && this.runningBackgroundItem != null)
+        {
+            this.runningBackgroundItem.work.interrupt();
+        }
+
+        this.notifyAll();
+    }
+
+    /**
+     * Run a slice of the deferred work, to be called from each disabled loop
+     * @return the number of steps run
+     */
+    public int runSlice()
+    {
+        long startTime = System.nanoTime();
+        long elapsed = 0L;
+        int steps = 0;
+        while (true)
+        {
+            WorkItem item;
+            synchronized (this)
+            {
+                item = this.slicedWork.poll();
+                if (item == null)
+                {
+                    break;
+                }
+
+                this.runningCount++;
+            }
+
+            if (elapsed + item.longestStepNanos > this.budgetNanos || (item.stepCount == 0 && steps > 0))
+            {
+                // the next step might not fit (or hasn't been timed yet), so leave it for the next loop
+                synchronized (this)
+                {
+                    this.slicedWork.addFirst(item);
+                    this.runningCount--;
+                }
+
+                break;
+            }
+
+            long stepStartTime = System.nanoTime();
+            boolean completed = DeferredWorkScheduler.runStep(item);
+            long stepTime = System.nanoTime() - stepStartTime;
+            item.longestStepNanos = Math.max(item.longestStepNanos, stepTime);
+            item.stepCount++;
+            steps++;
+
+            synchronized (this)
+            {
+                if (completed)
+                {
+                    if (!item.failed)
+                    {
+                        System.out.println(String.format("Completed deferred work '%1$s'", item.name));
+                    }
+                }
+                else if (item.longestStepNanos > this.budgetNanos)
+                {
+                    System.out.println(
+                        String.format(
+                            "Moving deferred work '%1$s' to the background, as a step took %2$.1f ms",
+                            item.name,
+                            item.longestStepNanos / DeferredWorkScheduler.NANOSECONDS_PER_MILLISECOND));
+
+                    this.addBackgroundWork(item);
+                }
+                else
+                {
+                    this.slicedWork.add(item);
+                }
+
+                this.runningCount--;
+            }
+
+            elapsed = System.nanoTime() - startTime;
+        }
+
+        this.longestSliceNanos = Math.max(this.longestSliceNanos, elapsed);
+        return steps;
+    }
+
+    /**
+     * Check whether all of the deferred work has completed
+     * @return true if there is no more work to do
+     */
+    public synchronized boolean isIdle()
+    {
+        return this.slicedWork.isEmpty() && this.backgroundWork.isEmpty() && this.runningCount == 0;
+    }
+
+    /**
+     * Get the longest time that runSlice has taken
+     * @return the longest slice, in milliseconds
+     */
+    public double getLongestSliceTime()
+    {
+        return this.longestSliceNanos / DeferredWorkScheduler.NANOSECONDS_PER_MILLISECOND;
+    }
+
+    private void addBackgroundWork(WorkItem item)
+    {
+        this.backgroundWork.add(item);
+        if (this.backgroundThread == null)
+        {
+            this.backgroundThread = new Thread(() -> this.backgroundLoop(), "DeferredWork");
+            this.backgroundThread.setDaemon(true);
+            this.backgroundThread.setPriority(Thread.MIN_PRIORITY);
+            this.backgroundThread.start();
+        }
+
+        this.notifyAll();
+    }
+
+    private void backgroundLoop()
+    {
+        while (true)
+        {
+            WorkItem item;
+            synchronized (this)
+            {
+                while (!this.disabled || this.backgroundWork.isEmpty())
+                {
+                    try
+                    {
+                        this.wait();
+                    }
+                    catch (InterruptedException ex)
+                    {
+                        return;
+                    }
+                }
+
+                item = this.backgroundWork.poll();
+                this.runningBackgroundItem = item;
+                this.runningCount++;
+            }
+
+            boolean completed = DeferredWorkScheduler.runStep(item);
+            synchronized (this)
+            {
+                this.runningBackgroundItem = null;
+                if (completed)
+                {
+                    if (!item.failed)
+                    {
+                        System.out.println(String.format("Completed deferred work '%1$s'", item.name));
+                    }
+                }
+                else
+                {
+                    this.backgroundWork.add(item);
+                }
+
+                this.runningCount--;
+            }
+        }
+    }
+
+    private static boolean runStep(WorkItem item)
+    {
+        try
+        {
+            return item.work.runStep();
+        }
+        catch (RuntimeException ex)
+        {
+            // drop the work, rather than failing every disabled loop from now on
+            item.failed = true;
+            System.err.println(String.format("Encountered exception running deferred work '%1$s': %2$s", item.name, ex.toString()));
+            return true;
+        }
+    }
+
+    /**
+     * Work that has been scheduled, and how long its steps have taken
+     */
+    private static class WorkItem
+    {
+        final String name;
+        final IDeferredWork work;
+
+        long longestStepNanos;
+        int stepCount;
+        boolean failed;
+
+        WorkItem(String name, IDeferredWork work)
+        {
+            this.name = name;
+            this.work = work;
+            this.longestStepNanos = 0L;
+            this.stepCount = 0;
+            this.failed = false;
+        }
+    }
+}
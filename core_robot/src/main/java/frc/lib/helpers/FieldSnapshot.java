@@ -0,0 +1,195 @@
+package frc.lib.helpers;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of the fields of some objects (and the static fields of their classes), to check that something didn't change them.
+ *
+ * The snapshot is shallow: values, strings, enums, primitive arrays and sets of bits/enums are recorded as they are, while any other
+ * object is only recorded by its identity, so replacing it is noticed but changing it isn't (unless it is also snapshotted).
+ */
+public class FieldSnapshot
+{
+    private final LinkedHashMap<String, String> values;
+
+    private FieldSnapshot(LinkedHashMap<String, String> values)
+    {
+        this.values = values;
+    }
+
+    /**
+     * Capture the current values of the fields of the objects
+     * @param objects to capture
+     * @return the snapshot
+     */
+    public static FieldSnapshot capture(Object... objects)
+    {
+        LinkedHashMap<String, String> values = new LinkedHashMap<String, String>();
+        HashSet<Class<?>> staticsCaptured = new HashSet<Class<?>>();
+        for (int i = 0; i < objects.length; i++)
+        {
+            Object object = objects[i];
+            if (object == null)
+            {
+                continue;
+            }
+
+            for (Class<?> type = object.getClass(); type != null && !type.getName().startsWith("java."); type = type.getSuperclass())
+            {
+                boolean captureStatics = staticsCaptured.add(type);
+                for (Field field : type.getDeclaredFields())
+                {
+                    int modifiers = field.getModifiers();
+                    boolean isStatic = Modifier.isStatic(modifiers);
+                    if (field.isSynthetic() ||
+                        (isStatic && (!captureStatics || Modifier.isFinal(modifiers))) ||
+                        !field.trySetAccessible())
+                    {
+                        continue;
+                    }
+
+                    String name = isStatic ?
+                        type.getSimpleName() + "." + field.getName() :
+                        "#" + i + " " + type.getSimpleName() + "." + field.getName();
+
+                    try
+                    {
+                        values.put(name, FieldSnapshot.describe(field.get(isStatic ? null : object)));
+                    }
+                    catch (IllegalAccessException ex)
+                    {
+                        // skip fields that can't be read
+                    }
+                }
+            }
+        }
+
+        return new FieldSnapshot(values);
+    }
+
+    /**
+     * Get the fields that are different in another snapshot of the same objects
+     * @param other snapshot to compare with
+     * @return a description of each field that differs (empty if none do)
+     */
+    public List<String> getDifferences(FieldSnapshot other)
+    {
+        List<String> differences = new ArrayList<String>();
+        for (Map.Entry<String, String> entry : this.values.entrySet())
+        {
+            String otherValue = other.values.get(entry.getKey());
+            if (!entry.getValue().equals(otherValue))
+            {
+                differences.add(entry.getKey() + ": " + entry.getValue() + " -> " + otherValue);
+            }
+        }
+
+        for (String name : other.values.keySet())
+        {
+            if (!this.values.containsKey(name))
+            {
+                differences.add(name + ": (missing) -> " + other.values.get(name));
+            }
+        }
+
+        return differences;
+    }
+
+    private static String describe(Object value)
+    {
+        if (value == null)
+        {
+            return "null";
+        }
+
+        if (value instanceof Number ||
+            value instanceof Boolean ||
+            value instanceof Character ||
+            value instanceof String ||
+            value instanceof Enum<?> ||
+            value instanceof BitSet ||
+            value instanceof EnumSet<?>)
+        {
+            return value.toString();
+        }
+
+        if (value instanceof boolean[])
+        {
+            return Arrays.toString((boolean[])value);
+        }
+
+        if (value instanceof int[])
+        {
+            return Arrays.toString((int[])value);
+        }
+
+        if (value instanceof long[])
+        {
+            return Arrays.toString((long[])value);
+        }
+
+        if (value instanceof double[])
+        {
+            return Arrays.toString((double[])value);
+        }
+
+        if (value instanceof float[])
+        {
+            return Arrays.toString((float[])value);
+        }
+
+        if (value instanceof byte[])
+        {
+            return Arrays.toString((byte[])value);
+        }
+
+        if (value instanceof Object[])
+        {
+            Object[] array = (Object[])value;
+            StringBuilder builder = new StringBuilder("[");
+            for (int i = 0; i < array.length; i++)
+            {
+                if (i > 0)
+                {
+                    builder.append(", ");
+                }
+
+                builder.append(FieldSnapshot.identify(array[i]));
+            }
+
+            return builder.append("]").toString();
+        }
+
+        if (value instanceof Collection<?>)
+        {
+            return FieldSnapshot.identify(value) + " size=" + ((Collection<?>)value).size();
+        }
+
+        if (value instanceof Map<?, ?>)
+        {
+            return FieldSnapshot.identify(value) + " size=" + ((Map<?, ?>)value).size();
+        }
+
+        return FieldSnapshot.identify(value);
+    }
+
+    private static String identify(Object value)
+    {
+        if (value == null)
+        {
+            return "null";
+        }
+
+        return value.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(value));
+    }
+}
@@ -114,15 +114,34 @@ public abstract class Graph<TGraphNode extends GraphNode>
     public void precalculateOptimalPaths()
     {
         System.out.println("Precalculating optimal paths through the graph");
+        while (!this.precalculateNextOptimalPaths())
+        {
+        }
+    }
+
+    /**
+     * Calculate the optimal paths from the next node that they haven't been calculated for yet, so that precalculating can be spread
+     * out over time (e.g. as deferred work while the robot is disabled, see DeferredWorkScheduler)
+     * @return true if the optimal paths have now been calculated from every node
+     */
+    public boolean precalculateNextOptimalPaths()
+    {
         for (int i = 0; i < this.nodeCount; i++)
         {
-            TGraphNode node = this.nodes.get(i);
-            ExceptionHelpers.Assert(node.ordinal == i, "Expect node ordinal %d to equal index %d", node.ordinal, i);
-            ArrayList<TGraphNode> optimalPredecessorNodes = this.dijkstra(node);
-            this.optimalPredecessorPathMap.set(i, optimalPredecessorNodes);
+            if (this.optimalPredecessorPathMap.get(i) == null)
+            {
+                TGraphNode node = this.nodes.get(i);
+                ExceptionHelpers.Assert(node.ordinal == i, "Expect node ordinal %d to equal index %d", node.ordinal, i);
+                this.optimalPredecessorPathMap.set(i, this.dijkstra(node));
+                if (i < this.nodeCount - 1)
+                {
+                    return false;
+                }
+            }
         }
 
         this.precalculated = true;
+        return true;
     }
 
     /**
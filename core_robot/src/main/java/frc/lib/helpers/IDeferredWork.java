@@ -0,0 +1,22 @@
+package frc.lib.helpers;
+
+/**
+ * Work that can be deferred until the robot is disabled, done a small step at a time (see DeferredWorkScheduler)
+ */
+@FunctionalInterface
+public interface IDeferredWork
+{
+    /**
+     * Do the next step of the work, which should take a small, bounded amount of time
+     * @return true if the work is complete, otherwise false
+     */
+    boolean runStep();
+
+    /**
+     * Ask a step that is running on the background thread to return (without completing the work) as soon as it can, as the robot has
+     * been enabled.  This is called from the robot's thread, so it should only set a flag that the step checks.
+     */
+    default void interrupt()
+    {
+    }
+}
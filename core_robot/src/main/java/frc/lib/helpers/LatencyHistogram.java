@@ -0,0 +1,127 @@
+package frc.lib.helpers;
+
+import java.util.Arrays;
+
+/**
+ * A rolling histogram of latency samples, which keeps the most recent samples so that percentiles (p50/p95/p99) and max can be queried.
+ * All buffers are allocated up-front so that recording a sample never allocates, which keeps it safe to use within the main loop.
+ */
+public class LatencyHistogram
+{
+    private static final double NANOSECONDS_PER_MILLISECOND = 1000000.0;
+
+    private final long[] samples;
+    private final long[] sortedSamples;
+
+    private int nextIndex;
+    private int count;
+    private boolean isSorted;
+
+    /**
+     * Initializes a new LatencyHistogram
+     * @param windowSize the number of most-recent samples to keep track of
+     */
+    public LatencyHistogram(int windowSize)
+    {
+        ExceptionHelpers.Assert(windowSize > 0, "Expect window size to be positive, not %d", windowSize);
+
+        this.samples = new long[windowSize];
+        this.sortedSamples = new long[windowSize];
+
+        this.reset();
+    }
+
+    /**
+     * Record a new latency sample, replacing the oldest sample if the window is full
+     * @param durationNanos the duration of the sample, in nanoseconds
+     */
+    public void update(long durationNanos)
+    {
+        this.samples[this.nextIndex] = durationNanos;
+        this.nextIndex = (this.nextIndex + 1) % this.samples.length;
+        if (this.count < this.samples.length)
+        {
+            this.count++;
+        }
+
+        this.isSorted = false;
+    }
+
+    /**
+     * Retrieve the number of samples currently within the window
+     * @return number of samples
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Retrieve the most recently recorded sample
+     * @return the most recent sample in milliseconds, or 0.0 if there are no samples
+     */
+    public double getLast()
+    {
+        if (this.count == 0)
+        {
+            return 0.0;
+        }
+
+        int lastIndex = (this.nextIndex + this.samples.length - 1) % this.samples.length;
+        return this.samples[lastIndex] / LatencyHistogram.NANOSECONDS_PER_MILLISECOND;
+    }
+
+    /**
+     * Retrieve the latency at the provided percentile of the samples within the window (nearest-rank)
+     * @param percentile between 0.0 and 100.0
+     * @return the latency in milliseconds, or 0.0 if there are no samples
+     */
+    public double getPercentile(double percentile)
+    {
+        if (this.count == 0)
+        {
+            return 0.0;
+        }
+
+        this.sort();
+
+        int rank = (int)Math.ceil((percentile / 100.0) * this.count);
+        int index = (int)Helpers.EnforceRange(rank - 1, 0, this.count - 1);
+        return this.sortedSamples[index] / LatencyHistogram.NANOSECONDS_PER_MILLISECOND;
+    }
+
+    /**
+     * Retrieve the maximum latency of the samples within the window
+     * @return the latency in milliseconds, or 0.0 if there are no samples
+     */
+    public double getMax()
+    {
+        if (this.count == 0)
+        {
+            return 0.0;
+        }
+
+        this.sort();
+        return this.sortedSamples[this.count - 1] / LatencyHistogram.NANOSECONDS_PER_MILLISECOND;
+    }
+
+    /**
+     * Clear all of the samples from the window
+     */
+    public void reset()
+    {
+        this.nextIndex = 0;
+        this.count = 0;
+        this.isSorted = true;
+    }
+
+    private void sort()
+    {
+        if (!this.isSorted)
+        {
+            System.arraycopy(this.samples, 0, this.sortedSamples, 0, this.count);
+            Arrays.sort(this.sortedSamples, 0, this.count);
+            this.isSorted = true;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package frc.lib.helpers;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import com.google.inject.Key;
+import com.google.inject.spi.ProvisionListener;
+
+/**
+ * A profiler for robot startup, timing named phases (which may be nested within each other) and, as a Guice ProvisionListener, the
+ * construction of each object that the injector provisions.  The report lists each phase with its total time and its self time (the
+ * time not spent within nested phases), slowest self time first, so that the slowest pieces of startup stand out.
+ *
+ * Code outside of the robot's startup path (such as constructors) can mark phases with StartupProfiler.phase(name), which only records
+ * anything while a profiler is running on the calling thread.
+ */
+public class StartupProfiler implements ProvisionListener
+{
+    private static final double NANOSECONDS_PER_MILLISECOND = 1000000.0;
+    private static final Phase NO_PHASE = new Phase(null, null);
+
+    private static volatile StartupProfiler active;
+
+    private final Thread thread;
+    private final long startTime;
+    private final LinkedHashMap<String, PhaseTotal> totals;
+    private final ArrayDeque<Phase> openPhases;
+
+    private long endTime;
+
+    /**
+     * Initializes a new StartupProfiler, starting the clock and profiling the current thread
+     */
+    public StartupProfiler()
+    {
+        this.thread = Thread.currentThread();
+        this.startTime = System.nanoTime();
+        this.totals = new LinkedHashMap<String, PhaseTotal>();
+        this.openPhases = new ArrayDeque<Phase>();
+        this.endTime = -1L;
+
+        StartupProfiler.active = this;
+    }
+
+    /**
+     * Start a phase within the currently-running profiler, if there is one on this thread
+     * @param name of the phase
+     * @return the phase, to close once it completes (e.g. in a finally block)
+     */
+    public static Phase phase(String name)
+    {
+        StartupProfiler profiler = StartupProfiler.active;
+        if (profiler == null)
+        {
+            return StartupProfiler.NO_PHASE;
+        }
+
+        return profiler.startPhase(name);
+    }
+
+    /**
+     * Start a phase
+     * @param name of the phase
+     * @return the phase, to close once it completes (e.g. in a finally block)
+     */
+    public Phase startPhase(String name)
+    {
+        if (Thread.currentThread() != this.thread || this.endTime >= 0L)
+        {
+            // only the thread being profiled is timed, as phases on other threads would overlap with it
+            return StartupProfiler.NO_PHASE;
+        }
+
+        Phase phase = new Phase(this, name);
+        this.openPhases.push(phase);
+        phase.startTime = System.nanoTime();
+        return phase;
+    }
+
+    @Override
+    public <T> void onProvision(ProvisionInvocation<T> provision)
+    {
+        Phase phase = this.startPhase("provision " + StartupProfiler.getName(provision.getBinding().getKey()));
+        try
+        {
+            provision.provision();
+        }
+        finally
+        {
+            phase.close();
+        }
+    }
+
+    /**
+     * Stop profiling
+     * @return the report
+     */
+    public String finish()
+    {
+        if (this.endTime < 0L)
+        {
+            this.endTime = System.nanoTime();
+            if (StartupProfiler.active == this)
+            {
+                StartupProfiler.active = null;
+            }
+        }
+
+        return this.getReport();
+    }
+
+    /**
+     * Get the time since the profiler started (until it finished)
+     * @return the elapsed time, in milliseconds
+     */
+    public double getElapsedTime()
+    {
+        long endTime = this.endTime >= 0L ? this.endTime : System.nanoTime();
+        return (endTime - this.startTime) / StartupProfiler.NANOSECONDS_PER_MILLISECOND;
+    }
+
+    /**
+     * Get a report of the time spent in each phase, with the most self time first
+     * @return the report
+     */
+    public String getReport()
+    {
+        List<PhaseTotal> totals = new ArrayList<PhaseTotal>(this.totals.values());
+        totals.sort((first, second) -> Long.compare(second.totalTime - second.childTime, first.totalTime - first.childTime));
+
+        long untracked = Math.round(this.getElapsedTime() * StartupProfiler.NANOSECONDS_PER_MILLISECOND);
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Startup took %1$.1f ms:%n", this.getElapsedTime()));
+        builder.append(String.format("  %1$10s %2$10s %3$5s  %4$s%n", "self (ms)", "total (ms)", "count", "phase"));
+        for (PhaseTotal total : totals)
+        {
+            if (total.depth == 0)
+            {
+                untracked -= total.totalTime;
+            }
+
+            builder.append(
+                String.format(
+                    "  %1$10.1f %2$10.1f %3$5d  %4$s%n",
+                    (total.totalTime - total.childTime) / StartupProfiler.NANOSECONDS_PER_MILLISECOND,
+                    total.totalTime / StartupProfiler.NANOSECONDS_PER_MILLISECOND,
+                    total.count,
+                    total.name));
+        }
+
+        builder.append(String.format("  %1$10.1f %2$10s %3$5s  (outside of any phase)%n", untracked / StartupProfiler.NANOSECONDS_PER_MILLISECOND, "", ""));
+        return builder.toString();
+    }
+
+    private void endPhase(Phase phase)
+    {
+        long elapsed = System.nanoTime() - phase.startTime;
+        if (!this.openPhases.contains(phase))
+        {
+            return;
+        }
+
+        // close any nested phases that weren't closed (e.g. because of an exception)
+        while (this.openPhases.peek() != phase)
+        {
+            this.openPhases.peek().close();
+        }
+
+        this.openPhases.pop();
+        PhaseTotal total = this.totals.get(phase.name);
+        if (total == null)
+        {
+            total = new PhaseTotal(phase.name, this.openPhases.size());
+            this.totals.put(phase.name, total);
+        }
+
+        total.count++;
+        total.totalTime += elapsed;
+        total.childTime += phase.childTime;
+        total.depth = Math.min(total.depth, this.openPhases.size());
+
+        Phase parent = this.openPhases.peek();
+        if (parent != null)
+        {
+            parent.childTime += elapsed;
+        }
+    }
+
+    private static String getName(Key<?> key)
+    {
+        Type type = key.getTypeLiteral().getType();
+        String name = type instanceof Class<?> ? ((Class<?>)type).getSimpleName() : type.getTypeName();
+
+        Class<? extends Annotation> annotationType = key.getAnnotationType();
+        if (annotationType != null)
+        {
+            name = "@" + annotationType.getSimpleName() + " " + name;
+        }
+
+        return name;
+    }
+
+    /**
+     * A phase of startup that is being timed
+     */
+    public static class Phase implements AutoCloseable
+    {
+        private final StartupProfiler profiler;
+        private final String name;
+
+        private long startTime;
+        private long childTime;
+        private boolean closed;
+
+        private Phase(StartupProfiler profiler, String name)
+        {
+            this.profiler = profiler;
+            this.name = name;
+        }
+
+        @Override
+        public void close()
+        {
+            if (this.profiler == null || this.closed)
+            {
+                return;
+            }
+
+            this.closed = true;
+            this.profiler.endPhase(this);
+        }
+    }
+
+    /**
+     * The time spent in all occurrences of a phase
+     */
+    private static class PhaseTotal
+    {
+        final String name;
+
+        int depth;
+        int count;
+        long totalTime;
+        long childTime;
+
+        PhaseTotal(String name, int depth)
+        {
+            this.name = name;
+            this.depth = depth;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package frc.lib.helpers;
+
+/**
+ * A tracer that timestamps each phase of a periodic tick into a fixed-size ring buffer (a "flight recorder"), so that
+ * the phase breakdown of the most recent ticks can be dumped whenever a tick exceeds its budget or something crashes.
+ * All buffers are allocated up-front so that tracing a tick never allocates.
+ *
+ * Usage within each tick: startTick(), then markPhase(phase) at the end of each phase, then endTick().
+ * Phases that are not marked during a tick (e.g. ones that only run every so often) are reported as skipped.
+ *
+ * @param <T> the enum describing the phases of the tick, in the order that they run
+ */
+public class TickTracer<T extends Enum<T>>
+{
+    private static final double NANOSECONDS_PER_MILLISECOND = 1000000.0;
+    private static final long UNMARKED = -1L;
+
+    private final T[] phases;
+    private final int capacity;
+    private final int stride;
+    private final long budgetNanos;
+
+    private final long[] timestamps; // [slot * stride + 0] is the start time, [slot * stride + 1 + phase] is the end of each phase
+    private final long[] endTimestamps;
+    private final long[] tickNumbers;
+
+    private long tickNumber;
+    private int currentSlot;
+    private int lastCompletedSlot; // -1 until a tick has completed
+    private int recordedTicks;
+    private boolean tickInProgress;
+    private long overrunCount;
+
+    /**
+     * Initializes a new TickTracer
+     * @param phaseClass the enum class describing the phases of each tick
+     * @param capacity the number of most-recent ticks to keep
+     * @param budgetNanos the expected maximum duration of a tick, in nanoseconds
+     */
+    public TickTracer(Class<T> phaseClass, int capacity, long budgetNanos)
+    {
+        ExceptionHelpers.Assert(capacity > 0, "Expect capacity to be positive, not %d", capacity);
+
+        this.phases = phaseClass.getEnumConstants();
+        this.capacity = capacity;
+        this.stride = this.phases.length + 1;
+        this.budgetNanos = budgetNanos;
+
+        this.timestamps = new long[capacity * this.stride];
+        this.endTimestamps = new long[capacity];
+        this.tickNumbers = new long[capacity];
+
+        this.tickNumber = 0L;
+        this.currentSlot = capacity - 1;
+        this.lastCompletedSlot = -1;
+        this.recordedTicks = 0;
+        this.tickInProgress = false;
+        this.overrunCount = 0L;
+    }
+
+    /**
+     * Record the start of a new tick
+     */
+    public void startTick()
+    {
+        this.currentSlot = (this.currentSlot + 1) % this.capacity;
+        if (this.recordedTicks < this.capacity)
+        {
+            this.recordedTicks++;
+        }
+
+        int offset = this.currentSlot * this.stride;
+        this.timestamps[offset] = System.nanoTime();
+        for (int i = 1; i < this.stride; i++)
+        {
+            this.timestamps[offset + i] = TickTracer.UNMARKED;
+        }
+
+        this.endTimestamps[this.currentSlot] = TickTracer.UNMARKED;
+        this.tickNumbers[this.currentSlot] = this.tickNumber++;
+        this.tickInProgress = true;
+    }
+
+    /**
+     * Record the end of the provided phase within the current tick
+     * @param phase that just completed
+     */
+    public void markPhase(T phase)
+    {
+        if (this.tickInProgress)
+        {
+            this.timestamps[this.currentSlot * this.stride + 1 + phase.ordinal()] = System.nanoTime();
+        }
+    }
+
+    /**
+     * Record the end of the current tick
+     * @return true if the tick exceeded its budget
+     */
+    public boolean endTick()
+    {
+        if (!this.tickInProgress)
+        {
+            return false;
+        }
+
+        long endTime = System.nanoTime();
+        this.endTimestamps[this.currentSlot] = endTime;
+        this.lastCompletedSlot = this.currentSlot;
+        this.tickInProgress = false;
+
+        if (endTime - this.timestamps[this.currentSlot * this.stride] > this.budgetNanos)
+        {
+            this.overrunCount++;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Retrieve the duration of the most recently completed tick (i.e. the previous tick, while a tick is in progress)
+     * @return duration in milliseconds, or 0.0 if no tick has completed
+     */
+    public double getLastTickDuration()
+    {
+        int slot = this.lastCompletedSlot;
+        if (slot < 0)
+        {
+            return 0.0;
+        }
+
+        long endTime = this.endTimestamps[slot];
+        if (endTime == TickTracer.UNMARKED)
+        {
+            // the slot has since been reused by a tick that didn't complete
+            return 0.0;
+        }
+
+        return (endTime - this.timestamps[slot * this.stride]) / TickTracer.NANOSECONDS_PER_MILLISECOND;
+    }
+
+    /**
+     * Retrieve the number of ticks that have exceeded the budget
+     * @return number of overruns
+     */
+    public long getOverrunCount()
+    {
+        return this.overrunCount;
+    }
+
+    /**
+     * Generate a description of the phase breakdown of the most recent ticks, oldest first, a la
+     * "tick 1234: total=23.45 (over) ReadSensors=1.20 DriverUpdate=0.30 ..." with all durations in milliseconds.
+     * @param maxTicks the maximum number of recent ticks to include
+     * @return the phase breakdown
+     */
+    public String dump(int maxTicks)
+    {
+        int tickCount = Math.min(maxTicks, this.recordedTicks);
+
+        StringBuilder builder = new StringBuilder();
+        for (int t = tickCount - 1; t >= 0; t--)
+        {
+            int slot = (this.currentSlot - t + this.capacity) % this.capacity;
+            int offset = slot * this.stride;
+            long startTime = this.timestamps[offset];
+            long endTime = this.endTimestamps[slot];
+
+            builder.append("tick ");
+            builder.append(this.tickNumbers[slot]);
+            builder.append(": total=");
+            if (endTime == TickTracer.UNMARKED)
+            {
+                builder.append("incomplete");
+            }
+            else
+            {
+                builder.append(String.format("%.2f", (endTime - startTime) / TickTracer.NANOSECONDS_PER_MILLISECOND));
+                if (endTime - startTime > this.budgetNanos)
+                {
+                    builder.append(" (over)");
+                }
+            }
+
+            long prevTime = startTime;
+            for (T phase : this.phases)
+            {
+                builder.append(' ');
+                builder.append(phase.toString());
+                builder.append('=');
+
+                long phaseTime = this.timestamps[offset + 1 + phase.ordinal()];
+                if (phaseTime == TickTracer.UNMARKED)
+                {
+                    builder.append('-');
+                }
+                else
+                {
+                    builder.append(String.format("%.2f", (phaseTime - prevTime) / TickTracer.NANOSECONDS_PER_MILLISECOND));
+                    prevTime = phaseTime;
+                }
+            }
+
+            builder.append("\r\n");
+        }
+
+        return builder.toString();
+    }
+}
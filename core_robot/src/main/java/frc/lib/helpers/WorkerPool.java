@@ -0,0 +1,184 @@
+package frc.lib.helpers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A small fixed pool of daemon worker threads that runs a batch of tasks concurrently and waits for all of them to complete
+ * (a fork/join barrier), so that independent blocking calls (JNI, CAN, NetworkTables) can overlap within the main loop.
+ * The calling thread runs tasks alongside the workers, and no allocations are made per batch so that it is safe to use every loop.
+ *
+ * Only one thread may call run() at a time.
+ */
+public class WorkerPool
+{
+    private final Thread[] workers;
+
+    // the generation (upper 32 bits) and the index of the next unclaimed task (lower 32 bits) of the current batch.
+    // the generation is included so that a worker that is late from a previous batch can't claim a task from the next one, and each
+    // batch is closed (with the index set to Integer.MAX_VALUE) once it has completed.
+    private final AtomicLong state;
+    private final AtomicInteger remaining;
+    private final AtomicReference<Throwable> failure;
+
+    private Runnable[] tasks;
+    private int taskCount;
+    private volatile Thread caller;
+    private volatile boolean shutdown;
+
+    /**
+     * Initializes a new WorkerPool
+     * @param name to use as the prefix of the name of each worker thread
+     * @param workerCount the number of worker threads (not including the calling thread)
+     */
+    public WorkerPool(String name, int workerCount)
+    {
+        ExceptionHelpers.Assert(workerCount > 0, "Expect worker count to be positive, not %d", workerCount);
+
+        this.state = new AtomicLong(0L);
+        this.remaining = new AtomicInteger(0);
+        this.failure = new AtomicReference<Throwable>(null);
+        this.tasks = null;
+        this.taskCount = 0;
+        this.caller = null;
+        this.shutdown = false;
+
+        this.workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++)
+        {
+            Thread worker = new Thread(() -> this.workerLoop(), name + "-" + i);
+            worker.setDaemon(true);
+            this.workers[i] = worker;
+            worker.start();
+        }
+    }
+
+    /**
+     * Run the first count tasks concurrently, returning once they have all completed.
+     * If any of the tasks throws, the first exception is rethrown once all of the tasks have completed.
+     * @param tasks to run
+     * @param count the number of tasks from the array to run
+     */
+    public void run(Runnable[] tasks, int count)
+    {
+        if (count <= 0)
+        {
+            return;
+        }
+
+        if (count == 1 || this.shutdown)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                tasks[i].run();
+            }
+
+            return;
+        }
+
+        this.tasks = tasks;
+        this.taskCount = count;
+        this.failure.set(null);
+        this.remaining.set(count);
+        this.caller = Thread.currentThread();
+
+        // publishing the new generation makes the fields above visible to the workers
+        int generation = (int)(this.state.get() >>> 32) + 1;
+        this.state.set(((long)generation) << 32);
+
+        int wakeCount = Math.min(count - 1, this.workers.length);
+        for (int i = 0; i < wakeCount; i++)
+        {
+            LockSupport.unpark(this.workers[i]);
+        }
+
+        this.runTasks(generation);
+        while (this.remaining.get() > 0)
+        {
+            LockSupport.park(this);
+        }
+
+        // close the batch before the fields are overwritten by the next one, so that a worker that is late from this batch can't claim
+        // a task (as its compareAndSet would otherwise still succeed against this batch's final state)
+        this.state.set((((long)generation) << 32) | Integer.MAX_VALUE);
+
+        Throwable throwable = this.failure.getAndSet(null);
+        if (throwable != null)
+        {
+            if (throwable instanceof RuntimeException)
+            {
+                throw (RuntimeException)throwable;
+            }
+
+            if (throwable instanceof Error)
+            {
+                throw (Error)throwable;
+            }
+
+            throw new RuntimeException(throwable);
+        }
+    }
+
+    /**
+     * Stop all of the worker threads.  Any later calls to run() will run the tasks serially on the calling thread.
+     */
+    public void shutdown()
+    {
+        this.shutdown = true;
+        for (Thread worker : this.workers)
+        {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void workerLoop()
+    {
+        int seenGeneration = 0;
+        while (!this.shutdown)
+        {
+            int generation = (int)(this.state.get() >>> 32);
+            if (generation == seenGeneration)
+            {
+                LockSupport.park(this);
+                continue;
+            }
+
+            seenGeneration = generation;
+            this.runTasks(generation);
+        }
+    }
+
+    private void runTasks(int generation)
+    {
+        while (true)
+        {
+            long current = this.state.get();
+            int index = (int)current;
+            if ((int)(current >>> 32) != generation || index >= this.taskCount)
+            {
+                return;
+            }
+
+            if (!this.state.compareAndSet(current, current + 1))
+            {
+                continue;
+            }
+
+            try
+            {
+                this.tasks[index].run();
+            }
+            catch (Throwable ex)
+            {
+                this.failure.compareAndSet(null, ex);
+            }
+
+            if (this.remaining.decrementAndGet() == 0)
+            {
+                LockSupport.unpark(this.caller);
+            }
+        }
+    }
+}
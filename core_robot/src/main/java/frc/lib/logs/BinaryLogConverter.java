@@ -0,0 +1,107 @@
+package frc.lib.logs;
+
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import de.siegmar.fastcsv.writer.CsvWriter;
+import de.siegmar.fastcsv.writer.LineDelimiter;
+
+import frc.lib.robotprovider.CSVRow;
+
+/**
+ * Converts binary log files written by BinaryLogger into the CSV layout written by the CSV loggers (the same columns, and the same
+ * formatting of values), so that they can be used with the same analysis tools.
+ *
+ * Usage: BinaryLogConverter input.bin [output.csv]
+ */
+public class BinaryLogConverter
+{
+    /**
+     * Convert a binary log into CSV
+     * @param input stream of the binary log
+     * @param output to write the CSV into
+     * @return the number of rows written (not including the header)
+     * @throws IOException if the binary log is corrupt, or either stream can't be used
+     */
+    public static long convert(InputStream input, Writer output) throws IOException
+    {
+        BinaryLogReader reader = new BinaryLogReader(input);
+        CsvWriter csvWriter =
+            CsvWriter.builder()
+                .lineDelimiter(LineDelimiter.CRLF)
+                .build(output);
+
+        int columnCount = reader.getColumnNames().size();
+        csvWriter.writeRow(reader.getColumnNames());
+
+        CSVRow row = new CSVRow(columnCount);
+        String[] fields = new String[columnCount];
+        StringBuilder builder = new StringBuilder();
+        long rowCount = 0L;
+        while (reader.next(row))
+        {
+            for (int column = 0; column < columnCount; column++)
+            {
+                if (row.isPresent(column))
+                {
+                    builder.setLength(0);
+                    row.appendRawValue(builder, column);
+                    fields[column] = builder.toString();
+                }
+                else
+                {
+                    fields[column] = "";
+                }
+            }
+
+            csvWriter.writeRow(fields);
+            rowCount++;
+        }
+
+        output.flush();
+        return rowCount;
+    }
+
+    public static void main(String[] args)
+    {
+        if (args.length < 1 || args.length > 2)
+        {
+            System.err.println("Usage: BinaryLogConverter input.bin [output.csv]");
+            System.exit(1);
+            return;
+        }
+
+        String inputPath = args[0];
+        String outputPath;
+        if (args.length == 2)
+        {
+            outputPath = args[1];
+        }
+        else if (inputPath.endsWith(".bin"))
+        {
+            outputPath = inputPath.substring(0, inputPath.length() - ".bin".length()) + ".csv";
+        }
+        else
+        {
+            outputPath = inputPath + ".csv";
+        }
+
+        try (InputStream input = new FileInputStream(inputPath);
+            Writer output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputPath), StandardCharsets.UTF_8)))
+        {
+            long rowCount = BinaryLogConverter.convert(input, output);
+            System.out.println(String.format("Wrote %1$d rows to %2$s", rowCount, outputPath));
+        }
+        catch (IOException ex)
+        {
+            System.err.println(String.format("Failed to convert %1$s: %2$s", inputPath, ex.getMessage()));
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package frc.lib.logs;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import frc.lib.robotprovider.BinaryLogFormat;
+import frc.lib.robotprovider.CSVRow;
+import frc.lib.robotprovider.LoggingType;
+
+/**
+ * Reads the records from a binary log file written by BinaryLogger, one row at a time.
+ */
+public class BinaryLogReader implements Closeable
+{
+    private final InputStream stream;
+    private final List<String> columnNames;
+    private final List<LoggingType> columnTypes;
+    private final byte[] bitmap;
+
+    // the previous values in each column, which the new values are encoded relative to
+    private final long[] previousDoubleBits;
+    private final long[] previousIntegers;
+    private final String[] previousStrings;
+    private final long[][] previousDoubleArrayBits;
+
+    private byte[] stringBuffer;
+    private double[] doubleArrayBuffer;
+    private boolean[] booleanArrayBuffer;
+
+    /**
+     * Initializes a new BinaryLogReader, reading the header from the stream
+     * @param stream to read from
+     * @throws IOException if the stream can't be read or isn't a binary log
+     */
+    public BinaryLogReader(InputStream stream) throws IOException
+    {
+        this.stream = new BufferedInputStream(stream);
+
+        for (byte expected : BinaryLogFormat.MAGIC)
+        {
+            if (this.readByte() != expected)
+            {
+                throw new IOException("Not a binary log file");
+            }
+        }
+
+        byte version = this.readByte();
+        if (version < 1 || version > BinaryLogFormat.VERSION)
+        {
+            throw new IOException("Unsupported binary log version " + version);
+        }
+
+        this.stringBuffer = new byte[64];
+        this.booleanArrayBuffer = new boolean[8];
+        this.doubleArrayBuffer = new double[8];
+
+        int columnCount = (int)this.readVarint();
+        LoggingType[] loggingTypes = LoggingType.values();
+        List<String> names = new ArrayList<String>(columnCount);
+        List<LoggingType> types = new ArrayList<LoggingType>(columnCount);
+        for (int i = 0; i < columnCount; i++)
+        {
+            names.add(this.readStringPayload());
+
+            int type = this.readByte();
+            types.add(type >= 0 && type < loggingTypes.length ? loggingTypes[type] : null);
+        }
+
+        this.columnNames = Collections.unmodifiableList(names);
+        this.columnTypes = Collections.unmodifiableList(types);
+        this.bitmap = new byte[(columnCount + 7) / 8];
+        this.previousDoubleBits = new long[columnCount];
+        this.previousIntegers = new long[columnCount];
+        this.previousStrings = new String[columnCount];
+        this.previousDoubleArrayBits = new long[columnCount][];
+    }
+
+    /**
+     * Get the names of the columns (the LoggingKey values) in the log
+     * @return the column names
+     */
+    public List<String> getColumnNames()
+    {
+        return this.columnNames;
+    }
+
+    /**
+     * Get the expected types of the columns in the log
+     * @return the column types (null for any types that are unknown to this version of the code)
+     */
+    public List<LoggingType> getColumnTypes()
+    {
+        return this.columnTypes;
+    }
+
+    /**
+     * Read the next record into the provided row
+     * @param row to read into, with the same number of columns as the log.  It is cleared before reading.
+     * @return true if a record was read, or false if the end of the log was reached (including a partially-written last record)
+     * @throws IOException if the log is corrupt or can't be read
+     */
+    public boolean next(CSVRow row) throws IOException
+    {
+        row.clear();
+
+        int marker = this.stream.read();
+        if (marker < 0)
+        {
+            return false;
+        }
+
+        if ((byte)marker != BinaryLogFormat.RECORD_MARKER)
+        {
+            throw new IOException("Corrupt binary log: expected a record marker");
+        }
+
+        try
+        {
+            for (int i = 0; i < this.bitmap.length; i++)
+            {
+                this.bitmap[i] = this.readByte();
+            }
+
+            for (int column = 0; column < this.columnNames.size(); column++)
+            {
+                if ((this.bitmap[column >>> 3] & (1 << (column & 7))) != 0)
+                {
+                    this.readValue(row, column);
+                }
+            }
+        }
+        catch (EOFException ex)
+        {
+            // the robot may have lost power part-way through writing the last record
+            row.clear();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Close the underlying stream
+     */
+    @Override
+    public void close() throws IOException
+    {
+        this.stream.close();
+    }
+
+    private void readValue(CSVRow row, int column) throws IOException
+    {
+        byte tag = this.readByte();
+        switch (tag)
+        {
+            case BinaryLogFormat.TAG_DOUBLE:
+                long bits = this.readVarint() ^ this.previousDoubleBits[column];
+                this.previousDoubleBits[column] = bits;
+                row.setDouble(column, Double.longBitsToDouble(bits));
+                break;
+
+            case BinaryLogFormat.TAG_INTEGER:
+                row.setInteger(column, (int)this.readInteger(column));
+                break;
+
+            case BinaryLogFormat.TAG_FORMATTED_INTEGER:
+                String formatString = this.readString(column, this.readByte());
+                row.setFormattedInteger(column, (int)this.readInteger(column), formatString);
+                break;
+
+            case BinaryLogFormat.TAG_FALSE:
+            case BinaryLogFormat.TAG_TRUE:
+                row.setBoolean(column, tag == BinaryLogFormat.TAG_TRUE);
+                break;
+
+            case BinaryLogFormat.TAG_BOOLEAN_ARRAY:
+                int arrayLength = (int)this.readVarint();
+                boolean[] values = new boolean[arrayLength];
+                for (int i = 0; i < arrayLength; i += 8)
+                {
+                    byte packed = this.readByte();
+                    for (int bit = 0; bit < 8 && i + bit < arrayLength; bit++)
+                    {
+                        values[i + bit] = (packed & (1 << bit)) != 0;
+                    }
+                }
+
+                row.setBooleanArray(column, values);
+                break;
+
+            case BinaryLogFormat.TAG_STRING:
+            case BinaryLogFormat.TAG_STRING_REPEAT:
+                row.setString(column, this.readString(column, tag));
+                break;
+
+            case BinaryLogFormat.TAG_DOUBLE_ARRAY:
+                this.readDoubleArray(row, column);
+                break;
+
+            case BinaryLogFormat.TAG_NULL:
+                row.setNullableDouble(column, null);
+                break;
+
+            default:
+                throw new IOException("Corrupt binary log: unexpected value tag " + tag);
+        }
+    }
+
+    private void readDoubleArray(CSVRow row, int column) throws IOException
+    {
+        int arrayLength = (int)this.readVarint();
+        long[] previousBits = this.previousDoubleArrayBits[column];
+        if (previousBits == null || previousBits.length < arrayLength)
+        {
+            long[] newPreviousBits = new long[arrayLength];
+            if (previousBits != null)
+            {
+                System.arraycopy(previousBits, 0, newPreviousBits, 0, previousBits.length);
+            }
+
+            previousBits = newPreviousBits;
+            this.previousDoubleArrayBits[column] = previousBits;
+        }
+
+        if (this.doubleArrayBuffer.length != arrayLength)
+        {
+            this.doubleArrayBuffer = new double[arrayLength];
+        }
+
+        for (int i = 0; i < arrayLength; i++)
+        {
+            long bits = this.readVarint() ^ previousBits[i];
+            previousBits[i] = bits;
+            this.doubleArrayBuffer[i] = Double.longBitsToDouble(bits);
+        }
+
+        row.setDoubleArray(column, this.doubleArrayBuffer);
+    }
+
+    private long readInteger(int column) throws IOException
+    {
+        long value = this.previousIntegers[column] + BinaryLogFormat.zigzagDecode(this.readVarint());
+        this.previousIntegers[column] = value;
+        return value;
+    }
+
+    private String readString(int column, byte tag) throws IOException
+    {
+        if (tag == BinaryLogFormat.TAG_STRING_REPEAT)
+        {
+            return this.previousStrings[column];
+        }
+
+        if (tag != BinaryLogFormat.TAG_STRING)
+        {
+            throw new IOException("Corrupt binary log: expected a string, not tag " + tag);
+        }
+
+        String value = this.readStringPayload();
+        this.previousStrings[column] = value;
+        return value;
+    }
+
+    private String readStringPayload() throws IOException
+    {
+        int length = (int)this.readVarint();
+        if (length > this.stringBuffer.length)
+        {
+            this.stringBuffer = new byte[Math.max(length, this.stringBuffer.length * 2)];
+        }
+
+        for (int i = 0; i < length; i++)
+        {
+            this.stringBuffer[i] = this.readByte();
+        }
+
+        return new String(this.stringBuffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private long readVarint() throws IOException
+    {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            byte b = this.readByte();
+            value |= ((long)(b & 0x7F)) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+
+        throw new IOException("Corrupt binary log: varint is too long");
+    }
+
+    private byte readByte() throws IOException
+    {
+        int value = this.stream.read();
+        if (value < 0)
+        {
+            throw new EOFException();
+        }
+
+        return (byte)value;
+    }
+}
@@ -0,0 +1,324 @@
+package frc.lib.logs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import de.siegmar.fastcsv.reader.CsvReader;
+import de.siegmar.fastcsv.reader.CsvRow;
+import de.siegmar.fastcsv.writer.CsvWriter;
+import de.siegmar.fastcsv.writer.LineDelimiter;
+
+import frc.lib.robotprovider.LogIndexWriter;
+import frc.lib.robotprovider.SegmentedFileWriter;
+import frc.robot.LoggingKey;
+
+/**
+ * Reads a range of match times from a CSV log written by ColumnarCSVLogger, using the sidecar index written by LogIndexWriter to
+ * seek straight to the segment and offset of the first row in the range, rather than reading the log from the beginning.
+ *
+ * Usage: IndexedLogReader log.csv[.gz] startTime endTime [output.csv]
+ */
+public class IndexedLogReader
+{
+    private static final String COMPRESSED_EXTENSION = ".gz";
+
+    private final String fileName; // of the first segment, without the compressed extension
+    private final boolean compressed;
+    private final List<String> columnNames;
+    private final int timeColumn;
+    private final int headerLength;
+
+    private final List<Long> entryOffsets;
+    private final List<Double> entryTimes;
+    private final List<String> entryStates;
+    private final List<Long> segmentOffsets; // the offset at which each segment starts, with the first segment at index 0
+
+    /**
+     * Initializes a new IndexedLogReader, reading the index and the header of the log
+     * @param logPath the path of the (first segment of the) log, a la "Q03 (R2).auto.csv" or "Q03 (R2).auto.csv.gz"
+     * @throws IOException if the log or its index can't be read
+     */
+    public IndexedLogReader(String logPath) throws IOException
+    {
+        this.compressed = logPath.endsWith(IndexedLogReader.COMPRESSED_EXTENSION);
+        this.fileName = this.compressed ? logPath.substring(0, logPath.length() - IndexedLogReader.COMPRESSED_EXTENSION.length()) : logPath;
+
+        this.entryOffsets = new ArrayList<Long>();
+        this.entryTimes = new ArrayList<Double>();
+        this.entryStates = new ArrayList<String>();
+        this.segmentOffsets = new ArrayList<Long>();
+        this.segmentOffsets.add(0L);
+        this.readIndex(LogIndexWriter.getIndexFileName(this.fileName));
+
+        try (InputStream stream = this.openSegment(1, 0L))
+        {
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            int value;
+            do
+            {
+                value = stream.read();
+                if (value < 0)
+                {
+                    throw new IOException("Log has no header");
+                }
+
+                header.write(value);
+            }
+            while (value != '\n');
+
+            this.headerLength = header.size();
+            try (CsvReader reader = CsvReader.builder().build(header.toString(StandardCharsets.UTF_8)))
+            {
+                this.columnNames = Collections.unmodifiableList(reader.iterator().next().getFields());
+            }
+        }
+
+        this.timeColumn = this.columnNames.indexOf(LoggingKey.RobotTime.value);
+    }
+
+    /**
+     * Get the names of the columns (the LoggingKey values) in the log
+     * @return the column names
+     */
+    public List<String> getColumnNames()
+    {
+        return this.columnNames;
+    }
+
+    /**
+     * Get the number of segments the log was written in (according to its index)
+     * @return the number of segments
+     */
+    public int getSegmentCount()
+    {
+        return this.segmentOffsets.size();
+    }
+
+    /**
+     * Find the time at which the robot first entered a state (e.g. "Teleop"), according to the index
+     * @param state to look for
+     * @return the RobotTime of the first row in that state, or NaN if the index doesn't contain it
+     */
+    public double getStateStartTime(String state)
+    {
+        for (int i = 0; i < this.entryStates.size(); i++)
+        {
+            if (state.equals(this.entryStates.get(i)))
+            {
+                return this.entryTimes.get(i);
+            }
+        }
+
+        return Double.NaN;
+    }
+
+    /**
+     * Read the rows in a range of times, seeking to the closest index entry before the start of the range
+     * @param startTime the earliest RobotTime to read
+     * @param endTime the latest RobotTime to read
+     * @param consumer to receive each row in the range
+     * @return the number of rows read
+     * @throws IOException if the log can't be read
+     */
+    public long read(double startTime, double endTime, Consumer<CsvRow> consumer) throws IOException
+    {
+        if (this.timeColumn < 0)
+        {
+            throw new IOException("Log doesn't contain " + LoggingKey.RobotTime.value);
+        }
+
+        long offset = this.headerLength;
+        for (int i = 0; i < this.entryOffsets.size(); i++)
+        {
+            double time = this.entryTimes.get(i);
+            if (time > startTime)
+            {
+                break;
+            }
+
+            if (!Double.isNaN(time))
+            {
+                offset = this.entryOffsets.get(i);
+            }
+        }
+
+        int segment = 1;
+        while (segment < this.segmentOffsets.size() && this.segmentOffsets.get(segment) <= offset)
+        {
+            segment++;
+        }
+
+        long segmentOffset = segment == 1 ? offset : offset - this.segmentOffsets.get(segment - 1) + this.headerLength;
+        long rowCount = 0L;
+        while (true)
+        {
+            File segmentFile = new File(SegmentedFileWriter.getSegmentFileName(this.fileName, segment, this.compressed));
+            if (!segmentFile.exists())
+            {
+                break;
+            }
+
+            try (CsvReader reader = CsvReader.builder().build(new InputStreamReader(this.openSegment(segment, segmentOffset), StandardCharsets.UTF_8)))
+            {
+                for (CsvRow row : reader)
+                {
+                    if (row.getFieldCount() <= this.timeColumn || row.getField(this.timeColumn).isEmpty())
+                    {
+                        continue;
+                    }
+
+                    double time = Double.parseDouble(row.getField(this.timeColumn));
+                    if (time > endTime)
+                    {
+                        return rowCount;
+                    }
+
+                    if (time >= startTime)
+                    {
+                        consumer.accept(row);
+                        rowCount++;
+                    }
+                }
+            }
+            catch (EOFException ex)
+            {
+                // the robot may have lost power before finishing the segment
+            }
+            catch (UncheckedIOException ex)
+            {
+                if (!(ex.getCause() instanceof EOFException))
+                {
+                    throw ex.getCause();
+                }
+            }
+
+            // continue from after the header at the start of the next segment
+            segment++;
+            segmentOffset = this.headerLength;
+        }
+
+        return rowCount;
+    }
+
+    private InputStream openSegment(int segment, long offset) throws IOException
+    {
+        String segmentFileName = SegmentedFileWriter.getSegmentFileName(this.fileName, segment, this.compressed);
+        FileInputStream fileStream = new FileInputStream(segmentFileName);
+        try
+        {
+            if (!this.compressed)
+            {
+                fileStream.getChannel().position(offset);
+                return new BufferedInputStream(fileStream);
+            }
+
+            // compressed segments can't be seeked into, but skipping decompressed bytes is much cheaper than parsing the rows
+            InputStream stream = new GZIPInputStream(new BufferedInputStream(fileStream));
+            stream.skipNBytes(offset);
+            return new BufferedInputStream(stream);
+        }
+        catch (IOException ex)
+        {
+            fileStream.close();
+            throw ex;
+        }
+    }
+
+    private void readIndex(String indexFileName) throws IOException
+    {
+        try (CsvReader reader = CsvReader.builder().build(Paths.get(indexFileName), StandardCharsets.UTF_8))
+        {
+            boolean header = true;
+            for (CsvRow row : reader)
+            {
+                if (header)
+                {
+                    header = false;
+                    continue;
+                }
+
+                if (row.getFieldCount() < 4)
+                {
+                    // the robot may have lost power part-way through writing the entry
+                    continue;
+                }
+
+                long offset = Long.parseLong(row.getField(0));
+                if (!row.getField(1).isEmpty())
+                {
+                    int segment = Integer.parseInt(row.getField(1));
+                    while (this.segmentOffsets.size() < segment)
+                    {
+                        this.segmentOffsets.add(offset);
+                    }
+
+                    continue;
+                }
+
+                this.entryOffsets.add(offset);
+                this.entryTimes.add(row.getField(2).isEmpty() ? Double.NaN : Double.parseDouble(row.getField(2)));
+                this.entryStates.add(row.getField(3).isEmpty() ? null : row.getField(3));
+            }
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        if (args.length < 3 || args.length > 4)
+        {
+            System.err.println("Usage: IndexedLogReader log.csv[.gz] startTime endTime [output.csv]");
+            System.exit(1);
+            return;
+        }
+
+        try
+        {
+            IndexedLogReader reader = new IndexedLogReader(args[0]);
+            double startTime = Double.parseDouble(args[1]);
+            double endTime = Double.parseDouble(args[2]);
+
+            Writer output;
+            if (args.length == 4)
+            {
+                output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(args[3]), StandardCharsets.UTF_8));
+            }
+            else
+            {
+                output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            }
+
+            try (CsvWriter csvWriter = CsvWriter.builder().lineDelimiter(LineDelimiter.CRLF).build(output))
+            {
+                csvWriter.writeRow(reader.getColumnNames());
+                long rowCount = reader.read(startTime, endTime, row -> csvWriter.writeRow(row.getFields()));
+                if (args.length == 4)
+                {
+                    System.out.println(String.format("Wrote %1$d rows to %2$s", rowCount, args[3]));
+                }
+            }
+        }
+        catch (IOException | NumberFormatException ex)
+        {
+            System.err.println(String.format("Failed to read %1$s: %2$s", args[0], ex.getMessage()));
+            System.exit(1);
+        }
+    }
+}
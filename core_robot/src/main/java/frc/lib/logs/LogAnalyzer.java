@@ -0,0 +1,336 @@
+package frc.lib.logs;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import frc.lib.robotprovider.SegmentedFileWriter;
+
+/**
+ * Command-line tool that summarizes CSV logs written by the CSV loggers: loop-period statistics, per-key statistics, missed vision
+ * heartbeats and overcurrent episodes.  Each log is streamed through a LogSummary, so memory use doesn't depend on the length of the
+ * logs.  Directories (e.g. a whole event's USB stick) are searched for logs, which are analyzed in parallel across the available cores.
+ * Compressed (".csv.gz") and segmented (".segN.csv") logs are read as a single log.
+ *
+ * Usage: LogAnalyzer path...
+ *        LogAnalyzer --diff first.csv second.csv
+ */
+public class LogAnalyzer
+{
+    private static final String LOG_EXTENSION = ".csv";
+    private static final String COMPRESSED_EXTENSION = ".gz";
+    private static final Pattern NOT_A_LOG = Pattern.compile(".*\\.(index|seg\\d+)\\.csv(\\.gz)?$");
+
+    /**
+     * Find the logs in the provided paths, searching any directories (recursively)
+     * @param paths of logs and/or directories
+     * @return the logs, in order (not including index files or the later segments of logs)
+     * @throws IOException if a directory can't be searched
+     */
+    public static List<Path> findLogs(List<Path> paths) throws IOException
+    {
+        List<Path> logs = new ArrayList<Path>();
+        for (Path path : paths)
+        {
+            if (!Files.isDirectory(path))
+            {
+                logs.add(path);
+                continue;
+            }
+
+            TreeSet<Path> directoryLogs = new TreeSet<Path>();
+            try (Stream<Path> files = Files.walk(path))
+            {
+                files.filter(file -> Files.isRegularFile(file) && LogAnalyzer.isLog(file)).forEach(directoryLogs::add);
+            }
+
+            logs.addAll(directoryLogs);
+        }
+
+        return logs;
+    }
+
+    /**
+     * Analyze a log, including any later segments of it
+     * @param log the path of the log (or of its first segment)
+     * @return the summary of the log
+     * @throws IOException if the log can't be read
+     */
+    public static LogSummary analyze(Path log) throws IOException
+    {
+        String logPath = log.toString();
+        boolean compressed = logPath.endsWith(LogAnalyzer.COMPRESSED_EXTENSION);
+        String fileName = compressed ? logPath.substring(0, logPath.length() - LogAnalyzer.COMPRESSED_EXTENSION.length()) : logPath;
+
+        LogSummary summary = null;
+        for (int segment = 1; ; segment++)
+        {
+            Path segmentPath = segment == 1 ? log : Paths.get(SegmentedFileWriter.getSegmentFileName(fileName, segment, compressed));
+            if (segment > 1 && !Files.exists(segmentPath))
+            {
+                return summary;
+            }
+
+            InputStream stream = Files.newInputStream(segmentPath);
+            if (compressed)
+            {
+                stream = new GZIPInputStream(stream, 64 * 1024);
+            }
+
+            try (Reader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8), 64 * 1024))
+            {
+                summary = LogSummary.read(log.getFileName().toString(), reader, summary);
+            }
+        }
+    }
+
+    /**
+     * Analyze logs in parallel
+     * @param logs to analyze
+     * @param threadCount the number of logs to analyze at once
+     * @return the summaries of the logs, in the same order as the logs (null for any log that couldn't be read)
+     */
+    public static List<LogSummary> analyzeAll(List<Path> logs, int threadCount)
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threadCount, logs.size())));
+        try
+        {
+            List<Future<LogSummary>> futures = new ArrayList<Future<LogSummary>>(logs.size());
+            for (Path log : logs)
+            {
+                futures.add(executor.submit(() -> LogAnalyzer.analyze(log)));
+            }
+
+            List<LogSummary> summaries = new ArrayList<LogSummary>(logs.size());
+            for (int i = 0; i < futures.size(); i++)
+            {
+                try
+                {
+                    summaries.add(futures.get(i).get());
+                }
+                catch (ExecutionException ex)
+                {
+                    System.err.println(String.format("Failed to analyze %1$s: %2$s", logs.get(i), ex.getCause().getMessage()));
+                    summaries.add(null);
+                }
+                catch (InterruptedException ex)
+                {
+                    Thread.currentThread().interrupt();
+                    summaries.add(null);
+                }
+            }
+
+            return summaries;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Write a report of the summary of a log
+     * @param summary to report
+     * @param builder to write the report into
+     */
+    public static void writeReport(LogSummary summary, StringBuilder builder)
+    {
+        builder.append(String.format("== %1$s: %2$d rows ==%n", summary.getName(), summary.getRowCount()));
+
+        LogSummary.ColumnStatistics loopPeriods = summary.getLoopPeriods();
+        if (loopPeriods.getCount() > 0L)
+        {
+            builder.append(
+                String.format(
+                    "loop period (ms): mean %1$.2f, stddev %2$.2f, min %3$.2f, p50 %4$.2f, p95 %5$.2f, p99 %6$.2f, max %7$.2f, overruns %8$d%n",
+                    loopPeriods.getMean() * 1000.0,
+                    loopPeriods.getStandardDeviation() * 1000.0,
+                    loopPeriods.getMin() * 1000.0,
+                    summary.getLoopPeriodPercentile(0.5) * 1000.0,
+                    summary.getLoopPeriodPercentile(0.95) * 1000.0,
+                    summary.getLoopPeriodPercentile(0.99) * 1000.0,
+                    loopPeriods.getMax() * 1000.0,
+                    summary.getOverrunCount()));
+        }
+
+        LogAnalyzer.writeEpisodes("vision heartbeat outages", summary.getVisionOutages(), "missed", builder);
+        LogAnalyzer.writeEpisodes("overcurrent episodes", summary.getOvercurrents(), "A", builder);
+
+        builder.append(String.format("%1$-36s %2$8s %3$12s %4$12s %5$12s %6$12s %7$8s%n", "key", "count", "mean", "min", "max", "stddev", "changes"));
+        for (String columnName : summary.getColumnNames())
+        {
+            LogSummary.ColumnStatistics column = summary.getColumn(columnName);
+            if (column.getCount() == 0L)
+            {
+                continue;
+            }
+
+            builder.append(
+                String.format(
+                    "%1$-36s %2$8d %3$12.4f %4$12.4f %5$12.4f %6$12.4f %7$8d%n",
+                    columnName,
+                    column.getCount(),
+                    column.getMean(),
+                    column.getMin(),
+                    column.getMax(),
+                    column.getStandardDeviation(),
+                    column.getChangeCount()));
+        }
+    }
+
+    /**
+     * Write a side-by-side comparison of the summaries of two logs (e.g. two matches)
+     * @param first summary to compare
+     * @param second summary to compare
+     * @param builder to write the comparison into
+     */
+    public static void writeDiff(LogSummary first, LogSummary second, StringBuilder builder)
+    {
+        builder.append(String.format("== %1$s vs. %2$s ==%n", first.getName(), second.getName()));
+        builder.append(String.format("%1$-36s %2$12s %3$12s %4$12s%n", "", "first", "second", "difference"));
+        LogAnalyzer.writeDiffLine("rows", first.getRowCount(), second.getRowCount(), builder);
+        LogAnalyzer.writeDiffLine("loop period mean (ms)", first.getLoopPeriods().getMean() * 1000.0, second.getLoopPeriods().getMean() * 1000.0, builder);
+        LogAnalyzer.writeDiffLine("loop period p99 (ms)", first.getLoopPeriodPercentile(0.99) * 1000.0, second.getLoopPeriodPercentile(0.99) * 1000.0, builder);
+        LogAnalyzer.writeDiffLine("loop overruns", first.getOverrunCount(), second.getOverrunCount(), builder);
+        LogAnalyzer.writeDiffLine("vision heartbeat outages", first.getVisionOutages().getCount(), second.getVisionOutages().getCount(), builder);
+        LogAnalyzer.writeDiffLine("overcurrent episodes", first.getOvercurrents().getCount(), second.getOvercurrents().getCount(), builder);
+        LogAnalyzer.writeDiffLine("overcurrent duration (s)", first.getOvercurrents().getTotalDuration(), second.getOvercurrents().getTotalDuration(), builder);
+
+        // every key in either log, in the order they appear in the first log
+        List<String> columnNames = new ArrayList<String>(first.getColumnNames());
+        for (String columnName : second.getColumnNames())
+        {
+            if (!columnNames.contains(columnName))
+            {
+                columnNames.add(columnName);
+            }
+        }
+
+        builder.append(String.format("%1$-36s %2$12s %3$12s %4$12s %5$12s %6$12s%n", "key (mean)", "first", "second", "difference", "first max", "second max"));
+        for (String columnName : columnNames)
+        {
+            LogSummary.ColumnStatistics firstColumn = first.getColumn(columnName);
+            LogSummary.ColumnStatistics secondColumn = second.getColumn(columnName);
+            if ((firstColumn == null || firstColumn.getNumericCount() == 0L) && (secondColumn == null || secondColumn.getNumericCount() == 0L))
+            {
+                continue;
+            }
+
+            double firstMean = firstColumn == null ? Double.NaN : firstColumn.getMean();
+            double secondMean = secondColumn == null ? Double.NaN : secondColumn.getMean();
+            builder.append(
+                String.format(
+                    "%1$-36s %2$12.4f %3$12.4f %4$12.4f %5$12.4f %6$12.4f%n",
+                    columnName,
+                    firstMean,
+                    secondMean,
+                    secondMean - firstMean,
+                    firstColumn == null ? Double.NaN : firstColumn.getMax(),
+                    secondColumn == null ? Double.NaN : secondColumn.getMax()));
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        boolean diff = args.length > 0 && args[0].equals("--diff");
+        if (args.length == 0 || diff && args.length != 3)
+        {
+            System.err.println("Usage: LogAnalyzer path...");
+            System.err.println("       LogAnalyzer --diff first.csv second.csv");
+            System.exit(1);
+            return;
+        }
+
+        List<Path> paths = new ArrayList<Path>();
+        for (int i = diff ? 1 : 0; i < args.length; i++)
+        {
+            paths.add(Paths.get(args[i]));
+        }
+
+        try
+        {
+            List<Path> logs = diff ? paths : LogAnalyzer.findLogs(paths);
+            List<LogSummary> summaries = LogAnalyzer.analyzeAll(logs, Runtime.getRuntime().availableProcessors());
+
+            StringBuilder builder = new StringBuilder();
+            if (diff)
+            {
+                if (summaries.contains(null))
+                {
+                    System.exit(1);
+                    return;
+                }
+
+                LogAnalyzer.writeDiff(summaries.get(0), summaries.get(1), builder);
+            }
+            else
+            {
+                for (LogSummary summary : summaries)
+                {
+                    if (summary != null)
+                    {
+                        LogAnalyzer.writeReport(summary, builder);
+                        builder.append(System.lineSeparator());
+                    }
+                }
+            }
+
+            System.out.print(builder.toString());
+            if (summaries.contains(null))
+            {
+                System.exit(1);
+            }
+        }
+        catch (IOException ex)
+        {
+            System.err.println(String.format("Failed to find logs: %1$s", ex.getMessage()));
+            System.exit(1);
+        }
+    }
+
+    private static boolean isLog(Path file)
+    {
+        String fileName = file.getFileName().toString();
+        return (fileName.endsWith(LogAnalyzer.LOG_EXTENSION) || fileName.endsWith(LogAnalyzer.LOG_EXTENSION + LogAnalyzer.COMPRESSED_EXTENSION)) &&
+            !LogAnalyzer.NOT_A_LOG.matcher(fileName).matches();
+    }
+
+    private static void writeEpisodes(String description, LogSummary.Episodes episodes, String units, StringBuilder builder)
+    {
+        builder.append(
+            String.format(
+                "%1$s: %2$d (total %3$.2fs, longest %4$.2fs, peak %5$.1f %6$s)%n",
+                description,
+                episodes.getCount(),
+                episodes.getTotalDuration(),
+                episodes.getLongestDuration(),
+                episodes.getPeakValue(),
+                units));
+    }
+
+    private static void writeDiffLine(String description, double first, double second, StringBuilder builder)
+    {
+        builder.append(String.format("%1$-36s %2$12.4f %3$12.4f %4$12.4f%n", description, first, second, second - first));
+    }
+
+    private static void writeDiffLine(String description, long first, long second, StringBuilder builder)
+    {
+        builder.append(String.format("%1$-36s %2$12d %3$12d %4$12d%n", description, first, second, second - first));
+    }
+}
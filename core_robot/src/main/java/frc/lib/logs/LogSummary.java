@@ -0,0 +1,551 @@
+package frc.lib.logs;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import de.siegmar.fastcsv.reader.CsvReader;
+import de.siegmar.fastcsv.reader.CsvRow;
+
+import frc.robot.LoggingKey;
+import frc.robot.TuningConstants;
+
+/**
+ * Summary statistics for a CSV log, accumulated as its rows are streamed through so that the amount of memory used doesn't depend on
+ * the length of the log.
+ *
+ * In addition to per-column statistics, this tracks the loop period (from RobotTime), episodes where the offboard vision missed too
+ * many heartbeats, and episodes where the PowerManager's floating average of the current was over the overcurrent threshold.
+ */
+public class LogSummary
+{
+    private static final double LOOP_PERIOD_BIN_WIDTH = 0.0005; // 0.5ms
+    private static final int LOOP_PERIOD_BIN_COUNT = 400; // up to 200ms, with any longer periods counted in the last bin
+    private static final double LOOP_OVERRUN_RATIO = 1.5; // loop periods longer than 1.5x the expected duration are counted as overruns
+
+    private final String name;
+    private final List<String> columnNames;
+    private final ColumnStatistics[] columns;
+
+    private final int timeColumn;
+    private final int missedHeartbeatsColumn;
+    private final int excessiveMissedHeartbeatsColumn;
+    private final int currentColumn;
+
+    private final ColumnStatistics loopPeriods;
+    private final long[] loopPeriodHistogram;
+    private final Episodes visionOutages;
+    private final Episodes overcurrents;
+
+    private long rowCount;
+    private long overrunCount;
+    private double previousTime;
+
+    /**
+     * Initializes a new LogSummary
+     * @param name of the log (e.g. its file name)
+     * @param columnNames the names of the columns in the log (the LoggingKey values)
+     */
+    public LogSummary(String name, List<String> columnNames)
+    {
+        this.name = name;
+        this.columnNames = Collections.unmodifiableList(columnNames);
+        this.columns = new ColumnStatistics[columnNames.size()];
+        for (int i = 0; i < this.columns.length; i++)
+        {
+            this.columns[i] = new ColumnStatistics();
+        }
+
+        this.timeColumn = columnNames.indexOf(LoggingKey.RobotTime.value);
+        this.missedHeartbeatsColumn = columnNames.indexOf(LoggingKey.OffboardVisionMissedHeartbeats.value);
+        this.excessiveMissedHeartbeatsColumn = columnNames.indexOf(LoggingKey.OffboardVisionExcessiveMissedHeartbeats.value);
+
+        // prefer the floating average that PowerManager uses to decide whether to limit current, but fall back to the raw current
+        int currentColumn = columnNames.indexOf(LoggingKey.PowerCurrentFloatingAverage.value);
+        this.currentColumn = currentColumn >= 0 ? currentColumn : columnNames.indexOf(LoggingKey.PowerCurrent.value);
+
+        this.loopPeriods = new ColumnStatistics();
+        this.loopPeriodHistogram = new long[LogSummary.LOOP_PERIOD_BIN_COUNT];
+        this.visionOutages = new Episodes();
+        this.overcurrents = new Episodes();
+
+        this.rowCount = 0L;
+        this.overrunCount = 0L;
+        this.previousTime = Double.NaN;
+    }
+
+    /**
+     * Read a CSV log (or the next segment of it), adding each of its rows into the summary
+     * @param name of the log
+     * @param reader to read the log from
+     * @param summary to add into, or null to create a new summary from the log's header
+     * @return the summary
+     * @throws IOException if the log can't be read, or its columns don't match the summary
+     */
+    public static LogSummary read(String name, Reader reader, LogSummary summary) throws IOException
+    {
+        try (CsvReader csvReader = CsvReader.builder().build(reader))
+        {
+            Iterator<CsvRow> rows = csvReader.iterator();
+            if (!rows.hasNext())
+            {
+                throw new IOException("Log has no header");
+            }
+
+            List<String> header = rows.next().getFields();
+            if (summary == null)
+            {
+                summary = new LogSummary(name, header);
+            }
+            else if (!header.equals(summary.columnNames))
+            {
+                throw new IOException("Log segment has different columns");
+            }
+
+            while (rows.hasNext())
+            {
+                summary.addRow(rows.next());
+            }
+        }
+
+        return summary;
+    }
+
+    /**
+     * Add a row of the log into the summary
+     * @param row to add
+     */
+    public void addRow(CsvRow row)
+    {
+        this.rowCount++;
+
+        int fieldCount = Math.min(row.getFieldCount(), this.columns.length);
+        for (int i = 0; i < fieldCount; i++)
+        {
+            String field = row.getField(i);
+            if (!field.isEmpty())
+            {
+                this.columns[i].add(field);
+            }
+        }
+
+        double time = this.getValue(row, this.timeColumn);
+        if (Double.isNaN(time))
+        {
+            return;
+        }
+
+        if (!Double.isNaN(this.previousTime) && time > this.previousTime)
+        {
+            double period = time - this.previousTime;
+            this.loopPeriods.add(period);
+            this.loopPeriodHistogram[Math.min((int)(period / LogSummary.LOOP_PERIOD_BIN_WIDTH), LogSummary.LOOP_PERIOD_BIN_COUNT - 1)]++;
+            if (period > TuningConstants.LOOP_DURATION * LogSummary.LOOP_OVERRUN_RATIO)
+            {
+                this.overrunCount++;
+            }
+        }
+
+        this.previousTime = time;
+
+        double missedHeartbeats = this.getValue(row, this.missedHeartbeatsColumn);
+        double excessiveMissedHeartbeats = this.getValue(row, this.excessiveMissedHeartbeatsColumn);
+        if (!Double.isNaN(missedHeartbeats) || !Double.isNaN(excessiveMissedHeartbeats))
+        {
+            this.visionOutages.update(
+                time,
+                missedHeartbeats > TuningConstants.VISION_MISSED_HEARTBEAT_THRESHOLD || excessiveMissedHeartbeats > 0.0,
+                missedHeartbeats);
+        }
+
+        double current = this.getValue(row, this.currentColumn);
+        if (!Double.isNaN(current))
+        {
+            this.overcurrents.update(time, current > TuningConstants.POWER_OVERCURRENT_THRESHOLD, current);
+        }
+    }
+
+    /**
+     * Get the name of the log
+     * @return the name
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * Get the names of the columns in the log
+     * @return the column names
+     */
+    public List<String> getColumnNames()
+    {
+        return this.columnNames;
+    }
+
+    /**
+     * Get the statistics for a column
+     * @param columnName of the column (the LoggingKey value)
+     * @return the statistics, or null if the log doesn't have the column
+     */
+    public ColumnStatistics getColumn(String columnName)
+    {
+        int column = this.columnNames.indexOf(columnName);
+        return column < 0 ? null : this.columns[column];
+    }
+
+    /**
+     * Get the number of rows in the log
+     * @return the row count
+     */
+    public long getRowCount()
+    {
+        return this.rowCount;
+    }
+
+    /**
+     * Get the statistics of the loop periods (the differences between consecutive RobotTime values)
+     * @return the loop period statistics
+     */
+    public ColumnStatistics getLoopPeriods()
+    {
+        return this.loopPeriods;
+    }
+
+    /**
+     * Get an approximate percentile of the loop periods
+     * @param percentile to get, between 0.0 and 1.0
+     * @return the loop period (accurate to within the 0.5ms bin width), or NaN if there were no loop periods
+     */
+    public double getLoopPeriodPercentile(double percentile)
+    {
+        long count = this.loopPeriods.getCount();
+        if (count == 0L)
+        {
+            return Double.NaN;
+        }
+
+        long target = (long)Math.ceil(percentile * count);
+        long seen = 0L;
+        for (int bin = 0; bin < this.loopPeriodHistogram.length; bin++)
+        {
+            seen += this.loopPeriodHistogram[bin];
+            if (seen >= target)
+            {
+                // the middle of the bin, clamped to the range of the samples
+                double value = (bin + 0.5) * LogSummary.LOOP_PERIOD_BIN_WIDTH;
+                return Math.max(this.loopPeriods.getMin(), Math.min(this.loopPeriods.getMax(), value));
+            }
+        }
+
+        return this.loopPeriods.getMax();
+    }
+
+    /**
+     * Get the number of loops that took much longer than the expected loop duration
+     * @return the number of overruns
+     */
+    public long getOverrunCount()
+    {
+        return this.overrunCount;
+    }
+
+    /**
+     * Get the episodes where the offboard vision missed too many heartbeats
+     * @return the vision outage episodes
+     */
+    public Episodes getVisionOutages()
+    {
+        return this.visionOutages;
+    }
+
+    /**
+     * Get the episodes where the current was over the overcurrent threshold
+     * @return the overcurrent episodes
+     */
+    public Episodes getOvercurrents()
+    {
+        return this.overcurrents;
+    }
+
+    private double getValue(CsvRow row, int column)
+    {
+        if (column < 0 || column >= row.getFieldCount())
+        {
+            return Double.NaN;
+        }
+
+        return ColumnStatistics.parse(row.getField(column));
+    }
+
+    /**
+     * Statistics for the values in a column, using Welford's algorithm for the mean and variance of the numeric values
+     */
+    public static class ColumnStatistics
+    {
+        private long count;
+        private long numericCount;
+        private long changeCount;
+        private double min;
+        private double max;
+        private double mean;
+        private double sumOfSquares;
+        private String previous;
+
+        ColumnStatistics()
+        {
+            this.min = Double.NaN;
+            this.max = Double.NaN;
+        }
+
+        /**
+         * Add a value, as it was written in the log
+         * @param value to add
+         */
+        void add(String value)
+        {
+            if (this.previous != null && !this.previous.equals(value))
+            {
+                this.changeCount++;
+            }
+
+            this.previous = value;
+
+            double number = ColumnStatistics.parse(value);
+            if (Double.isNaN(number))
+            {
+                this.count++;
+            }
+            else
+            {
+                this.add(number);
+            }
+        }
+
+        /**
+         * Add a numeric value
+         * @param value to add
+         */
+        void add(double value)
+        {
+            this.count++;
+            this.numericCount++;
+            if (this.numericCount == 1L)
+            {
+                this.min = value;
+                this.max = value;
+            }
+            else
+            {
+                this.min = Math.min(this.min, value);
+                this.max = Math.max(this.max, value);
+            }
+
+            double delta = value - this.mean;
+            this.mean += delta / this.numericCount;
+            this.sumOfSquares += delta * (value - this.mean);
+        }
+
+        /**
+         * Get the number of values in the column
+         * @return the count
+         */
+        public long getCount()
+        {
+            return this.count;
+        }
+
+        /**
+         * Get the number of numeric (including boolean) values in the column
+         * @return the count
+         */
+        public long getNumericCount()
+        {
+            return this.numericCount;
+        }
+
+        /**
+         * Get the number of times the value in the column changed
+         * @return the number of changes
+         */
+        public long getChangeCount()
+        {
+            return this.changeCount;
+        }
+
+        /**
+         * Get the smallest numeric value
+         * @return the minimum, or NaN if there were no numeric values
+         */
+        public double getMin()
+        {
+            return this.min;
+        }
+
+        /**
+         * Get the largest numeric value
+         * @return the maximum, or NaN if there were no numeric values
+         */
+        public double getMax()
+        {
+            return this.max;
+        }
+
+        /**
+         * Get the mean of the numeric values
+         * @return the mean, or NaN if there were no numeric values
+         */
+        public double getMean()
+        {
+            return this.numericCount == 0L ? Double.NaN : this.mean;
+        }
+
+        /**
+         * Get the (population) standard deviation of the numeric values
+         * @return the standard deviation, or NaN if there were no numeric values
+         */
+        public double getStandardDeviation()
+        {
+            return this.numericCount == 0L ? Double.NaN : Math.sqrt(this.sumOfSquares / this.numericCount);
+        }
+
+        /**
+         * Parse a value as it was written in the log as a number, treating booleans as 1 or 0
+         * @param value to parse
+         * @return the number, or NaN if the value isn't numeric
+         */
+        static double parse(String value)
+        {
+            if (value.isEmpty())
+            {
+                return Double.NaN;
+            }
+
+            char first = value.charAt(0);
+            if (first == 't' || first == 'f')
+            {
+                if (value.equals("true"))
+                {
+                    return 1.0;
+                }
+
+                if (value.equals("false"))
+                {
+                    return 0.0;
+                }
+
+                return Double.NaN;
+            }
+
+            // avoid the cost of an exception for the (common) string values that obviously aren't numbers
+            if (!(first >= '0' && first <= '9') && first != '-' && first != '.')
+            {
+                return Double.NaN;
+            }
+
+            try
+            {
+                return Double.parseDouble(value);
+            }
+            catch (NumberFormatException ex)
+            {
+                return Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Tracks the episodes (consecutive rows) where some condition was active
+     */
+    public static class Episodes
+    {
+        private long count;
+        private double totalDuration;
+        private double longestDuration;
+        private double peakValue;
+
+        private boolean active;
+        private double startTime;
+        private double lastTime;
+
+        Episodes()
+        {
+            this.peakValue = Double.NaN;
+        }
+
+        /**
+         * Update whether the condition is active
+         * @param time of the row
+         * @param active whether the condition is active in the row
+         * @param value associated with the condition (e.g. the current), used to track the peak value during the episodes
+         */
+        void update(double time, boolean active, double value)
+        {
+            if (active)
+            {
+                if (!this.active)
+                {
+                    this.count++;
+                    this.startTime = time;
+                }
+
+                if (!Double.isNaN(value) && !(value <= this.peakValue))
+                {
+                    this.peakValue = value;
+                }
+            }
+            else if (this.active)
+            {
+                this.finish(time);
+            }
+
+            this.active = active;
+            this.lastTime = time;
+        }
+
+        /**
+         * Get the number of episodes
+         * @return the count
+         */
+        public long getCount()
+        {
+            return this.count;
+        }
+
+        /**
+         * Get the total duration of all of the episodes (including one that was still active at the end of the log)
+         * @return the total duration, in seconds
+         */
+        public double getTotalDuration()
+        {
+            return this.totalDuration + (this.active ? this.lastTime - this.startTime : 0.0);
+        }
+
+        /**
+         * Get the duration of the longest episode (including one that was still active at the end of the log)
+         * @return the longest duration, in seconds
+         */
+        public double getLongestDuration()
+        {
+            return Math.max(this.longestDuration, this.active ? this.lastTime - this.startTime : 0.0);
+        }
+
+        /**
+         * Get the peak value during any of the episodes
+         * @return the peak value, or NaN if there were no episodes (or no values)
+         */
+        public double getPeakValue()
+        {
+            return this.peakValue;
+        }
+
+        private void finish(double endTime)
+        {
+            double duration = endTime - this.startTime;
+            this.totalDuration += duration;
+            this.longestDuration = Math.max(this.longestDuration, duration);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package frc.lib.logs;
+
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import frc.lib.CoreRobot;
+import frc.lib.robotprovider.ColumnarCSVLogger;
+import frc.lib.robotprovider.IFileWriter;
+import frc.lib.robotprovider.ISmartDashboardLogger;
+import frc.lib.robotprovider.NullLogger;
+import frc.lib.robotprovider.ReplayRobotProvider;
+import frc.lib.robotprovider.RobotMode;
+import frc.robot.ReplayModule;
+import frc.robot.TuningConstants;
+
+/**
+ * Runs the robot headlessly against a replay log recorded by RecordingRobotProvider (see TuningConstants.REPLAY_RECORD), running each
+ * recorded loop in the mode it was recorded in, as fast as the robot code allows.  What the replayed robot logs can be written to a
+ * CSV file, to compare against the match's own log (e.g. with "LogAnalyzer --diff") after changing the Driver or the mechanisms.
+ *
+ * Usage: RobotReplay log.replay [output.csv]
+ */
+public class RobotReplay
+{
+    /**
+     * Replay a log into the robot, from robotInit through the last recorded loop
+     * @param robot to replay into, using a module that binds the replay's provider and timer (such as ReplayModule)
+     * @param replay to read from
+     * @return the number of loops replayed
+     */
+    public static int replay(CoreRobot<?> robot, ReplayRobotProvider replay)
+    {
+        robot.robotInit();
+
+        RobotMode currentMode = null;
+        RobotMode mode;
+        while ((mode = replay.getNextLoopMode()) != null)
+        {
+            if (mode != currentMode)
+            {
+                RobotReplay.init(robot, mode);
+                currentMode = mode;
+            }
+
+            int loopCount = replay.getLoopCount();
+            RobotReplay.periodic(robot, mode);
+            if (replay.getLoopCount() == loopCount)
+            {
+                // the robot's provider isn't the replay's (or this mode doesn't start a loop), so move on regardless
+                replay.startLoop(mode);
+            }
+        }
+
+        robot.disabledInit();
+        return replay.getLoopCount();
+    }
+
+    private static void init(CoreRobot<?> robot, RobotMode mode)
+    {
+        switch (mode)
+        {
+            case Autonomous:
+                robot.autonomousInit();
+                break;
+
+            case Teleop:
+                robot.teleopInit();
+                break;
+
+            case Test:
+                robot.testInit();
+                break;
+
+            case Simulation:
+                robot.simulationInit();
+                break;
+
+            case Disabled:
+            default:
+                robot.disabledInit();
+                break;
+        }
+    }
+
+    private static void periodic(CoreRobot<?> robot, RobotMode mode)
+    {
+        switch (mode)
+        {
+            case Autonomous:
+                robot.autonomousPeriodic();
+                break;
+
+            case Teleop:
+                robot.teleopPeriodic();
+                break;
+
+            case Test:
+                robot.testPeriodic();
+                break;
+
+            case Simulation:
+                robot.simulationPeriodic();
+                break;
+
+            case Disabled:
+            default:
+                robot.disabledPeriodic();
+                break;
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        if (args.length < 1 || args.length > 2)
+        {
+            System.err.println("Usage: RobotReplay log.replay [output.csv]");
+            System.exit(1);
+            return;
+        }
+
+        try (InputStream input = new FileInputStream(args[0]))
+        {
+            ReplayRobotProvider replay = new ReplayRobotProvider(input);
+
+            ISmartDashboardLogger logger;
+            if (args.length == 2)
+            {
+                Writer output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(args[1]), StandardCharsets.UTF_8));
+                logger = new CSVReplayLogger(new WriterFileWriter(output));
+            }
+            else
+            {
+                logger = new NullReplayLogger();
+            }
+
+            long startTime = System.nanoTime();
+            int loopCount = RobotReplay.replay(new CoreRobot<ReplayModule>(new ReplayModule(replay, logger)), replay);
+            double elapsed = (System.nanoTime() - startTime) / 1000000000.0;
+
+            logger.close();
+            System.out.println(String.format("Replayed %1$d loops (%2$.1f seconds of robot time) in %3$.2f seconds", loopCount, loopCount * TuningConstants.LOOP_DURATION, elapsed));
+        }
+        catch (IOException ex)
+        {
+            System.err.println(String.format("Failed to replay %1$s: %2$s", args[0], ex.getMessage()));
+            System.exit(1);
+        }
+    }
+
+    private static class NullReplayLogger extends NullLogger implements ISmartDashboardLogger
+    {
+    }
+
+    private static class CSVReplayLogger extends ColumnarCSVLogger implements ISmartDashboardLogger
+    {
+        CSVReplayLogger(IFileWriter fileWriter) throws IOException
+        {
+            super(fileWriter);
+        }
+    }
+
+    private static class WriterFileWriter implements IFileWriter
+    {
+        private final Writer writer;
+
+        WriterFileWriter(Writer writer)
+        {
+            this.writer = writer;
+        }
+
+        @Override
+        public void append(String string) throws IOException
+        {
+            this.writer.append(string);
+        }
+
+        @Override
+        public void flush() throws IOException
+        {
+            this.writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            this.writer.close();
+        }
+    }
+}
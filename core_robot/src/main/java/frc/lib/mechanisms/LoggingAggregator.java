@@ -0,0 +1,442 @@
+package frc.lib.mechanisms;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import frc.robot.LoggingKey;
+import frc.lib.robotprovider.ILogger;
+import frc.lib.robotprovider.ITimer;
+import frc.lib.robotprovider.LoggingAggregation;
+
+/**
+ * Applies the LoggingAggregation of each LoggingKey to the values logged for it, writing the aggregated values to a logger.
+ *
+ * Each key keeps a fixed set of primitive accumulators (indexed by the key's ordinal), so adding a value is O(1) and doesn't allocate.
+ * Aggregation windows are measured in updates (loggingFrequency updates per window), as the loggers are updated once per robot loop.
+ * The RateLimit interval is measured in seconds using the timer, so that it doesn't change with the loop rate (e.g. during overruns).
+ */
+class LoggingAggregator
+{
+    private static final byte KIND_NONE = 0;
+    private static final byte KIND_BOOLEAN = 1;
+    private static final byte KIND_NUMBER = 2;
+    private static final byte KIND_NULLABLE_NUMBER = 3;
+    private static final byte KIND_INTEGER = 4;
+    private static final byte KIND_NULLABLE_INTEGER = 5;
+    private static final byte KIND_FORMATTED_INTEGER = 6;
+    private static final byte KIND_STRING = 7;
+
+    private final LoggingKey[] keys;
+    private final LoggingAggregation[] aggregations;
+    private final int[] aggregatedOrdinals;
+    private final double[] rateLimitIntervals;
+    private final ITimer timer;
+
+    // the value to write at the end of the current window (or KIND_NONE if there is nothing to write)
+    private final byte[] kinds;
+    private final boolean[] nulls;
+    private final double[] values; // the latest value, the minimum/maximum/peak, or the sum (Mean)
+    private final int[] counts; // the number of values summed (Mean), or the number of changes (ChangeCount)
+    private final String[] strings; // the string value, or the format string for a formatted integer
+
+    // the previous value seen (ChangeCount) or written (RateLimit), to detect changes
+    private final byte[] previousKinds;
+    private final boolean[] previousNulls;
+    private final long[] previousBits;
+    private final String[] previousStrings;
+    private final double[] writtenTimes;
+
+    private int updateCount;
+
+    /**
+     * Initializes a new LoggingAggregator using the aggregation of each LoggingKey
+     * @param timer to measure rate limit intervals with, or null to write every change of rate-limited keys
+     */
+    LoggingAggregator(ITimer timer)
+    {
+        this(null, null, timer);
+    }
+
+    /**
+     * Initializes a new LoggingAggregator
+     * @param aggregations to use for each key (indexed by ordinal), or null to use the aggregation of each LoggingKey
+     * @param rateLimitIntervals to use for each key in seconds (indexed by ordinal), or null to use the interval of each LoggingKey
+     * @param timer to measure rate limit intervals with, or null to write every change of rate-limited keys
+     */
+    LoggingAggregator(LoggingAggregation[] aggregations, double[] rateLimitIntervals, ITimer timer)
+    {
+        this.keys = LoggingKey.values();
+        this.aggregations = new LoggingAggregation[this.keys.length];
+        this.rateLimitIntervals = new double[this.keys.length];
+        this.timer = timer;
+
+        List<Integer> aggregated = new ArrayList<Integer>();
+        for (LoggingKey key : this.keys)
+        {
+            LoggingAggregation aggregation = aggregations != null ? aggregations[key.ordinal()] : key.aggregation;
+            this.aggregations[key.ordinal()] = aggregation;
+            this.rateLimitIntervals[key.ordinal()] = rateLimitIntervals != null ? rateLimitIntervals[key.ordinal()] : key.rateLimitInterval;
+            if (aggregation != LoggingAggregation.Sample)
+            {
+                aggregated.add(key.ordinal());
+            }
+        }
+
+        this.aggregatedOrdinals = new int[aggregated.size()];
+        for (int i = 0; i < this.aggregatedOrdinals.length; i++)
+        {
+            this.aggregatedOrdinals[i] = aggregated.get(i);
+        }
+
+        int keyCount = this.keys.length;
+        this.kinds = new byte[keyCount];
+        this.nulls = new boolean[keyCount];
+        this.values = new double[keyCount];
+        this.counts = new int[keyCount];
+        this.strings = new String[keyCount];
+        this.previousKinds = new byte[keyCount];
+        this.previousNulls = new boolean[keyCount];
+        this.previousBits = new long[keyCount];
+        this.previousStrings = new String[keyCount];
+        this.writtenTimes = new double[keyCount];
+        this.updateCount = 0;
+    }
+
+    /**
+     * Check whether the values for the key are aggregated
+     * @param key to check
+     * @return true if values should be added to the aggregator, false if they should be logged directly
+     */
+    boolean isAggregated(LoggingKey key)
+    {
+        return this.aggregations[key.ordinal()] != LoggingAggregation.Sample;
+    }
+
+    /**
+     * Add a boolean value for an aggregated key
+     * @param logger to write to, if the value should be written immediately
+     * @param key to add to
+     * @param value to add
+     */
+    void addBoolean(ILogger logger, LoggingKey key, boolean value)
+    {
+        this.add(logger, key, LoggingAggregator.KIND_BOOLEAN, false, value ? 1.0 : 0.0, null);
+    }
+
+    /**
+     * Add a number (double) value for an aggregated key
+     * @param logger to write to, if the value should be written immediately
+     * @param key to add to
+     * @param value to add
+     */
+    void addNumber(ILogger logger, LoggingKey key, double value)
+    {
+        this.add(logger, key, LoggingAggregator.KIND_NUMBER, false, value, null);
+    }
+
+    /**
+     * Add a number (nullable Double) value for an aggregated key
+     * @param logger to write to, if the value should be written immediately
+     * @param key to add to
+     * @param value to add
+     */
+    void addNumber(ILogger logger, LoggingKey key, Double value)
+    {
+        this.add(logger, key, LoggingAggregator.KIND_NULLABLE_NUMBER, value == null, value == null ? 0.0 : value.doubleValue(), null);
+    }
+
+    /**
+     * Add a number (integer) value for an aggregated key
+     * @param logger to write to, if the value should be written immediately
+     * @param key to add to
+     * @param value to add
+     */
+    void addInteger(ILogger logger, LoggingKey key, int value)
+    {
+        this.add(logger, key, LoggingAggregator.KIND_INTEGER, false, value, null);
+    }
+
+    /**
+     * Add a number (nullable Integer) value for an aggregated key
+     * @param logger to write to, if the value should be written immediately
+     * @param key to add to
+     * @param value to add
+     */
+    void addInteger(ILogger logger, LoggingKey key, Integer value)
+    {
+        this.add(logger, key, LoggingAggregator.KIND_NULLABLE_INTEGER, value == null, value == null ? 0.0 : value.intValue(), null);
+    }
+
+    /**
+     * Add a number (integer) value for an aggregated key
+     * @param logger to write to, if the value should be written immediately
+     * @param key to add to
+     * @param value to add
+     * @param formatString to use when writing the value
+     */
+    void addInteger(ILogger logger, LoggingKey key, int value, String formatString)
+    {
+        this.add(logger, key, LoggingAggregator.KIND_FORMATTED_INTEGER, false, value, formatString);
+    }
+
+    /**
+     * Add a string value for an aggregated key
+     * @param logger to write to, if the value should be written immediately
+     * @param key to add to
+     * @param value to add
+     */
+    void addString(ILogger logger, LoggingKey key, String value)
+    {
+        this.add(logger, key, LoggingAggregator.KIND_STRING, false, 0.0, value);
+    }
+
+    /**
+     * Write the values for any windows that are ending, before the logger is updated
+     * @param logger to write to
+     */
+    void update(ILogger logger)
+    {
+        double now = this.getTime();
+        for (int ordinal : this.aggregatedOrdinals)
+        {
+            LoggingKey key = this.keys[ordinal];
+            if (this.aggregations[ordinal] == LoggingAggregation.RateLimit)
+            {
+                // write a suppressed change once the interval since the last write has passed
+                if (this.kinds[ordinal] != LoggingAggregator.KIND_NONE &&
+                    this.hasIntervalPassed(ordinal, now))
+                {
+                    this.writeRateLimited(logger, key, ordinal, now);
+                }
+            }
+            else if ((this.updateCount % key.loggingFrequency) == key.loggingFrequency - 1)
+            {
+                if (this.kinds[ordinal] != LoggingAggregator.KIND_NONE)
+                {
+                    this.write(logger, key, ordinal);
+                }
+
+                this.kinds[ordinal] = LoggingAggregator.KIND_NONE;
+                this.counts[ordinal] = 0;
+            }
+        }
+
+        this.updateCount++;
+    }
+
+    private void add(ILogger logger, LoggingKey key, byte kind, boolean isNull, double value, String string)
+    {
+        int ordinal = key.ordinal();
+        LoggingAggregation aggregation = this.aggregations[ordinal];
+        switch (aggregation)
+        {
+            case Min:
+            case Max:
+            case Mean:
+            case Peak:
+                if (kind != LoggingAggregator.KIND_BOOLEAN && kind != LoggingAggregator.KIND_STRING)
+                {
+                    this.accumulate(aggregation, ordinal, kind, isNull, value, string);
+                    break;
+                }
+
+                // only numbers can be combined, so other values are treated as Last
+                this.set(ordinal, kind, isNull, value, string);
+                break;
+
+            case ChangeCount:
+                if (this.previousKinds[ordinal] != LoggingAggregator.KIND_NONE &&
+                    !this.isPrevious(ordinal, kind, isNull, value, string))
+                {
+                    this.counts[ordinal]++;
+                }
+
+                this.setPrevious(ordinal, kind, isNull, value, string);
+                this.kinds[ordinal] = LoggingAggregator.KIND_INTEGER;
+                this.nulls[ordinal] = false;
+                break;
+
+            case RateLimit:
+                if (this.previousKinds[ordinal] != LoggingAggregator.KIND_NONE &&
+                    this.isPrevious(ordinal, kind, isNull, value, string))
+                {
+                    // back to the value that was last written, so there's no change to write
+                    this.kinds[ordinal] = LoggingAggregator.KIND_NONE;
+                    break;
+                }
+
+                this.set(ordinal, kind, isNull, value, string);
+                double now = this.getTime();
+                if (this.previousKinds[ordinal] == LoggingAggregator.KIND_NONE ||
+                    this.hasIntervalPassed(ordinal, now))
+                {
+                    this.writeRateLimited(logger, key, ordinal, now);
+                }
+
+                break;
+
+            case Last:
+            default:
+                this.set(ordinal, kind, isNull, value, string);
+                break;
+        }
+    }
+
+    private void accumulate(LoggingAggregation aggregation, int ordinal, byte kind, boolean isNull, double value, String formatString)
+    {
+        if (isNull)
+        {
+            // nulls are only written when no numbers were logged during the window
+            if (this.kinds[ordinal] == LoggingAggregator.KIND_NONE)
+            {
+                this.set(ordinal, kind, true, 0.0, formatString);
+            }
+
+            return;
+        }
+
+        if (this.kinds[ordinal] == LoggingAggregator.KIND_NONE || this.nulls[ordinal])
+        {
+            this.set(ordinal, kind, false, value, formatString);
+            this.counts[ordinal] = 1;
+            return;
+        }
+
+        this.kinds[ordinal] = kind;
+        this.strings[ordinal] = formatString;
+        double current = this.values[ordinal];
+        switch (aggregation)
+        {
+            case Min:
+                this.values[ordinal] = Math.min(current, value);
+                break;
+
+            case Max:
+                this.values[ordinal] = Math.max(current, value);
+                break;
+
+            case Peak:
+                if (Math.abs(value) > Math.abs(current))
+                {
+                    this.values[ordinal] = value;
+                }
+
+                break;
+
+            case Mean:
+            default:
+                this.values[ordinal] = current + value;
+                this.counts[ordinal]++;
+                break;
+        }
+    }
+
+    private void set(int ordinal, byte kind, boolean isNull, double value, String string)
+    {
+        this.kinds[ordinal] = kind;
+        this.nulls[ordinal] = isNull;
+        this.values[ordinal] = value;
+        this.strings[ordinal] = string;
+    }
+
+    private void setPrevious(int ordinal, byte kind, boolean isNull, double value, String string)
+    {
+        this.previousKinds[ordinal] = kind;
+        this.previousNulls[ordinal] = isNull;
+        this.previousBits[ordinal] = Double.doubleToLongBits(value);
+        this.previousStrings[ordinal] = string;
+    }
+
+    private boolean isPrevious(int ordinal, byte kind, boolean isNull, double value, String string)
+    {
+        if (this.previousKinds[ordinal] != kind || this.previousNulls[ordinal] != isNull)
+        {
+            return false;
+        }
+
+        if (isNull)
+        {
+            return true;
+        }
+
+        if (this.previousBits[ordinal] != Double.doubleToLongBits(value))
+        {
+            return false;
+        }
+
+        String previousString = this.previousStrings[ordinal];
+        return string == null ? previousString == null : string.equals(previousString);
+    }
+
+    private double getTime()
+    {
+        return this.timer != null ? this.timer.get() : 0.0;
+    }
+
+    private boolean hasIntervalPassed(int ordinal, double now)
+    {
+        if (this.timer == null)
+        {
+            return true;
+        }
+
+        // the timer is reset when the robot is disabled, so time going backwards also counts as the interval having passed
+        double elapsed = now - this.writtenTimes[ordinal];
+        return elapsed < 0.0 || elapsed >= this.rateLimitIntervals[ordinal];
+    }
+
+    private void writeRateLimited(ILogger logger, LoggingKey key, int ordinal, double now)
+    {
+        this.setPrevious(ordinal, this.kinds[ordinal], this.nulls[ordinal], this.values[ordinal], this.strings[ordinal]);
+        this.writtenTimes[ordinal] = now;
+        this.write(logger, key, ordinal);
+        this.kinds[ordinal] = LoggingAggregator.KIND_NONE;
+    }
+
+    private void write(ILogger logger, LoggingKey key, int ordinal)
+    {
+        LoggingAggregation aggregation = this.aggregations[ordinal];
+        double value = this.values[ordinal];
+        if (aggregation == LoggingAggregation.ChangeCount)
+        {
+            logger.logInteger(key, this.counts[ordinal]);
+            return;
+        }
+
+        if (aggregation == LoggingAggregation.Mean && !this.nulls[ordinal] && this.counts[ordinal] > 0)
+        {
+            value /= this.counts[ordinal];
+        }
+
+        switch (this.kinds[ordinal])
+        {
+            case LoggingAggregator.KIND_BOOLEAN:
+                logger.logBoolean(key, value != 0.0);
+                break;
+
+            case LoggingAggregator.KIND_NUMBER:
+                logger.logNumber(key, value);
+                break;
+
+            case LoggingAggregator.KIND_NULLABLE_NUMBER:
+                logger.logNumber(key, this.nulls[ordinal] ? (Double)null : Double.valueOf(value));
+                break;
+
+            case LoggingAggregator.KIND_INTEGER:
+                logger.logInteger(key, (int)Math.round(value));
+                break;
+
+            case LoggingAggregator.KIND_NULLABLE_INTEGER:
+                logger.logInteger(key, this.nulls[ordinal] ? (Integer)null : Integer.valueOf((int)Math.round(value)));
+                break;
+
+            case LoggingAggregator.KIND_FORMATTED_INTEGER:
+                logger.logInteger(key, (int)Math.round(value), this.strings[ordinal]);
+                break;
+
+            case LoggingAggregator.KIND_STRING:
+                logger.logString(key, this.strings[ordinal]);
+                break;
+        }
+    }
+}
@@ -10,28 +10,50 @@ import frc.lib.robotprovider.*;
 
 /**
  * Logging manager class, to help log data to Shuffleboard/SmartDashboard/AdvantageKit/etc.
+ *
+ * Mechanisms may log from worker threads when sensors are read concurrently, so access to the current logger is synchronized.
+ *
+ * Keys with a LoggingAggregation other than Sample are aggregated here (over each window of loggingFrequency updates, or each
+ * rateLimitInterval seconds for RateLimit) before being written to the current logger, so that intermediate values (e.g. peaks) aren't
+ * lost by logging less often.
  */
 @Singleton
 public class LoggingManager implements ILogger
 {
+    private final LoggingAggregator aggregator;
+
     private ILogger currentLogger;
 
     /**
      * Initializes a new instance of the LoggingManager class.
      * Guice constructor.
+     * @param timer to measure rate limit intervals with
      */
     @Inject
-    public LoggingManager()
+    public LoggingManager(ITimer timer)
     {
+        this.aggregator = new LoggingAggregator(timer);
     }
 
     /**
      * Initializes a new instance of the LoggingManager class.
-     * Unit-test constructor
+     * Unit-test constructor (without a timer, every change of a rate-limited key is written)
      * @param logger to use
      */
     public LoggingManager(ILogger logger)
     {
+        this(logger, null);
+    }
+
+    /**
+     * Initializes a new instance of the LoggingManager class.
+     * Unit-test constructor
+     * @param logger to use
+     * @param timer to measure rate limit intervals with
+     */
+    public LoggingManager(ILogger logger, ITimer timer)
+    {
+        this.aggregator = new LoggingAggregator(timer);
         this.currentLogger = logger;
     }
 
@@ -39,9 +61,14 @@ public class LoggingManager implements ILogger
      * Refresh the current logger that is being used based on the logger creator function
      * @param injector to use to get the appropriate logger
      */
-    public void refresh(Injector injector)
+    public synchronized void refresh(Injector injector)
     {
+        ILogger previousLogger = this.currentLogger;
         this.currentLogger = SettingsManager.getLogger(injector);
+        if (previousLogger != null)
+        {
+            previousLogger.close();
+        }
     }
 
     /**
@@ -50,8 +77,14 @@ public class LoggingManager implements ILogger
      * @param value to write
      */
     @Override
-    public void logBoolean(LoggingKey key, boolean value)
+    public synchronized void logBoolean(LoggingKey key, boolean value)
     {
+        if (this.aggregator.isAggregated(key))
+        {
+            this.aggregator.addBoolean(this.currentLogger, key, value);
+            return;
+        }
+
         this.currentLogger.logBoolean(key, value);
     }
 
@@ -61,7 +94,7 @@ public class LoggingManager implements ILogger
      * @param value to write
      */
     @Override
-    public void logBooleanArray(LoggingKey key, boolean[] value)
+    public synchronized void logBooleanArray(LoggingKey key, boolean[] value)
     {
         this.currentLogger.logBooleanArray(key, value);
     }
@@ -72,8 +105,14 @@ public class LoggingManager implements ILogger
      * @param value to write
      */
     @Override
-    public void logNumber(LoggingKey key, double value)
+    public synchronized void logNumber(LoggingKey key, double value)
     {
+        if (this.aggregator.isAggregated(key))
+        {
+            this.aggregator.addNumber(this.currentLogger, key, value);
+            return;
+        }
+
         this.currentLogger.logNumber(key, value);
     }
 
@@ -83,19 +122,55 @@ public class LoggingManager implements ILogger
      * @param value to write
      */
     @Override
-    public void logNumber(LoggingKey key, Double value)
+    public synchronized void logNumber(LoggingKey key, Double value)
     {
+        if (this.aggregator.isAggregated(key))
+        {
+            this.aggregator.addNumber(this.currentLogger, key, value);
+            return;
+        }
+
         this.currentLogger.logNumber(key, value);
     }
 
+    /**
+     * Write an array of numbers (doubles) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public synchronized void logNumberArray(LoggingKey key, double[] value)
+    {
+        this.currentLogger.logNumberArray(key, value);
+    }
+
+    /**
+     * Write a pose to the log
+     * @param key to write to
+     * @param x position (in inches)
+     * @param y position (in inches)
+     * @param angle (in degrees)
+     */
+    @Override
+    public synchronized void logPose(LoggingKey key, double x, double y, double angle)
+    {
+        this.currentLogger.logPose(key, x, y, angle);
+    }
+
     /**
      * Write a number (integer) to the log
      * @param key to write to
      * @param value to write
      */
     @Override
-    public void logInteger(LoggingKey key, int value)
+    public synchronized void logInteger(LoggingKey key, int value)
     {
+        if (this.aggregator.isAggregated(key))
+        {
+            this.aggregator.addInteger(this.currentLogger, key, value);
+            return;
+        }
+
         this.currentLogger.logInteger(key, value);
     }
 
@@ -105,8 +180,14 @@ public class LoggingManager implements ILogger
      * @param value to write
      */
     @Override
-    public void logInteger(LoggingKey key, Integer value)
+    public synchronized void logInteger(LoggingKey key, Integer value)
     {
+        if (this.aggregator.isAggregated(key))
+        {
+            this.aggregator.addInteger(this.currentLogger, key, value);
+            return;
+        }
+
         this.currentLogger.logInteger(key, value);
     }
 
@@ -117,8 +198,14 @@ public class LoggingManager implements ILogger
      * @param formatString to use
      */
     @Override
-    public void logInteger(LoggingKey key, int value, String formatString)
+    public synchronized void logInteger(LoggingKey key, int value, String formatString)
     {
+        if (this.aggregator.isAggregated(key))
+        {
+            this.aggregator.addInteger(this.currentLogger, key, value, formatString);
+            return;
+        }
+
         this.currentLogger.logInteger(key, value, formatString);
     }
 
@@ -128,8 +215,14 @@ public class LoggingManager implements ILogger
      * @param value to write
      */
     @Override
-    public void logString(LoggingKey key, String value)
+    public synchronized void logString(LoggingKey key, String value)
     {
+        if (this.aggregator.isAggregated(key))
+        {
+            this.aggregator.addString(this.currentLogger, key, value);
+            return;
+        }
+
         this.currentLogger.logString(key, value);
     }
 
@@ -137,8 +230,9 @@ public class LoggingManager implements ILogger
      * Update the log, if appropriate..
      */
     @Override
-    public void update()
+    public synchronized void update()
     {
+        this.aggregator.update(this.currentLogger);
         this.currentLogger.update();
     }
 
@@ -146,8 +240,17 @@ public class LoggingManager implements ILogger
      * Flush the output stream, if appropriate..
      */
     @Override
-    public void flush()
+    public synchronized void flush()
     {
         this.currentLogger.flush();
     }
+
+    /**
+     * Flush the log and release any resources that it is using
+     */
+    @Override
+    public synchronized void close()
+    {
+        this.currentLogger.close();
+    }
 }
@@ -0,0 +1,32 @@
+package frc.lib.mechanisms;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares which other mechanisms a mechanism depends on, so that the MechanismManager can tell which mechanisms
+ * can safely be run concurrently with each other.
+ *
+ * Dependencies are matched using instanceof, so an interface (e.g. IIMUManager) can be used to refer to whichever implementation is active.
+ * Dependencies on mechanisms that are not active are ignored.  Any dependencies must come earlier in the list of active mechanisms.
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface MechanismDependencies
+{
+    /**
+     * The mechanisms whose readSensors must complete before this mechanism's readSensors is called
+     * @return the mechanism types
+     */
+    Class<?>[] readSensors() default {};
+
+    /**
+     * The mechanisms whose update must complete before this mechanism's update is called
+     * @return the mechanism types
+     */
+    Class<?>[] update() default {};
+}
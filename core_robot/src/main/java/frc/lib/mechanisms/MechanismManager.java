@@ -2,23 +2,119 @@ package frc.lib.mechanisms;
 
 import java.util.List;
 
+import frc.lib.driver.InputLatencyTracer;
+import frc.lib.helpers.ExceptionHelpers;
+import frc.lib.helpers.LatencyHistogram;
+import frc.lib.helpers.WorkerPool;
 import frc.lib.robotprovider.RobotMode;
+import frc.robot.LoggingKey;
 import frc.robot.TuningConstants;
 
 /**
  * Manager of mechanisms - runs each mechanism in order and individually so that they can be interacted with in-bulk
+ *
+ * Each call into a mechanism is timed so that we can keep track of which mechanism(s) are responsible for the main loop
+ * taking longer than expected.
+ *
+ * Sensor reads and updates can optionally be run concurrently on a small pool of worker threads, as most of their time is spent
+ * blocked on JNI/CAN/NetworkTables calls.  Mechanisms declare which other mechanisms they depend on within each phase using the
+ * MechanismDependencies annotation, and the mechanisms are grouped into waves where each wave only depends on the ones before it.
+ * Concurrent updates rely on the Driver's operation snapshot, which doesn't change until the next Driver update.
  */
 public class MechanismManager implements IMechanism
 {
+    private static final double NANOSECONDS_PER_MILLISECOND = 1000000.0;
+
+    /**
+     * The phases of a mechanism that are profiled
+     */
+    public enum Phase
+    {
+        ReadSensors,
+        Update,
+        Stop,
+    }
+
     public final List<IMechanism> mechanismList;
 
+    private final LoggingManager logger;
+    private final IMechanism[] mechanisms;
+    private final String[] mechanismNames;
+    private final LatencyHistogram[][] latencies; // [phase][mechanism]
+
+    private final WorkerPool workerPool;
+    private final Runnable[][] readSensorsWaves;
+    private final Runnable[][] updateWaves;
+
+    private RobotMode updateMode;
+    private int profilingUpdates;
+
     /**
      * Initializes a new instance of the MechanismManager class.
+     * @param logger to use to log the latency of each of the mechanisms
      * @param mechanismList list of mechanisms to be managed
      */
-    public MechanismManager(List<IMechanism> mechanismList)
+    public MechanismManager(LoggingManager logger, List<IMechanism> mechanismList)
     {
+        this(
+            logger,
+            mechanismList,
+            TuningConstants.MECHANISM_WORKER_THREADS,
+            TuningConstants.MECHANISM_PARALLEL_READ_SENSORS,
+            TuningConstants.MECHANISM_PARALLEL_UPDATE);
+    }
+
+    /**
+     * Initializes a new instance of the MechanismManager class.
+     * Unit-test constructor
+     * @param logger to use to log the latency of each of the mechanisms
+     * @param mechanismList list of mechanisms to be managed
+     * @param workerThreads the number of worker threads to use when running mechanisms concurrently
+     * @param parallelReadSensors whether to read sensors concurrently (true) or serially in list order (false)
+     * @param parallelUpdate whether to update mechanisms concurrently (true) or serially in list order (false)
+     */
+    public MechanismManager(
+        LoggingManager logger,
+        List<IMechanism> mechanismList,
+        int workerThreads,
+        boolean parallelReadSensors,
+        boolean parallelUpdate)
+    {
+        this.logger = logger;
         this.mechanismList = mechanismList;
+
+        int mechanismCount = mechanismList.size();
+        this.mechanisms = mechanismList.toArray(new IMechanism[mechanismCount]);
+        this.mechanismNames = new String[mechanismCount];
+        for (int i = 0; i < mechanismCount; i++)
+        {
+            this.mechanismNames[i] = this.mechanisms[i].getClass().getSimpleName();
+        }
+
+        Phase[] phases = Phase.values();
+        this.latencies = new LatencyHistogram[phases.length][mechanismCount];
+        for (Phase phase : phases)
+        {
+            for (int i = 0; i < mechanismCount; i++)
+            {
+                this.latencies[phase.ordinal()][i] = new LatencyHistogram(TuningConstants.MECHANISM_PROFILING_WINDOW);
+            }
+        }
+
+        boolean useWorkers = workerThreads > 0 && mechanismCount > 1;
+        this.readSensorsWaves = useWorkers && parallelReadSensors ? this.calculateWaves(Phase.ReadSensors) : null;
+        this.updateWaves = useWorkers && parallelUpdate ? this.calculateWaves(Phase.Update) : null;
+        if (this.readSensorsWaves != null || this.updateWaves != null)
+        {
+            this.workerPool = new WorkerPool("MechanismWorker", workerThreads);
+        }
+        else
+        {
+            this.workerPool = null;
+        }
+
+        this.updateMode = RobotMode.Disabled;
+        this.profilingUpdates = 0;
     }
 
     /**
@@ -28,21 +124,26 @@ public class MechanismManager implements IMechanism
     @Override
     public void readSensors()
     {
-        for (IMechanism mechanism : this.mechanismList)
+        long startTime = TuningConstants.MECHANISM_PROFILING_ENABLED ? System.nanoTime() : 0L;
+        if (this.readSensorsWaves != null)
         {
-            try
+            for (Runnable[] wave : this.readSensorsWaves)
             {
-                mechanism.readSensors();
+                this.workerPool.run(wave, wave.length);
             }
-            catch (Exception ex)
+        }
+        else
+        {
+            for (int i = 0; i < this.mechanisms.length; i++)
             {
-                System.err.println("Encountered exception: " + ex.toString());
-                if (TuningConstants.THROW_EXCEPTIONS)
-                {
-                    throw ex;
-                }
+                this.readSensors(i);
             }
         }
+
+        if (TuningConstants.MECHANISM_PROFILING_ENABLED && this.logger != null)
+        {
+            this.logger.logNumber(LoggingKey.MechanismReadSensorsDuration, (System.nanoTime() - startTime) / MechanismManager.NANOSECONDS_PER_MILLISECOND);
+        }
     }
 
     /**
@@ -53,19 +154,31 @@ public class MechanismManager implements IMechanism
     @Override
     public void update(RobotMode mode)
     {
-        for (IMechanism mechanism : this.mechanismList)
+        long startTime = TuningConstants.MECHANISM_PROFILING_ENABLED ? System.nanoTime() : 0L;
+        if (this.updateWaves != null)
         {
-            try
+            this.updateMode = mode;
+            for (Runnable[] wave : this.updateWaves)
             {
-                mechanism.update(mode);
+                this.workerPool.run(wave, wave.length);
             }
-            catch (Exception ex)
+        }
+        else
+        {
+            for (int i = 0; i < this.mechanisms.length; i++)
             {
-                System.err.println("Encountered exception: " + ex.toString());
-                if (TuningConstants.THROW_EXCEPTIONS)
-                {
-                    throw ex;
-                }
+                this.update(i, mode);
+            }
+        }
+
+        if (TuningConstants.MECHANISM_PROFILING_ENABLED && this.logger != null)
+        {
+            this.logger.logNumber(LoggingKey.MechanismUpdateDuration, (System.nanoTime() - startTime) / MechanismManager.NANOSECONDS_PER_MILLISECOND);
+            if (++this.profilingUpdates >= TuningConstants.MECHANISM_PROFILING_REPORT_FREQUENCY)
+            {
+                this.profilingUpdates = 0;
+                this.logger.logString(LoggingKey.MechanismSlowest, this.getSlowestMechanismName());
+                this.logger.logString(LoggingKey.MechanismLatencies, this.getLatencyReport());
             }
         }
     }
@@ -77,11 +190,13 @@ public class MechanismManager implements IMechanism
     @Override
     public void stop()
     {
-        for (IMechanism mechanism : this.mechanismList)
+        LatencyHistogram[] phaseLatencies = this.latencies[Phase.Stop.ordinal()];
+        for (int i = 0; i < this.mechanisms.length; i++)
         {
+            long startTime = TuningConstants.MECHANISM_PROFILING_ENABLED ? System.nanoTime() : 0L;
             try
             {
-                mechanism.stop();
+                this.mechanisms[i].stop();
             }
             catch (Exception ex)
             {
@@ -91,6 +206,247 @@ public class MechanismManager implements IMechanism
                     throw ex;
                 }
             }
+            finally
+            {
+                if (TuningConstants.MECHANISM_PROFILING_ENABLED)
+                {
+                    phaseLatencies[i].update(System.nanoTime() - startTime);
+                }
+            }
         }
     }
+
+    /**
+     * Retrieve the number of waves that the provided phase is split into when the mechanisms are run concurrently
+     * @param phase to retrieve the number of waves for
+     * @return the number of waves, or 0 if the phase is run serially
+     */
+    public int getWaveCount(Phase phase)
+    {
+        Runnable[][] waves = null;
+        if (phase == Phase.ReadSensors)
+        {
+            waves = this.readSensorsWaves;
+        }
+        else if (phase == Phase.Update)
+        {
+            waves = this.updateWaves;
+        }
+
+        if (waves == null)
+        {
+            return 0;
+        }
+
+        return waves.length;
+    }
+
+    /**
+     * Retrieve the latency histogram for the provided mechanism and phase
+     * @param mechanism to retrieve the latencies for
+     * @param phase to retrieve the latencies for
+     * @return the latency histogram, or null if the mechanism isn't managed by this manager
+     */
+    public LatencyHistogram getLatencies(IMechanism mechanism, Phase phase)
+    {
+        for (int i = 0; i < this.mechanisms.length; i++)
+        {
+            if (this.mechanisms[i] == mechanism)
+            {
+                return this.latencies[phase.ordinal()][i];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Retrieve the name of the mechanism that has the worst 95th-percentile latency (readSensors + update)
+     * @return the name of the slowest mechanism, or an empty string if there are no mechanisms
+     */
+    public String getSlowestMechanismName()
+    {
+        String slowestName = "";
+        double slowestLatency = -1.0;
+        for (int i = 0; i < this.mechanisms.length; i++)
+        {
+            double latency =
+                this.latencies[Phase.ReadSensors.ordinal()][i].getPercentile(95.0) +
+                this.latencies[Phase.Update.ordinal()][i].getPercentile(95.0);
+            if (latency > slowestLatency)
+            {
+                slowestLatency = latency;
+                slowestName = this.mechanismNames[i];
+            }
+        }
+
+        return slowestName;
+    }
+
+    /**
+     * Generate a report of the p50/p95/p99/max latencies (in milliseconds) for each of the mechanisms,
+     * a la "PowerManager r=0.10/0.21/0.30/0.52 u=0.01/0.01/0.02/0.04; ..."
+     * @return the latency report
+     */
+    public String getLatencyReport()
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < this.mechanisms.length; i++)
+        {
+            if (i > 0)
+            {
+                builder.append("; ");
+            }
+
+            LatencyHistogram readLatencies = this.latencies[Phase.ReadSensors.ordinal()][i];
+            LatencyHistogram updateLatencies = this.latencies[Phase.Update.ordinal()][i];
+            builder.append(
+                String.format(
+                    "%1$s r=%2$.2f/%3$.2f/%4$.2f/%5$.2f u=%6$.2f/%7$.2f/%8$.2f/%9$.2f",
+                    this.mechanismNames[i],
+                    readLatencies.getPercentile(50.0),
+                    readLatencies.getPercentile(95.0),
+                    readLatencies.getPercentile(99.0),
+                    readLatencies.getMax(),
+                    updateLatencies.getPercentile(50.0),
+                    updateLatencies.getPercentile(95.0),
+                    updateLatencies.getPercentile(99.0),
+                    updateLatencies.getMax()));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Read the sensors of the mechanism at the provided index, keeping track of how long it took
+     * @param index of the mechanism
+     */
+    private void readSensors(int index)
+    {
+        long startTime = TuningConstants.MECHANISM_PROFILING_ENABLED ? System.nanoTime() : 0L;
+        try
+        {
+            this.mechanisms[index].readSensors();
+        }
+        catch (Exception ex)
+        {
+            System.err.println("Encountered exception: " + ex.toString());
+            if (TuningConstants.THROW_EXCEPTIONS)
+            {
+                throw ex;
+            }
+        }
+        finally
+        {
+            if (TuningConstants.MECHANISM_PROFILING_ENABLED)
+            {
+                this.latencies[Phase.ReadSensors.ordinal()][index].update(System.nanoTime() - startTime);
+            }
+        }
+    }
+
+    /**
+     * Update the mechanism at the provided index, keeping track of how long it took
+     * @param index of the mechanism
+     * @param mode the current robot mode
+     */
+    private void update(int index, RobotMode mode)
+    {
+        long startTime = TuningConstants.MECHANISM_PROFILING_ENABLED ? System.nanoTime() : 0L;
+        if (TuningConstants.INPUT_LATENCY_TRACING)
+        {
+            InputLatencyTracer.startMechanism();
+        }
+
+        try
+        {
+            this.mechanisms[index].update(mode);
+        }
+        catch (Exception ex)
+        {
+            System.err.println("Encountered exception: " + ex.toString());
+            if (TuningConstants.THROW_EXCEPTIONS)
+            {
+                throw ex;
+            }
+        }
+        finally
+        {
+            if (TuningConstants.MECHANISM_PROFILING_ENABLED)
+            {
+                this.latencies[Phase.Update.ordinal()][index].update(System.nanoTime() - startTime);
+            }
+
+            if (TuningConstants.INPUT_LATENCY_TRACING)
+            {
+                InputLatencyTracer.endMechanism();
+            }
+        }
+    }
+
+    /**
+     * Group the mechanisms into waves based on their declared dependencies for the provided phase, such that each mechanism is in the
+     * wave after the latest of its dependencies.  Mechanisms within the same wave can be run concurrently.
+     * @param phase to calculate the waves for (ReadSensors or Update)
+     * @return the tasks to run within each wave
+     */
+    private Runnable[][] calculateWaves(Phase phase)
+    {
+        int mechanismCount = this.mechanisms.length;
+        int[] waves = new int[mechanismCount];
+        int[] waveSizes = new int[mechanismCount];
+        int waveCount = 0;
+        for (int i = 0; i < mechanismCount; i++)
+        {
+            int wave = 0;
+            MechanismDependencies dependencies = this.mechanisms[i].getClass().getAnnotation(MechanismDependencies.class);
+            if (dependencies != null)
+            {
+                Class<?>[] phaseDependencies = phase == Phase.ReadSensors ? dependencies.readSensors() : dependencies.update();
+                for (Class<?> dependency : phaseDependencies)
+                {
+                    for (int j = 0; j < mechanismCount; j++)
+                    {
+                        if (j != i && dependency.isInstance(this.mechanisms[j]))
+                        {
+                            ExceptionHelpers.Assert(j < i, "Expect %s to come before %s in the list of mechanisms", this.mechanismNames[j], this.mechanismNames[i]);
+                            if (j < i)
+                            {
+                                wave = Math.max(wave, waves[j] + 1);
+                            }
+                        }
+                    }
+                }
+            }
+
+            waves[i] = wave;
+            waveSizes[wave]++;
+            waveCount = Math.max(waveCount, wave + 1);
+        }
+
+        Runnable[][] result = new Runnable[waveCount][];
+        for (int wave = 0; wave < waveCount; wave++)
+        {
+            result[wave] = new Runnable[waveSizes[wave]];
+            waveSizes[wave] = 0;
+        }
+
+        for (int i = 0; i < mechanismCount; i++)
+        {
+            final int index = i;
+            Runnable task;
+            if (phase == Phase.ReadSensors)
+            {
+                task = () -> this.readSensors(index);
+            }
+            else
+            {
+                task = () -> this.update(index, this.updateMode);
+            }
+
+            result[waves[i]][waveSizes[waves[i]]++] = task;
+        }
+
+        return result;
+    }
 }
@@ -0,0 +1,61 @@
+package frc.lib.robotprovider;
+
+/**
+ * Constants describing the layout of the binary log files written by BinaryLogger.
+ *
+ * A file starts with a header:
+ *   the MAGIC bytes, the VERSION byte, a varint count of the columns, then each column's name (a varint length followed by UTF-8 bytes)
+ *   and the ordinal of its LoggingType.
+ * It is followed by one record per update:
+ *   the RECORD_MARKER byte, a presence bitmap with one bit per column (ceil(columns / 8) bytes, least-significant bit first), then for
+ *   each present column a tag byte describing the value, followed by the value's payload.
+ *
+ * Payloads are encoded relative to the previous value in the same column, so that slowly-changing values take only a byte or two:
+ *   TAG_DOUBLE: the varint of the value's bits XOR'd with the bits of the previous double in the column
+ *   TAG_INTEGER: the zigzag varint of the difference from the previous integer in the column
+ *   TAG_FORMATTED_INTEGER: a TAG_STRING or TAG_STRING_REPEAT (with its payload) for the format string, then an integer payload
+ *   TAG_FALSE, TAG_TRUE, TAG_NULL, TAG_STRING_REPEAT: no payload (repeat means the same as the previous string or format string in the column)
+ *   TAG_BOOLEAN_ARRAY: a varint length followed by the values packed 8 per byte
+ *   TAG_STRING: a varint length followed by the UTF-8 bytes
+ *   TAG_DOUBLE_ARRAY: a varint length followed by a varint for each value's bits XOR'd with the bits of the last value written at the
+ *     same index of a double array in the column (or with 0 if there hasn't been one)
+ *
+ * Version 2 added TAG_DOUBLE_ARRAY (for number arrays and poses); version 1 files can still be read.
+ */
+public class BinaryLogFormat
+{
+    public static final byte[] MAGIC = new byte[] { 'F', 'R', 'C', 'L' };
+    public static final byte VERSION = 2;
+    public static final byte RECORD_MARKER = (byte)0xA5;
+
+    public static final byte TAG_DOUBLE = 0;
+    public static final byte TAG_INTEGER = 1;
+    public static final byte TAG_FORMATTED_INTEGER = 2;
+    public static final byte TAG_FALSE = 3;
+    public static final byte TAG_TRUE = 4;
+    public static final byte TAG_BOOLEAN_ARRAY = 5;
+    public static final byte TAG_STRING = 6;
+    public static final byte TAG_STRING_REPEAT = 7;
+    public static final byte TAG_NULL = 8;
+    public static final byte TAG_DOUBLE_ARRAY = 9;
+
+    /**
+     * Convert a signed value into an unsigned one so that small negative values also have a short varint encoding
+     * @param value to encode
+     * @return the zigzag-encoded value
+     */
+    public static long zigzagEncode(long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Convert a zigzag-encoded value back into the signed value
+     * @param value to decode
+     * @return the signed value
+     */
+    public static long zigzagDecode(long value)
+    {
+        return (value >>> 1) ^ -(value & 1L);
+    }
+}
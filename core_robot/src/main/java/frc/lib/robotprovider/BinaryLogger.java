@@ -0,0 +1,291 @@
+package frc.lib.robotprovider;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import frc.robot.LoggingKey;
+
+/**
+ * Logs data into a compact binary file (see BinaryLogFormat for the layout), which can be converted back into the same CSV layout
+ * that the CSV loggers write using frc.lib.logs.BinaryLogConverter.
+ */
+public class BinaryLogger extends RowLogger
+{
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private final IBinaryFileWriter fileWriter;
+    private final int bitmapLength;
+
+    // the previous values in each column, which the new values are encoded relative to
+    private final long[] previousDoubleBits;
+    private final long[] previousIntegers;
+    private final String[] previousStrings;
+    private final long[][] previousDoubleArrayBits;
+
+    private byte[] buffer;
+    private int length;
+
+    /**
+     * Initializes a new instance of the BinaryLogger class, using the shouldLog LoggingKeys to determine the schema
+     * @param fileWriter to write into
+     * @throws IOException
+     */
+    public BinaryLogger(IBinaryFileWriter fileWriter) throws IOException
+    {
+        this.fileWriter = fileWriter;
+
+        int columnCount = this.schema.size();
+        this.bitmapLength = (columnCount + 7) / 8;
+        this.previousDoubleBits = new long[columnCount];
+        this.previousIntegers = new long[columnCount];
+        this.previousStrings = new String[columnCount];
+        this.previousDoubleArrayBits = new long[columnCount][];
+
+        this.buffer = new byte[BinaryLogger.INITIAL_BUFFER_SIZE];
+        this.length = 0;
+
+        for (byte value : BinaryLogFormat.MAGIC)
+        {
+            this.writeByte(value);
+        }
+
+        this.writeByte(BinaryLogFormat.VERSION);
+        this.writeVarint(columnCount);
+        for (LoggingKey key : this.schema)
+        {
+            this.writeStringPayload(key.value);
+            this.writeByte((byte)key.type.ordinal());
+        }
+
+        this.fileWriter.write(this.buffer, 0, this.length);
+        this.fileWriter.flush();
+    }
+
+    /**
+     * Update the log, if appropriate..
+     */
+    @Override
+    public void update()
+    {
+        this.loggingCounter++;
+
+        this.length = 0;
+        this.writeByte(BinaryLogFormat.RECORD_MARKER);
+
+        int columnCount = this.row.getColumnCount();
+        for (int i = 0; i < this.bitmapLength; i++)
+        {
+            byte bits = 0;
+            for (int bit = 0; bit < 8; bit++)
+            {
+                int column = i * 8 + bit;
+                if (column < columnCount && this.row.isPresent(column))
+                {
+                    bits |= (byte)(1 << bit);
+                }
+            }
+
+            this.writeByte(bits);
+        }
+
+        for (int column = 0; column < columnCount; column++)
+        {
+            if (this.row.isPresent(column))
+            {
+                this.writeValue(column);
+            }
+        }
+
+        this.row.clear();
+
+        try
+        {
+            this.fileWriter.write(this.buffer, 0, this.length);
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+    }
+
+    /**
+     * Flush the output stream, if appropriate..
+     */
+    @Override
+    public void flush()
+    {
+        try
+        {
+            this.fileWriter.flush();
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+    }
+
+    /**
+     * Flush the log and release any resources that it is using
+     */
+    @Override
+    public void close()
+    {
+        try
+        {
+            this.fileWriter.close();
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+    }
+
+    private void writeValue(int column)
+    {
+        switch (this.row.getType(column))
+        {
+            case CSVRow.TYPE_DOUBLE:
+                long bits = Double.doubleToRawLongBits(this.row.getDouble(column));
+                this.writeByte(BinaryLogFormat.TAG_DOUBLE);
+                this.writeVarint(bits ^ this.previousDoubleBits[column]);
+                this.previousDoubleBits[column] = bits;
+                break;
+
+            case CSVRow.TYPE_INTEGER:
+                this.writeByte(BinaryLogFormat.TAG_INTEGER);
+                this.writeInteger(column, this.row.getLong(column));
+                break;
+
+            case CSVRow.TYPE_FORMATTED_INTEGER:
+                this.writeByte(BinaryLogFormat.TAG_FORMATTED_INTEGER);
+                this.writeString(column, this.row.getString(column));
+                this.writeInteger(column, this.row.getLong(column));
+                break;
+
+            case CSVRow.TYPE_BOOLEAN:
+                this.writeByte(this.row.getLong(column) != 0L ? BinaryLogFormat.TAG_TRUE : BinaryLogFormat.TAG_FALSE);
+                break;
+
+            case CSVRow.TYPE_BOOLEAN_ARRAY:
+                boolean[] values = this.row.getBooleanArray(column);
+                int arrayLength = (int)this.row.getLong(column);
+                this.writeByte(BinaryLogFormat.TAG_BOOLEAN_ARRAY);
+                this.writeVarint(arrayLength);
+                for (int i = 0; i < arrayLength; i += 8)
+                {
+                    byte packed = 0;
+                    for (int bit = 0; bit < 8 && i + bit < arrayLength; bit++)
+                    {
+                        if (values[i + bit])
+                        {
+                            packed |= (byte)(1 << bit);
+                        }
+                    }
+
+                    this.writeByte(packed);
+                }
+
+                break;
+
+            case CSVRow.TYPE_DOUBLE_ARRAY:
+                this.writeByte(BinaryLogFormat.TAG_DOUBLE_ARRAY);
+                this.writeDoubleArray(column, this.row.getDoubleArray(column), (int)this.row.getLong(column));
+                break;
+
+            case CSVRow.TYPE_STRING:
+                this.writeString(column, this.row.getString(column));
+                break;
+
+            case CSVRow.TYPE_NULL:
+            default:
+                this.writeByte(BinaryLogFormat.TAG_NULL);
+                break;
+        }
+    }
+
+    private void writeInteger(int column, long value)
+    {
+        this.writeVarint(BinaryLogFormat.zigzagEncode(value - this.previousIntegers[column]));
+        this.previousIntegers[column] = value;
+    }
+
+    private void writeDoubleArray(int column, double[] values, int arrayLength)
+    {
+        long[] previousBits = this.previousDoubleArrayBits[column];
+        if (previousBits == null || previousBits.length < arrayLength)
+        {
+            long[] newPreviousBits = new long[arrayLength];
+            if (previousBits != null)
+            {
+                System.arraycopy(previousBits, 0, newPreviousBits, 0, previousBits.length);
+            }
+
+            previousBits = newPreviousBits;
+            this.previousDoubleArrayBits[column] = previousBits;
+        }
+
+        this.writeVarint(arrayLength);
+        for (int i = 0; i < arrayLength; i++)
+        {
+            long bits = Double.doubleToRawLongBits(values[i]);
+            this.writeVarint(bits ^ previousBits[i]);
+            previousBits[i] = bits;
+        }
+    }
+
+    private void writeString(int column, String value)
+    {
+        if (value == null)
+        {
+            // written identically to an empty string
+            value = "";
+        }
+
+        if (value.equals(this.previousStrings[column]))
+        {
+            this.writeByte(BinaryLogFormat.TAG_STRING_REPEAT);
+        }
+        else
+        {
+            this.writeByte(BinaryLogFormat.TAG_STRING);
+            this.writeStringPayload(value);
+            this.previousStrings[column] = value;
+        }
+    }
+
+    private void writeStringPayload(String value)
+    {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        this.writeVarint(bytes.length);
+        this.ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, this.buffer, this.length, bytes.length);
+        this.length += bytes.length;
+    }
+
+    private void writeVarint(long value)
+    {
+        while ((value & ~0x7FL) != 0L)
+        {
+            this.writeByte((byte)((value & 0x7FL) | 0x80L));
+            value >>>= 7;
+        }
+
+        this.writeByte((byte)value);
+    }
+
+    private void writeByte(byte value)
+    {
+        this.ensureCapacity(1);
+        this.buffer[this.length++] = value;
+    }
+
+    private void ensureCapacity(int additional)
+    {
+        if (this.length + additional > this.buffer.length)
+        {
+            byte[] newBuffer = new byte[Math.max(this.buffer.length * 2, this.length + additional)];
+            System.arraycopy(this.buffer, 0, newBuffer, 0, this.length);
+            this.buffer = newBuffer;
+        }
+    }
+}
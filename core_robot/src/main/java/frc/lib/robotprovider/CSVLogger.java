@@ -76,7 +76,7 @@ public class CSVLogger extends StringLogger
         if (index >= 0)
         {
             // check if string needs to be quoted
-            if (value.contains("\"") || value.contains("\r") || value.contains("\n"))
+            if (value.contains(",") || value.contains("\"") || value.contains("\r") || value.contains("\n"))
             {
                 value = "\"" + value.replace("\"", "\"\"") + "\"";
             }
@@ -135,4 +135,20 @@ public class CSVLogger extends StringLogger
             // best-effort...
         }
     }
+
+    /**
+     * Flush the log and release any resources (the file) that it is using
+     */
+    @Override
+    public void close()
+    {
+        try
+        {
+            this.fileWriter.close();
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+    }
 }
@@ -0,0 +1,475 @@
+package frc.lib.robotprovider;
+
+/**
+ * One row of values for a columnar CSV log, stored as primitives in per-column slots so that logging a value doesn't require
+ * formatting it into a String.  The values are only formatted when the row is written out, matching the text that CSVLogger
+ * would have produced for the same calls.
+ */
+public class CSVRow
+{
+    static final byte TYPE_DOUBLE = 0;
+    static final byte TYPE_INTEGER = 1;
+    static final byte TYPE_FORMATTED_INTEGER = 2;
+    static final byte TYPE_BOOLEAN = 3;
+    static final byte TYPE_BOOLEAN_ARRAY = 4;
+    static final byte TYPE_STRING = 5;
+    static final byte TYPE_NULL = 6;
+    static final byte TYPE_DOUBLE_ARRAY = 7;
+
+    private final int columnCount;
+
+    private final long[] present;
+    private final byte[] types;
+    private final double[] doubleValues;
+    private final long[] longValues;
+    private final String[] stringValues;
+    private final boolean[][] booleanArrayValues;
+    private final double[][] doubleArrayValues;
+
+    /**
+     * Initializes a new CSVRow
+     * @param columnCount the number of columns in the row
+     */
+    public CSVRow(int columnCount)
+    {
+        this.columnCount = columnCount;
+
+        this.present = new long[(columnCount + 63) / 64];
+        this.types = new byte[columnCount];
+        this.doubleValues = new double[columnCount];
+        this.longValues = new long[columnCount];
+        this.stringValues = new String[columnCount];
+        this.booleanArrayValues = new boolean[columnCount][];
+        this.doubleArrayValues = new double[columnCount][];
+    }
+
+    /**
+     * Get the number of columns in the row
+     * @return the number of columns
+     */
+    public int getColumnCount()
+    {
+        return this.columnCount;
+    }
+
+    /**
+     * Check whether a value has been set for the column
+     * @param column to check
+     * @return true if a value is present
+     */
+    public boolean isPresent(int column)
+    {
+        return (this.present[column >>> 6] & (1L << column)) != 0L;
+    }
+
+    /**
+     * Set a number (double) into the column
+     * @param column to set
+     * @param value to set
+     */
+    public void setDouble(int column, double value)
+    {
+        this.types[column] = CSVRow.TYPE_DOUBLE;
+        this.doubleValues[column] = value;
+        this.markPresent(column);
+    }
+
+    /**
+     * Set a nullable number (Double) into the column
+     * @param column to set
+     * @param value to set
+     */
+    public void setNullableDouble(int column, Double value)
+    {
+        if (value == null)
+        {
+            this.types[column] = CSVRow.TYPE_NULL;
+        }
+        else
+        {
+            this.types[column] = CSVRow.TYPE_DOUBLE;
+            this.doubleValues[column] = value;
+        }
+
+        this.markPresent(column);
+    }
+
+    /**
+     * Set a number (integer) into the column
+     * @param column to set
+     * @param value to set
+     */
+    public void setInteger(int column, int value)
+    {
+        this.types[column] = CSVRow.TYPE_INTEGER;
+        this.longValues[column] = value;
+        this.markPresent(column);
+    }
+
+    /**
+     * Set a nullable number (Integer) into the column
+     * @param column to set
+     * @param value to set
+     */
+    public void setNullableInteger(int column, Integer value)
+    {
+        if (value == null)
+        {
+            this.types[column] = CSVRow.TYPE_NULL;
+        }
+        else
+        {
+            this.types[column] = CSVRow.TYPE_INTEGER;
+            this.longValues[column] = value;
+        }
+
+        this.markPresent(column);
+    }
+
+    /**
+     * Set a number (integer) into the column, to be formatted using the provided format string when the row is written
+     * @param column to set
+     * @param value to set
+     * @param formatString to use
+     */
+    public void setFormattedInteger(int column, int value, String formatString)
+    {
+        this.types[column] = CSVRow.TYPE_FORMATTED_INTEGER;
+        this.longValues[column] = value;
+        this.stringValues[column] = formatString;
+        this.markPresent(column);
+    }
+
+    /**
+     * Set a boolean into the column
+     * @param column to set
+     * @param value to set
+     */
+    public void setBoolean(int column, boolean value)
+    {
+        this.types[column] = CSVRow.TYPE_BOOLEAN;
+        this.longValues[column] = value ? 1L : 0L;
+        this.markPresent(column);
+    }
+
+    /**
+     * Set a boolean array into the column.  The values are copied, so the caller may reuse the array.
+     * @param column to set
+     * @param value to set
+     */
+    public void setBooleanArray(int column, boolean[] value)
+    {
+        int length = value == null ? 0 : value.length;
+        boolean[] copy = this.booleanArrayValues[column];
+        if (copy == null || copy.length < length)
+        {
+            copy = new boolean[length];
+            this.booleanArrayValues[column] = copy;
+        }
+
+        if (length > 0)
+        {
+            System.arraycopy(value, 0, copy, 0, length);
+        }
+
+        this.types[column] = CSVRow.TYPE_BOOLEAN_ARRAY;
+        this.longValues[column] = length;
+        this.markPresent(column);
+    }
+
+    /**
+     * Set an array of numbers (doubles) into the column.  The values are copied, so the caller may reuse the array.
+     * @param column to set
+     * @param value to set
+     */
+    public void setDoubleArray(int column, double[] value)
+    {
+        int length = value == null ? 0 : value.length;
+        double[] copy = this.getDoubleArrayBuffer(column, length);
+        if (length > 0)
+        {
+            System.arraycopy(value, 0, copy, 0, length);
+        }
+
+        this.types[column] = CSVRow.TYPE_DOUBLE_ARRAY;
+        this.longValues[column] = length;
+        this.markPresent(column);
+    }
+
+    /**
+     * Set a pose into the column, stored as an array of numbers (x, y, angle)
+     * @param column to set
+     * @param x position
+     * @param y position
+     * @param angle of the pose
+     */
+    public void setPose(int column, double x, double y, double angle)
+    {
+        double[] values = this.getDoubleArrayBuffer(column, 3);
+        values[0] = x;
+        values[1] = y;
+        values[2] = angle;
+
+        this.types[column] = CSVRow.TYPE_DOUBLE_ARRAY;
+        this.longValues[column] = 3;
+        this.markPresent(column);
+    }
+
+    /**
+     * Set a string into the column
+     * @param column to set
+     * @param value to set
+     */
+    public void setString(int column, String value)
+    {
+        this.types[column] = CSVRow.TYPE_STRING;
+        this.stringValues[column] = value;
+        this.markPresent(column);
+    }
+
+    /**
+     * Clear all of the values from the row
+     */
+    public void clear()
+    {
+        for (int i = 0; i < this.present.length; i++)
+        {
+            this.present[i] = 0L;
+        }
+
+        // drop references so that old strings can be collected
+        for (int i = 0; i < this.columnCount; i++)
+        {
+            this.stringValues[i] = null;
+        }
+    }
+
+    /**
+     * Format the row as a line of CSV (including the trailing newline), appending it into the provided builder
+     * @param builder to append into
+     */
+    public void appendTo(StringBuilder builder)
+    {
+        for (int column = 0; column < this.columnCount; column++)
+        {
+            if (column > 0)
+            {
+                builder.append(',');
+            }
+
+            if (this.isPresent(column))
+            {
+                this.appendValue(builder, column, true);
+            }
+        }
+
+        builder.append("\r\n");
+    }
+
+    /**
+     * Format the value of a column, appending it into the provided builder without any CSV quoting
+     * @param builder to append into
+     * @param column to format, which should be present
+     */
+    public void appendRawValue(StringBuilder builder, int column)
+    {
+        this.appendValue(builder, column, false);
+    }
+
+    /**
+     * Get the type of the value in the column
+     * @param column to check, which should be present
+     * @return one of the TYPE_ constants
+     */
+    byte getType(int column)
+    {
+        return this.types[column];
+    }
+
+    /**
+     * Get the double value in the column
+     * @param column to get
+     * @return the value
+     */
+    double getDouble(int column)
+    {
+        return this.doubleValues[column];
+    }
+
+    /**
+     * Get the integer, boolean (1 or 0), or array length value in the column
+     * @param column to get
+     * @return the value
+     */
+    long getLong(int column)
+    {
+        return this.longValues[column];
+    }
+
+    /**
+     * Get the string or format string in the column
+     * @param column to get
+     * @return the value
+     */
+    String getString(int column)
+    {
+        return this.stringValues[column];
+    }
+
+    /**
+     * Get the boolean array in the column, which may be longer than the logged length
+     * @param column to get
+     * @return the values
+     */
+    boolean[] getBooleanArray(int column)
+    {
+        return this.booleanArrayValues[column];
+    }
+
+    /**
+     * Get the array of numbers in the column, which may be longer than the logged length
+     * @param column to get
+     * @return the values
+     */
+    double[] getDoubleArray(int column)
+    {
+        return this.doubleArrayValues[column];
+    }
+
+    private double[] getDoubleArrayBuffer(int column, int length)
+    {
+        double[] buffer = this.doubleArrayValues[column];
+        if (buffer == null || buffer.length < length)
+        {
+            buffer = new double[length];
+            this.doubleArrayValues[column] = buffer;
+        }
+
+        return buffer;
+    }
+
+    private void appendValue(StringBuilder builder, int column, boolean quote)
+    {
+        int length;
+        switch (this.types[column])
+        {
+            case CSVRow.TYPE_DOUBLE:
+                builder.append(this.doubleValues[column]);
+                break;
+
+            case CSVRow.TYPE_INTEGER:
+                builder.append((int)this.longValues[column]);
+                break;
+
+            case CSVRow.TYPE_FORMATTED_INTEGER:
+                CSVRow.appendString(builder, String.format(this.stringValues[column], (int)this.longValues[column]), quote);
+                break;
+
+            case CSVRow.TYPE_BOOLEAN:
+                builder.append(this.longValues[column] != 0L);
+                break;
+
+            case CSVRow.TYPE_BOOLEAN_ARRAY:
+                boolean[] values = this.booleanArrayValues[column];
+                length = (int)this.longValues[column];
+
+                // arrays are written as comma-separated values, so they need to be quoted when there is more than one
+                quote &= length > 1;
+                if (quote)
+                {
+                    builder.append('"');
+                }
+
+                for (int i = 0; i < length; i++)
+                {
+                    if (i > 0)
+                    {
+                        builder.append(',');
+                    }
+
+                    builder.append(values[i]);
+                }
+
+                if (quote)
+                {
+                    builder.append('"');
+                }
+
+                break;
+
+            case CSVRow.TYPE_DOUBLE_ARRAY:
+                double[] doubleValues = this.doubleArrayValues[column];
+                length = (int)this.longValues[column];
+                quote &= length > 1;
+                if (quote)
+                {
+                    builder.append('"');
+                }
+
+                for (int i = 0; i < length; i++)
+                {
+                    if (i > 0)
+                    {
+                        builder.append(',');
+                    }
+
+                    builder.append(doubleValues[i]);
+                }
+
+                if (quote)
+                {
+                    builder.append('"');
+                }
+
+                break;
+
+            case CSVRow.TYPE_STRING:
+                CSVRow.appendString(builder, this.stringValues[column], quote);
+                break;
+
+            case CSVRow.TYPE_NULL:
+            default:
+                builder.append("null");
+                break;
+        }
+    }
+
+    /**
+     * Append a string value, quoting it if it contains any characters that would break the CSV structure
+     * @param builder to append into
+     * @param value to append
+     * @param quote whether to quote the value if necessary
+     */
+    static void appendString(StringBuilder builder, String value, boolean quote)
+    {
+        if (value == null)
+        {
+            return;
+        }
+
+        if (!quote || value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\r') < 0 && value.indexOf('\n') < 0)
+        {
+            builder.append(value);
+            return;
+        }
+
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++)
+        {
+            char ch = value.charAt(i);
+            if (ch == '"')
+            {
+                builder.append('"');
+            }
+
+            builder.append(ch);
+        }
+
+        builder.append('"');
+    }
+
+    private void markPresent(int column)
+    {
+        this.present[column >>> 6] |= (1L << column);
+    }
+}
@@ -0,0 +1,174 @@
+package frc.lib.robotprovider;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded, lock-free queue of CSVRows passed from a single producer (the robot thread) to a single consumer (the writer thread).
+ *
+ * Rows are exchanged rather than copied: the producer swaps its completed row into a slot and gets that slot's empty row back
+ * to fill next, and the consumer swaps an empty row in when it takes a completed one out.  Neither side ever holds a row that the
+ * other side can reach, and no allocations are made after construction.
+ *
+ * Each slot has a sequence number (as in Vyukov's bounded queue) that says whether it is free for the producer at position p
+ * (sequence == p) or ready for the consumer at position p (sequence == p + 1).  The head is shared so that the producer can
+ * discard the oldest row when the queue is full and the policy is DropOldest.
+ */
+public class CSVRowRing
+{
+    private static final long BLOCK_WAIT_NANOS = 100000L; // 0.1ms
+
+    private final int capacity;
+    private final CSVRow[] rows;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head;
+    private final LogQueuePolicy policy;
+
+    private long tail; // only used by the producer
+
+    private volatile long droppedRows; // only written by the producer
+    private volatile int highWaterMark; // only written by the producer
+
+    /**
+     * Initializes a new CSVRowRing
+     * @param capacity the maximum number of rows waiting to be written
+     * @param columnCount the number of columns in each row
+     * @param policy what to do when the queue is full
+     */
+    public CSVRowRing(int capacity, int columnCount, LogQueuePolicy policy)
+    {
+        this.capacity = capacity;
+        this.rows = new CSVRow[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++)
+        {
+            this.rows[i] = new CSVRow(columnCount);
+            this.sequences.set(i, i);
+        }
+
+        this.head = new AtomicLong(0L);
+        this.policy = policy;
+
+        this.tail = 0L;
+        this.droppedRows = 0L;
+        this.highWaterMark = 0;
+    }
+
+    /**
+     * Publish a completed row to the consumer (producer only)
+     * @param row that has been completed
+     * @return an empty row to use for the next update
+     */
+    public CSVRow publish(CSVRow row)
+    {
+        long position = this.tail;
+        int index = (int)(position % this.capacity);
+        while (true)
+        {
+            long sequence = this.sequences.get(index);
+            if (sequence == position)
+            {
+                // slot is free
+                break;
+            }
+
+            long oldest = position - this.capacity;
+            if (sequence == oldest + 1 && this.policy == LogQueuePolicy.DropOldest)
+            {
+                // queue is full.  Take the oldest row back from the consumer, unless it has just started taking it.
+                if (this.head.compareAndSet(oldest, oldest + 1))
+                {
+                    this.rows[index].clear();
+                    this.droppedRows = this.droppedRows + 1;
+                    break;
+                }
+            }
+            else if (sequence == oldest + 1)
+            {
+                LockSupport.parkNanos(CSVRowRing.BLOCK_WAIT_NANOS);
+            }
+            else
+            {
+                // the consumer is part-way through swapping the row out of this slot
+                Thread.onSpinWait();
+            }
+        }
+
+        CSVRow emptyRow = this.rows[index];
+        this.rows[index] = row;
+        this.sequences.set(index, position + 1);
+        this.tail = position + 1;
+
+        int depth = (int)(position + 1 - this.head.get());
+        if (depth > this.highWaterMark)
+        {
+            this.highWaterMark = depth;
+        }
+
+        return emptyRow;
+    }
+
+    /**
+     * Take the oldest completed row from the queue (consumer only)
+     * @param emptyRow a cleared row to leave in its place
+     * @return the completed row, or null if the queue is empty (in which case the empty row was not used)
+     */
+    public CSVRow poll(CSVRow emptyRow)
+    {
+        while (true)
+        {
+            long position = this.head.get();
+            int index = (int)(position % this.capacity);
+            if (this.sequences.get(index) != position + 1)
+            {
+                return null;
+            }
+
+            // the producer may discard this row at the same time if the queue is full
+            if (this.head.compareAndSet(position, position + 1))
+            {
+                CSVRow row = this.rows[index];
+                this.rows[index] = emptyRow;
+                this.sequences.set(index, position + this.capacity);
+                return row;
+            }
+        }
+    }
+
+    /**
+     * Get the position of the next row to be taken from the queue.  All rows before it have been taken or dropped.
+     * @return the head position
+     */
+    public long getHead()
+    {
+        return this.head.get();
+    }
+
+    /**
+     * Get the position of the next row to be published to the queue (producer only)
+     * @return the tail position
+     */
+    public long getTail()
+    {
+        return this.tail;
+    }
+
+    /**
+     * Get the number of rows that have been dropped because the queue was full
+     * @return the number of dropped rows
+     */
+    public long getDroppedRows()
+    {
+        return this.droppedRows;
+    }
+
+    /**
+     * Get the largest number of rows that have been waiting in the queue at once
+     * @return the high-water mark
+     */
+    public int getHighWaterMark()
+    {
+        return this.highWaterMark;
+    }
+}
@@ -0,0 +1,383 @@
+package frc.lib.robotprovider;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+import frc.robot.LoggingKey;
+
+/**
+ * Logs data into a CSV (comma-separated values) file, producing the same output as CSVLogger.
+ *
+ * Rather than formatting each value into a String and finding its column by name when it is logged, values are stored as
+ * primitives in a CSVRow (see RowLogger).  The row is only formatted when it is written.
+ *
+ * In asynchronous mode, completed rows are handed to a background writer thread through a CSVRowRing, so that formatting,
+ * writing and flushing to the file (e.g. a USB stick) all happen off of the robot thread.  Flushing the logger then waits
+ * for the writer thread to write out all of the rows that have been completed so far.
+ *
+ * When a LogIndexWriter is provided, the offset of each row (along with its RobotTime and RobotState) is passed to it as the row is
+ * formatted, so that it can write a sidecar index for the log.
+ *
+ * Once the logger is closed, updates and flushes are ignored.  In asynchronous mode the writer thread owns the file and the index, so it
+ * is the one that closes them once it has written out the remaining rows (even if close gives up waiting for it).
+ */
+public class ColumnarCSVLogger extends RowLogger
+{
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024; // number of characters to buffer before writing to the file
+    private static final long WRITER_IDLE_NANOS = 5000000L; // 5ms
+    private static final long DRAIN_WAIT_NANOS = 1000000L; // 1ms
+    private static final long DRAIN_TIMEOUT_NANOS = 1000000000L; // 1s
+
+    private final IFileWriter fileWriter;
+    private final StringBuilder builder;
+
+    private final LogIndexWriter index;
+    private final int timeColumn;
+    private final int stateColumn;
+    private long position; // only used by the writer thread (or the robot thread, when writing synchronously)
+
+    private final CSVRowRing ring;
+    private final Thread writerThread;
+    private final int flushThreshold;
+
+    // only used by the writer thread
+    private CSVRow writerRow;
+
+    private volatile long requestedFlushPosition;
+    private volatile long flushedPosition;
+    private volatile boolean closed;
+
+    /**
+     * Initializes a new instance of the ColumnarCSVLogger class, using the shouldLog LoggingKeys to determine the schema
+     * @param fileWriter to write into
+     * @throws IOException
+     */
+    public ColumnarCSVLogger(IFileWriter fileWriter) throws IOException
+    {
+        this(fileWriter, 0, LogQueuePolicy.Block, 0);
+    }
+
+    /**
+     * Initializes a new instance of the ColumnarCSVLogger class, using the shouldLog LoggingKeys to determine the schema
+     * @param fileWriter to write into
+     * @param queueCapacity the number of completed rows that can wait for the writer thread, or 0 to write synchronously
+     * @param policy what to do when the queue of completed rows is full
+     * @param flushThreshold the number of rows the writer thread writes between each flush of the file
+     * @throws IOException
+     */
+    public ColumnarCSVLogger(IFileWriter fileWriter, int queueCapacity, LogQueuePolicy policy, int flushThreshold) throws IOException
+    {
+        this(fileWriter, null, queueCapacity, policy, flushThreshold);
+    }
+
+    /**
+     * Initializes a new instance of the ColumnarCSVLogger class, using the shouldLog LoggingKeys to determine the schema
+     * @param fileWriter to write into
+     * @param index to record the offsets of rows into, or null
+     * @param queueCapacity the number of completed rows that can wait for the writer thread, or 0 to write synchronously
+     * @param policy what to do when the queue of completed rows is full
+     * @param flushThreshold the number of rows the writer thread writes between each flush of the file
+     * @throws IOException
+     */
+    public ColumnarCSVLogger(IFileWriter fileWriter, LogIndexWriter index, int queueCapacity, LogQueuePolicy policy, int flushThreshold) throws IOException
+    {
+        this.fileWriter = fileWriter;
+        this.flushThreshold = flushThreshold;
+
+        this.index = index;
+        this.timeColumn = this.schema.indexOf(LoggingKey.RobotTime);
+        this.stateColumn = this.schema.indexOf(LoggingKey.RobotState);
+
+        this.builder = new StringBuilder();
+
+        StringBuilder header = new StringBuilder();
+        for (LoggingKey key : this.schema)
+        {
+            if (header.length() > 0)
+            {
+                header.append(',');
+            }
+
+            header.append(key.value);
+        }
+
+        header.append("\r\n");
+        this.fileWriter.append(header.toString());
+        this.fileWriter.flush();
+        this.position = LogIndexWriter.getUtf8Length(header, 0);
+
+        this.requestedFlushPosition = 0L;
+        this.flushedPosition = 0L;
+        this.closed = false;
+        if (queueCapacity > 0)
+        {
+            this.ring = new CSVRowRing(queueCapacity, this.schema.size(), policy);
+            this.writerRow = new CSVRow(this.schema.size());
+            this.writerThread = new Thread(() -> this.writerLoop(), "CSVLogWriter");
+            this.writerThread.setDaemon(true);
+            this.writerThread.start();
+        }
+        else
+        {
+            this.ring = null;
+            this.writerRow = null;
+            this.writerThread = null;
+        }
+    }
+
+    /**
+     * Update the log, if appropriate..
+     */
+    @Override
+    public void update()
+    {
+        if (this.closed)
+        {
+            return;
+        }
+
+        if (this.ring != null)
+        {
+            int droppedColumn = this.getColumn(LoggingKey.LogDroppedRows);
+            if (droppedColumn >= 0)
+            {
+                this.row.setInteger(droppedColumn, (int)this.ring.getDroppedRows());
+            }
+
+            int highWaterColumn = this.getColumn(LoggingKey.LogQueueHighWater);
+            if (highWaterColumn >= 0)
+            {
+                this.row.setInteger(highWaterColumn, this.ring.getHighWaterMark());
+            }
+
+            this.loggingCounter++;
+            this.row = this.ring.publish(this.row);
+            return;
+        }
+
+        this.loggingCounter++;
+
+        this.builder.setLength(0);
+        this.row.appendTo(this.builder);
+        this.recordIndex(this.row, this.builder, 0);
+        this.row.clear();
+
+        try
+        {
+            this.fileWriter.append(this.builder.toString());
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+    }
+
+    /**
+     * Flush the output stream, if appropriate..
+     * In asynchronous mode, this waits (for up to a second) until the writer thread has written and flushed all of the completed rows.
+     */
+    @Override
+    public void flush()
+    {
+        if (this.closed)
+        {
+            return;
+        }
+
+        if (this.ring != null)
+        {
+            long position = this.ring.getTail();
+            this.requestedFlushPosition = position;
+            LockSupport.unpark(this.writerThread);
+
+            long deadline = System.nanoTime() + ColumnarCSVLogger.DRAIN_TIMEOUT_NANOS;
+            while (this.flushedPosition < position && System.nanoTime() < deadline)
+            {
+                LockSupport.parkNanos(ColumnarCSVLogger.DRAIN_WAIT_NANOS);
+            }
+
+            return;
+        }
+
+        try
+        {
+            this.fileWriter.flush();
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+
+        if (this.index != null)
+        {
+            this.index.flush();
+        }
+    }
+
+    /**
+     * Flush the log and release any resources (such as the writer thread and the file) that it is using.
+     * In asynchronous mode, this waits (for up to a second) for the writer thread to close the file and the index.
+     */
+    @Override
+    public void close()
+    {
+        if (this.closed)
+        {
+            return;
+        }
+
+        this.flush();
+        this.closed = true;
+        if (this.ring != null)
+        {
+            // the writer thread closes the file and the index after writing out the remaining rows
+            LockSupport.unpark(this.writerThread);
+            try
+            {
+                this.writerThread.join(ColumnarCSVLogger.DRAIN_TIMEOUT_NANOS / 1000000L);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            return;
+        }
+
+        this.closeFile();
+    }
+
+    /**
+     * Get the number of rows that have been dropped because the writer thread fell behind
+     * @return the number of dropped rows, or 0 when writing synchronously
+     */
+    public long getDroppedRows()
+    {
+        return this.ring == null ? 0L : this.ring.getDroppedRows();
+    }
+
+    /**
+     * Get the largest number of rows that have been waiting for the writer thread at once
+     * @return the high-water mark, or 0 when writing synchronously
+     */
+    public int getQueueHighWaterMark()
+    {
+        return this.ring == null ? 0 : this.ring.getHighWaterMark();
+    }
+
+    private void writerLoop()
+    {
+        StringBuilder writerBuilder = new StringBuilder(ColumnarCSVLogger.WRITE_BUFFER_SIZE * 2);
+        int rowsSinceFlush = 0;
+        while (true)
+        {
+            CSVRow completedRow = this.ring.poll(this.writerRow);
+            if (completedRow != null)
+            {
+                int rowStart = writerBuilder.length();
+                completedRow.appendTo(writerBuilder);
+                this.recordIndex(completedRow, writerBuilder, rowStart);
+                completedRow.clear();
+                this.writerRow = completedRow;
+                rowsSinceFlush++;
+                if (writerBuilder.length() >= ColumnarCSVLogger.WRITE_BUFFER_SIZE)
+                {
+                    this.write(writerBuilder);
+                }
+
+                continue;
+            }
+
+            // caught up: every row before the head has been taken (and is in the builder) or was dropped
+            boolean closing = this.closed;
+            long position = this.ring.getHead();
+            this.write(writerBuilder);
+            if (closing || position > this.flushedPosition && (rowsSinceFlush >= this.flushThreshold || this.requestedFlushPosition > this.flushedPosition))
+            {
+                try
+                {
+                    this.fileWriter.flush();
+                }
+                catch (IOException e)
+                {
+                    // best-effort...
+                }
+
+                if (this.index != null)
+                {
+                    this.index.flush();
+                }
+
+                rowsSinceFlush = 0;
+                this.flushedPosition = position;
+            }
+
+            if (closing)
+            {
+                this.closeFile();
+                return;
+            }
+
+            LockSupport.parkNanos(this, ColumnarCSVLogger.WRITER_IDLE_NANOS);
+        }
+    }
+
+    private void closeFile()
+    {
+        try
+        {
+            this.fileWriter.close();
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+
+        if (this.index != null)
+        {
+            this.index.close();
+        }
+    }
+
+    private void recordIndex(CSVRow completedRow, StringBuilder rowBuilder, int rowStart)
+    {
+        if (this.index == null)
+        {
+            return;
+        }
+
+        double time = Double.NaN;
+        if (this.timeColumn >= 0 && completedRow.isPresent(this.timeColumn) && completedRow.getType(this.timeColumn) == CSVRow.TYPE_DOUBLE)
+        {
+            time = completedRow.getDouble(this.timeColumn);
+        }
+
+        String state = null;
+        if (this.stateColumn >= 0 && completedRow.isPresent(this.stateColumn) && completedRow.getType(this.stateColumn) == CSVRow.TYPE_STRING)
+        {
+            state = completedRow.getString(this.stateColumn);
+        }
+
+        this.index.recordRow(this.position, time, state);
+        this.position += LogIndexWriter.getUtf8Length(rowBuilder, rowStart);
+    }
+
+    private void write(StringBuilder writerBuilder)
+    {
+        if (writerBuilder.length() == 0)
+        {
+            return;
+        }
+
+        try
+        {
+            this.fileWriter.append(writerBuilder.toString());
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+
+        writerBuilder.setLength(0);
+    }
+}
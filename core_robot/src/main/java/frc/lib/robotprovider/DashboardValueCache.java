@@ -0,0 +1,308 @@
+package frc.lib.robotprovider;
+
+import frc.robot.LoggingKey;
+
+/**
+ * Cache of the last value published to a dashboard for each LoggingKey, so that dashboard loggers can skip publishing values that
+ * haven't changed without asking the dashboard (e.g. NetworkTables) for its current value.
+ *
+ * Values are stored as primitives indexed by the LoggingKey's ordinal.  Unchanged values are still re-published once every heartbeat
+ * interval, so that a dashboard that reconnects (or missed an update) recovers within that time.
+ */
+public class DashboardValueCache
+{
+    private static final byte KIND_BOOLEAN = 1;
+    private static final byte KIND_NUMBER = 2;
+    private static final byte KIND_INTEGER = 3;
+    private static final byte KIND_STRING = 4;
+    private static final byte KIND_BOOLEAN_ARRAY = 5;
+    private static final byte KIND_NUMBER_ARRAY = 6;
+    private static final byte KIND_POSE = 7;
+
+    private final int heartbeatInterval;
+
+    private final byte[] kinds; // 0 when nothing has been published for the key
+    private final long[] values;
+    private final String[] strings;
+    private final boolean[][] booleanArrays;
+    private final double[][] numberArrays;
+    private final Object[] poses;
+    private final int[] publishedUpdates;
+
+    private int updateCount;
+
+    /**
+     * Initializes a new DashboardValueCache
+     * @param heartbeatInterval the number of updates after which an unchanged value is published again, or 0 to never re-publish
+     */
+    public DashboardValueCache(int heartbeatInterval)
+    {
+        int keyCount = LoggingKey.values().length;
+
+        this.heartbeatInterval = heartbeatInterval;
+        this.kinds = new byte[keyCount];
+        this.values = new long[keyCount];
+        this.strings = new String[keyCount];
+        this.booleanArrays = new boolean[keyCount][];
+        this.numberArrays = new double[keyCount][];
+        this.poses = new Object[keyCount];
+        this.publishedUpdates = new int[keyCount];
+        this.updateCount = 0;
+    }
+
+    /**
+     * Check whether a boolean value should be published, and if so record it as the last published value
+     * @param key to check
+     * @param value to publish
+     * @return true if the value has changed (or is due for a heartbeat) and should be published
+     */
+    public boolean shouldPublishBoolean(LoggingKey key, boolean value)
+    {
+        return this.shouldPublish(key, DashboardValueCache.KIND_BOOLEAN, value ? 1L : 0L);
+    }
+
+    /**
+     * Check whether a number (double) value should be published, and if so record it as the last published value
+     * @param key to check
+     * @param value to publish
+     * @return true if the value has changed (or is due for a heartbeat) and should be published
+     */
+    public boolean shouldPublishNumber(LoggingKey key, double value)
+    {
+        return this.shouldPublish(key, DashboardValueCache.KIND_NUMBER, Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Check whether an integer value should be published, and if so record it as the last published value
+     * @param key to check
+     * @param value to publish
+     * @return true if the value has changed (or is due for a heartbeat) and should be published
+     */
+    public boolean shouldPublishInteger(LoggingKey key, long value)
+    {
+        return this.shouldPublish(key, DashboardValueCache.KIND_INTEGER, value);
+    }
+
+    /**
+     * Check whether a string value should be published, and if so record it as the last published value
+     * @param key to check
+     * @param value to publish
+     * @return true if the value has changed (or is due for a heartbeat) and should be published
+     */
+    public boolean shouldPublishString(LoggingKey key, String value)
+    {
+        int ordinal = key.ordinal();
+        if (this.kinds[ordinal] == DashboardValueCache.KIND_STRING &&
+            !this.isHeartbeatDue(ordinal) &&
+            (value == null ? this.strings[ordinal] == null : value.equals(this.strings[ordinal])))
+        {
+            return false;
+        }
+
+        this.kinds[ordinal] = DashboardValueCache.KIND_STRING;
+        this.strings[ordinal] = value;
+        this.publishedUpdates[ordinal] = this.updateCount;
+        return true;
+    }
+
+    /**
+     * Check whether a boolean array value should be published, and if so record (a copy of) it as the last published value
+     * @param key to check
+     * @param value to publish
+     * @return true if the value has changed (or is due for a heartbeat) and should be published
+     */
+    public boolean shouldPublishBooleanArray(LoggingKey key, boolean[] value)
+    {
+        int ordinal = key.ordinal();
+        boolean[] previous = this.booleanArrays[ordinal];
+        int length = value == null ? -1 : value.length;
+        if (this.kinds[ordinal] == DashboardValueCache.KIND_BOOLEAN_ARRAY &&
+            !this.isHeartbeatDue(ordinal) &&
+            this.values[ordinal] == length &&
+            DashboardValueCache.arrayEquals(previous, value, length))
+        {
+            return false;
+        }
+
+        if (length > 0)
+        {
+            if (previous == null || previous.length < length)
+            {
+                previous = new boolean[length];
+                this.booleanArrays[ordinal] = previous;
+            }
+
+            System.arraycopy(value, 0, previous, 0, length);
+        }
+
+        this.kinds[ordinal] = DashboardValueCache.KIND_BOOLEAN_ARRAY;
+        this.values[ordinal] = length;
+        this.publishedUpdates[ordinal] = this.updateCount;
+        return true;
+    }
+
+    /**
+     * Check whether an array of numbers should be published, and if so record (a copy of) it as the last published value
+     * @param key to check
+     * @param value to publish
+     * @return true if the value has changed (or is due for a heartbeat) and should be published
+     */
+    public boolean shouldPublishNumberArray(LoggingKey key, double[] value)
+    {
+        int ordinal = key.ordinal();
+        double[] previous = this.numberArrays[ordinal];
+        int length = value == null ? -1 : value.length;
+        if (this.kinds[ordinal] == DashboardValueCache.KIND_NUMBER_ARRAY &&
+            !this.isHeartbeatDue(ordinal) &&
+            this.values[ordinal] == length &&
+            DashboardValueCache.arrayEquals(previous, value, length))
+        {
+            return false;
+        }
+
+        if (length > 0)
+        {
+            previous = this.getNumberArray(ordinal, length);
+            System.arraycopy(value, 0, previous, 0, length);
+        }
+
+        this.kinds[ordinal] = DashboardValueCache.KIND_NUMBER_ARRAY;
+        this.values[ordinal] = length;
+        this.publishedUpdates[ordinal] = this.updateCount;
+        return true;
+    }
+
+    /**
+     * Check whether a pose should be published, and if so record it as the last published value
+     * @param key to check
+     * @param x position
+     * @param y position
+     * @param angle of the pose
+     * @return true if the value has changed (or is due for a heartbeat) and should be published
+     */
+    public boolean shouldPublishPose(LoggingKey key, double x, double y, double angle)
+    {
+        int ordinal = key.ordinal();
+        double[] previous = this.getNumberArray(ordinal, 3);
+        boolean unchanged =
+            this.kinds[ordinal] == DashboardValueCache.KIND_POSE &&
+            Double.doubleToLongBits(previous[0]) == Double.doubleToLongBits(x) &&
+            Double.doubleToLongBits(previous[1]) == Double.doubleToLongBits(y) &&
+            Double.doubleToLongBits(previous[2]) == Double.doubleToLongBits(angle);
+        if (unchanged && !this.isHeartbeatDue(ordinal))
+        {
+            return false;
+        }
+
+        if (!unchanged)
+        {
+            this.poses[ordinal] = null;
+        }
+
+        previous[0] = x;
+        previous[1] = y;
+        previous[2] = angle;
+        this.kinds[ordinal] = DashboardValueCache.KIND_POSE;
+        this.publishedUpdates[ordinal] = this.updateCount;
+        return true;
+    }
+
+    /**
+     * Get the pose object (such as a Pose2d) that was built for the last published pose, so that it can be re-published on a heartbeat
+     * without building it again
+     * @param key to get
+     * @return the pose object, or null if the pose has changed since one was set
+     */
+    public Object getPose(LoggingKey key)
+    {
+        return this.poses[key.ordinal()];
+    }
+
+    /**
+     * Set the pose object that was built for the last published pose
+     * @param key to set
+     * @param pose object that was published
+     */
+    public void setPose(LoggingKey key, Object pose)
+    {
+        this.poses[key.ordinal()] = pose;
+    }
+
+    /**
+     * Forget all of the published values, so that every value is published the next time it is logged
+     */
+    public void invalidate()
+    {
+        for (int i = 0; i < this.kinds.length; i++)
+        {
+            this.kinds[i] = 0;
+            this.strings[i] = null;
+            this.poses[i] = null;
+        }
+    }
+
+    /**
+     * Update the cache, once per logger update
+     */
+    public void update()
+    {
+        this.updateCount++;
+    }
+
+    private boolean shouldPublish(LoggingKey key, byte kind, long value)
+    {
+        int ordinal = key.ordinal();
+        if (this.kinds[ordinal] == kind && this.values[ordinal] == value && !this.isHeartbeatDue(ordinal))
+        {
+            return false;
+        }
+
+        this.kinds[ordinal] = kind;
+        this.values[ordinal] = value;
+        this.publishedUpdates[ordinal] = this.updateCount;
+        return true;
+    }
+
+    private boolean isHeartbeatDue(int ordinal)
+    {
+        return this.heartbeatInterval > 0 && this.updateCount - this.publishedUpdates[ordinal] >= this.heartbeatInterval;
+    }
+
+    private double[] getNumberArray(int ordinal, int length)
+    {
+        double[] array = this.numberArrays[ordinal];
+        if (array == null || array.length < length)
+        {
+            array = new double[length];
+            this.numberArrays[ordinal] = array;
+        }
+
+        return array;
+    }
+
+    private static boolean arrayEquals(double[] previous, double[] value, int length)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            if (Double.doubleToLongBits(previous[i]) != Double.doubleToLongBits(value[i]))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean arrayEquals(boolean[] previous, boolean[] value, int length)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            if (previous[i] != value[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
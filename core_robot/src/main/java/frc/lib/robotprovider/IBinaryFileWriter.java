@@ -0,0 +1,30 @@
+package frc.lib.robotprovider;
+
+import java.io.IOException;
+
+/**
+ * Represents a writer of binary data into a file on the local filesystem
+ */
+public interface IBinaryFileWriter
+{
+    /**
+     * Write data into the file
+     * @param buffer containing the data to write
+     * @param offset of the first byte in the buffer to write
+     * @param length the number of bytes to write
+     * @throws IOException if there's some issue writing data
+     */
+    public void write(byte[] buffer, int offset, int length) throws IOException;
+
+    /**
+     * Attempt to flush the data to disk (out of buffer)
+     * @throws IOException if there's some issue writing data
+     */
+    public void flush() throws IOException;
+
+    /**
+     * Flush any remaining data and close the file
+     * @throws IOException if there's some issue writing data
+     */
+    public void close() throws IOException;
+}
@@ -31,6 +31,17 @@ public interface IJoystick
      */
     boolean getRawButton(int value);
 
+    /**
+     * Capture the current state of the joystick into a snapshot.  Joysticks that can read all of their buttons at once should override
+     * this (note that the recording and replay providers always capture through this default, so that the individual reads are what is
+     * recorded).
+     * @param snapshot to capture into
+     */
+    default void capture(JoystickSnapshot snapshot)
+    {
+        snapshot.capture(this);
+    }
+
     /**
      * Makes the joystick rumble
      * @param type whether to rumble left or right
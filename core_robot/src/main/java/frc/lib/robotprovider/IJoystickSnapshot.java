@@ -0,0 +1,48 @@
+package frc.lib.robotprovider;
+
+/**
+ * Represents the state of a joystick or controller as it was captured at the start of an update, so that everything reading it during
+ * that update sees the same values (see IJoystick.capture)
+ */
+public interface IJoystickSnapshot
+{
+    /**
+     * Gets a value indicating if there was a joystick plugged into that slot
+     * @return true if connected, otherwise false
+     */
+    boolean isConnected();
+
+    /**
+     * Get the extent to which the analog input axis was pushed away from its origin
+     * @param relevantAxis representing which stick/axis
+     * @return 0.0 if at origin point (or not captured), otherwise -1.0 if full reverse or 1.0 if full forward
+     */
+    double getAxis(int relevantAxis);
+
+    /**
+     * Gets the POV (d-pad) value
+     * @return -1 if unpressed, otherwise a value indicating the direction
+     */
+    int getPOV();
+
+    /**
+     * Get whether the specified button was pressed
+     * @param value representing which button
+     * @return true if pressed, otherwise false
+     */
+    boolean getRawButton(int value);
+
+    /**
+     * Get whether the specified button was pressed in this snapshot, but not in the previous one
+     * @param value representing which button
+     * @return true if newly pressed, otherwise false
+     */
+    boolean getRawButtonPressed(int value);
+
+    /**
+     * Get whether the specified button was pressed in the previous snapshot, but not in this one
+     * @param value representing which button
+     * @return true if newly released, otherwise false
+     */
+    boolean getRawButtonReleased(int value);
+}
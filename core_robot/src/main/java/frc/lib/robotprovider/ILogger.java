@@ -35,6 +35,22 @@ public interface ILogger
      */
     void logNumber(LoggingKey key, Double value);
 
+    /**
+     * Write an array of numbers (doubles) to the log as a single value
+     * @param key to write to
+     * @param value to write
+     */
+    void logNumberArray(LoggingKey key, double[] value);
+
+    /**
+     * Write a pose (x, y and angle) to the log as a single value
+     * @param key to write to
+     * @param x position (in inches)
+     * @param y position (in inches)
+     * @param angle (in degrees)
+     */
+    void logPose(LoggingKey key, double x, double y, double angle);
+
     /**
      * Write a number (integer) to the log
      * @param key to write to
@@ -73,4 +89,9 @@ public interface ILogger
      * Flush the output stream, if appropriate..
      */
     void flush();
+
+    /**
+     * Flush the log and release any resources (such as threads) that it is using
+     */
+    void close();
 }
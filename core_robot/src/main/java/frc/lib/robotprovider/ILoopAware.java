@@ -0,0 +1,14 @@
+package frc.lib.robotprovider;
+
+/**
+ * Implemented by robot providers that need to know when each periodic loop starts, such as the providers that record or replay
+ * everything read through the IRobotProvider
+ */
+public interface ILoopAware
+{
+    /**
+     * Called at the start of each periodic loop, before the sensors are read
+     * @param mode that the robot is in for this loop
+     */
+    void startLoop(RobotMode mode);
+}
@@ -0,0 +1,192 @@
+package frc.lib.robotprovider;
+
+/**
+ * The state of a joystick or controller captured at the start of an update, kept in primitives (the axes in an array, the buttons as a
+ * bitmask with button n as bit n - 1, and the POV) so that capturing it each update doesn't allocate.  The buttons from the previous
+ * capture are kept as well, so that button edges are computed from the two masks rather than by asking the joystick.
+ */
+public class JoystickSnapshot implements IJoystickSnapshot
+{
+    public static final int MAX_BUTTONS = Integer.SIZE;
+
+    private final double[] axes;
+    private final int buttonCount;
+
+    private boolean connected;
+    private int buttons;
+    private int previousButtons;
+    private int pov;
+
+    /**
+     * Initializes a new JoystickSnapshot
+     * @param axisCount the number of axes to capture (axes 0 to axisCount - 1)
+     * @param buttonCount the number of buttons to capture (buttons 1 to buttonCount, at most MAX_BUTTONS)
+     */
+    public JoystickSnapshot(int axisCount, int buttonCount)
+    {
+        this.axes = new double[Math.max(0, axisCount)];
+        this.buttonCount = Math.max(0, Math.min(buttonCount, JoystickSnapshot.MAX_BUTTONS));
+
+        this.connected = false;
+        this.buttons = 0;
+        this.previousButtons = 0;
+        this.pov = -1;
+    }
+
+    /**
+     * Get the number of axes that are captured
+     * @return the number of axes
+     */
+    public int getAxisCount()
+    {
+        return this.axes.length;
+    }
+
+    /**
+     * Get the number of buttons that are captured
+     * @return the number of buttons
+     */
+    public int getButtonCount()
+    {
+        return this.buttonCount;
+    }
+
+    /**
+     * Start capturing the joystick's state, keeping the buttons from the previous capture and resetting everything else as if nothing is
+     * pressed, to be followed by the setters for a connected joystick
+     * @param connected whether the joystick is connected
+     */
+    public void begin(boolean connected)
+    {
+        this.connected = connected;
+        this.previousButtons = this.buttons;
+        this.buttons = 0;
+        this.pov = -1;
+        for (int i = 0; i < this.axes.length; i++)
+        {
+            this.axes[i] = 0.0;
+        }
+    }
+
+    /**
+     * Capture the joystick's state by reading each of the snapshot's axes and buttons and the POV from it individually
+     * @param joystick to capture
+     */
+    public void capture(IJoystick joystick)
+    {
+        boolean connected = joystick.isConnected();
+        this.begin(connected);
+        if (!connected)
+        {
+            return;
+        }
+
+        for (int axis = 0; axis < this.axes.length; axis++)
+        {
+            this.axes[axis] = joystick.getAxis(axis);
+        }
+
+        int buttons = 0;
+        for (int button = 1; button <= this.buttonCount; button++)
+        {
+            if (joystick.getRawButton(button))
+            {
+                buttons |= 1 << (button - 1);
+            }
+        }
+
+        this.buttons = buttons;
+        this.pov = joystick.getPOV();
+    }
+
+    /**
+     * Set the value of an axis (ignored if the axis isn't captured)
+     * @param axis to set
+     * @param value of the axis
+     */
+    public void setAxis(int axis, double value)
+    {
+        if (axis >= 0 && axis < this.axes.length)
+        {
+            this.axes[axis] = value;
+        }
+    }
+
+    /**
+     * Set which buttons are pressed (buttons that aren't captured are ignored)
+     * @param buttons the bitmask of pressed buttons, with button n as bit n - 1
+     */
+    public void setButtons(int buttons)
+    {
+        this.buttons = this.buttonCount >= JoystickSnapshot.MAX_BUTTONS ? buttons : buttons & ((1 << this.buttonCount) - 1);
+    }
+
+    /**
+     * Set the POV (d-pad) value
+     * @param pov -1 if unpressed, otherwise a value indicating the direction
+     */
+    public void setPOV(int pov)
+    {
+        this.pov = pov;
+    }
+
+    /**
+     * Get the bitmask of the buttons that were pressed
+     * @return the bitmask, with button n as bit n - 1
+     */
+    public int getButtons()
+    {
+        return this.buttons;
+    }
+
+    @Override
+    public boolean isConnected()
+    {
+        return this.connected;
+    }
+
+    @Override
+    public double getAxis(int relevantAxis)
+    {
+        if (relevantAxis < 0 || relevantAxis >= this.axes.length)
+        {
+            return 0.0;
+        }
+
+        return this.axes[relevantAxis];
+    }
+
+    @Override
+    public int getPOV()
+    {
+        return this.pov;
+    }
+
+    @Override
+    public boolean getRawButton(int value)
+    {
+        return (this.buttons & JoystickSnapshot.getButtonBit(value)) != 0;
+    }
+
+    @Override
+    public boolean getRawButtonPressed(int value)
+    {
+        return (this.buttons & ~this.previousButtons & JoystickSnapshot.getButtonBit(value)) != 0;
+    }
+
+    @Override
+    public boolean getRawButtonReleased(int value)
+    {
+        return (~this.buttons & this.previousButtons & JoystickSnapshot.getButtonBit(value)) != 0;
+    }
+
+    private static int getButtonBit(int value)
+    {
+        if (value < 1 || value > JoystickSnapshot.MAX_BUTTONS)
+        {
+            return 0;
+        }
+
+        return 1 << (value - 1);
+    }
+}
@@ -0,0 +1,195 @@
+package frc.lib.robotprovider;
+
+import java.io.IOException;
+
+/**
+ * Writes a sidecar index for a CSV log, so that analysis tools can jump straight to a match time without reading the whole log.
+ *
+ * The index is itself a small CSV file with the columns "offset,segment,r/time,r/state".  Row entries give the byte offset of a row
+ * within the (uncompressed) log, along with its RobotTime and RobotState.  An entry is written for the first row, every interval rows,
+ * and whenever the RobotState changes.  Segment entries (written by SegmentedFileWriter) give the byte offset at which each segment
+ * after the first starts.  Offsets count the header only once, as if the log was never split into segments.
+ */
+public class LogIndexWriter
+{
+    public static final String HEADER = "offset,segment,r/time,r/state";
+
+    private static final String LOG_EXTENSION = ".csv";
+    private static final String INDEX_EXTENSION = ".index.csv";
+
+    private final IFileWriter fileWriter;
+    private final int interval;
+    private final StringBuilder builder;
+
+    private int rowsSinceEntry;
+    private boolean hasEntry;
+    private String lastState;
+
+    /**
+     * Initializes a new LogIndexWriter, writing the header of the index
+     * @param fileWriter to write the index into
+     * @param interval the number of rows between each row entry (in addition to the entries for RobotState changes)
+     * @throws IOException if the header can't be written
+     */
+    public LogIndexWriter(IFileWriter fileWriter, int interval) throws IOException
+    {
+        this.fileWriter = fileWriter;
+        this.interval = interval;
+        this.builder = new StringBuilder();
+
+        this.rowsSinceEntry = 0;
+        this.hasEntry = false;
+        this.lastState = null;
+
+        this.fileWriter.append(LogIndexWriter.HEADER);
+        this.fileWriter.append("\r\n");
+    }
+
+    /**
+     * Get the name of the index file for a log file, a la "/U/2020 - Glacier Peak/Q03 (R2).auto.index.csv"
+     * @param logFileName the name of the (first segment of the) log file, without any compressed extension
+     * @return the name of the index file
+     */
+    public static String getIndexFileName(String logFileName)
+    {
+        if (logFileName.endsWith(LogIndexWriter.LOG_EXTENSION))
+        {
+            logFileName = logFileName.substring(0, logFileName.length() - LogIndexWriter.LOG_EXTENSION.length());
+        }
+
+        return logFileName + LogIndexWriter.INDEX_EXTENSION;
+    }
+
+    /**
+     * Record that a row is being written into the log, writing an entry for it if appropriate
+     * @param offset of the start of the row in the log
+     * @param time of the row (RobotTime), or NaN if it wasn't logged
+     * @param state of the row (RobotState), or null if it wasn't logged
+     */
+    public void recordRow(long offset, double time, String state)
+    {
+        boolean stateChanged = state != null && !state.equals(this.lastState);
+        if (this.hasEntry && !stateChanged && ++this.rowsSinceEntry < this.interval)
+        {
+            return;
+        }
+
+        if (state != null)
+        {
+            this.lastState = state;
+        }
+
+        this.hasEntry = true;
+        this.rowsSinceEntry = 0;
+
+        this.builder.setLength(0);
+        this.builder.append(offset);
+        this.builder.append(",,");
+        if (!Double.isNaN(time))
+        {
+            this.builder.append(time);
+        }
+
+        this.builder.append(',');
+        CSVRow.appendString(this.builder, state, true);
+        this.builder.append("\r\n");
+        this.write();
+    }
+
+    /**
+     * Record that a new segment of the log has been started
+     * @param offset in the log of the first row in the segment
+     * @param segment number (2 or more)
+     */
+    public void recordSegment(long offset, int segment)
+    {
+        this.builder.setLength(0);
+        this.builder.append(offset);
+        this.builder.append(',');
+        this.builder.append(segment);
+        this.builder.append(",,\r\n");
+        this.write();
+    }
+
+    /**
+     * Attempt to flush the index to disk
+     */
+    public void flush()
+    {
+        try
+        {
+            this.fileWriter.flush();
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+    }
+
+    /**
+     * Flush and close the index
+     */
+    public void close()
+    {
+        try
+        {
+            this.fileWriter.close();
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+    }
+
+    /**
+     * Count the number of bytes that the characters in the builder will take up when they are encoded as UTF-8
+     * @param builder containing the characters
+     * @param start index of the first character to count
+     * @return the number of bytes
+     */
+    static long getUtf8Length(CharSequence builder, int start)
+    {
+        long length = 0L;
+        int end = builder.length();
+        for (int i = start; i < end; i++)
+        {
+            char ch = builder.charAt(i);
+            if (ch < 0x80)
+            {
+                length++;
+            }
+            else if (ch < 0x800)
+            {
+                length += 2;
+            }
+            else if (Character.isHighSurrogate(ch) && i + 1 < end && Character.isLowSurrogate(builder.charAt(i + 1)))
+            {
+                length += 4;
+                i++;
+            }
+            else if (Character.isSurrogate(ch))
+            {
+                // an unpaired surrogate is encoded as '?'
+                length++;
+            }
+            else
+            {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+
+    private void write()
+    {
+        try
+        {
+            this.fileWriter.append(this.builder.toString());
+        }
+        catch (IOException e)
+        {
+            // best-effort...
+        }
+    }
+}
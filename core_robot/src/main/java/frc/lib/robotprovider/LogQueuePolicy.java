@@ -0,0 +1,10 @@
+package frc.lib.robotprovider;
+
+/**
+ * What the robot thread should do when the asynchronous logging queue is full
+ */
+public enum LogQueuePolicy
+{
+    DropOldest, // discard the oldest row that hasn't been written yet, so that the robot thread never waits
+    Block, // wait for the writer thread to make room, so that no rows are lost
+}
@@ -0,0 +1,18 @@
+package frc.lib.robotprovider;
+
+/**
+ * How the values logged for a key during each window of loggingFrequency updates are reduced to the value that is written (other than
+ * RateLimit, which uses the key's rateLimitInterval in seconds).
+ * Everything other than Sample is applied by the LoggingManager, so loggers write aggregated keys whenever they are given a value.
+ */
+public enum LoggingAggregation
+{
+    Sample, // the value logged during the first update of each window (the other values are discarded)
+    Last, // the most recent value logged during the window
+    Min, // the smallest number logged during the window
+    Max, // the largest number logged during the window
+    Mean, // the average of the numbers logged during the window
+    Peak, // the number furthest from zero logged during the window (keeping its sign)
+    ChangeCount, // the number of times the value changed during the window, written as an integer
+    RateLimit, // a changed value is written immediately, but no more than once per rateLimitInterval seconds (a suppressed change is written once the interval has passed)
+}
@@ -11,4 +11,6 @@ public enum LoggingType
     Integer, // int
     NullableInteger, // Integer
     Boolean, // boolean
+    NumberArray, // double[]
+    Pose, // x, y, angle
 }
@@ -74,6 +74,36 @@ public class MultiLogger implements ILogger
         }
     }
 
+    /**
+     * Write an array of numbers (doubles) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumberArray(LoggingKey key, double[] value)
+    {
+        for (ILogger logger : this.loggers)
+        {
+            logger.logNumberArray(key, value);
+        }
+    }
+
+    /**
+     * Write a pose to the log
+     * @param key to write to
+     * @param x position (in inches)
+     * @param y position (in inches)
+     * @param angle (in degrees)
+     */
+    @Override
+    public void logPose(LoggingKey key, double x, double y, double angle)
+    {
+        for (ILogger logger : this.loggers)
+        {
+            logger.logPose(key, x, y, angle);
+        }
+    }
+
     /**
      * Write a number (integer) to the log
      * @param key to write to
@@ -154,4 +184,16 @@ public class MultiLogger implements ILogger
             logger.flush();
         }
     }
+
+    /**
+     * Flush the log and release any resources that it is using
+     */
+    @Override
+    public void close()
+    {
+        for (ILogger logger : this.loggers)
+        {
+            logger.close();
+        }
+    }
 }
@@ -0,0 +1,506 @@
+package frc.lib.robotprovider;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records everything that is read through an IRobotProvider (and the ITimer) into a compact replay log (see ReplayLogFormat for the
+ * layout), so that ReplayRobotProvider can later feed the same values back into the robot without any hardware.
+ *
+ * The devices returned by the provider are wrapped in proxies that pass each call through to the real device, recording the values
+ * returned by the methods that read from it (methods that only write to a device aren't recorded).  CoreRobot calls startLoop at the
+ * start of each periodic loop, through the ILoopAware interface implemented by the wrapped provider.
+ *
+ * Recording is best-effort: if the log can't be written, recording stops and the robot carries on as normal.  Devices may be read
+ * from other threads (such as when building trajectories in the background), so recording is synchronized.
+ */
+public class RecordingRobotProvider
+{
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final int MAX_CACHED_INDEX = 32;
+
+    private final IBinaryFileWriter fileWriter;
+    private final int flushThreshold;
+    private final HashMap<String, Key> keys;
+    private final IRobotProvider robotProvider;
+
+    private byte[] buffer;
+    private int length;
+    private int timerCount;
+    private int loopsSinceFlush;
+    private boolean stopped;
+
+    /**
+     * Initializes a new instance of the RecordingRobotProvider class
+     * @param robotProvider to record
+     * @param fileWriter to write the replay log into
+     * @param flushThreshold the number of loops between flushes of the replay log
+     * @throws IOException if the start of the replay log can't be written
+     */
+    public RecordingRobotProvider(IRobotProvider robotProvider, IBinaryFileWriter fileWriter, int flushThreshold) throws IOException
+    {
+        this.fileWriter = fileWriter;
+        this.flushThreshold = flushThreshold;
+        this.keys = new HashMap<String, Key>();
+
+        this.buffer = new byte[RecordingRobotProvider.INITIAL_BUFFER_SIZE];
+        this.length = 0;
+        this.timerCount = 0;
+        this.loopsSinceFlush = 0;
+        this.stopped = false;
+
+        for (byte value : ReplayLogFormat.MAGIC)
+        {
+            this.writeByte(value);
+        }
+
+        this.writeByte(ReplayLogFormat.VERSION);
+        this.fileWriter.write(this.buffer, 0, this.length);
+        this.fileWriter.flush();
+        this.length = 0;
+
+        this.robotProvider = (IRobotProvider)this.createProxy(IRobotProvider.class, robotProvider, null);
+    }
+
+    /**
+     * Get the provider to give to the robot, which records everything read through it
+     * @return the recording provider (which also implements ILoopAware)
+     */
+    public IRobotProvider getRobotProvider()
+    {
+        return this.robotProvider;
+    }
+
+    /**
+     * Wrap a timer so that the times read from it are recorded (ReplayRobotProvider.createTimer should be called in the same order)
+     * @param timer to record
+     * @return the recording timer to give to the robot
+     */
+    public synchronized ITimer createTimer(ITimer timer)
+    {
+        this.timerCount++;
+        return (ITimer)this.createProxy(ITimer.class, timer, ITimer.class.getSimpleName() + "#" + this.timerCount);
+    }
+
+    /**
+     * Start recording a new periodic loop, writing out the previous loop
+     * @param mode that the robot is in for the new loop
+     */
+    public synchronized void startLoop(RobotMode mode)
+    {
+        if (this.stopped)
+        {
+            return;
+        }
+
+        this.writeVarint(ReplayLogFormat.ENTRY_LOOP);
+        this.writeByte((byte)mode.ordinal());
+
+        try
+        {
+            this.fileWriter.write(this.buffer, 0, this.length);
+            this.length = 0;
+
+            if (++this.loopsSinceFlush >= this.flushThreshold)
+            {
+                // lazily flush the log, in case of power-off
+                this.fileWriter.flush();
+                this.loopsSinceFlush = 0;
+            }
+        }
+        catch (IOException ex)
+        {
+            this.stop();
+        }
+    }
+
+    /**
+     * Check whether recording has stopped because the replay log couldn't be written
+     * @return true if recording has stopped
+     */
+    public synchronized boolean isStopped()
+    {
+        return this.stopped;
+    }
+
+    /**
+     * Write out the current loop and close the replay log
+     */
+    public synchronized void close()
+    {
+        if (this.stopped)
+        {
+            return;
+        }
+
+        try
+        {
+            this.fileWriter.write(this.buffer, 0, this.length);
+            this.fileWriter.flush();
+        }
+        catch (IOException ex)
+        {
+            // best-effort...
+        }
+
+        this.stop();
+    }
+
+    private Object createProxy(Class<?> deviceInterface, Object device, String path)
+    {
+        Class<?>[] interfaces = path == null ? new Class<?>[] { deviceInterface, ILoopAware.class } : new Class<?>[] { deviceInterface };
+        return Proxy.newProxyInstance(deviceInterface.getClassLoader(), interfaces, new RecordingHandler(device, path));
+    }
+
+    private synchronized Key getKey(String name, byte type)
+    {
+        Key key = this.keys.get(name);
+        if (key == null)
+        {
+            key = new Key(this.keys.size(), type, name);
+            this.keys.put(name, key);
+
+            if (!this.stopped)
+            {
+                this.writeVarint(ReplayLogFormat.ENTRY_KEY);
+                this.writeByte(type);
+                this.writeStringPayload(name);
+            }
+        }
+
+        return key;
+    }
+
+    private synchronized void recordBoolean(Key key, boolean value)
+    {
+        if (this.stopped || this.writeValueEntry(key, value ? 1L : 0L))
+        {
+            return;
+        }
+
+        this.writeByte(value ? (byte)1 : (byte)0);
+    }
+
+    private synchronized void recordInteger(Key key, long value)
+    {
+        if (this.stopped || this.writeValueEntry(key, value))
+        {
+            return;
+        }
+
+        this.writeVarint(BinaryLogFormat.zigzagEncode(value));
+    }
+
+    private synchronized void recordDouble(Key key, double value)
+    {
+        long previousBits = key.previousBits;
+        long bits = Double.doubleToRawLongBits(value);
+        if (this.stopped || this.writeValueEntry(key, bits))
+        {
+            return;
+        }
+
+        this.writeVarint(bits ^ previousBits);
+    }
+
+    /**
+     * Write the entry for a boolean, integer or double value (as its bits), marking it as the same as the previous value if it is
+     * @param key to write the value of
+     * @param bits of the value
+     * @return true if the value is the same as the previous value (so nothing more needs to be written)
+     */
+    private boolean writeValueEntry(Key key, long bits)
+    {
+        if (key.hasPrevious && key.previousBits == bits)
+        {
+            this.writeVarint(ReplayLogFormat.ENTRY_VALUE + 2L * key.id + 1L);
+            return true;
+        }
+
+        this.writeVarint(ReplayLogFormat.ENTRY_VALUE + 2L * key.id);
+        key.previousBits = bits;
+        key.hasPrevious = true;
+        return false;
+    }
+
+    private synchronized void record(Key key, Object value)
+    {
+        if (this.stopped)
+        {
+            return;
+        }
+
+        if (key.hasPrevious && ReplayLogFormat.isSame(key.previous, value))
+        {
+            this.writeVarint(ReplayLogFormat.ENTRY_VALUE + 2L * key.id + 1L);
+            return;
+        }
+
+        this.writeVarint(ReplayLogFormat.ENTRY_VALUE + 2L * key.id);
+        switch (key.type)
+        {
+            case ReplayLogFormat.TYPE_NULLABLE_INTEGER:
+                this.writeVarint(value == null ? 0L : BinaryLogFormat.zigzagEncode((Long)value) + 1L);
+                break;
+
+            case ReplayLogFormat.TYPE_STRING:
+                this.writeNullableString((String)value);
+                break;
+
+            case ReplayLogFormat.TYPE_DOUBLE_ARRAY:
+                double[] values = value == null ? new double[0] : (double[])value;
+                if (key.previousDoubleArrayBits == null || key.previousDoubleArrayBits.length < values.length)
+                {
+                    long[] newPreviousBits = new long[values.length];
+                    if (key.previousDoubleArrayBits != null)
+                    {
+                        System.arraycopy(key.previousDoubleArrayBits, 0, newPreviousBits, 0, key.previousDoubleArrayBits.length);
+                    }
+
+                    key.previousDoubleArrayBits = newPreviousBits;
+                }
+
+                this.writeVarint(values.length);
+                for (int i = 0; i < values.length; i++)
+                {
+                    long valueBits = Double.doubleToRawLongBits(values[i]);
+                    this.writeVarint(valueBits ^ key.previousDoubleArrayBits[i]);
+                    key.previousDoubleArrayBits[i] = valueBits;
+                }
+
+                break;
+
+            case ReplayLogFormat.TYPE_STRING_ARRAY:
+                String[] strings = value == null ? new String[0] : (String[])value;
+                this.writeVarint(strings.length);
+                for (String string : strings)
+                {
+                    this.writeNullableString(string);
+                }
+
+                break;
+        }
+
+        key.previous = value;
+        key.hasPrevious = true;
+    }
+
+    private void stop()
+    {
+        this.stopped = true;
+        this.length = 0;
+
+        try
+        {
+            this.fileWriter.close();
+        }
+        catch (IOException ex)
+        {
+            // best-effort...
+        }
+    }
+
+    private void writeNullableString(String value)
+    {
+        if (value == null)
+        {
+            this.writeVarint(0L);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        this.writeVarint(bytes.length + 1L);
+        this.ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, this.buffer, this.length, bytes.length);
+        this.length += bytes.length;
+    }
+
+    private void writeStringPayload(String value)
+    {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        this.writeVarint(bytes.length);
+        this.ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, this.buffer, this.length, bytes.length);
+        this.length += bytes.length;
+    }
+
+    private void writeVarint(long value)
+    {
+        while ((value & ~0x7FL) != 0L)
+        {
+            this.writeByte((byte)((value & 0x7FL) | 0x80L));
+            value >>>= 7;
+        }
+
+        this.writeByte((byte)value);
+    }
+
+    private void writeByte(byte value)
+    {
+        this.ensureCapacity(1);
+        this.buffer[this.length++] = value;
+    }
+
+    private void ensureCapacity(int additional)
+    {
+        if (this.length + additional > this.buffer.length)
+        {
+            byte[] newBuffer = new byte[Math.max(this.buffer.length * 2, this.length + additional)];
+            System.arraycopy(this.buffer, 0, newBuffer, 0, this.length);
+            this.buffer = newBuffer;
+        }
+    }
+
+    /**
+     * A method called with particular arguments on a device, and the previous value read from it (booleans, integers and doubles
+     * are kept as their bits, so that they don't need to be boxed)
+     */
+    private static class Key
+    {
+        final int id;
+        final byte type;
+
+        final String name;
+
+        boolean hasPrevious;
+        Object previous;
+        long previousBits;
+        long[] previousDoubleArrayBits;
+
+        Key(int id, byte type, String name)
+        {
+            this.id = id;
+            this.type = type;
+            this.name = name;
+        }
+    }
+
+    private class RecordingHandler implements InvocationHandler
+    {
+        private final Object device;
+        private final String path;
+        private final ConcurrentHashMap<Method, Key> keys; // for methods called without arguments
+        private final ConcurrentHashMap<Method, Key[]> indexedKeys; // for methods called with a small index (such as IJoystick.getRawButton)
+
+        RecordingHandler(Object device, String path)
+        {
+            this.device = device;
+            this.path = path;
+            this.keys = new ConcurrentHashMap<Method, Key>();
+            this.indexedKeys = new ConcurrentHashMap<Method, Key[]>();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+        {
+            if (method.getDeclaringClass() == Object.class)
+            {
+                return ReplayLogFormat.invokeObjectMethod(proxy, this.path, method, args);
+            }
+
+            if (method.getDeclaringClass() == ILoopAware.class)
+            {
+                RecordingRobotProvider.this.startLoop((RobotMode)args[0]);
+                return null;
+            }
+
+            if (method.isDefault())
+            {
+                // default methods (such as IJoystick.capture) are made of other calls, which are recorded individually
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+
+            Object result;
+            try
+            {
+                result = method.invoke(this.device, args);
+            }
+            catch (InvocationTargetException ex)
+            {
+                throw ex.getCause();
+            }
+
+            byte type = ReplayLogFormat.getType(method);
+            if (type == ReplayLogFormat.TYPE_NONE)
+            {
+                return result;
+            }
+
+            Key key = this.getKey(method, args, type);
+            boolean returnsDevice = ReplayLogFormat.returnsDevice(method);
+            switch (type)
+            {
+                case ReplayLogFormat.TYPE_BOOLEAN:
+                    RecordingRobotProvider.this.recordBoolean(key, returnsDevice ? result != null : Boolean.TRUE.equals(result));
+                    break;
+
+                case ReplayLogFormat.TYPE_INTEGER:
+                    RecordingRobotProvider.this.recordInteger(key, result == null ? 0L : ((Number)result).longValue());
+                    break;
+
+                case ReplayLogFormat.TYPE_DOUBLE:
+                    RecordingRobotProvider.this.recordDouble(key, result == null ? 0.0 : ((Number)result).doubleValue());
+                    break;
+
+                default:
+                    RecordingRobotProvider.this.record(key, ReplayLogFormat.toRecorded(method, args, result));
+                    break;
+            }
+
+            if (result != null && returnsDevice)
+            {
+                return RecordingRobotProvider.this.createProxy(method.getReturnType(), result, key.name);
+            }
+
+            return result;
+        }
+
+        /**
+         * Get the key for a call, only building its name the first time that the method is called with those arguments (for methods
+         * called without arguments or with a small index)
+         * @param method that was called
+         * @param args that it was called with
+         * @param type with which its values are recorded
+         * @return the key to record the value under
+         */
+        private Key getKey(Method method, Object[] args, byte type)
+        {
+            if (args == null || args.length == 0)
+            {
+                Key key = this.keys.get(method);
+                if (key == null)
+                {
+                    key = RecordingRobotProvider.this.getKey(ReplayLogFormat.getKey(this.path, method, args), type);
+                    this.keys.put(method, key);
+                }
+
+                return key;
+            }
+
+            if (args.length == 1 && args[0] instanceof Integer)
+            {
+                int index = (Integer)args[0];
+                if (index >= 0 && index < RecordingRobotProvider.MAX_CACHED_INDEX)
+                {
+                    Key[] indexedKeys = this.indexedKeys.computeIfAbsent(method, m -> new Key[RecordingRobotProvider.MAX_CACHED_INDEX]);
+                    Key key = indexedKeys[index];
+                    if (key == null)
+                    {
+                        key = RecordingRobotProvider.this.getKey(ReplayLogFormat.getKey(this.path, method, args), type);
+                        indexedKeys[index] = key;
+                    }
+
+                    return key;
+                }
+            }
+
+            return RecordingRobotProvider.this.getKey(ReplayLogFormat.getKey(this.path, method, args), type);
+        }
+    }
+}
@@ -0,0 +1,561 @@
+package frc.lib.robotprovider;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+
+/**
+ * Constants and conversions describing the layout of the replay logs written by RecordingRobotProvider and read by ReplayRobotProvider.
+ *
+ * A file starts with the MAGIC bytes and the VERSION byte, followed by a sequence of entries that each start with a varint:
+ *   ENTRY_LOOP: the start of a periodic loop, followed by a byte with the ordinal of the loop's RobotMode
+ *   ENTRY_KEY: the definition of the next key (numbered from 0), followed by the key's TYPE byte and its name (a varint length followed
+ *     by UTF-8 bytes)
+ *   ENTRY_VALUE and above: a value read from a key, where (entry - ENTRY_VALUE) / 2 is the number of the key and the lowest bit is set
+ *     when the value is the same as the previous value read from the key (and so has no payload)
+ *
+ * A key is one method called with particular arguments on one device, a la "getTalonFX(3).getPosition()", so that the values that
+ * were read from it during each loop can be returned in the same order when replaying that loop.  Payloads depend on the key's type:
+ *   TYPE_BOOLEAN: a byte, 0 or 1
+ *   TYPE_INTEGER: the zigzag varint of the value
+ *   TYPE_NULLABLE_INTEGER: a varint, 0 for null or else 1 + the zigzag of the value
+ *   TYPE_DOUBLE: the varint of the value's bits XOR'd with the bits of the previous double read from the key
+ *   TYPE_STRING: a varint, 0 for null or else 1 + the length, followed by the UTF-8 bytes
+ *   TYPE_DOUBLE_ARRAY: a varint length followed by the varint of each value's bits XOR'd with the bits of the value at the same index
+ *     of the previous array read from the key (or with 0 if there hasn't been one)
+ *   TYPE_STRING_ARRAY: a varint length followed by a TYPE_STRING payload for each value
+ */
+public class ReplayLogFormat
+{
+    public static final byte[] MAGIC = new byte[] { 'F', 'R', 'C', 'R' };
+    public static final byte VERSION = 1;
+
+    public static final int ENTRY_LOOP = 0;
+    public static final int ENTRY_KEY = 1;
+    public static final int ENTRY_VALUE = 2;
+
+    public static final byte TYPE_NONE = -1;
+    public static final byte TYPE_BOOLEAN = 0;
+    public static final byte TYPE_INTEGER = 1;
+    public static final byte TYPE_NULLABLE_INTEGER = 2;
+    public static final byte TYPE_DOUBLE = 3;
+    public static final byte TYPE_STRING = 4;
+    public static final byte TYPE_DOUBLE_ARRAY = 5;
+    public static final byte TYPE_STRING_ARRAY = 6;
+
+    private static final String PACKAGE_NAME = IRobotProvider.class.getPackageName();
+
+    /**
+     * Check whether a method returns another device (such as a subscriber from the INetworkTableProvider) whose methods should also be
+     * recorded, rather than a value.  Only whether such a device was returned (or null) is recorded.
+     * @param method to check
+     * @return true if the method returns a device
+     */
+    static boolean returnsDevice(Method method)
+    {
+        Class<?> returnType = method.getReturnType();
+        return returnType.isInterface() && returnType.getPackageName().equals(ReplayLogFormat.PACKAGE_NAME);
+    }
+
+    /**
+     * Get the type with which values read from the method are recorded
+     * @param method to check
+     * @return the TYPE, or TYPE_NONE if the method's values aren't recorded (such as methods that only write to the device)
+     */
+    static byte getType(Method method)
+    {
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class)
+        {
+            // methods such as IPigeon2.getYawPitchRoll(double[]) read into the array they are given
+            return ReplayLogFormat.getOutputArgument(method) >= 0 ? ReplayLogFormat.TYPE_DOUBLE_ARRAY : ReplayLogFormat.TYPE_NONE;
+        }
+
+        if (returnType == boolean.class || returnType == Boolean.class || ReplayLogFormat.returnsDevice(method))
+        {
+            return ReplayLogFormat.TYPE_BOOLEAN;
+        }
+
+        if (returnType == int.class || returnType == long.class || returnType == Integer.class || returnType == Long.class)
+        {
+            return ReplayLogFormat.TYPE_INTEGER;
+        }
+
+        if (returnType == OptionalInt.class)
+        {
+            return ReplayLogFormat.TYPE_NULLABLE_INTEGER;
+        }
+
+        if (returnType == double.class || returnType == float.class || returnType == Double.class || returnType == Float.class)
+        {
+            return ReplayLogFormat.TYPE_DOUBLE;
+        }
+
+        if (returnType == String.class || returnType.isEnum() || returnType == Optional.class || returnType == Object.class)
+        {
+            // enums are recorded by name (generic values, such as from ISendableChooser.getSelected(), with their class too)
+            return ReplayLogFormat.TYPE_STRING;
+        }
+
+        if (returnType == TalonXLimitSwitchStatus.class || returnType == TrajectoryState.class)
+        {
+            return ReplayLogFormat.TYPE_DOUBLE_ARRAY;
+        }
+
+        if (returnType == Collection.class || returnType == List.class)
+        {
+            return ReplayLogFormat.TYPE_STRING_ARRAY;
+        }
+
+        return ReplayLogFormat.TYPE_NONE;
+    }
+
+    /**
+     * Get the name of the key for a method called with particular arguments on a device
+     * @param path of the device (the key of the method that returned it), or null for the provider itself
+     * @param method that was called
+     * @param args that the method was called with
+     * @return the name of the key
+     */
+    static String getKey(String path, Method method, Object[] args)
+    {
+        StringBuilder builder = new StringBuilder();
+        if (path != null)
+        {
+            builder.append(path);
+            builder.append('.');
+        }
+
+        builder.append(method.getName());
+        builder.append('(');
+        if (args != null)
+        {
+            int outputArgument = ReplayLogFormat.getOutputArgument(method);
+            for (int i = 0; i < args.length; i++)
+            {
+                if (i > 0)
+                {
+                    builder.append(", ");
+                }
+
+                if (i != outputArgument)
+                {
+                    ReplayLogFormat.appendArgument(builder, args[i]);
+                }
+            }
+        }
+
+        builder.append(')');
+        return builder.toString();
+    }
+
+    /**
+     * Convert the value read from a method into the form that is recorded for its type
+     * @param method that was called
+     * @param args that the method was called with
+     * @param value that the method returned
+     * @return the value to record (a Boolean, Long, Double, String, double[], String[] or null)
+     */
+    static Object toRecorded(Method method, Object[] args, Object value)
+    {
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class)
+        {
+            // copy the array, as callers tend to re-use them
+            return ((double[])args[ReplayLogFormat.getOutputArgument(method)]).clone();
+        }
+
+        if (ReplayLogFormat.returnsDevice(method))
+        {
+            return value != null;
+        }
+
+        if (value == null)
+        {
+            return null;
+        }
+
+        if (value instanceof Number && (returnType == int.class || returnType == long.class || returnType == Integer.class || returnType == Long.class))
+        {
+            return ((Number)value).longValue();
+        }
+
+        if (value instanceof Number)
+        {
+            return ((Number)value).doubleValue();
+        }
+
+        if (value instanceof OptionalInt)
+        {
+            OptionalInt optional = (OptionalInt)value;
+            return optional.isPresent() ? Long.valueOf(optional.getAsInt()) : null;
+        }
+
+        if (value instanceof Optional<?>)
+        {
+            Optional<?> optional = (Optional<?>)value;
+            return optional.isPresent() ? ReplayLogFormat.toRecorded(method, args, optional.get()) : null;
+        }
+
+        if (value instanceof Enum<?>)
+        {
+            Enum<?> enumValue = (Enum<?>)value;
+            return returnType == Object.class ? enumValue.getDeclaringClass().getName() + ":" + enumValue.name() : enumValue.name();
+        }
+
+        if (value instanceof TalonXLimitSwitchStatus)
+        {
+            TalonXLimitSwitchStatus status = (TalonXLimitSwitchStatus)value;
+            return new double[] { status.isForwardClosed ? 1.0 : 0.0, status.isReverseClosed ? 1.0 : 0.0 };
+        }
+
+        if (value instanceof TrajectoryState)
+        {
+            TrajectoryState state = (TrajectoryState)value;
+            return new double[] { state.xPosition, state.yPosition, state.angle, state.xVelocity, state.yVelocity, state.angleVelocity };
+        }
+
+        if (value instanceof Collection<?>)
+        {
+            Collection<?> collection = (Collection<?>)value;
+            String[] strings = new String[collection.size()];
+            int i = 0;
+            for (Object item : collection)
+            {
+                strings[i++] = item == null ? null : item.toString();
+            }
+
+            return strings;
+        }
+
+        if (value instanceof Boolean || value instanceof String)
+        {
+            return value;
+        }
+
+        // generic values that aren't enums (or strings) can't be reconstructed
+        return null;
+    }
+
+    /**
+     * Convert a recorded value back into the value that the method returns, filling in the output array for methods that read into one
+     * @param method that was called
+     * @param args that the method was called with
+     * @param recorded value, or null if nothing was recorded for the method
+     * @param present whether a value was recorded at all (if not, the method returns a default such as 0 or false)
+     * @return the value that the method returns
+     */
+    static Object fromRecorded(Method method, Object[] args, Object recorded, boolean present)
+    {
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class)
+        {
+            if (present && recorded != null)
+            {
+                double[] output = (double[])args[ReplayLogFormat.getOutputArgument(method)];
+                double[] values = (double[])recorded;
+                System.arraycopy(values, 0, output, 0, Math.min(values.length, output.length));
+            }
+
+            return null;
+        }
+
+        if (returnType == boolean.class || returnType == Boolean.class)
+        {
+            return present && recorded != null ? (Boolean)recorded : Boolean.FALSE;
+        }
+
+        if (returnType == int.class || returnType == Integer.class)
+        {
+            return present && recorded != null ? (int)(long)(Long)recorded : 0;
+        }
+
+        if (returnType == long.class || returnType == Long.class)
+        {
+            return present && recorded != null ? (Long)recorded : 0L;
+        }
+
+        if (returnType == double.class || returnType == Double.class)
+        {
+            return present && recorded != null ? (Double)recorded : 0.0;
+        }
+
+        if (returnType == float.class || returnType == Float.class)
+        {
+            return present && recorded != null ? (float)(double)(Double)recorded : 0.0f;
+        }
+
+        if (returnType == OptionalInt.class)
+        {
+            return present && recorded != null ? OptionalInt.of((int)(long)(Long)recorded) : OptionalInt.empty();
+        }
+
+        if (returnType == Optional.class)
+        {
+            if (!present || recorded == null)
+            {
+                return Optional.empty();
+            }
+
+            Type genericType = method.getGenericReturnType();
+            if (genericType instanceof ParameterizedType)
+            {
+                Type valueType = ((ParameterizedType)genericType).getActualTypeArguments()[0];
+                if (valueType instanceof Class<?> && ((Class<?>)valueType).isEnum())
+                {
+                    return Optional.ofNullable(ReplayLogFormat.getEnumValue((Class<?>)valueType, (String)recorded));
+                }
+            }
+
+            return Optional.of(recorded);
+        }
+
+        if (!present || recorded == null)
+        {
+            if (returnType == Collection.class || returnType == List.class)
+            {
+                return new ArrayList<String>();
+            }
+
+            return null;
+        }
+
+        if (returnType.isEnum())
+        {
+            return ReplayLogFormat.getEnumValue(returnType, (String)recorded);
+        }
+
+        if (returnType == Object.class)
+        {
+            String value = (String)recorded;
+            int separator = value.indexOf(':');
+            try
+            {
+                return ReplayLogFormat.getEnumValue(Class.forName(value.substring(0, separator)), value.substring(separator + 1));
+            }
+            catch (ClassNotFoundException | IndexOutOfBoundsException ex)
+            {
+                return null;
+            }
+        }
+
+        if (returnType == TalonXLimitSwitchStatus.class)
+        {
+            // a null status or state is recorded as an empty array
+            double[] values = (double[])recorded;
+            if (values.length < 2)
+            {
+                return null;
+            }
+
+            return new TalonXLimitSwitchStatus(values[0] != 0.0, values[1] != 0.0);
+        }
+
+        if (returnType == TrajectoryState.class)
+        {
+            double[] values = (double[])recorded;
+            if (values.length < 6)
+            {
+                return null;
+            }
+
+            return new TrajectoryState(values[0], values[1], values[2], values[3], values[4], values[5]);
+        }
+
+        if (returnType == Collection.class || returnType == List.class)
+        {
+            return new ArrayList<String>(Arrays.asList((String[])recorded));
+        }
+
+        return recorded;
+    }
+
+    /**
+     * Check whether two recorded values are the same
+     * @param first recorded value
+     * @param second recorded value
+     * @return true if they are the same
+     */
+    static boolean isSame(Object first, Object second)
+    {
+        if (first instanceof double[] && second instanceof double[])
+        {
+            // compare the bits, so that NaNs are the same as each other and 0.0 isn't the same as -0.0
+            double[] firstArray = (double[])first;
+            double[] secondArray = (double[])second;
+            if (firstArray.length != secondArray.length)
+            {
+                return false;
+            }
+
+            for (int i = 0; i < firstArray.length; i++)
+            {
+                if (Double.doubleToRawLongBits(firstArray[i]) != Double.doubleToRawLongBits(secondArray[i]))
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        if (first instanceof String[] && second instanceof String[])
+        {
+            return Arrays.equals((String[])first, (String[])second);
+        }
+
+        if (first instanceof Double && second instanceof Double)
+        {
+            return Double.doubleToRawLongBits((Double)first) == Double.doubleToRawLongBits((Double)second);
+        }
+
+        return Objects.equals(first, second);
+    }
+
+    /**
+     * Handle the methods of Object that are called on a recording or replaying proxy (such as when it is put into a HashMap)
+     * @param proxy that the method was called on
+     * @param path of the device
+     * @param method that was called
+     * @param args that the method was called with
+     * @return the result of the method
+     */
+    static Object invokeObjectMethod(Object proxy, String path, Method method, Object[] args)
+    {
+        switch (method.getName())
+        {
+            case "equals":
+                return proxy == args[0];
+
+            case "hashCode":
+                return System.identityHashCode(proxy);
+
+            default:
+                return path == null ? IRobotProvider.class.getSimpleName() : path;
+        }
+    }
+
+    private static int getOutputArgument(Method method)
+    {
+        if (method.getReturnType() != void.class)
+        {
+            return -1;
+        }
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++)
+        {
+            if (parameterTypes[i] == double[].class)
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static void appendArgument(StringBuilder builder, Object arg)
+    {
+        if (arg == null)
+        {
+            builder.append("null");
+        }
+        else if (arg instanceof String)
+        {
+            builder.append('"');
+            builder.append((String)arg);
+            builder.append('"');
+        }
+        else if (arg instanceof Number || arg instanceof Boolean || arg instanceof Character || arg instanceof Enum<?>)
+        {
+            builder.append(arg);
+        }
+        else if (arg instanceof Object[])
+        {
+            Object[] array = (Object[])arg;
+            builder.append('[');
+            for (int i = 0; i < array.length; i++)
+            {
+                if (i > 0)
+                {
+                    builder.append(", ");
+                }
+
+                ReplayLogFormat.appendArgument(builder, array[i]);
+            }
+
+            builder.append(']');
+        }
+        else if (arg instanceof double[])
+        {
+            builder.append(Arrays.toString((double[])arg));
+        }
+        else if (arg.getClass().getPackageName().equals(ReplayLogFormat.PACKAGE_NAME))
+        {
+            // value classes (such as path planner waypoints) by their public fields, so that each path has its own keys
+            builder.append(arg.getClass().getSimpleName());
+            builder.append('{');
+            Field[] fields = arg.getClass().getFields();
+            Arrays.sort(fields, (first, second) -> first.getName().compareTo(second.getName()));
+            boolean first = true;
+            for (Field field : fields)
+            {
+                if (Modifier.isStatic(field.getModifiers()))
+                {
+                    continue;
+                }
+
+                if (!first)
+                {
+                    builder.append(", ");
+                }
+
+                first = false;
+                builder.append(field.getName());
+                builder.append('=');
+                try
+                {
+                    ReplayLogFormat.appendArgument(builder, field.get(arg));
+                }
+                catch (IllegalAccessException ex)
+                {
+                    builder.append('?');
+                }
+            }
+
+            builder.append('}');
+        }
+        else if (arg instanceof OptionalDouble || arg instanceof OptionalInt)
+        {
+            builder.append(arg);
+        }
+        else
+        {
+            // other objects don't have a stable string form, so only use their type
+            builder.append(arg.getClass().getSimpleName());
+        }
+    }
+
+    private static Object getEnumValue(Class<?> enumClass, String name)
+    {
+        for (Object value : enumClass.getEnumConstants())
+        {
+            if (((Enum<?>)value).name().equals(name))
+            {
+                return value;
+            }
+        }
+
+        return null;
+    }
+}
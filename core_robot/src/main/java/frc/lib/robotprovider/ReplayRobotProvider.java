@@ -0,0 +1,411 @@
+package frc.lib.robotprovider;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Feeds a replay log written by RecordingRobotProvider (see ReplayLogFormat for the layout) back into the robot, without any hardware,
+ * one periodic loop at a time.  Nothing waits for real time to pass (the ITimer returns the recorded times), so a match can be replayed
+ * as fast as the robot code can run.
+ *
+ * Each read returns the next value that was recorded for the same method and arguments during the current loop.  When the robot reads
+ * a value more times than it was recorded (or reads something that wasn't recorded during the loop), the last recorded value is
+ * returned, and methods that were never recorded (such as reads added since the log was recorded) return a default like 0 or false.
+ * Writes to devices are ignored.
+ */
+public class ReplayRobotProvider
+{
+    private final InputStream stream;
+    private final List<Key> keys;
+    private final HashMap<String, Key> keysByName;
+    private final IRobotProvider robotProvider;
+
+    private byte[] stringBuffer;
+    private int timerCount;
+    private int loopCount;
+    private RobotMode nextLoopMode;
+
+    /**
+     * Initializes a new ReplayRobotProvider, reading the values recorded before the first periodic loop from the stream
+     * @param stream to read the replay log from
+     * @throws IOException if the stream can't be read or isn't a replay log
+     */
+    public ReplayRobotProvider(InputStream stream) throws IOException
+    {
+        this.stream = new BufferedInputStream(stream);
+        this.keys = new ArrayList<Key>();
+        this.keysByName = new HashMap<String, Key>();
+        this.stringBuffer = new byte[64];
+        this.timerCount = 0;
+        this.loopCount = 0;
+
+        for (byte expected : ReplayLogFormat.MAGIC)
+        {
+            if (this.readByte() != expected)
+            {
+                throw new IOException("Not a replay log file");
+            }
+        }
+
+        byte version = this.readByte();
+        if (version < 1 || version > ReplayLogFormat.VERSION)
+        {
+            throw new IOException("Unsupported replay log version " + version);
+        }
+
+        this.readLoop();
+        this.robotProvider = (IRobotProvider)this.createProxy(IRobotProvider.class, null);
+    }
+
+    /**
+     * Get the provider to give to the robot, which returns the recorded values
+     * @return the replaying provider (which also implements ILoopAware)
+     */
+    public IRobotProvider getRobotProvider()
+    {
+        return this.robotProvider;
+    }
+
+    /**
+     * Create a timer that returns the recorded times (timers should be created in the same order as when recording)
+     * @return the replaying timer to give to the robot
+     */
+    public synchronized ITimer createTimer()
+    {
+        this.timerCount++;
+        return (ITimer)this.createProxy(ITimer.class, ITimer.class.getSimpleName() + "#" + this.timerCount);
+    }
+
+    /**
+     * Get the mode that the robot was in for the next recorded loop
+     * @return the mode of the next loop, or null if there are no more loops in the log
+     */
+    public synchronized RobotMode getNextLoopMode()
+    {
+        return this.nextLoopMode;
+    }
+
+    /**
+     * Get the number of periodic loops that have been replayed so far
+     * @return the number of loops
+     */
+    public synchronized int getLoopCount()
+    {
+        return this.loopCount;
+    }
+
+    /**
+     * Move on to the values recorded during the next periodic loop
+     * @param mode that the robot is in for the loop (which should match getNextLoopMode)
+     */
+    public synchronized void startLoop(RobotMode mode)
+    {
+        if (this.nextLoopMode == null)
+        {
+            return;
+        }
+
+        for (Key key : this.keys)
+        {
+            // values that weren't read during the previous loop are skipped, but the last of them is still the latest value
+            if (!key.values.isEmpty())
+            {
+                key.last = key.values.peekLast();
+                key.hasLast = true;
+                key.values.clear();
+            }
+        }
+
+        this.loopCount++;
+        try
+        {
+            this.readLoop();
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Object createProxy(Class<?> deviceInterface, String path)
+    {
+        Class<?>[] interfaces = path == null ? new Class<?>[] { deviceInterface, ILoopAware.class } : new Class<?>[] { deviceInterface };
+        return Proxy.newProxyInstance(deviceInterface.getClassLoader(), interfaces, new ReplayHandler(path));
+    }
+
+    private void readLoop() throws IOException
+    {
+        try
+        {
+            while (true)
+            {
+                long entry = this.readVarint();
+                if (entry == ReplayLogFormat.ENTRY_LOOP)
+                {
+                    int mode = this.readByte();
+                    RobotMode[] modes = RobotMode.values();
+                    this.nextLoopMode = mode >= 0 && mode < modes.length ? modes[mode] : RobotMode.Disabled;
+                    return;
+                }
+
+                if (entry == ReplayLogFormat.ENTRY_KEY)
+                {
+                    byte type = this.readByte();
+                    String name = this.readStringPayload();
+                    Key key = new Key(type);
+                    this.keys.add(key);
+                    this.keysByName.put(name, key);
+                    continue;
+                }
+
+                long value = entry - ReplayLogFormat.ENTRY_VALUE;
+                int id = (int)(value >>> 1);
+                if (id >= this.keys.size())
+                {
+                    throw new IOException("Corrupt replay log: unknown key " + id);
+                }
+
+                Key key = this.keys.get(id);
+                if ((value & 1L) == 0L)
+                {
+                    key.previous = this.readValue(key);
+                }
+
+                key.values.add(key.previous == null ? Key.NULL : key.previous);
+            }
+        }
+        catch (EOFException ex)
+        {
+            // the end of the log (possibly part-way through a loop, if the robot lost power)
+            this.nextLoopMode = null;
+        }
+    }
+
+    private Object readValue(Key key) throws IOException
+    {
+        switch (key.type)
+        {
+            case ReplayLogFormat.TYPE_BOOLEAN:
+                return this.readByte() != 0;
+
+            case ReplayLogFormat.TYPE_INTEGER:
+                return BinaryLogFormat.zigzagDecode(this.readVarint());
+
+            case ReplayLogFormat.TYPE_NULLABLE_INTEGER:
+                long integer = this.readVarint();
+                return integer == 0L ? null : BinaryLogFormat.zigzagDecode(integer - 1L);
+
+            case ReplayLogFormat.TYPE_DOUBLE:
+                long bits = this.readVarint() ^ key.previousDoubleBits;
+                key.previousDoubleBits = bits;
+                return Double.longBitsToDouble(bits);
+
+            case ReplayLogFormat.TYPE_STRING:
+                return this.readNullableString();
+
+            case ReplayLogFormat.TYPE_DOUBLE_ARRAY:
+                int arrayLength = (int)this.readVarint();
+                if (key.previousDoubleArrayBits == null || key.previousDoubleArrayBits.length < arrayLength)
+                {
+                    long[] newPreviousBits = new long[arrayLength];
+                    if (key.previousDoubleArrayBits != null)
+                    {
+                        System.arraycopy(key.previousDoubleArrayBits, 0, newPreviousBits, 0, key.previousDoubleArrayBits.length);
+                    }
+
+                    key.previousDoubleArrayBits = newPreviousBits;
+                }
+
+                double[] values = new double[arrayLength];
+                for (int i = 0; i < arrayLength; i++)
+                {
+                    long valueBits = this.readVarint() ^ key.previousDoubleArrayBits[i];
+                    key.previousDoubleArrayBits[i] = valueBits;
+                    values[i] = Double.longBitsToDouble(valueBits);
+                }
+
+                return values;
+
+            case ReplayLogFormat.TYPE_STRING_ARRAY:
+                String[] strings = new String[(int)this.readVarint()];
+                for (int i = 0; i < strings.length; i++)
+                {
+                    strings[i] = this.readNullableString();
+                }
+
+                return strings;
+
+            default:
+                throw new IOException("Corrupt replay log: unknown type " + key.type);
+        }
+    }
+
+    private String readNullableString() throws IOException
+    {
+        int length = (int)this.readVarint();
+        if (length == 0)
+        {
+            return null;
+        }
+
+        return this.readString(length - 1);
+    }
+
+    private String readStringPayload() throws IOException
+    {
+        return this.readString((int)this.readVarint());
+    }
+
+    private String readString(int length) throws IOException
+    {
+        if (length > this.stringBuffer.length)
+        {
+            this.stringBuffer = new byte[Math.max(length, this.stringBuffer.length * 2)];
+        }
+
+        for (int i = 0; i < length; i++)
+        {
+            this.stringBuffer[i] = this.readByte();
+        }
+
+        return new String(this.stringBuffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private long readVarint() throws IOException
+    {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            byte b = this.readByte();
+            value |= ((long)(b & 0x7F)) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+
+        throw new IOException("Corrupt replay log: varint is too long");
+    }
+
+    private byte readByte() throws IOException
+    {
+        int value = this.stream.read();
+        if (value < 0)
+        {
+            throw new EOFException();
+        }
+
+        return (byte)value;
+    }
+
+    /**
+     * A method called with particular arguments on a device, and the values recorded for it during the current loop
+     */
+    private static class Key
+    {
+        // stands in for recorded nulls in the queue of values
+        static final Object NULL = new Object();
+
+        final byte type;
+        final ArrayDeque<Object> values;
+
+        boolean hasLast;
+        Object last;
+
+        Object previous;
+        long previousDoubleBits;
+        long[] previousDoubleArrayBits;
+
+        Key(byte type)
+        {
+            this.type = type;
+            this.values = new ArrayDeque<Object>();
+        }
+    }
+
+    private class ReplayHandler implements InvocationHandler
+    {
+        private final String path;
+
+        ReplayHandler(String path)
+        {
+            this.path = path;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+        {
+            if (method.getDeclaringClass() == Object.class)
+            {
+                return ReplayLogFormat.invokeObjectMethod(proxy, this.path, method, args);
+            }
+
+            if (method.getDeclaringClass() == ILoopAware.class)
+            {
+                ReplayRobotProvider.this.startLoop((RobotMode)args[0]);
+                return null;
+            }
+
+            if (method.isDefault())
+            {
+                // default methods (such as IJoystick.capture) are made of other calls, which are replayed individually
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+
+            byte type = ReplayLogFormat.getType(method);
+            if (type == ReplayLogFormat.TYPE_NONE)
+            {
+                return null;
+            }
+
+            String name = ReplayLogFormat.getKey(this.path, method, args);
+            boolean present = false;
+            Object recorded = null;
+            synchronized (ReplayRobotProvider.this)
+            {
+                Key key = ReplayRobotProvider.this.keysByName.get(name);
+                if (key != null && key.type != type)
+                {
+                    // the method has changed since the log was recorded
+                    key = null;
+                }
+
+                if (key != null)
+                {
+                    if (!key.values.isEmpty())
+                    {
+                        key.last = key.values.poll();
+                        key.hasLast = true;
+                    }
+
+                    present = key.hasLast;
+                    recorded = key.last == Key.NULL ? null : key.last;
+                }
+            }
+
+            if (ReplayLogFormat.returnsDevice(method))
+            {
+                // devices that weren't recorded are still returned, so that the robot can continue with the reads that were
+                if (present && Boolean.FALSE.equals(recorded))
+                {
+                    return null;
+                }
+
+                return ReplayRobotProvider.this.createProxy(method.getReturnType(), name);
+            }
+
+            return ReplayLogFormat.fromRecorded(method, args, recorded, present);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package frc.lib.robotprovider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import frc.robot.LoggingKey;
+
+/**
+ * Row Logger abstract class to make it easier to write loggers that write one row of values per update, using the shouldLogToCsv
+ * LoggingKeys as the schema.
+ *
+ * Values are stored as primitives in a CSVRow, in the column looked up by the LoggingKey's ordinal, so that logging a value doesn't
+ * require formatting it or searching for its column.  Implementations write out (and then clear) the row during update().
+ */
+public abstract class RowLogger implements ILogger
+{
+    protected final List<LoggingKey> schema;
+    private final int[] columnMap;
+
+    protected CSVRow row;
+    protected int loggingCounter;
+
+    protected RowLogger()
+    {
+        LoggingKey[] keys = LoggingKey.values();
+        this.schema = new ArrayList<LoggingKey>();
+        for (LoggingKey key : keys)
+        {
+            if (key.shouldLogToCsv)
+            {
+                this.schema.add(key);
+            }
+        }
+
+        // map each key to its column once
+        this.columnMap = new int[keys.length];
+        for (LoggingKey key : keys)
+        {
+            this.columnMap[key.ordinal()] = this.schema.indexOf(key);
+        }
+
+        this.row = new CSVRow(this.schema.size());
+        this.loggingCounter = 0;
+    }
+
+    /**
+     * Write a boolean to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logBoolean(LoggingKey key, boolean value)
+    {
+        int column = this.getColumn(key);
+        if (column >= 0)
+        {
+            this.row.setBoolean(column, value);
+        }
+    }
+
+    /**
+     * Write a boolean array to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logBooleanArray(LoggingKey key, boolean[] value)
+    {
+        int column = this.getColumn(key);
+        if (column >= 0)
+        {
+            this.row.setBooleanArray(column, value);
+        }
+    }
+
+    /**
+     * Write a number (double) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, double value)
+    {
+        int column = this.getColumn(key);
+        if (column >= 0)
+        {
+            this.row.setDouble(column, value);
+        }
+    }
+
+    /**
+     * Write a number (double) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumber(LoggingKey key, Double value)
+    {
+        int column = this.getColumn(key);
+        if (column >= 0)
+        {
+            this.row.setNullableDouble(column, value);
+        }
+    }
+
+    /**
+     * Write an array of numbers (doubles) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumberArray(LoggingKey key, double[] value)
+    {
+        int column = this.getColumn(key);
+        if (column >= 0)
+        {
+            this.row.setDoubleArray(column, value);
+        }
+    }
+
+    /**
+     * Write a pose to the log
+     * @param key to write to
+     * @param x position (in inches)
+     * @param y position (in inches)
+     * @param angle (in degrees)
+     */
+    @Override
+    public void logPose(LoggingKey key, double x, double y, double angle)
+    {
+        int column = this.getColumn(key);
+        if (column >= 0)
+        {
+            this.row.setPose(column, x, y, angle);
+        }
+    }
+
+    /**
+     * Write a number (integer) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value)
+    {
+        int column = this.getColumn(key);
+        if (column >= 0)
+        {
+            this.row.setInteger(column, value);
+        }
+    }
+
+    /**
+     * Write a number (integer) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logInteger(LoggingKey key, Integer value)
+    {
+        int column = this.getColumn(key);
+        if (column >= 0)
+        {
+            this.row.setNullableInteger(column, value);
+        }
+    }
+
+    /**
+     * Write a number (integer) to the log
+     * @param key to write to
+     * @param value to write
+     * @param formatString to use
+     */
+    @Override
+    public void logInteger(LoggingKey key, int value, String formatString)
+    {
+        int column = this.getColumn(key);
+        if (column >= 0)
+        {
+            this.row.setFormattedInteger(column, value, formatString);
+        }
+    }
+
+    /**
+     * Write a string to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logString(LoggingKey key, String value)
+    {
+        int column = this.getColumn(key);
+        if (column >= 0)
+        {
+            this.row.setString(column, value);
+        }
+    }
+
+    /**
+     * Get the column that the key should be written to during this update
+     * @param key to look up
+     * @return the column, or -1 if the key isn't in the schema or shouldn't be logged during this update
+     */
+    protected int getColumn(LoggingKey key)
+    {
+        // aggregated keys are only provided once per window by the LoggingManager
+        if (key.aggregation == LoggingAggregation.Sample && (this.loggingCounter % key.loggingFrequency) != 0)
+        {
+            return -1;
+        }
+
+        return this.columnMap[key.ordinal()];
+    }
+}
@@ -0,0 +1,352 @@
+package frc.lib.robotprovider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A writer of text log files that (optionally) gzip-compresses the data as it is written, and rotates to a new segment file
+ * once the current segment reaches a configurable size or age.
+ *
+ * The first line written (the CSV header) is remembered and written again at the start of each new segment, so that every
+ * segment can be read on its own.  Segments are only rotated between lines.  The first segment uses the provided file name,
+ * and later segments add ".seg2", ".seg3", etc. before the extension, a la "Q03 (R2).auto.seg2.csv.gz".
+ *
+ * The bytes written are tracked against the free space that was available in its directory when each segment was opened, and
+ * once the next write could leave less than the required free space the current segment is finished cleanly (so that it remains
+ * a valid gzip file) and any further data is discarded.
+ *
+ * When a LogIndexWriter is provided, the start of each segment after the first is recorded in the index.
+ */
+public class SegmentedFileWriter implements IFileWriter
+{
+    private static final String COMPRESSED_EXTENSION = ".gz";
+    private static final int COMPRESSION_BUFFER_SIZE = 8192;
+    private static final long SEGMENT_OVERHEAD = 1024L; // allowance for the gzip header/trailer and the file system
+
+    private final IFile file;
+    private final String fileName;
+    private final boolean compress;
+    private final long segmentBytes;
+    private final ITimer timer;
+    private final double segmentDuration;
+    private final long requiredFreeSpace;
+    private final LogIndexWriter index;
+
+    private final StringBuilder header;
+    private boolean headerComplete;
+
+    private CountingOutputStream segmentStream;
+    private OutputStream outputStream;
+    private int segmentNumber;
+    private double segmentStartTime;
+    private long budget;
+    private long pendingBytes; // bytes given to the compressor that may not have reached the file yet
+    private boolean lineComplete;
+    private boolean stopped;
+    private long position; // bytes appended so far, not including any repeated headers
+
+    /**
+     * Initializes a new SegmentedFileWriter, opening the first segment
+     * @param file to use for opening each segment
+     * @param fileName of the first segment (without the compressed extension), a la "/U/other/1234.csv"
+     * @param compress whether to gzip-compress the segments
+     * @param segmentBytes the size (on disk) after which to start a new segment, or 0 to not rotate based on size
+     * @param timer to use for checking the age of a segment, or null
+     * @param segmentDuration the age (in seconds) after which to start a new segment, or 0 to not rotate based on age
+     * @param requiredFreeSpace the amount of free space to leave on the drive
+     * @param index to record the start of each segment into, or null
+     * @throws IOException if the first segment can't be opened
+     */
+    public SegmentedFileWriter(
+        IFile file,
+        String fileName,
+        boolean compress,
+        long segmentBytes,
+        ITimer timer,
+        double segmentDuration,
+        long requiredFreeSpace,
+        LogIndexWriter index) throws IOException
+    {
+        this.file = file;
+        this.fileName = fileName;
+        this.compress = compress;
+        this.segmentBytes = segmentBytes;
+        this.timer = segmentDuration > 0.0 ? timer : null;
+        this.segmentDuration = segmentDuration;
+        this.requiredFreeSpace = requiredFreeSpace;
+        this.index = index;
+
+        this.header = new StringBuilder();
+        this.headerComplete = false;
+        this.segmentNumber = 0;
+        this.lineComplete = true;
+        this.stopped = false;
+        this.position = 0L;
+
+        if (this.timer != null)
+        {
+            this.timer.start();
+        }
+
+        this.openSegment();
+    }
+
+    /**
+     * Get the number of segments that have been opened
+     * @return the number of segments
+     */
+    public int getSegmentCount()
+    {
+        return this.segmentNumber;
+    }
+
+    /**
+     * Check whether the writer has stopped writing because the drive is (almost) full
+     * @return true if further data is being discarded
+     */
+    public boolean isStopped()
+    {
+        return this.stopped;
+    }
+
+    /**
+     * Append data into the current segment, starting a new segment first if the current one is complete
+     * @param string to append
+     * @throws IOException if there's some issue writing data
+     */
+    @Override
+    public void append(String string) throws IOException
+    {
+        if (this.stopped)
+        {
+            return;
+        }
+
+        if (!this.headerComplete)
+        {
+            int lineEnd = string.indexOf('\n');
+            this.header.append(lineEnd < 0 ? string : string.substring(0, lineEnd + 1));
+            this.headerComplete = lineEnd >= 0;
+        }
+        else if (this.lineComplete && this.isSegmentComplete())
+        {
+            this.closeSegment();
+            if (!this.openSegment())
+            {
+                return;
+            }
+
+            if (this.index != null)
+            {
+                this.index.recordSegment(this.position, this.segmentNumber);
+            }
+        }
+
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        if (!this.hasSpaceFor(bytes.length))
+        {
+            this.close();
+            return;
+        }
+
+        this.write(bytes);
+        this.position += bytes.length;
+        if (string.length() > 0)
+        {
+            this.lineComplete = string.charAt(string.length() - 1) == '\n';
+        }
+    }
+
+    /**
+     * Attempt to flush the data to disk, including any data held by the compressor
+     * @throws IOException if there's some issue writing data
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        if (this.outputStream != null)
+        {
+            this.outputStream.flush();
+            this.pendingBytes = 0L;
+        }
+    }
+
+    /**
+     * Finish the current segment and close the file
+     * @throws IOException if there's some issue writing data
+     */
+    @Override
+    public void close() throws IOException
+    {
+        this.stopped = true;
+        this.closeSegment();
+    }
+
+    /**
+     * Get the name of a segment of a log file
+     * @param fileName of the first segment (without the compressed extension), a la "/U/other/1234.csv"
+     * @param segment number, starting from 1
+     * @param compress whether the segments are gzip-compressed
+     * @return the name of the segment, a la "/U/other/1234.seg2.csv.gz"
+     */
+    public static String getSegmentFileName(String fileName, int segment, boolean compress)
+    {
+        String segmentFileName = fileName;
+        if (segment > 1)
+        {
+            int extensionIndex = fileName.lastIndexOf('.');
+            if (extensionIndex > fileName.lastIndexOf('/'))
+            {
+                segmentFileName = String.format("%1$s.seg%2$d%3$s", fileName.substring(0, extensionIndex), segment, fileName.substring(extensionIndex));
+            }
+            else
+            {
+                segmentFileName = String.format("%1$s.seg%2$d", fileName, segment);
+            }
+        }
+
+        if (compress)
+        {
+            segmentFileName = segmentFileName + SegmentedFileWriter.COMPRESSED_EXTENSION;
+        }
+
+        return segmentFileName;
+    }
+
+    private static String getDirectoryName(String fileName)
+    {
+        int separatorIndex = Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\'));
+        if (separatorIndex < 0)
+        {
+            return "./";
+        }
+
+        return fileName.substring(0, separatorIndex + 1);
+    }
+
+    private boolean isSegmentComplete()
+    {
+        if (this.segmentBytes > 0L && this.segmentStream.getCount() + this.pendingBytes >= this.segmentBytes)
+        {
+            return true;
+        }
+
+        return this.timer != null && this.timer.get() - this.segmentStartTime >= this.segmentDuration;
+    }
+
+    private boolean hasSpaceFor(int length)
+    {
+        return this.segmentStream.getCount() + this.pendingBytes + length + SegmentedFileWriter.SEGMENT_OVERHEAD <= this.budget;
+    }
+
+    private boolean openSegment() throws IOException
+    {
+        this.segmentNumber++;
+
+        String segmentFileName = SegmentedFileWriter.getSegmentFileName(this.fileName, this.segmentNumber, this.compress);
+
+        // the segment doesn't exist yet (so java.io.File would report no free space for it), so check its directory instead
+        this.file.open(SegmentedFileWriter.getDirectoryName(segmentFileName));
+        this.budget = this.file.getFreeSpace() - this.requiredFreeSpace;
+        if (this.budget <= SegmentedFileWriter.SEGMENT_OVERHEAD)
+        {
+            this.stopped = true;
+            return false;
+        }
+
+        this.file.open(segmentFileName);
+        this.segmentStream = new CountingOutputStream(this.file.openBinaryWriter());
+        if (this.compress)
+        {
+            this.outputStream = new GZIPOutputStream(this.segmentStream, SegmentedFileWriter.COMPRESSION_BUFFER_SIZE, true);
+        }
+        else
+        {
+            this.outputStream = this.segmentStream;
+        }
+
+        this.pendingBytes = 0L;
+        this.lineComplete = true;
+        if (this.timer != null)
+        {
+            this.segmentStartTime = this.timer.get();
+        }
+
+        if (this.segmentNumber > 1 && this.header.length() > 0)
+        {
+            this.write(this.header.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        return true;
+    }
+
+    private void write(byte[] bytes) throws IOException
+    {
+        this.outputStream.write(bytes, 0, bytes.length);
+        if (this.compress)
+        {
+            this.pendingBytes += bytes.length;
+        }
+    }
+
+    private void closeSegment() throws IOException
+    {
+        OutputStream stream = this.outputStream;
+        this.outputStream = null;
+        if (stream != null)
+        {
+            // finishes the gzip stream (writing its trailer) before closing the file
+            stream.close();
+        }
+    }
+
+    /**
+     * Adapts an IBinaryFileWriter to an OutputStream, counting the bytes that are written
+     */
+    private static class CountingOutputStream extends OutputStream
+    {
+        private final IBinaryFileWriter writer;
+        private final byte[] singleByte;
+        private long count;
+
+        CountingOutputStream(IBinaryFileWriter writer)
+        {
+            this.writer = writer;
+            this.singleByte = new byte[1];
+            this.count = 0L;
+        }
+
+        long getCount()
+        {
+            return this.count;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            this.singleByte[0] = (byte)b;
+            this.write(this.singleByte, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException
+        {
+            this.writer.write(buffer, offset, length);
+            this.count += length;
+        }
+
+        @Override
+        public void flush() throws IOException
+        {
+            this.writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            this.writer.close();
+        }
+    }
+}
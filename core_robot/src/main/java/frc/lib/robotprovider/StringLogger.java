@@ -21,7 +21,7 @@ public abstract class StringLogger implements ILogger
      */
     public void logString(LoggingKey key, String value)
     {
-        if ((this.loggingCounter % key.loggingFrequency) == 0)
+        if (this.shouldLog(key))
         {
             this.internalLogString(key, value);
         }
@@ -35,7 +35,7 @@ public abstract class StringLogger implements ILogger
     @Override
     public void logBoolean(LoggingKey key, boolean value)
     {
-        if ((this.loggingCounter % key.loggingFrequency) == 0)
+        if (this.shouldLog(key))
         {
             this.internalLogString(key, String.valueOf(value));
         }
@@ -49,23 +49,23 @@ public abstract class StringLogger implements ILogger
     @Override
     public void logBooleanArray(LoggingKey key, boolean[] value)
     {
-        if ((this.loggingCounter % key.loggingFrequency) == 0)
+        if (this.shouldLog(key))
         {
-            String str = "";
+            StringBuilder builder = new StringBuilder();
             if (value != null)
             {
                 for (int i = 0; i < value.length; i++)
                 {
                     if (i > 0)
                     {
-                        str += ",";
+                        builder.append(',');
                     }
 
-                    str += String.valueOf(value[i]);
+                    builder.append(value[i]);
                 }
             }
 
-            this.internalLogString(key, str);
+            this.internalLogString(key, builder.toString());
         }
     }
 
@@ -77,7 +77,7 @@ public abstract class StringLogger implements ILogger
     @Override
     public void logNumber(LoggingKey key, double value)
     {
-        if ((this.loggingCounter % key.loggingFrequency) == 0)
+        if (this.shouldLog(key))
         {
             this.internalLogString(key, String.valueOf(value));
         }
@@ -91,12 +91,62 @@ public abstract class StringLogger implements ILogger
     @Override
     public void logNumber(LoggingKey key, Double value)
     {
-        if ((this.loggingCounter % key.loggingFrequency) == 0)
+        if (this.shouldLog(key))
         {
             this.internalLogString(key, String.valueOf(value));
         }
     }
 
+    /**
+     * Write an array of numbers (doubles) to the log
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumberArray(LoggingKey key, double[] value)
+    {
+        if (this.shouldLog(key))
+        {
+            StringBuilder builder = new StringBuilder();
+            if (value != null)
+            {
+                for (int i = 0; i < value.length; i++)
+                {
+                    if (i > 0)
+                    {
+                        builder.append(',');
+                    }
+
+                    builder.append(value[i]);
+                }
+            }
+
+            this.internalLogString(key, builder.toString());
+        }
+    }
+
+    /**
+     * Write a pose to the log
+     * @param key to write to
+     * @param x position (in inches)
+     * @param y position (in inches)
+     * @param angle (in degrees)
+     */
+    @Override
+    public void logPose(LoggingKey key, double x, double y, double angle)
+    {
+        if (this.shouldLog(key))
+        {
+            StringBuilder builder = new StringBuilder();
+            builder.append(x);
+            builder.append(',');
+            builder.append(y);
+            builder.append(',');
+            builder.append(angle);
+            this.internalLogString(key, builder.toString());
+        }
+    }
+
     /**
      * Write a number (integer) to the log
      * @param key to write to
@@ -105,7 +155,7 @@ public abstract class StringLogger implements ILogger
     @Override
     public void logInteger(LoggingKey key, int value)
     {
-        if ((this.loggingCounter % key.loggingFrequency) == 0)
+        if (this.shouldLog(key))
         {
             this.internalLogString(key, String.valueOf(value));
         }
@@ -119,7 +169,7 @@ public abstract class StringLogger implements ILogger
     @Override
     public void logInteger(LoggingKey key, Integer value)
     {
-        if ((this.loggingCounter % key.loggingFrequency) == 0)
+        if (this.shouldLog(key))
         {
             this.internalLogString(key, String.valueOf(value));
         }
@@ -134,7 +184,7 @@ public abstract class StringLogger implements ILogger
     @Override
     public void logInteger(LoggingKey key, int value, String formatString)
     {
-        if ((this.loggingCounter % key.loggingFrequency) == 0)
+        if (this.shouldLog(key))
         {
             this.internalLogString(key, String.format(formatString, value));
         }
@@ -157,6 +207,26 @@ public abstract class StringLogger implements ILogger
     {
     }
 
+    /**
+     * Flush the log and release any resources that it is using
+     */
+    @Override
+    public void close()
+    {
+        this.flush();
+    }
+
+    /**
+     * Check whether the key should be logged during this update
+     * @param key to check
+     * @return true if the key should be logged
+     */
+    private boolean shouldLog(LoggingKey key)
+    {
+        // aggregated keys are only provided once per window by the LoggingManager
+        return key.aggregation != LoggingAggregation.Sample || (this.loggingCounter % key.loggingFrequency) == 0;
+    }
+
     /**
      * Write a string to the log
      * @param key to write to
@@ -1,5 +1,6 @@
 package frc.robot;
 
+import frc.lib.robotprovider.LoggingAggregation;
 import frc.lib.robotprovider.LoggingType;
 
 /**
@@ -11,9 +12,20 @@ public enum LoggingKey
     RobotTime("r/time", LoggingType.Number, false, 1, true),
     RobotMatch("r/match", LoggingType.String, false, 50),
     RobotCrash("r/crash", LoggingType.String, false, true),
+    RobotLoopDuration("r/loopDuration", LoggingType.Number, false, 1),
+    RobotLoopTrace("r/loopTrace", LoggingType.String, false, 1, true),
+    RobotStartupDuration("r/startupDuration", LoggingType.Number, false, 1, true),
+    RobotStartupReport("r/startupReport", LoggingType.String, false, 1, true),
+    LogDroppedRows("log/droppedRows", LoggingType.Integer, false, true),
+    LogQueueHighWater("log/queueHighWater", LoggingType.Integer, false, true),
     DriverMode("driver/mode", LoggingType.String, false, 1, true),
     DriverActiveMacros("driver/activeMacros", LoggingType.String, false, 1, true),
     DriverActiveShifts("driver/activeShifts", LoggingType.String, false),
+    DriverInputLatencies("driver/inputLatencies", LoggingType.String, false, 1),
+    MechanismReadSensorsDuration("mech/readDuration", LoggingType.Number, false, 1),
+    MechanismUpdateDuration("mech/updateDuration", LoggingType.Number, false, 1),
+    MechanismSlowest("mech/slowest", LoggingType.String, false, 1),
+    MechanismLatencies("mech/latencies", LoggingType.String, false, 1),
     AutonomousSelection("auto/selected", LoggingType.String, false),
     AutonomousDSMessage("auto/dsMessage", LoggingType.String, false),
     OffboardVisionAprilTagXOffset("vision/atXOffset", LoggingType.NullableNumber, true, 1),
@@ -54,63 +66,37 @@ public enum LoggingKey
     NavxZ("navx/z", LoggingType.Number, true),
 
     DriveTrainDesiredAngle("dt/angle_goal", LoggingType.Number, false),
-    DriveTrainAngle("dt/angle", LoggingType.Number, false),
-    DriveTrainXPosition("dt/xpos", LoggingType.Number, false, 1, true),
-    DriveTrainYPosition("dt/ypos", LoggingType.Number, false, 1, true),
-    DriveTrainXPositionGoal("dt/xpos_goal", LoggingType.Number, false, true),
-    DriveTrainYPositionGoal("dt/ypos_goal", LoggingType.Number, false, true),
-    DriveTrainAngleGoal("dt/angle_pathgoal", LoggingType.Number, false),
-    DriveTrainXVelocityGoal("dt/xvel_goal", LoggingType.Number, false),
-    DriveTrainYVelocityGoal("dt/yvel_goal", LoggingType.Number, false),
-    DriveTrainAngleVelocityGoal("dt/anglevel_goal", LoggingType.Number, false),
+    DriveTrainPose("dt/pose", LoggingType.Pose, false, 1, true),
+    DriveTrainPoseGoal("dt/pose_goal", LoggingType.Pose, false, true),
+    DriveTrainVelocityGoal("dt/vel_goal", LoggingType.NumberArray, false), // x, y, angle
     DriveTrainFieldOriented("dt/field_oriented", LoggingType.Boolean, false),
     DriveTrainMaintainOrientation("dt/maintain_orientation", LoggingType.Boolean, false),
 
-    DriveTrainAbsoluteEncoderAngle1("dt/absenc_ang1", LoggingType.Number, true),
-    DriveTrainDriveVelocity1("dt/drive_vel1", LoggingType.Number, true),
-    DriveTrainDrivePosition1("dt/drive_pos1", LoggingType.Number, true),
-    DriveTrainDriveError1("dt/drive_err1", LoggingType.Number, true), // SDS-only
+    DriveTrainDrivePositions("dt/drive_pos", LoggingType.NumberArray, true),
+    DriveTrainDriveErrors("dt/drive_err", LoggingType.NumberArray, true), // SDS-only
+    DriveTrainSteerVelocities("dt/steer_vel", LoggingType.NumberArray, true),
+    DriveTrainSteerPositions("dt/steer_pos", LoggingType.NumberArray, true), // SDS-only
+    DriveTrainSteerAngles("dt/steer_ang", LoggingType.NumberArray, false),
+    DriveTrainSteerErrors("dt/steer_err", LoggingType.NumberArray, true), // SDS-only
+    DriveTrainAbsoluteEncoderAngles("dt/absenc_ang", LoggingType.NumberArray, true), // SDS-only
+
+    DriveTrainDriveVelocity1("dt/drive_vel1", LoggingType.Number, true, 5, false, LoggingAggregation.Peak),
     DriveTrainDriveVelocityGoal1("dt/drive_goal1", LoggingType.Number, false),
-    DriveTrainSteerVelocity1("dt/steer_vel1", LoggingType.Number, true),
-    DriveTrainSteerPosition1("dt/steer_pos1", LoggingType.Number, true), // SDS-only
-    DriveTrainSteerAngle1("dt/steer_ang1", LoggingType.Number, false),
-    DriveTrainSteerError1("dt/steer_err1", LoggingType.Number, true), // SDS-only
     DriveTrainSteerPositionGoal1("dt/steer_goal1", LoggingType.NullableNumber, false),
     DriveTrainSteerPositionGoal1b("dt/steer_goal1b", LoggingType.NullableNumber, false),
 
-    DriveTrainAbsoluteEncoderAngle2("dt/absenc_ang2", LoggingType.Number, true),
-    DriveTrainDriveVelocity2("dt/drive_vel2", LoggingType.Number, true),
-    DriveTrainDrivePosition2("dt/drive_pos2", LoggingType.Number, true),
-    DriveTrainDriveError2("dt/drive_err2", LoggingType.Number, true), // SDS-only
+    DriveTrainDriveVelocity2("dt/drive_vel2", LoggingType.Number, true, 5, false, LoggingAggregation.Peak),
     DriveTrainDriveVelocityGoal2("dt/drive_goal2", LoggingType.Number, false),
-    DriveTrainSteerVelocity2("dt/steer_vel2", LoggingType.Number, true),
-    DriveTrainSteerPosition2("dt/steer_pos2", LoggingType.Number, true), // SDS-only
-    DriveTrainSteerAngle2("dt/steer_ang2", LoggingType.Number, false),
-    DriveTrainSteerError2("dt/steer_err2", LoggingType.Number, true), // SDS-only
     DriveTrainSteerPositionGoal2("dt/steer_goal2", LoggingType.NullableNumber, false),
     DriveTrainSteerPositionGoal2b("dt/steer_goal2b", LoggingType.NullableNumber, false),
 
-    DriveTrainAbsoluteEncoderAngle3("dt/absenc_ang3", LoggingType.Number, true),
-    DriveTrainDriveVelocity3("dt/drive_vel3", LoggingType.Number, true),
-    DriveTrainDrivePosition3("dt/drive_pos3", LoggingType.Number, true),
-    DriveTrainDriveError3("dt/drive_err3", LoggingType.Number, true), // SDS-only
+    DriveTrainDriveVelocity3("dt/drive_vel3", LoggingType.Number, true, 5, false, LoggingAggregation.Peak),
     DriveTrainDriveVelocityGoal3("dt/drive_goal3", LoggingType.Number, false),
-    DriveTrainSteerVelocity3("dt/steer_vel3", LoggingType.Number, true),
-    DriveTrainSteerPosition3("dt/steer_pos3", LoggingType.Number, true), // SDS-only
-    DriveTrainSteerAngle3("dt/steer_ang3", LoggingType.Number, false),
-    DriveTrainSteerError3("dt/steer_err3", LoggingType.Number, true), // SDS-only
     DriveTrainSteerPositionGoal3("dt/steer_goal3", LoggingType.NullableNumber, false),
     DriveTrainSteerPositionGoal3b("dt/steer_goal3b", LoggingType.NullableNumber, false),
 
-    DriveTrainAbsoluteEncoderAngle4("dt/absenc_ang4", LoggingType.Number, true),
-    DriveTrainDriveVelocity4("dt/drive_vel4", LoggingType.Number, true),
-    DriveTrainDrivePosition4("dt/drive_pos4", LoggingType.Number, true),
-    DriveTrainDriveError4("dt/drive_err4", LoggingType.Number, true), // SDS-only
+    DriveTrainDriveVelocity4("dt/drive_vel4", LoggingType.Number, true, 5, false, LoggingAggregation.Peak),
     DriveTrainDriveVelocityGoal4("dt/drive_goal4", LoggingType.Number, false),
-    DriveTrainSteerVelocity4("dt/steer_vel4", LoggingType.Number, true),
-    DriveTrainSteerPosition4("dt/steer_pos4", LoggingType.Number, true), // SDS-only
-    DriveTrainSteerAngle4("dt/steer_ang4", LoggingType.Number, false),
-    DriveTrainSteerError4("dt/steer_err4", LoggingType.Number, true), // SDS-only
     DriveTrainSteerPositionGoal4("dt/steer_goal4", LoggingType.NullableNumber, false),
     DriveTrainSteerPositionGoal4b("dt/steer_goal4b", LoggingType.NullableNumber, false),
 
@@ -121,6 +107,9 @@ public enum LoggingKey
     public final boolean isInput;
     public final int loggingFrequency;
     public final boolean shouldLogToCsv;
+    public final LoggingAggregation aggregation;
+    public final double rateLimitInterval; // minimum number of seconds between writes, for LoggingAggregation.RateLimit
+
     private LoggingKey(String value, LoggingType type)
     {
         this(value, type, false, TuningConstants.DEFAULT_LOGGING_FREQUENCY, false);
@@ -142,6 +131,28 @@ public enum LoggingKey
     }
 
     private LoggingKey(String value, LoggingType type, boolean isInput, int loggingFrequency, boolean shouldLogToCsv)
+    {
+        this(value, type, isInput, loggingFrequency, shouldLogToCsv, LoggingAggregation.Sample);
+    }
+
+    private LoggingKey(String value, LoggingType type, boolean isInput, boolean shouldLogToCsv, double rateLimitInterval)
+    {
+        this(value, type, isInput, TuningConstants.DEFAULT_LOGGING_FREQUENCY, shouldLogToCsv, LoggingAggregation.RateLimit, rateLimitInterval);
+    }
+
+    private LoggingKey(String value, LoggingType type, boolean isInput, int loggingFrequency, boolean shouldLogToCsv, LoggingAggregation aggregation)
+    {
+        this(value, type, isInput, loggingFrequency, shouldLogToCsv, aggregation, 0.0);
+    }
+
+    private LoggingKey(
+        String value,
+        LoggingType type,
+        boolean isInput,
+        int loggingFrequency,
+        boolean shouldLogToCsv,
+        LoggingAggregation aggregation,
+        double rateLimitInterval)
     {
         if (loggingFrequency <= 0)
         {
@@ -153,5 +164,7 @@ public enum LoggingKey
         this.isInput = isInput;
         this.loggingFrequency = loggingFrequency;
         this.shouldLogToCsv = shouldLogToCsv;
+        this.aggregation = aggregation;
+        this.rateLimitInterval = rateLimitInterval;
     }
 }
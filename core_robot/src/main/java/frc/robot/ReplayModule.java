@@ -0,0 +1,100 @@
+package frc.robot;
+
+import java.io.IOException;
+
+import javax.inject.Singleton;
+
+import frc.lib.driver.*;
+import frc.lib.mechanisms.LoggingManager;
+import frc.lib.mechanisms.MechanismManager;
+import frc.lib.robotprovider.*;
+import frc.robot.driver.*;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Provides;
+
+/**
+ * Module for running the robot headlessly against a replay log (see frc.lib.logs.RobotReplay), with everything read from the robot
+ * coming from the ReplayRobotProvider
+ */
+public class ReplayModule extends AbstractModule
+{
+    private final ReplayRobotProvider replay;
+    private final ISmartDashboardLogger logger;
+
+    /**
+     * Initializes a new instance of the ReplayModule class
+     * @param replay to read from
+     * @param logger to receive what the replayed robot logs
+     */
+    public ReplayModule(ReplayRobotProvider replay, ISmartDashboardLogger logger)
+    {
+        this.replay = replay;
+        this.logger = logger;
+    }
+
+    @Override
+    protected void configure()
+    {
+        this.bind(IDriver.class).to(Driver.class);
+        this.bind(IRobotProvider.class).toInstance(this.replay.getRobotProvider());
+        this.bind(ITimer.class).toInstance(this.replay.createTimer());
+        this.bind(IButtonMap.class).to(ButtonMap.class);
+        this.bind(ISmartDashboardLogger.class).toInstance(this.logger);
+        this.bind(IFile.class).to(ReplayFile.class);
+    }
+
+    @Singleton
+    @Provides
+    public MechanismManager getMechanismManager(Injector injector)
+    {
+        return new MechanismManager(injector.getInstance(LoggingManager.class), SettingsManager.getActiveMechanisms(injector));
+    }
+
+    /**
+     * Replays don't have a USB stick to write log files onto
+     */
+    static class ReplayFile implements IFile
+    {
+        @Inject
+        ReplayFile()
+        {
+        }
+
+        @Override
+        public void open(String fileName)
+        {
+        }
+
+        @Override
+        public boolean exists()
+        {
+            return false;
+        }
+
+        @Override
+        public long getFreeSpace()
+        {
+            return 0L;
+        }
+
+        @Override
+        public void mkdir()
+        {
+        }
+
+        @Override
+        public IFileWriter openWriter() throws IOException
+        {
+            throw new IOException("Replays don't write files");
+        }
+
+        @Override
+        public IBinaryFileWriter openBinaryWriter() throws IOException
+        {
+            throw new IOException("Replays don't write files");
+        }
+    }
+}
@@ -16,7 +16,7 @@ public class SettingsManager
         List<IMechanism> mechanismList = new ArrayList<IMechanism>();
         mechanismList.add(injector.getInstance(PowerManager.class));
         // mechanismList.add(injector.getInstance(CompressorMechanism.class));
-        // mechanismList.add(injector.getInstance(PigeonManager.class)); // PigeonManager/NavxManager should come before DriveTrainMechanism
+        // mechanismList.add(injector.getInstance(PigeonManager.class)); // PigeonManager/NavxManager should come before DriveTrainMechanism (see MechanismDependencies)
         // mechanismList.add(injector.getInstance(OffboardVisionManager.class));
         // mechanismList.add(injector.getInstance(SDSDriveTrainMechanism.class));
         // mechanismList.add(injector.getInstance(DriverFeedbackManager.class)); // DriverFeedbackManager should always be the last mechanism on the list
@@ -55,6 +55,7 @@ public class SettingsManager
         Optional<Alliance> alliance = driverStation.getAlliance();
         OptionalInt location = driverStation.getLocation();
         IFile file;
+        String fileName;
         if (eventName == null ||
             matchType == MatchType.None ||
             matchNumber == 0 ||
@@ -74,8 +75,8 @@ public class SettingsManager
                 directory.mkdir();
 
                 file = injector.getInstance(IFile.class);
-                file.open(String.format("/U/other/%1$d.csv", Calendar.getInstance().getTime().getTime()));
-                if (file.exists())
+                fileName = String.format("/U/other/%1$d.csv", Calendar.getInstance().getTime().getTime());
+                if (SettingsManager.logFileExists(file, fileName))
                 {
                     // file already exists
                     return smartDashboardLogger;
@@ -92,7 +93,7 @@ public class SettingsManager
             // name the file a la "/U/2020 - Glacier Peak/Q03 (R2).auto.csv" or "/U/2020 - Glacier Peak/Q12R1 (B3).tele.csv"
             RobotMode mode = driverStation.getMode();
             file = injector.getInstance(IFile.class);
-            String fileName =
+            fileName =
                 String.format(
                     "%1$s%2$s%3$02d%4$s (%5$s%6$d).%7$s.csv",
                     directoryPath,
@@ -103,8 +104,7 @@ public class SettingsManager
                     location.getAsInt(),
                     mode.toString().toLowerCase());
 
-            file.open(fileName);
-            if (file.exists())
+            if (SettingsManager.logFileExists(file, fileName))
             {
                 for (int i = 2; i <= 5; i++)
                 {
@@ -121,8 +121,7 @@ public class SettingsManager
                             mode.toString().toLowerCase(),
                             i);
 
-                    file.open(fileName);
-                    if (!file.exists())
+                    if (!SettingsManager.logFileExists(file, fileName))
                     {
                         break;
                     }
@@ -130,14 +129,93 @@ public class SettingsManager
             }
         }
 
-        try
+        List<ILogger> loggers = new ArrayList<ILogger>();
+        if (TuningConstants.LOG_TO_CSV_FILE)
         {
-            CSVLogger csvLogger = new CSVLogger(file.openWriter());
-            return new MultiLogger(csvLogger, smartDashboardLogger);
+            try
+            {
+                LogIndexWriter index = null;
+                if (TuningConstants.LOG_FILE_INDEX_INTERVAL > 0)
+                {
+                    // name the index the same as the CSV file, a la "/U/2020 - Glacier Peak/Q03 (R2).auto.index.csv"
+                    IFile indexFile = injector.getInstance(IFile.class);
+                    indexFile.open(LogIndexWriter.getIndexFileName(fileName));
+                    index = new LogIndexWriter(indexFile.openWriter(), TuningConstants.LOG_FILE_INDEX_INTERVAL);
+                }
+
+                IFileWriter fileWriter;
+                if (TuningConstants.LOG_FILE_COMPRESS ||
+                    TuningConstants.LOG_FILE_SEGMENT_BYTES > 0 ||
+                    TuningConstants.LOG_FILE_SEGMENT_DURATION > 0.0)
+                {
+                    fileWriter =
+                        new SegmentedFileWriter(
+                            file,
+                            fileName,
+                            TuningConstants.LOG_FILE_COMPRESS,
+                            TuningConstants.LOG_FILE_SEGMENT_BYTES,
+                            injector.getInstance(ITimer.class),
+                            TuningConstants.LOG_FILE_SEGMENT_DURATION,
+                            TuningConstants.LOG_FILE_REQUIRED_FREE_SPACE,
+                            index);
+                }
+                else
+                {
+                    // a single uncompressed CSV file (the free space was checked when choosing the directory)
+                    file.open(fileName);
+                    fileWriter = file.openWriter();
+                }
+
+                if (TuningConstants.LOG_ASYNC)
+                {
+                    loggers.add(
+                        new ColumnarCSVLogger(
+                            fileWriter,
+                            index,
+                            TuningConstants.LOG_ASYNC_QUEUE_CAPACITY,
+                            TuningConstants.LOG_ASYNC_QUEUE_POLICY,
+                            TuningConstants.LOG_FLUSH_THRESHOLD));
+                }
+                else
+                {
+                    loggers.add(new ColumnarCSVLogger(fileWriter, index, 0, LogQueuePolicy.Block, 0));
+                }
+            }
+            catch (IOException ex)
+            {
+                // continue without this log file...
+            }
         }
-        catch (IOException ex)
+
+        if (TuningConstants.LOG_TO_BINARY_FILE)
+        {
+            // name the binary file the same as the CSV file, a la "/U/2020 - Glacier Peak/Q03 (R2).auto.bin"
+            IFile binaryFile = injector.getInstance(IFile.class);
+            binaryFile.open(fileName.substring(0, fileName.length() - ".csv".length()) + ".bin");
+
+            try
+            {
+                loggers.add(new BinaryLogger(binaryFile.openBinaryWriter()));
+            }
+            catch (IOException ex)
+            {
+                // continue without this log file...
+            }
+        }
+
+        if (loggers.isEmpty())
         {
             return smartDashboardLogger;
         }
+
+        loggers.add(smartDashboardLogger);
+        return new MultiLogger(loggers.toArray(new ILogger[loggers.size()]));
+    }
+
+    private static boolean logFileExists(IFile file, String fileName)
+    {
+        // the CSV log is written with a ".gz" suffix when it is compressed
+        file.open(TuningConstants.LOG_FILE_COMPRESS ? fileName + ".gz" : fileName);
+        return file.exists();
     }
 }
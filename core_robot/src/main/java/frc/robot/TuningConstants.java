@@ -3,6 +3,8 @@ package frc.robot;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import frc.lib.robotprovider.LogQueuePolicy;
+
 /**
  * All constants related to tuning the operation of the robot.
  * 
@@ -21,6 +23,10 @@ public class TuningConstants
 
     public static final boolean EXPECT_UNUSED_JOYSTICKS = true;
     public static final boolean PERFORM_COSTLY_TASKS_WHILE_DISABLED = true;
+    public static final double DEFERRED_WORK_BUDGET = 0.004; // in seconds, the most time to spend on deferred work (see DeferredWorkScheduler) in each disabled loop
+    public static final boolean JIT_WARMUP = false; // while disabled, run the control loop against throwaway mock state so that it's JIT-compiled before the match (see ControlLoopWarmup)
+    public static final int JIT_WARMUP_LOOPS = 10000; // number of throwaway loops to run for the warm-up
+    public static final int JIT_WARMUP_LOOPS_PER_STEP = 25; // number of throwaway loops to run in each step of the deferred work
 
     //================================================== Magic Values ==============================================================
 
@@ -33,15 +39,54 @@ public class TuningConstants
 
     public static final int CALENDAR_YEAR = 2024;
     public static final boolean LOG_TO_FILE = false; // TuningConstants.COMPETITION_ROBOT;
+    public static final boolean LOG_TO_CSV_FILE = true; // when logging to file, write a CSV log
+    public static final boolean LOG_TO_BINARY_FILE = false; // when logging to file, write a compact binary log (convert to CSV with frc.lib.logs.BinaryLogConverter)
     public static final boolean LOG_FILE_ONLY_COMPETITION_MATCHES = false;
     public static final long LOG_FILE_REQUIRED_FREE_SPACE = 50 * 1024 * 1024; // require at least 50 MB of space
+    public static final boolean LOG_FILE_COMPRESS = false; // gzip the CSV log as it is written (".csv.gz")
+    public static final long LOG_FILE_SEGMENT_BYTES = 0; // start a new CSV log segment after this many bytes, e.g. 16 * 1024 * 1024 (0 to disable)
+    public static final double LOG_FILE_SEGMENT_DURATION = 0.0; // start a new CSV log segment after this many seconds (0 to disable)
+    public static final int LOG_FILE_INDEX_INTERVAL = 50; // number of rows between entries in the CSV log's time index (".index.csv"), or 0 to not write an index
     public static final int LOG_FLUSH_THRESHOLD = 25;
+    public static final boolean LOG_ASYNC = false; // format and write the log file on a background thread, rather than on the robot thread
+    public static final int LOG_ASYNC_QUEUE_CAPACITY = 250; // number of completed rows that can wait for the background thread (~5 seconds)
+    public static final LogQueuePolicy LOG_ASYNC_QUEUE_POLICY = LogQueuePolicy.DropOldest; // what to do when the background thread falls too far behind
     public static final boolean USE_LOGGING_FREQUENCY = true; // TuningConstants.COMPETITION_ROBOT;
     public static final int DEFAULT_LOGGING_FREQUENCY = 10; // number of entries to ignore between logging
+    public static final int LOG_DASHBOARD_HEARTBEAT_INTERVAL = 50; // number of updates after which an unchanged value is re-published to the dashboard (~1 second)
+    public static final boolean REPLAY_RECORD = false; // record everything read through the IRobotProvider into a replay log ("/U/replay/"), to replay with frc.lib.logs.RobotReplay
+    public static final int REPLAY_FLUSH_THRESHOLD = 50; // number of loops between flushes of the replay log
+
+    //================================================== Profiling ==============================================================
+
+    public static final boolean MECHANISM_PROFILING_ENABLED = true;
+    public static final int MECHANISM_PROFILING_WINDOW = 250; // number of samples to keep for each mechanism's latency histograms (~5 seconds)
+    public static final int MECHANISM_PROFILING_REPORT_FREQUENCY = 50; // number of loops between each report of the mechanism latencies
+    public static final int LOOP_TRACE_CAPACITY = 300; // number of most-recent loops to keep the phase breakdown for (~6 seconds)
+    public static final double LOOP_TRACE_BUDGET = 0.02; // loops taking longer than this (in seconds) are considered overruns
+    public static final boolean LOOP_TRACE_DUMP_ON_OVERRUN = true;
+    public static final int LOOP_TRACE_DUMP_LOOPS = 10; // number of most-recent loops to dump when there is an overrun
+    public static final int LOOP_TRACE_DUMP_COOLDOWN = 250; // minimum number of loops between overrun dumps (~5 seconds)
+    public static final boolean STARTUP_PROFILE = true; // print and log a breakdown of where the time goes during robotInit
+    public static final boolean INPUT_LATENCY_TRACING = false; // trace the latency from user input to the actuators for each operation (see InputLatencyTracer)
+    public static final int INPUT_LATENCY_WINDOW = 50; // number of samples to keep for each operation's input latency histogram
+    public static final int INPUT_LATENCY_MAX_UPDATES = 25; // number of updates after which a change in an operation that hasn't reached an actuator is dropped (~0.5 seconds)
+    public static final int INPUT_LATENCY_REPORT_FREQUENCY = 50; // number of updates between each report of the input latencies
+
+    //================================================== Mechanisms ==============================================================
+
+    public static final boolean MECHANISM_PARALLEL_READ_SENSORS = false; // read sensors concurrently based on MechanismDependencies (false = serially, in list order)
+    public static final boolean MECHANISM_PARALLEL_UPDATE = false; // update mechanisms concurrently based on MechanismDependencies (false = serially, in list order)
+    public static final int MECHANISM_WORKER_THREADS = 2; // number of worker threads used alongside the main thread when running mechanisms concurrently
 
     //================================================== Autonomous ==============================================================
 
     public static final boolean TRAJECTORY_FORCE_BUILD = false;
+    public static final boolean TRAJECTORY_BUILD_IN_BACKGROUND = true; // build trajectories on a background pool during startup, rather than in robotInit (or when first needed)
+    public static final int TRAJECTORY_BUILD_PARALLELISM = 2; // number of background threads to build trajectories on (the roboRIO has 2 cores)
+    public static final boolean TRAJECTORY_USE_ARCHIVE = true; // use the trajectories precomputed at deploy time (see TrajectoryArchiveGenerator), when they're up to date
+    public static final String TRAJECTORY_ARCHIVE_PATH = "/home/lvuser/deploy/trajectories.bin";
+    public static final double TRAJECTORY_ARCHIVE_SAMPLE_PERIOD = 0.005; // in seconds, the time between the precomputed samples of each trajectory
 
     //================================================= Power ======================================================
 
@@ -0,0 +1,191 @@
+package frc.robot;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import javax.inject.Singleton;
+
+import frc.lib.driver.*;
+import frc.lib.helpers.DeferredWorkScheduler;
+import frc.lib.mechanisms.LoggingManager;
+import frc.lib.mechanisms.MechanismManager;
+import frc.lib.robotprovider.*;
+import frc.robot.driver.*;
+import frc.robot.driver.controltasks.FollowPathTask;
+import frc.robot.driver.controltasks.RepeatedSequentialTask;
+import frc.robot.driver.controltasks.WaitTask;
+import frc.robot.driver.controltasks.FollowPathTask.Type;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Provides;
+
+/**
+ * Module for the throwaway robot that the JIT warm-up runs (see frc.lib.ControlLoopWarmup).  Its devices come from an empty replay log,
+ * so that reads return defaults and writes go nowhere, nothing that it logs is kept, and its time only moves forward when the warm-up
+ * advances it.  Every autonomous routine that it selects repeatedly follows a made-up path, so that the path-following code is run.
+ */
+public class WarmupModule extends AbstractModule
+{
+    public static final String WARMUP_TRAJECTORY = "warmup";
+
+    private final ReplayRobotProvider provider;
+    private final WarmupTimer timer;
+
+    /**
+     * Initializes a new instance of the WarmupModule class
+     */
+    public WarmupModule()
+    {
+        byte[] emptyLog = new byte[ReplayLogFormat.MAGIC.length + 1];
+        System.arraycopy(ReplayLogFormat.MAGIC, 0, emptyLog, 0, ReplayLogFormat.MAGIC.length);
+        emptyLog[ReplayLogFormat.MAGIC.length] = ReplayLogFormat.VERSION;
+
+        try
+        {
+            this.provider = new ReplayRobotProvider(new ByteArrayInputStream(emptyLog));
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+
+        this.timer = new WarmupTimer();
+    }
+
+    /**
+     * Get the timer that the throwaway robot uses
+     * @return the timer, which the warm-up advances each loop
+     */
+    public WarmupTimer getTimer()
+    {
+        return this.timer;
+    }
+
+    @Override
+    protected void configure()
+    {
+        this.bind(IDriver.class).to(Driver.class);
+        this.bind(IRobotProvider.class).toInstance(this.provider.getRobotProvider());
+        this.bind(ITimer.class).toInstance(this.timer);
+        this.bind(IButtonMap.class).to(ButtonMap.class);
+        this.bind(IFile.class).to(ReplayModule.ReplayFile.class);
+        this.bind(AutonomousRoutineSelector.class).to(WarmupRoutineSelector.class);
+
+        // trajectories are only built once they're needed, rather than on another background pool
+        this.bind(TrajectoryManager.class).toInstance(new TrajectoryManager(0));
+    }
+
+    @Singleton
+    @Provides
+    public LoggingManager getLoggingManager()
+    {
+        return new LoggingManager(new NullLogger());
+    }
+
+    @Singleton
+    @Provides
+    public MechanismManager getMechanismManager(Injector injector)
+    {
+        // the mechanisms run serially, as the worker threads wouldn't be stopped when the warm-up is thrown away
+        return new MechanismManager(injector.getInstance(LoggingManager.class), SettingsManager.getActiveMechanisms(injector), 0, false, false);
+    }
+
+    /**
+     * Time that only moves forward when it is advanced
+     */
+    public static class WarmupTimer implements ITimer
+    {
+        private double time;
+
+        /**
+         * Move time forward
+         * @param seconds to move forward by
+         */
+        public void advance(double seconds)
+        {
+            this.time += seconds;
+        }
+
+        @Override
+        public void start()
+        {
+        }
+
+        @Override
+        public void stop()
+        {
+        }
+
+        @Override
+        public double get()
+        {
+            return this.time;
+        }
+
+        @Override
+        public void reset()
+        {
+        }
+    }
+
+    /**
+     * Selects a routine that keeps following the made-up warm-up path, in any mode
+     */
+    @Singleton
+    static class WarmupRoutineSelector extends AutonomousRoutineSelector
+    {
+        @Inject
+        WarmupRoutineSelector(
+            LoggingManager logger,
+            TrajectoryManager trajectoryManager,
+            SmartDashboardSelectionManager selectionManager,
+            DeferredWorkScheduler deferredWorkScheduler,
+            IRobotProvider provider)
+        {
+            super(logger, trajectoryManager, selectionManager, deferredWorkScheduler, provider);
+
+            trajectoryManager.addTrajectory(WarmupModule.WARMUP_TRAJECTORY, new WarmupTrajectory());
+        }
+
+        @Override
+        public IControlTask selectRoutine(RobotMode mode)
+        {
+            return RepeatedSequentialTask.Sequence(
+                new FollowPathTask(WarmupModule.WARMUP_TRAJECTORY, Type.RobotRelativeFromCurrentPose),
+                new WaitTask(0.1));
+        }
+    }
+
+    /**
+     * A made-up path that curves forwards and to the left while turning
+     */
+    static class WarmupTrajectory implements ITrajectory
+    {
+        private static final double DURATION = 2.0; // in seconds
+        private static final double DISTANCE = 48.0; // in inches
+        private static final double TURN = 90.0; // in degrees
+
+        @Override
+        public double getDuration()
+        {
+            return WarmupTrajectory.DURATION;
+        }
+
+        @Override
+        public TrajectoryState get(double time)
+        {
+            double progress = Math.max(0.0, Math.min(1.0, time / WarmupTrajectory.DURATION));
+            double rate = progress < 1.0 ? 1.0 / WarmupTrajectory.DURATION : 0.0;
+            return new TrajectoryState(
+                WarmupTrajectory.DISTANCE * progress,
+                0.5 * WarmupTrajectory.DISTANCE * progress * progress,
+                WarmupTrajectory.TURN * progress,
+                WarmupTrajectory.DISTANCE * rate,
+                WarmupTrajectory.DISTANCE * progress * rate,
+                WarmupTrajectory.TURN * rate);
+        }
+    }
+}
@@ -4,7 +4,10 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 import frc.lib.driver.IControlTask;
+import frc.lib.driver.TrajectoryArchive;
 import frc.lib.driver.TrajectoryManager;
+import frc.lib.helpers.DeferredWorkScheduler;
+import frc.lib.helpers.StartupProfiler;
 import frc.lib.mechanisms.LoggingManager;
 import frc.lib.robotprovider.*;
 import frc.robot.AutonLocManager;
@@ -34,6 +37,7 @@ public class AutonomousRoutineSelector
         LoggingManager logger,
         TrajectoryManager trajectoryManager,
         SmartDashboardSelectionManager selectionManager,
+        DeferredWorkScheduler deferredWorkScheduler,
         IRobotProvider provider)
     {
         this.logger = logger;
@@ -44,8 +48,36 @@ public class AutonomousRoutineSelector
 
         this.locManager = new AutonLocManager(provider);
 
-        RoadRunnerTrajectoryGenerator.generateTrajectories(this.trajectoryManager);
-        PathPlannerTrajectoryGenerator.generateTrajectories(this.trajectoryManager, provider.getPathPlanner());
+        if (TuningConstants.TRAJECTORY_USE_ARCHIVE)
+        {
+            StartupProfiler.Phase archivePhase = StartupProfiler.phase("trajectory archive");
+            try
+            {
+                this.trajectoryManager.setArchive(
+                    TrajectoryArchive.open(TuningConstants.TRAJECTORY_ARCHIVE_PATH, TrajectoryArchiveGenerator.getInputHash()));
+            }
+            finally
+            {
+                archivePhase.close();
+            }
+        }
+
+        // (trajectories that aren't archived are built in the background, see TrajectoryManager's build report for those)
+        StartupProfiler.Phase generationPhase = StartupProfiler.phase("trajectory generation");
+        try
+        {
+            RoadRunnerTrajectoryGenerator.generateTrajectories(this.trajectoryManager);
+            PathPlannerTrajectoryGenerator.generateTrajectories(this.trajectoryManager, provider.getPathPlanner());
+        }
+        finally
+        {
+            generationPhase.close();
+        }
+
+        this.trajectoryManager.reportWhenBuilt();
+
+        // build any trajectories that weren't built in the background while we're waiting for the match to start
+        deferredWorkScheduler.schedule("trajectories", this.trajectoryManager::buildNextPending);
     }
 
     /**
@@ -1,5 +1,7 @@
 package frc.robot.driver;
 
+import java.util.function.Supplier;
+
 import frc.lib.driver.TrajectoryManager;
 import frc.lib.robotprovider.IPathPlanner;
 import frc.lib.robotprovider.ITrajectory;
@@ -18,7 +20,7 @@ public class PathPlannerTrajectoryGenerator
         // ------------------------------- Macro paths --------------------------------------------
         addTrajectory(
             trajectoryManager,
-            pathPlanner.buildTrajectory(
+            () -> pathPlanner.buildTrajectory(
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_TRANSLATIONAL_VELOCITY,
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_TRANSLATIONAL_ACCELERATION,
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_ROTATIONAL_VELOCITY,
@@ -29,7 +31,7 @@ public class PathPlannerTrajectoryGenerator
             "goForwards30in");
         addTrajectory(
             trajectoryManager,
-            pathPlanner.buildTrajectory(
+            () -> pathPlanner.buildTrajectory(
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_TRANSLATIONAL_VELOCITY,
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_TRANSLATIONAL_ACCELERATION,
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_ROTATIONAL_VELOCITY,
@@ -40,7 +42,7 @@ public class PathPlannerTrajectoryGenerator
             "goForwards45in");
         addTrajectory(
             trajectoryManager,
-            pathPlanner.buildTrajectory(
+            () -> pathPlanner.buildTrajectory(
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_TRANSLATIONAL_VELOCITY,
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_TRANSLATIONAL_ACCELERATION,
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_ROTATIONAL_VELOCITY,
@@ -50,7 +52,7 @@ public class PathPlannerTrajectoryGenerator
             "DriveForward20in");
         addTrajectory(
             trajectoryManager,
-            pathPlanner.buildTrajectory(
+            () -> pathPlanner.buildTrajectory(
                 TuningConstants.SDSDRIVETRAIN_TRUE_MAX_PATH_TRANSLATIONAL_VELOCITY,
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_TRANSLATIONAL_ACCELERATION,
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_ROTATIONAL_VELOCITY,
@@ -61,7 +63,7 @@ public class PathPlannerTrajectoryGenerator
             "goBackwards15in");
         addTrajectory(
             trajectoryManager,
-            pathPlanner.buildTrajectory(
+            () -> pathPlanner.buildTrajectory(
                 TuningConstants.SDSDRIVETRAIN_MID_PATH_TRANSLATIONAL_VELOCITY,
                 TuningConstants.SDSDRIVETRAIN_MID_PATH_TRANSLATIONAL_ACCELERATION,
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_ROTATIONAL_VELOCITY,
@@ -72,7 +74,7 @@ public class PathPlannerTrajectoryGenerator
             "goLeft32inForward18in");
         addTrajectory(
             trajectoryManager,
-            pathPlanner.buildTrajectory(
+            () -> pathPlanner.buildTrajectory(
                 TuningConstants.SDSDRIVETRAIN_MID_PATH_TRANSLATIONAL_VELOCITY,
                 TuningConstants.SDSDRIVETRAIN_MID_PATH_TRANSLATIONAL_ACCELERATION,
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_ROTATIONAL_VELOCITY,
@@ -83,7 +85,7 @@ public class PathPlannerTrajectoryGenerator
             "goRight32inForward18in");
         addTrajectory(
             trajectoryManager,
-            pathPlanner.buildTrajectory(
+            () -> pathPlanner.buildTrajectory(
                 TuningConstants.SDSDRIVETRAIN_MID_PATH_TRANSLATIONAL_VELOCITY,
                 TuningConstants.SDSDRIVETRAIN_MID_PATH_TRANSLATIONAL_ACCELERATION,
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_ROTATIONAL_VELOCITY,
@@ -94,7 +96,7 @@ public class PathPlannerTrajectoryGenerator
             "goLeft22in");
         addTrajectory(
             trajectoryManager,
-            pathPlanner.buildTrajectory(
+            () -> pathPlanner.buildTrajectory(
                 TuningConstants.SDSDRIVETRAIN_MID_PATH_TRANSLATIONAL_VELOCITY,
                 TuningConstants.SDSDRIVETRAIN_MID_PATH_TRANSLATIONAL_ACCELERATION,
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_ROTATIONAL_VELOCITY,
@@ -112,7 +114,7 @@ public class PathPlannerTrajectoryGenerator
         // ----------------------> EXAMPLE PATH <-----------------------------
         addTrajectory(
             trajectoryManager,
-            pathPlanner.buildTrajectory(
+            () -> pathPlanner.buildTrajectory(
                 TuningConstants.SDSDRIVETRAIN_TRUE_MAX_PATH_TRANSLATIONAL_VELOCITY,
                 TuningConstants.SDSDRIVETRAIN_TRUE_MAX_PATH_TRANSLATIONAL_ACCELERATION,
                 TuningConstants.SDSDRIVETRAIN_MAX_PATH_ROTATIONAL_VELOCITY,
@@ -122,12 +124,13 @@ public class PathPlannerTrajectoryGenerator
             isRed ? "ExamplePathRed" : "ExamplePathBlue");
     }
 
-    private static void addTrajectory(TrajectoryManager trajectoryManager, ITrajectory trajectory, String name)
+    private static void addTrajectory(TrajectoryManager trajectoryManager, Supplier<ITrajectory> trajectoryBuilder, String name)
     {
         // ExceptionHelpers.Assert(trajectory != null, "Adding null trajectory '%s'!", name);
         try
         {
-            trajectoryManager.addTrajectory(name, trajectory);
+            // (built in the background, unless TrajectoryManager is building on this thread)
+            trajectoryManager.addTrajectory(name, trajectoryBuilder, true);
         }
         catch (Exception ex)
         {
@@ -31,6 +31,7 @@ public class RoadRunnerTrajectoryGenerator
         TrajectoryManager trajectoryManager = new TrajectoryManager();
         RoadRunnerTrajectoryGenerator.generateTrajectories(trajectoryManager);
         trajectoryManager.buildAll();
+        System.out.println(trajectoryManager.getBuildReport());
     }
 
     public static void generateTrajectories(TrajectoryManager trajectoryManager)
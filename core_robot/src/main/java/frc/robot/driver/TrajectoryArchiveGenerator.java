@@ -0,0 +1,62 @@
+package frc.robot.driver;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import frc.lib.driver.TrajectoryArchive;
+import frc.lib.driver.TrajectoryManager;
+import frc.lib.robotprovider.IPathPlanner;
+import frc.lib.robotprovider.ITrajectory;
+import frc.robot.AutonLocManager;
+import frc.robot.HardwareConstants;
+import frc.robot.TuningConstants;
+
+/**
+ * Generates the robot's trajectories ahead of time into a TrajectoryArchive (see the generateTrajectoryArchive task in robot_roborio),
+ * so that the robot doesn't have to generate them again at boot.
+ */
+public class TrajectoryArchiveGenerator
+{
+    /**
+     * Get the hash of everything that the trajectories are generated from, to check whether an archive is up to date
+     * @return the hash of the trajectory inputs
+     */
+    public static long getInputHash()
+    {
+        List<Class<?>> constantClasses = Arrays.asList(TuningConstants.class, HardwareConstants.class);
+        List<Class<?>> codeClasses =
+            Arrays.asList(
+                RoadRunnerTrajectoryGenerator.class,
+                PathPlannerTrajectoryGenerator.class,
+                AutonLocManager.class);
+
+        return TrajectoryArchive.hashInputs(constantClasses, codeClasses);
+    }
+
+    /**
+     * Generate all of the robot's trajectories and write them into an archive
+     * @param pathPlanner to build the PathPlanner trajectories with
+     * @param path of the archive to write
+     * @return the number of trajectories written
+     * @throws IOException if the archive can't be written
+     */
+    public static int generate(IPathPlanner pathPlanner, String path) throws IOException
+    {
+        TrajectoryManager trajectoryManager = new TrajectoryManager(TuningConstants.TRAJECTORY_BUILD_PARALLELISM);
+        RoadRunnerTrajectoryGenerator.generateTrajectories(trajectoryManager);
+        PathPlannerTrajectoryGenerator.generateTrajectories(trajectoryManager, pathPlanner);
+
+        Map<String, ITrajectory> trajectories = trajectoryManager.getAllTrajectories();
+        System.out.println(trajectoryManager.getBuildReport());
+
+        TrajectoryArchive.write(
+            path,
+            TrajectoryArchiveGenerator.getInputHash(),
+            TuningConstants.TRAJECTORY_ARCHIVE_SAMPLE_PERIOD,
+            trajectories);
+
+        return trajectories.size();
+    }
+}
@@ -2,6 +2,7 @@ package frc.robot.mechanisms;
 
 import frc.lib.driver.IDriver;
 import frc.lib.mechanisms.IMechanism;
+import frc.lib.mechanisms.MechanismDependencies;
 import frc.lib.robotprovider.*;
 import frc.robot.TuningConstants;
 import frc.robot.driver.DigitalOperation;
@@ -19,6 +20,7 @@ import com.google.inject.Singleton;
  *
  */
 @Singleton
+@MechanismDependencies(update = { PowerManager.class })
 public class DriverFeedbackManager implements IMechanism
 {
     private final IDriverStation ds;
@@ -17,6 +17,7 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 @Singleton
+@MechanismDependencies(readSensors = { PigeonManager.class }, update = { PowerManager.class, PigeonManager.class })
 public class RevDriveTrainMechanism implements IDriveTrainMechanism
 {
     private static final int NUM_MODULES = 4;
@@ -25,9 +26,6 @@ public class RevDriveTrainMechanism implements IDriveTrainMechanism
     private static final int AltPidSlotId = 1;
 
     private static final LoggingKey[] DRIVE_VELOCITY_LOGGING_KEYS = { LoggingKey.DriveTrainDriveVelocity1, LoggingKey.DriveTrainDriveVelocity2, LoggingKey.DriveTrainDriveVelocity3, LoggingKey.DriveTrainDriveVelocity4 };
-    private static final LoggingKey[] DRIVE_POSITION_LOGGING_KEYS = { LoggingKey.DriveTrainDrivePosition1, LoggingKey.DriveTrainDrivePosition2, LoggingKey.DriveTrainDrivePosition3, LoggingKey.DriveTrainDrivePosition4 };
-    private static final LoggingKey[] STEER_VELOCITY_LOGGING_KEYS = { LoggingKey.DriveTrainSteerVelocity1, LoggingKey.DriveTrainSteerVelocity2, LoggingKey.DriveTrainSteerVelocity3, LoggingKey.DriveTrainSteerVelocity4 };
-    private static final LoggingKey[] STEER_ANGLE_LOGGING_KEYS = { LoggingKey.DriveTrainSteerAngle1, LoggingKey.DriveTrainSteerAngle2, LoggingKey.DriveTrainSteerAngle3, LoggingKey.DriveTrainSteerAngle4 };
     private static final LoggingKey[] DRIVE_GOAL_LOGGING_KEYS = { LoggingKey.DriveTrainDriveVelocityGoal1, LoggingKey.DriveTrainDriveVelocityGoal2, LoggingKey.DriveTrainDriveVelocityGoal3, LoggingKey.DriveTrainDriveVelocityGoal4 };
     private static final LoggingKey[] STEER_GOAL_LOGGING_KEYS = { LoggingKey.DriveTrainSteerPositionGoal1, LoggingKey.DriveTrainSteerPositionGoal2, LoggingKey.DriveTrainSteerPositionGoal3, LoggingKey.DriveTrainSteerPositionGoal4 };
     private static final LoggingKey[] STEER_GOAL_LOGGING_KEYS_B = { LoggingKey.DriveTrainSteerPositionGoal1b, LoggingKey.DriveTrainSteerPositionGoal2b, LoggingKey.DriveTrainSteerPositionGoal3b, LoggingKey.DriveTrainSteerPositionGoal4b };
@@ -64,6 +62,7 @@ public class RevDriveTrainMechanism implements IDriveTrainMechanism
     private final double[] drivePositions;
     private final double[] steerVelocities;
     private final double[] steerAngles;
+    private final double[] velocityGoal;
 
     private final Triple<Double, Double, Double> driveTwistCorrection;
     private final Triple<Double, Double, Double> odometryTwistCorrection;
@@ -271,6 +270,7 @@ public class RevDriveTrainMechanism implements IDriveTrainMechanism
         this.drivePositions = new double[RevDriveTrainMechanism.NUM_MODULES];
         this.steerVelocities = new double[RevDriveTrainMechanism.NUM_MODULES];
         this.steerAngles = new double[RevDriveTrainMechanism.NUM_MODULES];
+        this.velocityGoal = new double[3];
 
         this.isDirectionSwapped = new boolean[RevDriveTrainMechanism.NUM_MODULES];
         this.driveSlotIds = new int[RevDriveTrainMechanism.NUM_MODULES];
@@ -376,12 +376,14 @@ public class RevDriveTrainMechanism implements IDriveTrainMechanism
             this.steerVelocities[i] = this.steerMotors[i].getVelocity();
             this.steerAngles[i] = this.steerMotors[i].getPosition();
 
+            // drive velocities are logged individually so that they can be aggregated
             this.logger.logNumber(RevDriveTrainMechanism.DRIVE_VELOCITY_LOGGING_KEYS[i], this.driveVelocities[i]);
-            this.logger.logNumber(RevDriveTrainMechanism.DRIVE_POSITION_LOGGING_KEYS[i], this.drivePositions[i]);
-            this.logger.logNumber(RevDriveTrainMechanism.STEER_VELOCITY_LOGGING_KEYS[i], this.steerVelocities[i]);
-            this.logger.logNumber(RevDriveTrainMechanism.STEER_ANGLE_LOGGING_KEYS[i], this.steerAngles[i]);
         }
 
+        this.logger.logNumberArray(LoggingKey.DriveTrainDrivePositions, this.drivePositions);
+        this.logger.logNumberArray(LoggingKey.DriveTrainSteerVelocities, this.steerVelocities);
+        this.logger.logNumberArray(LoggingKey.DriveTrainSteerAngles, this.steerAngles);
+
         double prevYaw = this.robotYaw;
         double prevTime = this.time;
         this.robotYaw = this.imuManager.getYaw();
@@ -399,9 +401,7 @@ public class RevDriveTrainMechanism implements IDriveTrainMechanism
             this.calculateOdometry(deltaImuYaw);
         }
 
-        this.logger.logNumber(LoggingKey.DriveTrainXPosition, this.xPosition);
-        this.logger.logNumber(LoggingKey.DriveTrainYPosition, this.yPosition);
-        this.logger.logNumber(LoggingKey.DriveTrainAngle, this.angle);
+        this.logger.logPose(LoggingKey.DriveTrainPose, this.xPosition, this.yPosition, this.angle);
     }
 
     @Override
@@ -694,13 +694,12 @@ public class RevDriveTrainMechanism implements IDriveTrainMechanism
                 xVelocityGoal += this.pathXOffsetPID.calculatePosition(xGoal, this.xPosition);
                 yVelocityGoal += this.pathYOffsetPID.calculatePosition(yGoal, this.yPosition);
 
-                this.logger.logNumber(LoggingKey.DriveTrainXPositionGoal, xGoal);
-                this.logger.logNumber(LoggingKey.DriveTrainYPositionGoal, yGoal);
-                this.logger.logNumber(LoggingKey.DriveTrainAngleGoal, angleGoal);
+                this.logger.logPose(LoggingKey.DriveTrainPoseGoal, xGoal, yGoal, angleGoal);
 
-                this.logger.logNumber(LoggingKey.DriveTrainXVelocityGoal, xVelocityGoal);
-                this.logger.logNumber(LoggingKey.DriveTrainYVelocityGoal, yVelocityGoal);
-                this.logger.logNumber(LoggingKey.DriveTrainAngleVelocityGoal, angleVelocityGoal);
+                this.velocityGoal[0] = xVelocityGoal;
+                this.velocityGoal[1] = yVelocityGoal;
+                this.velocityGoal[2] = angleVelocityGoal;
+                this.logger.logNumberArray(LoggingKey.DriveTrainVelocityGoal, this.velocityGoal);
 
                 // convert velocity to be robot-oriented
                 centerVelocityLeft = Helpers.cosd(this.robotYaw) * yVelocityGoal - Helpers.sind(this.robotYaw) * xVelocityGoal;
@@ -28,6 +28,7 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 @Singleton
+@MechanismDependencies(readSensors = { PigeonManager.class }, update = { PowerManager.class, PigeonManager.class })
 public class SDSDriveTrainMechanism implements IDriveTrainMechanism
 {
     private static final int NUM_MODULES = 4;
@@ -35,14 +36,7 @@ public class SDSDriveTrainMechanism implements IDriveTrainMechanism
     private static final int defaultPidSlotId = 0;
     private static final int secondaryPidSlotId = 1;
 
-    private static final LoggingKey[] ENCODER_ANGLE_LOGGING_KEYS = { LoggingKey.DriveTrainAbsoluteEncoderAngle1, LoggingKey.DriveTrainAbsoluteEncoderAngle2, LoggingKey.DriveTrainAbsoluteEncoderAngle3, LoggingKey.DriveTrainAbsoluteEncoderAngle4 };
     private static final LoggingKey[] DRIVE_VELOCITY_LOGGING_KEYS = { LoggingKey.DriveTrainDriveVelocity1, LoggingKey.DriveTrainDriveVelocity2, LoggingKey.DriveTrainDriveVelocity3, LoggingKey.DriveTrainDriveVelocity4 };
-    private static final LoggingKey[] DRIVE_POSITION_LOGGING_KEYS = { LoggingKey.DriveTrainDrivePosition1, LoggingKey.DriveTrainDrivePosition2, LoggingKey.DriveTrainDrivePosition3, LoggingKey.DriveTrainDrivePosition4 };
-    private static final LoggingKey[] DRIVE_ERROR_LOGGING_KEYS = { LoggingKey.DriveTrainDriveError1, LoggingKey.DriveTrainDriveError2, LoggingKey.DriveTrainDriveError3, LoggingKey.DriveTrainDriveError4 };
-    private static final LoggingKey[] STEER_VELOCITY_LOGGING_KEYS = { LoggingKey.DriveTrainSteerVelocity1, LoggingKey.DriveTrainSteerVelocity2, LoggingKey.DriveTrainSteerVelocity3, LoggingKey.DriveTrainSteerVelocity4 };
-    private static final LoggingKey[] STEER_POSITION_LOGGING_KEYS = { LoggingKey.DriveTrainSteerPosition1, LoggingKey.DriveTrainSteerPosition2, LoggingKey.DriveTrainSteerPosition3, LoggingKey.DriveTrainSteerPosition4 };
-    private static final LoggingKey[] STEER_ANGLE_LOGGING_KEYS = { LoggingKey.DriveTrainSteerAngle1, LoggingKey.DriveTrainSteerAngle2, LoggingKey.DriveTrainSteerAngle3, LoggingKey.DriveTrainSteerAngle4 };
-    private static final LoggingKey[] STEER_ERROR_LOGGING_KEYS = { LoggingKey.DriveTrainSteerError1, LoggingKey.DriveTrainSteerError2, LoggingKey.DriveTrainSteerError3, LoggingKey.DriveTrainSteerError4 };
     private static final LoggingKey[] DRIVE_GOAL_LOGGING_KEYS = { LoggingKey.DriveTrainDriveVelocityGoal1, LoggingKey.DriveTrainDriveVelocityGoal2, LoggingKey.DriveTrainDriveVelocityGoal3, LoggingKey.DriveTrainDriveVelocityGoal4 };
     private static final LoggingKey[] STEER_GOAL_LOGGING_KEYS = { LoggingKey.DriveTrainSteerPositionGoal1, LoggingKey.DriveTrainSteerPositionGoal2, LoggingKey.DriveTrainSteerPositionGoal3, LoggingKey.DriveTrainSteerPositionGoal4 };
 
@@ -83,6 +77,7 @@ public class SDSDriveTrainMechanism implements IDriveTrainMechanism
     private final double[] steerAngles;
     private final double[] steerErrors;
     private final double[] encoderAngles;
+    private final double[] velocityGoal;
 
     private final Triple<Double, Double, Double> driveTwistCorrection;
     private final Triple<Double, Double, Double> odometryTwistCorrection;
@@ -290,6 +285,7 @@ public class SDSDriveTrainMechanism implements IDriveTrainMechanism
         this.steerAngles = new double[SDSDriveTrainMechanism.NUM_MODULES];
         this.steerErrors = new double[SDSDriveTrainMechanism.NUM_MODULES];
         this.encoderAngles = new double[SDSDriveTrainMechanism.NUM_MODULES];
+        this.velocityGoal = new double[3];
 
         this.isDirectionSwapped = new boolean[SDSDriveTrainMechanism.NUM_MODULES];
         this.driveSlotIds = new int[SDSDriveTrainMechanism.NUM_MODULES];
@@ -399,16 +395,18 @@ public class SDSDriveTrainMechanism implements IDriveTrainMechanism
             this.steerErrors[i] = this.steerMotors[i].getError();
             this.encoderAngles[i] = this.absoluteEncoders[i].getAbsolutePosition();
 
+            // drive velocities are logged individually so that they can be aggregated
             this.logger.logNumber(SDSDriveTrainMechanism.DRIVE_VELOCITY_LOGGING_KEYS[i], this.driveVelocities[i]);
-            this.logger.logNumber(SDSDriveTrainMechanism.DRIVE_POSITION_LOGGING_KEYS[i], this.drivePositions[i]);
-            this.logger.logNumber(SDSDriveTrainMechanism.DRIVE_ERROR_LOGGING_KEYS[i], this.driveErrors[i]);
-            this.logger.logNumber(SDSDriveTrainMechanism.STEER_VELOCITY_LOGGING_KEYS[i], this.steerVelocities[i]);
-            this.logger.logNumber(SDSDriveTrainMechanism.STEER_POSITION_LOGGING_KEYS[i], this.steerPositions[i]);
-            this.logger.logNumber(SDSDriveTrainMechanism.STEER_ANGLE_LOGGING_KEYS[i], this.steerAngles[i]);
-            this.logger.logNumber(SDSDriveTrainMechanism.STEER_ERROR_LOGGING_KEYS[i], this.steerErrors[i]);
-            this.logger.logNumber(SDSDriveTrainMechanism.ENCODER_ANGLE_LOGGING_KEYS[i], this.encoderAngles[i]);
         }
 
+        this.logger.logNumberArray(LoggingKey.DriveTrainDrivePositions, this.drivePositions);
+        this.logger.logNumberArray(LoggingKey.DriveTrainDriveErrors, this.driveErrors);
+        this.logger.logNumberArray(LoggingKey.DriveTrainSteerVelocities, this.steerVelocities);
+        this.logger.logNumberArray(LoggingKey.DriveTrainSteerPositions, this.steerPositions);
+        this.logger.logNumberArray(LoggingKey.DriveTrainSteerAngles, this.steerAngles);
+        this.logger.logNumberArray(LoggingKey.DriveTrainSteerErrors, this.steerErrors);
+        this.logger.logNumberArray(LoggingKey.DriveTrainAbsoluteEncoderAngles, this.encoderAngles);
+
         double prevYaw = this.robotYaw;
         double prevTime = this.time;
         this.robotYaw = this.imuManager.getYaw();
@@ -426,9 +424,7 @@ public class SDSDriveTrainMechanism implements IDriveTrainMechanism
             this.calculateOdometry(deltaImuYaw);
         }
 
-        this.logger.logNumber(LoggingKey.DriveTrainXPosition, this.xPosition);
-        this.logger.logNumber(LoggingKey.DriveTrainYPosition, this.yPosition);
-        this.logger.logNumber(LoggingKey.DriveTrainAngle, this.angle);
+        this.logger.logPose(LoggingKey.DriveTrainPose, this.xPosition, this.yPosition, this.angle);
     }
 
     @Override
@@ -682,13 +678,12 @@ public class SDSDriveTrainMechanism implements IDriveTrainMechanism
                 xVelocityGoal += this.pathXOffsetPID.calculatePosition(xGoal, this.xPosition);
                 yVelocityGoal += this.pathYOffsetPID.calculatePosition(yGoal, this.yPosition);
 
-                this.logger.logNumber(LoggingKey.DriveTrainXPositionGoal, xGoal);
-                this.logger.logNumber(LoggingKey.DriveTrainYPositionGoal, yGoal);
-                this.logger.logNumber(LoggingKey.DriveTrainAngleGoal, angleGoal);
+                this.logger.logPose(LoggingKey.DriveTrainPoseGoal, xGoal, yGoal, angleGoal);
 
-                this.logger.logNumber(LoggingKey.DriveTrainXVelocityGoal, xVelocityGoal);
-                this.logger.logNumber(LoggingKey.DriveTrainYVelocityGoal, yVelocityGoal);
-                this.logger.logNumber(LoggingKey.DriveTrainAngleVelocityGoal, angleVelocityGoal);
+                this.velocityGoal[0] = xVelocityGoal;
+                this.velocityGoal[1] = yVelocityGoal;
+                this.velocityGoal[2] = angleVelocityGoal;
+                this.logger.logNumberArray(LoggingKey.DriveTrainVelocityGoal, this.velocityGoal);
 
                 // convert velocity to be robot-oriented
                 centerVelocityLeft = Helpers.cosd(this.robotYaw) * yVelocityGoal - Helpers.sind(this.robotYaw) * xVelocityGoal;
@@ -0,0 +1,211 @@
+package frc.lib.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.logs.BinaryLogConverter;
+import frc.lib.logs.BinaryLogReader;
+import frc.lib.robotprovider.BinaryLogger;
+import frc.lib.robotprovider.CSVRow;
+import frc.lib.robotprovider.ColumnarCSVLogger;
+import frc.lib.robotprovider.ILogger;
+import frc.lib.robotprovider.LoggingType;
+import frc.robot.LoggingKey;
+import frc.robot.TestFileWriter;
+
+public class BinaryLoggerTests
+{
+    private static final String[] StringValues = new String[] { "", "abc", "abc", "with,comma", "with \"quotes\"", "multi\r\nline", "null", "\u00e9t\u00e9" };
+
+    @Test
+    public void testConvertMatchesCSV() throws IOException
+    {
+        TestFileWriter csvWriter = new TestFileWriter();
+        TestFileWriter binaryWriter = new TestFileWriter();
+        ColumnarCSVLogger csvLogger = new ColumnarCSVLogger(csvWriter);
+        BinaryLogger binaryLogger = new BinaryLogger(binaryWriter);
+        ILogger[] loggers = new ILogger[] { csvLogger, binaryLogger };
+
+        Random random = new Random(4321);
+        LoggingKey[] keys = LoggingKey.values();
+        for (int update = 0; update < 300; update++)
+        {
+            for (LoggingKey key : keys)
+            {
+                int valueType = random.nextInt(13);
+                double doubleValue = random.nextInt(3) == 0 ? update * 0.02 : random.nextGaussian() * 1000.0;
+                int intValue = random.nextInt(3) == 0 ? update : random.nextInt() >> random.nextInt(32);
+                String stringValue = BinaryLoggerTests.StringValues[random.nextInt(BinaryLoggerTests.StringValues.length)];
+                boolean[] arrayValue = new boolean[random.nextInt(10)];
+                double[] doubleArrayValue = new double[random.nextInt(5)];
+                for (int i = 0; i < arrayValue.length; i++)
+                {
+                    arrayValue[i] = random.nextBoolean();
+                }
+
+                for (int i = 0; i < doubleArrayValue.length; i++)
+                {
+                    doubleArrayValue[i] = random.nextInt(2) == 0 ? update * 0.5 : random.nextGaussian();
+                }
+
+                for (ILogger logger : loggers)
+                {
+                    switch (valueType)
+                    {
+                        case 0:
+                            break;
+
+                        case 1:
+                            logger.logBoolean(key, intValue % 2 == 0);
+                            break;
+
+                        case 2:
+                            logger.logBooleanArray(key, arrayValue);
+                            break;
+
+                        case 3:
+                            logger.logNumber(key, doubleValue);
+                            break;
+
+                        case 4:
+                            logger.logNumber(key, intValue % 3 == 0 ? null : (Double)doubleValue);
+                            break;
+
+                        case 5:
+                            logger.logInteger(key, intValue);
+                            break;
+
+                        case 6:
+                            logger.logInteger(key, intValue % 3 == 0 ? null : (Integer)intValue);
+                            break;
+
+                        case 7:
+                            logger.logInteger(key, intValue, "%1$04d");
+                            break;
+
+                        case 8:
+                            logger.logInteger(key, intValue, "\"%d\"");
+                            break;
+
+                        case 9:
+                            logger.logString(key, null);
+                            break;
+
+                        case 10:
+                            logger.logNumberArray(key, doubleArrayValue);
+                            break;
+
+                        case 11:
+                            logger.logPose(key, doubleValue, update * 0.02, intValue % 360);
+                            break;
+
+                        default:
+                            logger.logString(key, stringValue);
+                            break;
+                    }
+                }
+            }
+
+            csvLogger.update();
+            binaryLogger.update();
+        }
+
+        csvLogger.close();
+        binaryLogger.close();
+
+        StringWriter converted = new StringWriter();
+        long rowCount = BinaryLogConverter.convert(new ByteArrayInputStream(binaryWriter.toByteArray()), converted);
+
+        Assertions.assertEquals(300L, rowCount);
+        Assertions.assertEquals(csvWriter.toString(), converted.toString());
+    }
+
+    @Test
+    public void testHeaderAndSize() throws IOException
+    {
+        TestFileWriter csvWriter = new TestFileWriter();
+        TestFileWriter binaryWriter = new TestFileWriter();
+        ColumnarCSVLogger csvLogger = new ColumnarCSVLogger(csvWriter);
+        BinaryLogger binaryLogger = new BinaryLogger(binaryWriter);
+
+        // a typical loop: a time that steadily increases, a few slowly-changing numbers, and a state that rarely changes
+        LoggingKey[] keys = LoggingKey.values();
+        for (int update = 0; update < 500; update++)
+        {
+            for (LoggingKey key : keys)
+            {
+                if (key.type == LoggingType.Number)
+                {
+                    double value = key == LoggingKey.RobotTime ? update * 0.02 : Math.sin(update / 100.0) * 100.0;
+                    csvLogger.logNumber(key, value);
+                    binaryLogger.logNumber(key, value);
+                }
+                else if (key.type == LoggingType.String)
+                {
+                    csvLogger.logString(key, update < 250 ? "Autonomous" : "Teleop");
+                    binaryLogger.logString(key, update < 250 ? "Autonomous" : "Teleop");
+                }
+            }
+
+            csvLogger.update();
+            binaryLogger.update();
+        }
+
+        byte[] binary = binaryWriter.toByteArray();
+        Assertions.assertTrue(
+            binary.length * 2 < csvWriter.toString().length(),
+            String.format("expect binary log (%d bytes) to be much smaller than CSV (%d chars)", binary.length, csvWriter.toString().length()));
+
+        try (BinaryLogReader reader = new BinaryLogReader(new ByteArrayInputStream(binary)))
+        {
+            int column = reader.getColumnNames().indexOf(LoggingKey.RobotTime.value);
+            Assertions.assertTrue(column >= 0);
+            Assertions.assertEquals(LoggingType.Number, reader.getColumnTypes().get(column));
+
+            CSVRow row = new CSVRow(reader.getColumnNames().size());
+            int rowCount = 0;
+            while (reader.next(row))
+            {
+                rowCount++;
+            }
+
+            Assertions.assertEquals(500, rowCount);
+        }
+    }
+
+    @Test
+    public void testTruncatedLog() throws IOException
+    {
+        TestFileWriter binaryWriter = new TestFileWriter();
+        BinaryLogger binaryLogger = new BinaryLogger(binaryWriter);
+        for (int update = 0; update < 10; update++)
+        {
+            binaryLogger.logNumber(LoggingKey.RobotTime, update * 0.02);
+            binaryLogger.logString(LoggingKey.RobotState, "Teleop");
+            binaryLogger.update();
+        }
+
+        // lose power part-way through writing the last record
+        byte[] binary = binaryWriter.toByteArray();
+        byte[] truncated = Arrays.copyOf(binary, binary.length - 2);
+        try (BinaryLogReader reader = new BinaryLogReader(new ByteArrayInputStream(truncated)))
+        {
+            CSVRow row = new CSVRow(reader.getColumnNames().size());
+            int rowCount = 0;
+            while (reader.next(row))
+            {
+                rowCount++;
+            }
+
+            Assertions.assertEquals(9, rowCount, "expect the partial record to be skipped");
+        }
+
+        Assertions.assertThrows(IOException.class, () -> new BinaryLogReader(new ByteArrayInputStream(new byte[] { 'r', '/', 't' })));
+    }
+}
@@ -0,0 +1,39 @@
+package frc.lib.common;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.robotprovider.CSVLogger;
+import frc.robot.LoggingKey;
+import frc.robot.TestFileWriter;
+
+public class CSVLoggerTests
+{
+    @Test
+    public void testQuoting() throws IOException
+    {
+        TestFileWriter writer = new TestFileWriter();
+        CSVLogger logger = new CSVLogger(
+            writer,
+            LoggingKey.RobotCrash.value,
+            LoggingKey.DriveTrainSteerAngles.value,
+            LoggingKey.DriveTrainPose.value,
+            LoggingKey.DriveTrainDrivePositions.value,
+            LoggingKey.DriveTrainDriveErrors.value);
+
+        // values containing commas (such as number arrays and poses) are quoted, so that each value stays in its own column
+        logger.logString(LoggingKey.RobotCrash, "one, \"two\"");
+        logger.logNumberArray(LoggingKey.DriveTrainSteerAngles, new double[] { 1.0, -2.5 });
+        logger.logPose(LoggingKey.DriveTrainPose, 1.0, 2.0, 90.0);
+        logger.logNumberArray(LoggingKey.DriveTrainDrivePositions, new double[] { 1.0 });
+        logger.logNumberArray(LoggingKey.DriveTrainDriveErrors, null);
+        logger.update();
+
+        Assertions.assertEquals(
+            "r/crash,dt/steer_ang,dt/pose,dt/drive_pos,dt/drive_err\r\n" +
+                "\"one, \"\"two\"\"\",\"1.0,-2.5\",\"1.0,2.0,90.0\",1.0,\r\n",
+            writer.toString());
+    }
+}
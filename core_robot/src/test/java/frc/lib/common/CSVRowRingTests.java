@@ -0,0 +1,132 @@
+package frc.lib.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.robotprovider.CSVRow;
+import frc.lib.robotprovider.CSVRowRing;
+import frc.lib.robotprovider.LogQueuePolicy;
+
+public class CSVRowRingTests
+{
+    @Test
+    public void testPublishAndPoll()
+    {
+        CSVRowRing ring = new CSVRowRing(4, 1, LogQueuePolicy.Block);
+        CSVRow producerRow = new CSVRow(1);
+        CSVRow consumerRow = new CSVRow(1);
+
+        Assertions.assertNull(ring.poll(consumerRow));
+
+        for (int i = 0; i < 3; i++)
+        {
+            producerRow.setInteger(0, i);
+            CSVRow nextRow = ring.publish(producerRow);
+            Assertions.assertNotSame(producerRow, nextRow, "expect rows to be exchanged, not copied");
+            Assertions.assertFalse(nextRow.isPresent(0), "expect an empty row back");
+            producerRow = nextRow;
+        }
+
+        Assertions.assertEquals(3, ring.getHighWaterMark());
+
+        for (int i = 0; i < 3; i++)
+        {
+            CSVRow row = ring.poll(consumerRow);
+            Assertions.assertNotNull(row);
+            Assertions.assertEquals(Integer.toString(i) + "\r\n", CSVRowRingTests.format(row));
+            row.clear();
+            consumerRow = row;
+        }
+
+        Assertions.assertNull(ring.poll(consumerRow));
+        Assertions.assertEquals(0L, ring.getDroppedRows());
+        Assertions.assertEquals(3L, ring.getHead());
+        Assertions.assertEquals(3L, ring.getTail());
+    }
+
+    @Test
+    public void testDropOldest()
+    {
+        CSVRowRing ring = new CSVRowRing(4, 1, LogQueuePolicy.DropOldest);
+        CSVRow producerRow = new CSVRow(1);
+        for (int i = 0; i < 10; i++)
+        {
+            producerRow.setInteger(0, i);
+            producerRow = ring.publish(producerRow);
+            Assertions.assertFalse(producerRow.isPresent(0), "expect an empty row back, even when dropping");
+        }
+
+        Assertions.assertEquals(6L, ring.getDroppedRows());
+        Assertions.assertEquals(4, ring.getHighWaterMark());
+
+        // the newest rows are kept
+        CSVRow consumerRow = new CSVRow(1);
+        for (int i = 6; i < 10; i++)
+        {
+            CSVRow row = ring.poll(consumerRow);
+            Assertions.assertEquals(Integer.toString(i) + "\r\n", CSVRowRingTests.format(row));
+            row.clear();
+            consumerRow = row;
+        }
+
+        Assertions.assertNull(ring.poll(consumerRow));
+    }
+
+    @Test
+    public void testConcurrentBlock() throws InterruptedException
+    {
+        int rowCount = 20000;
+        CSVRowRing ring = new CSVRowRing(8, 1, LogQueuePolicy.Block);
+        long[] received = new long[1];
+        boolean[] inOrder = new boolean[] { true };
+
+        Thread consumer = new Thread(() ->
+        {
+            CSVRow consumerRow = new CSVRow(1);
+            StringBuilder builder = new StringBuilder();
+            while (received[0] < rowCount)
+            {
+                CSVRow row = ring.poll(consumerRow);
+                if (row == null)
+                {
+                    Thread.onSpinWait();
+                    continue;
+                }
+
+                builder.setLength(0);
+                row.appendTo(builder);
+                if (!builder.toString().equals(Long.toString(received[0]) + "\r\n"))
+                {
+                    inOrder[0] = false;
+                }
+
+                received[0]++;
+                row.clear();
+                consumerRow = row;
+            }
+        });
+
+        consumer.start();
+
+        CSVRow producerRow = new CSVRow(1);
+        for (int i = 0; i < rowCount; i++)
+        {
+            producerRow.setInteger(0, i);
+            producerRow = ring.publish(producerRow);
+        }
+
+        consumer.join(10000);
+        Assertions.assertFalse(consumer.isAlive());
+        Assertions.assertEquals(rowCount, received[0]);
+        Assertions.assertTrue(inOrder[0], "expect rows to be received in order");
+        Assertions.assertEquals(0L, ring.getDroppedRows());
+        Assertions.assertTrue(ring.getHighWaterMark() <= 8);
+    }
+
+    private static String format(CSVRow row)
+    {
+        StringBuilder builder = new StringBuilder();
+        row.appendTo(builder);
+        return builder.toString();
+    }
+}
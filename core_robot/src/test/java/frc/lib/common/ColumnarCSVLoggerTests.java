@@ -0,0 +1,368 @@
+package frc.lib.common;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.robotprovider.CSVLogger;
+import frc.lib.robotprovider.ColumnarCSVLogger;
+import frc.lib.robotprovider.ILogger;
+import frc.lib.robotprovider.LogQueuePolicy;
+import frc.lib.robotprovider.LoggingType;
+import frc.robot.LoggingKey;
+import frc.robot.TestFileWriter;
+
+public class ColumnarCSVLoggerTests
+{
+    private static final String[] StringValues = new String[] { "", "abc", "with,comma", "with \"quotes\"", "multi\r\nline", "null" };
+
+    @Test
+    public void testMatchesCSVLogger() throws IOException
+    {
+        TestFileWriter expectedWriter = new TestFileWriter();
+        TestFileWriter actualWriter = new TestFileWriter();
+
+        // LoggingKey.value doesn't contain anything that needs quoting, so the CSVLogger header is the plain schema
+        CSVLogger expectedLogger = new CSVLogger(expectedWriter);
+        ColumnarCSVLogger actualLogger = new ColumnarCSVLogger(actualWriter);
+
+        Assertions.assertEquals(expectedWriter.toString(), actualWriter.toString(), "expect headers to match");
+
+        Random random = new Random(1234);
+        LoggingKey[] keys = LoggingKey.values();
+        for (int update = 0; update < 200; update++)
+        {
+            for (LoggingKey key : keys)
+            {
+                if (random.nextInt(4) == 0)
+                {
+                    // skip some keys to leave their columns empty
+                    continue;
+                }
+
+                int valueType = random.nextInt(11);
+                if (valueType == 0)
+                {
+                    boolean value = random.nextBoolean();
+                    expectedLogger.logBoolean(key, value);
+                    actualLogger.logBoolean(key, value);
+                }
+                else if (valueType == 1)
+                {
+                    boolean[] value = random.nextInt(5) == 0 ? null : new boolean[random.nextInt(4)];
+                    if (value != null)
+                    {
+                        for (int i = 0; i < value.length; i++)
+                        {
+                            value[i] = random.nextBoolean();
+                        }
+                    }
+
+                    expectedLogger.logBooleanArray(key, value);
+                    actualLogger.logBooleanArray(key, value);
+                }
+                else if (valueType == 2)
+                {
+                    double value = ColumnarCSVLoggerTests.nextDouble(random);
+                    expectedLogger.logNumber(key, value);
+                    actualLogger.logNumber(key, value);
+                }
+                else if (valueType == 3)
+                {
+                    Double value = random.nextInt(3) == 0 ? null : ColumnarCSVLoggerTests.nextDouble(random);
+                    ColumnarCSVLoggerTests.logNullableNumber(expectedLogger, key, value);
+                    ColumnarCSVLoggerTests.logNullableNumber(actualLogger, key, value);
+                }
+                else if (valueType == 4)
+                {
+                    int value = random.nextInt();
+                    expectedLogger.logInteger(key, value);
+                    actualLogger.logInteger(key, value);
+                }
+                else if (valueType == 5)
+                {
+                    Integer value = random.nextInt(3) == 0 ? null : random.nextInt(1000);
+                    ColumnarCSVLoggerTests.logNullableInteger(expectedLogger, key, value);
+                    ColumnarCSVLoggerTests.logNullableInteger(actualLogger, key, value);
+                }
+                else if (valueType == 6)
+                {
+                    int value = random.nextInt(1000);
+                    expectedLogger.logInteger(key, value, "%1$04d");
+                    actualLogger.logInteger(key, value, "%1$04d");
+                }
+                else if (valueType == 7)
+                {
+                    int value = random.nextInt(1000);
+                    expectedLogger.logInteger(key, value, "\"%d\"");
+                    actualLogger.logInteger(key, value, "\"%d\"");
+                }
+                else if (valueType == 8)
+                {
+                    double[] value = random.nextInt(5) == 0 ? null : new double[random.nextInt(4)];
+                    if (value != null)
+                    {
+                        for (int i = 0; i < value.length; i++)
+                        {
+                            value[i] = ColumnarCSVLoggerTests.nextDouble(random);
+                        }
+                    }
+
+                    expectedLogger.logNumberArray(key, value);
+                    actualLogger.logNumberArray(key, value);
+                }
+                else if (valueType == 9)
+                {
+                    double x = ColumnarCSVLoggerTests.nextDouble(random);
+                    double y = ColumnarCSVLoggerTests.nextDouble(random);
+                    double angle = ColumnarCSVLoggerTests.nextDouble(random);
+                    expectedLogger.logPose(key, x, y, angle);
+                    actualLogger.logPose(key, x, y, angle);
+                }
+                else
+                {
+                    String value = ColumnarCSVLoggerTests.StringValues[random.nextInt(ColumnarCSVLoggerTests.StringValues.length)];
+                    expectedLogger.logString(key, value);
+                    actualLogger.logString(key, value);
+                }
+            }
+
+            expectedLogger.update();
+            actualLogger.update();
+        }
+
+        expectedLogger.flush();
+        actualLogger.flush();
+
+        Assertions.assertEquals(expectedWriter.toString(), actualWriter.toString());
+    }
+
+    @Test
+    public void testOverwriteWithinUpdate() throws IOException
+    {
+        TestFileWriter writer = new TestFileWriter();
+        ColumnarCSVLogger logger = new ColumnarCSVLogger(writer);
+
+        LoggingKey key = ColumnarCSVLoggerTests.findCsvKey();
+        logger.logNumber(key, 1.0);
+        logger.logString(key, "second");
+        logger.update();
+
+        logger.update();
+
+        String[] lines = writer.toString().split("\r\n", -1);
+        Assertions.assertEquals(4, lines.length);
+        Assertions.assertTrue(lines[1].contains("second"), "expect the last value logged during an update to be written");
+        Assertions.assertFalse(lines[2].contains("second"), "expect values to be cleared after each update");
+    }
+
+    @Test
+    public void testAsyncMatchesSync() throws IOException
+    {
+        TestFileWriter expectedWriter = new TestFileWriter();
+        TestFileWriter actualWriter = new TestFileWriter();
+        ColumnarCSVLogger expectedLogger = new ColumnarCSVLogger(expectedWriter);
+        ColumnarCSVLogger actualLogger = new ColumnarCSVLogger(actualWriter, 4, LogQueuePolicy.Block, 25);
+
+        Random random = new Random(5678);
+        LoggingKey[] keys = LoggingKey.values();
+        for (int update = 0; update < 500; update++)
+        {
+            for (LoggingKey key : keys)
+            {
+                double value = random.nextDouble();
+                expectedLogger.logNumber(key, value);
+                actualLogger.logNumber(key, value);
+            }
+
+            expectedLogger.update();
+            actualLogger.update();
+        }
+
+        actualLogger.flush();
+        Assertions.assertEquals(0L, actualLogger.getDroppedRows());
+        Assertions.assertTrue(actualLogger.getQueueHighWaterMark() <= 4);
+
+        // the async logger also logs its queue statistics, so ignore those columns
+        String[] expectedLines = expectedWriter.toString().split("\r\n", -1);
+        String[] actualLines = actualWriter.toString().split("\r\n", -1);
+        Assertions.assertEquals(expectedLines.length, actualLines.length);
+        Assertions.assertEquals(expectedLines[0], actualLines[0]);
+
+        ArrayList<Integer> statColumns = new ArrayList<Integer>();
+        String[] header = expectedLines[0].split(",", -1);
+        for (int i = 0; i < header.length; i++)
+        {
+            if (header[i].equals(LoggingKey.LogDroppedRows.value) || header[i].equals(LoggingKey.LogQueueHighWater.value))
+            {
+                statColumns.add(i);
+            }
+        }
+
+        for (int i = 1; i < expectedLines.length; i++)
+        {
+            String[] expectedValues = expectedLines[i].split(",", -1);
+            String[] actualValues = actualLines[i].split(",", -1);
+            for (int column : statColumns)
+            {
+                if (column < expectedValues.length && column < actualValues.length)
+                {
+                    expectedValues[column] = "";
+                    actualValues[column] = "";
+                }
+            }
+
+            Assertions.assertArrayEquals(expectedValues, actualValues, "line " + i);
+        }
+
+        actualLogger.close();
+    }
+
+    @Test
+    public void testAsyncDropOldestAndDrain() throws IOException
+    {
+        // only block appends after the header, which the constructor writes and flushes synchronously
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TestFileWriter blockingWriter = new TestFileWriter()
+        {
+            private boolean wroteHeader = false;
+
+            @Override
+            public void append(String string) throws IOException
+            {
+                if (this.wroteHeader)
+                {
+                    try
+                    {
+                        entered.countDown();
+                        release.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                    }
+                }
+
+                super.append(string);
+            }
+
+            @Override
+            public void flush()
+            {
+                this.wroteHeader = true;
+            }
+        };
+
+        ColumnarCSVLogger asyncLogger = new ColumnarCSVLogger(blockingWriter, 4, LogQueuePolicy.DropOldest, 25);
+        LoggingKey key = ColumnarCSVLoggerTests.findCsvKey();
+
+        // get the writer thread stuck writing the first row
+        asyncLogger.logString(key, "row0");
+        asyncLogger.update();
+        try
+        {
+            Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        }
+        catch (InterruptedException e)
+        {
+            Assertions.fail(e);
+        }
+
+        for (int update = 1; update < 20; update++)
+        {
+            asyncLogger.logString(key, "row" + update);
+            asyncLogger.update();
+        }
+
+        Assertions.assertEquals(15L, asyncLogger.getDroppedRows(), "expect only the newest 4 rows to be kept");
+        Assertions.assertEquals(4, asyncLogger.getQueueHighWaterMark());
+
+        release.countDown();
+        asyncLogger.flush();
+
+        String[] lines = blockingWriter.toString().split("\r\n", -1);
+        Assertions.assertEquals(7, lines.length, "expect the header, the first row and the newest 4 rows");
+        Assertions.assertTrue(lines[1].contains("row0"));
+        Assertions.assertTrue(lines[2].contains("row16"));
+        Assertions.assertTrue(lines[5].contains("row19"));
+
+        asyncLogger.close();
+    }
+
+    @Test
+    public void testIgnoredAfterClose() throws IOException
+    {
+        for (int queueCapacity : new int[] { 0, 4 })
+        {
+            TestFileWriter writer = new TestFileWriter();
+            ColumnarCSVLogger logger = new ColumnarCSVLogger(writer, queueCapacity, LogQueuePolicy.Block, 25);
+            LoggingKey key = ColumnarCSVLoggerTests.findCsvKey();
+
+            logger.logString(key, "before");
+            logger.update();
+            logger.close();
+            Assertions.assertTrue(writer.isClosed(), "expect the file to be closed once the writer thread has finished");
+
+            String written = writer.toString();
+            Assertions.assertTrue(written.contains("before"));
+
+            // nothing is written to (or flushed to) the closed file, and closing again does nothing
+            logger.logString(key, "after");
+            logger.update();
+            logger.flush();
+            logger.close();
+            Assertions.assertEquals(written, writer.toString());
+            Assertions.assertEquals(1, writer.getCloseCount());
+        }
+    }
+
+    private static LoggingKey findCsvKey()
+    {
+        for (LoggingKey key : LoggingKey.values())
+        {
+            if (key.shouldLogToCsv && key.type == LoggingType.String)
+            {
+                return key;
+            }
+        }
+
+        Assertions.fail("expect at least one String key to be logged to CSV");
+        return null;
+    }
+
+    private static double nextDouble(Random random)
+    {
+        switch (random.nextInt(5))
+        {
+            case 0:
+                return 0.0;
+
+            case 1:
+                return random.nextInt(100);
+
+            case 2:
+                return -random.nextDouble() * 1e-5;
+
+            case 3:
+                return random.nextDouble() * 1e9;
+
+            default:
+                return random.nextGaussian();
+        }
+    }
+
+    private static void logNullableNumber(ILogger logger, LoggingKey key, Double value)
+    {
+        logger.logNumber(key, value);
+    }
+
+    private static void logNullableInteger(ILogger logger, LoggingKey key, Integer value)
+    {
+        logger.logInteger(key, value);
+    }
+}
@@ -0,0 +1,115 @@
+package frc.lib.common;
+
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import frc.lib.ControlLoopWarmup;
+import frc.lib.driver.IDriver;
+import frc.lib.helpers.FieldSnapshot;
+import frc.lib.mechanisms.MechanismManager;
+import frc.lib.robotprovider.ISmartDashboardLogger;
+import frc.lib.robotprovider.ReplayRobotProvider;
+import frc.lib.robotprovider.RobotMode;
+import frc.robot.ReplayModule;
+
+public class ControlLoopWarmupTests
+{
+    @Test
+    public void testWarmupLeavesRobotUnchanged() throws IOException
+    {
+        ReplayRobotProvider replay = new ReplayRobotProvider(new ByteArrayInputStream(new byte[] { 'F', 'R', 'C', 'R', 1 }));
+        Injector injector = Guice.createInjector(new ReplayModule(replay, mock(ISmartDashboardLogger.class)));
+        IDriver driver = injector.getInstance(IDriver.class);
+        MechanismManager mechanisms = injector.getInstance(MechanismManager.class);
+
+        List<Object> checkedObjects = new ArrayList<Object>();
+        checkedObjects.add(driver);
+        checkedObjects.add(mechanisms);
+        checkedObjects.addAll(mechanisms.mechanismList);
+        FieldSnapshot before = FieldSnapshot.capture(checkedObjects.toArray());
+
+        // (a change to the real driver or mechanisms would fail the check, as THROW_EXCEPTIONS is set)
+        ControlLoopWarmup warmup = new ControlLoopWarmup(1200, 100, checkedObjects.toArray());
+        warmup.checkUnchanged();
+        int steps = 0;
+        while (!warmup.runStep())
+        {
+            warmup.checkUnchanged();
+            steps++;
+            Assertions.assertTrue(steps < 100, "expect the warm-up to complete");
+        }
+
+        Assertions.assertEquals(1200, warmup.getLoopCount());
+        Assertions.assertEquals(12, steps); // creating the throwaway robot, and then 12 steps of 100 loops (the last completing it)
+        Assertions.assertEquals(RobotMode.Disabled, driver.getMode());
+        Assertions.assertEquals(List.of(), before.getDifferences(FieldSnapshot.capture(checkedObjects.toArray())));
+    }
+
+    @Test
+    public void testInterruptAndAbandon() throws IOException
+    {
+        State state = new State();
+        ControlLoopWarmup warmup = new ControlLoopWarmup(1200, 100, state);
+        Assertions.assertFalse(warmup.runStep()); // creating the throwaway robot
+
+        // an interrupted step stops after the loop that it is running, and the next step carries on
+        warmup.interrupt();
+        Assertions.assertFalse(warmup.runStep());
+        Assertions.assertEquals(0, warmup.getLoopCount());
+        Assertions.assertFalse(warmup.runStep());
+        Assertions.assertEquals(100, warmup.getLoopCount());
+
+        // a change to the real robot's state abandons the warm-up
+        warmup.checkUnchanged();
+        state.name = "b";
+        Assertions.assertThrows(RuntimeException.class, () -> warmup.checkUnchanged());
+        Assertions.assertTrue(warmup.runStep());
+        Assertions.assertEquals(100, warmup.getLoopCount());
+
+        // the real robot changes its own state when it is enabled or disabled
+        warmup.resetCheck();
+        warmup.checkUnchanged();
+    }
+
+    @Test
+    public void testFieldSnapshotDifferences()
+    {
+        State state = new State();
+        FieldSnapshot before = FieldSnapshot.capture(state);
+        Assertions.assertEquals(List.of(), before.getDifferences(FieldSnapshot.capture(state)));
+
+        state.values[1] = 2.5;
+        State.count++;
+        List<String> differences = before.getDifferences(FieldSnapshot.capture(state));
+        Assertions.assertEquals(2, differences.size(), differences.toString());
+        Assertions.assertTrue(differences.contains("#0 State.values: [0.0, 0.0] -> [0.0, 2.5]"), differences.toString());
+        Assertions.assertTrue(differences.contains("State.count: 0 -> 1"), differences.toString());
+
+        // other objects are only compared by identity (and size, for collections)
+        before = FieldSnapshot.capture(state);
+        state.list.set(0, "b");
+        Assertions.assertEquals(List.of(), before.getDifferences(FieldSnapshot.capture(state)));
+        state.name = "b";
+        state.list = new ArrayList<String>(state.list);
+        Assertions.assertEquals(2, before.getDifferences(FieldSnapshot.capture(state)).size());
+    }
+
+    private static class State
+    {
+        static int count = 0;
+
+        final double[] values = new double[2];
+        String name = "a";
+        List<String> list = new ArrayList<String>(List.of("a"));
+    }
+}
@@ -0,0 +1,144 @@
+package frc.lib.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.robotprovider.DashboardValueCache;
+import frc.robot.LoggingKey;
+
+public class DashboardValueCacheTests
+{
+    @Test
+    public void testUnchangedValuesSuppressed()
+    {
+        DashboardValueCache cache = new DashboardValueCache(0);
+        LoggingKey key = LoggingKey.RobotTime;
+
+        Assertions.assertTrue(cache.shouldPublishNumber(key, 1.5));
+        cache.update();
+        Assertions.assertFalse(cache.shouldPublishNumber(key, 1.5));
+        Assertions.assertTrue(cache.shouldPublishNumber(key, 2.5));
+        Assertions.assertTrue(cache.shouldPublishNumber(key, Double.NaN));
+        Assertions.assertFalse(cache.shouldPublishNumber(key, Double.NaN));
+
+        // changing the kind of value published for a key is a change
+        Assertions.assertTrue(cache.shouldPublishString(key, "N/A"));
+        Assertions.assertFalse(cache.shouldPublishString(key, "N/A"));
+        Assertions.assertTrue(cache.shouldPublishString(key, null));
+        Assertions.assertFalse(cache.shouldPublishString(key, null));
+        Assertions.assertTrue(cache.shouldPublishInteger(key, 0));
+        Assertions.assertTrue(cache.shouldPublishBoolean(key, false));
+        Assertions.assertFalse(cache.shouldPublishBoolean(key, false));
+        Assertions.assertTrue(cache.shouldPublishBoolean(key, true));
+
+        // other keys are independent
+        Assertions.assertTrue(cache.shouldPublishBoolean(LoggingKey.RobotState, true));
+
+        for (int i = 0; i < 1000; i++)
+        {
+            cache.update();
+            Assertions.assertFalse(cache.shouldPublishBoolean(key, true));
+        }
+
+        cache.invalidate();
+        Assertions.assertTrue(cache.shouldPublishBoolean(key, true));
+    }
+
+    @Test
+    public void testBooleanArrays()
+    {
+        DashboardValueCache cache = new DashboardValueCache(0);
+        LoggingKey key = LoggingKey.RobotTime;
+
+        boolean[] value = new boolean[] { true, false };
+        Assertions.assertTrue(cache.shouldPublishBooleanArray(key, value));
+        Assertions.assertFalse(cache.shouldPublishBooleanArray(key, new boolean[] { true, false }));
+
+        // the cache keeps a copy, so changes to the caller's array are noticed
+        value[1] = true;
+        Assertions.assertTrue(cache.shouldPublishBooleanArray(key, value));
+        Assertions.assertFalse(cache.shouldPublishBooleanArray(key, value));
+
+        Assertions.assertTrue(cache.shouldPublishBooleanArray(key, new boolean[] { true }));
+        Assertions.assertTrue(cache.shouldPublishBooleanArray(key, new boolean[0]));
+        Assertions.assertFalse(cache.shouldPublishBooleanArray(key, new boolean[0]));
+        Assertions.assertTrue(cache.shouldPublishBooleanArray(key, null));
+        Assertions.assertFalse(cache.shouldPublishBooleanArray(key, null));
+        Assertions.assertTrue(cache.shouldPublishBooleanArray(key, new boolean[] { true, true }));
+    }
+
+    @Test
+    public void testNumberArraysAndPoses()
+    {
+        DashboardValueCache cache = new DashboardValueCache(0);
+        LoggingKey key = LoggingKey.DriveTrainPose;
+
+        double[] value = new double[] { 1.0, 2.0, 3.0 };
+        Assertions.assertTrue(cache.shouldPublishNumberArray(key, value));
+        Assertions.assertFalse(cache.shouldPublishNumberArray(key, new double[] { 1.0, 2.0, 3.0 }));
+        value[2] = 4.0;
+        Assertions.assertTrue(cache.shouldPublishNumberArray(key, value));
+        Assertions.assertTrue(cache.shouldPublishNumberArray(key, new double[] { 1.0, 2.0 }));
+
+        // a pose is a different kind of value than an array with the same numbers
+        Assertions.assertTrue(cache.shouldPublishPose(key, 1.0, 2.0, 0.0));
+        Assertions.assertFalse(cache.shouldPublishPose(key, 1.0, 2.0, 0.0));
+        Assertions.assertTrue(cache.shouldPublishPose(key, 1.0, 2.0, -0.0));
+        Assertions.assertTrue(cache.shouldPublishNumberArray(key, new double[] { 1.0, 2.0, -0.0 }));
+        Assertions.assertFalse(cache.shouldPublishNumberArray(key, new double[] { 1.0, 2.0, -0.0 }));
+    }
+
+    @Test
+    public void testHeartbeat()
+    {
+        DashboardValueCache cache = new DashboardValueCache(5);
+        LoggingKey key = LoggingKey.RobotTime;
+
+        int published = 0;
+        for (int i = 0; i < 50; i++)
+        {
+            if (cache.shouldPublishInteger(key, 7))
+            {
+                published++;
+            }
+
+            cache.update();
+        }
+
+        Assertions.assertEquals(10, published, "expect an unchanged value to be re-published every 5 updates");
+
+        // a change re-starts the heartbeat interval
+        Assertions.assertTrue(cache.shouldPublishInteger(key, 8));
+        for (int i = 0; i < 4; i++)
+        {
+            cache.update();
+            Assertions.assertFalse(cache.shouldPublishInteger(key, 8));
+        }
+
+        cache.update();
+        Assertions.assertTrue(cache.shouldPublishInteger(key, 8));
+    }
+
+    @Test
+    public void testPoseReusedForHeartbeat()
+    {
+        DashboardValueCache cache = new DashboardValueCache(2);
+        LoggingKey key = LoggingKey.DriveTrainPose;
+        Object pose = new Object();
+
+        Assertions.assertTrue(cache.shouldPublishPose(key, 1.0, 2.0, 3.0));
+        Assertions.assertNull(cache.getPose(key));
+        cache.setPose(key, pose);
+
+        // an unchanged pose re-published for a heartbeat keeps the pose object
+        cache.update();
+        Assertions.assertFalse(cache.shouldPublishPose(key, 1.0, 2.0, 3.0));
+        cache.update();
+        Assertions.assertTrue(cache.shouldPublishPose(key, 1.0, 2.0, 3.0));
+        Assertions.assertSame(pose, cache.getPose(key));
+
+        // a changed pose needs a new pose object
+        Assertions.assertTrue(cache.shouldPublishPose(key, 1.0, 2.0, 4.0));
+        Assertions.assertNull(cache.getPose(key));
+    }
+}
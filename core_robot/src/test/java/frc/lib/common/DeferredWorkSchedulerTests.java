@@ -0,0 +1,168 @@
+package frc.lib.common;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.helpers.DeferredWorkScheduler;
+import frc.lib.helpers.GraphNode;
+import frc.lib.helpers.IDeferredWork;
+
+public class DeferredWorkSchedulerTests
+{
+    private static final long BUDGET_NANOS = 20000000L; // 20ms, generous so that the tests aren't flaky
+
+    @Test
+    public void testSlicesWithinBudget()
+    {
+        DeferredWorkScheduler scheduler = new DeferredWorkScheduler(DeferredWorkSchedulerTests.BUDGET_NANOS);
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger second = new AtomicInteger();
+        scheduler.schedule("first", () -> DeferredWorkSchedulerTests.sleepStep(first, 10, 4));
+        scheduler.schedule("second", () -> DeferredWorkSchedulerTests.sleepStep(second, 10, 4));
+
+        // the first step of each piece of work is only run at the start of a slice, as it hasn't been timed yet
+        Assertions.assertEquals(1, scheduler.runSlice());
+        Assertions.assertEquals(1, first.get());
+        Assertions.assertEquals(0, second.get());
+        scheduler.runSlice();
+        Assertions.assertTrue(second.get() >= 1);
+
+        // then round-robin, as long as the next step will fit within the budget
+        int loops = 2;
+        while (!scheduler.isIdle())
+        {
+            int steps = scheduler.runSlice();
+            Assertions.assertTrue(steps >= 1 && steps <= 5, "expect a few 4ms steps within the 20ms budget, not " + steps);
+            loops++;
+            Assertions.assertTrue(loops < 20);
+        }
+
+        Assertions.assertEquals(10, first.get());
+        Assertions.assertEquals(10, second.get());
+        Assertions.assertTrue(scheduler.getLongestSliceTime() < 30.0, "took " + scheduler.getLongestSliceTime());
+        Assertions.assertEquals(0, scheduler.runSlice());
+    }
+
+    @Test
+    public void testSlowWorkMovesToBackground() throws InterruptedException
+    {
+        DeferredWorkScheduler scheduler = new DeferredWorkScheduler(DeferredWorkSchedulerTests.BUDGET_NANOS);
+        AtomicInteger slow = new AtomicInteger();
+        scheduler.schedule("slow", () -> DeferredWorkSchedulerTests.sleepStep(slow, 3, 30));
+
+        Assertions.assertEquals(1, scheduler.runSlice());
+        Assertions.assertEquals(0, scheduler.runSlice());
+        Assertions.assertFalse(scheduler.isIdle());
+
+        // background work only runs while disabled
+        Thread.sleep(100);
+        Assertions.assertEquals(1, slow.get());
+
+        scheduler.setDisabled(true);
+        for (int i = 0; i < 100 && !scheduler.isIdle(); i++)
+        {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertTrue(scheduler.isIdle());
+        Assertions.assertEquals(3, slow.get());
+    }
+
+    @Test
+    public void testBackgroundStepInterruptedWhenEnabled() throws InterruptedException
+    {
+        DeferredWorkScheduler scheduler = new DeferredWorkScheduler(DeferredWorkSchedulerTests.BUDGET_NANOS);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        scheduler.scheduleInBackground(
+            "interruptible",
+            new IDeferredWork()
+            {
+                @Override
+                public boolean runStep()
+                {
+                    started.countDown();
+                    try
+                    {
+                        return interrupted.await(5, TimeUnit.SECONDS);
+                    }
+                    catch (InterruptedException ex)
+                    {
+                        return true;
+                    }
+                }
+
+                @Override
+                public void interrupt()
+                {
+                    interrupted.countDown();
+                }
+            });
+
+        scheduler.setDisabled(true);
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        scheduler.setDisabled(false);
+        Assertions.assertEquals(0L, interrupted.getCount(), "expect the running step to be interrupted when the robot is enabled");
+        for (int i = 0; i < 100 && !scheduler.isIdle(); i++)
+        {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertTrue(scheduler.isIdle());
+    }
+
+    @Test
+    public void testFailingWorkIsDropped()
+    {
+        DeferredWorkScheduler scheduler = new DeferredWorkScheduler(DeferredWorkSchedulerTests.BUDGET_NANOS);
+        scheduler.schedule(
+            "failing",
+            () ->
+            {
+                throw new IllegalStateException("expected");
+            });
+
+        Assertions.assertEquals(1, scheduler.runSlice());
+        Assertions.assertTrue(scheduler.isIdle());
+    }
+
+    @Test
+    public void testGraphPrecalculation()
+    {
+        GraphTests.TestGraph graph = new GraphTests.TestGraph();
+        GraphTests.TestGraphNode portland = graph.createNode("Portland");
+        GraphTests.TestGraphNode seattle = graph.createNode("Seattle");
+        GraphTests.TestGraphNode bellevue = graph.createNode("Bellevue");
+        graph.connectBidirectional(portland, seattle, 2.0);
+        graph.connectBidirectional(seattle, bellevue, 0.5);
+
+        DeferredWorkScheduler scheduler = new DeferredWorkScheduler(DeferredWorkSchedulerTests.BUDGET_NANOS);
+        scheduler.schedule("graph", graph::precalculateNextOptimalPaths);
+        for (int i = 0; i < 10 && !scheduler.isIdle(); i++)
+        {
+            scheduler.runSlice();
+        }
+
+        Assertions.assertTrue(scheduler.isIdle());
+        Assertions.assertArrayEquals(new GraphNode[] { bellevue, seattle, portland }, graph.getOptimalPath(bellevue, portland).toArray());
+    }
+
+    private static boolean sleepStep(AtomicInteger count, int steps, long millis)
+    {
+        try
+        {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        return count.incrementAndGet() >= steps;
+    }
+}
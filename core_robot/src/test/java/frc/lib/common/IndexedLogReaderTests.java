@@ -0,0 +1,99 @@
+package frc.lib.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import frc.lib.logs.IndexedLogReader;
+import frc.lib.robotprovider.ColumnarCSVLogger;
+import frc.lib.robotprovider.LogIndexWriter;
+import frc.lib.robotprovider.LogQueuePolicy;
+import frc.lib.robotprovider.SegmentedFileWriter;
+import frc.robot.LoggingKey;
+import frc.robot.TestFile;
+
+public class IndexedLogReaderTests
+{
+    @TempDir
+    File directory;
+
+    @Test
+    public void testReadRangeUncompressed() throws IOException
+    {
+        this.testReadRange(false, 0);
+    }
+
+    @Test
+    public void testReadRangeCompressed() throws IOException
+    {
+        this.testReadRange(true, 0);
+    }
+
+    @Test
+    public void testReadRangeAsync() throws IOException
+    {
+        this.testReadRange(true, 50);
+    }
+
+    private void testReadRange(boolean compress, int queueCapacity) throws IOException
+    {
+        String fileName = new File(this.directory, "Q03 (R2).auto.csv").getPath();
+        TestFile file = new TestFile();
+        file.open(LogIndexWriter.getIndexFileName(fileName));
+        LogIndexWriter index = new LogIndexWriter(file.openWriter(), 10);
+        SegmentedFileWriter fileWriter = new SegmentedFileWriter(file, fileName, compress, 8 * 1024, null, 0.0, 0L, index);
+        ColumnarCSVLogger logger = new ColumnarCSVLogger(fileWriter, index, queueCapacity, LogQueuePolicy.Block, 25);
+        for (int update = 0; update < 4000; update++)
+        {
+            logger.logNumber(LoggingKey.RobotTime, update * 0.02);
+            logger.logString(LoggingKey.RobotState, update < 2000 ? "Autonomous" : "Teleop");
+            logger.logString(LoggingKey.DriverMode, Integer.toString(update));
+            logger.logString(LoggingKey.DriverActiveMacros, "Q03 \u00e9t\u00e9, \"quoted\"");
+            logger.update();
+        }
+
+        logger.close();
+        Assertions.assertTrue(fileWriter.getSegmentCount() > 2, "expect the log to be split into a few segments");
+        file.saveToDisk();
+
+        IndexedLogReader reader = new IndexedLogReader(compress ? fileName + ".gz" : fileName);
+        Assertions.assertEquals(fileWriter.getSegmentCount(), reader.getSegmentCount());
+        Assertions.assertEquals(40.0, reader.getStateStartTime("Teleop"), 1e-9);
+        Assertions.assertTrue(Double.isNaN(reader.getStateStartTime("Disabled")));
+
+        int updateColumn = reader.getColumnNames().indexOf(LoggingKey.DriverMode.value);
+        int stringColumn = reader.getColumnNames().indexOf(LoggingKey.DriverActiveMacros.value);
+        Assertions.assertTrue(updateColumn >= 0);
+        Assertions.assertTrue(stringColumn >= 0);
+
+        // read ranges that start and end throughout the log, including across segment boundaries
+        for (int start = 0; start < 4000; start += 137)
+        {
+            int end = Math.min(start + 200, 3999);
+            List<Integer> updates = new ArrayList<Integer>();
+            long rowCount =
+                reader.read(
+                    start * 0.02 - 0.001,
+                    end * 0.02 + 0.001,
+                    row ->
+                    {
+                        updates.add(Integer.parseInt(row.getField(updateColumn)));
+                        Assertions.assertEquals("Q03 \u00e9t\u00e9, \"quoted\"", row.getField(stringColumn));
+                    });
+
+            Assertions.assertEquals(end - start + 1, rowCount);
+            for (int i = 0; i < updates.size(); i++)
+            {
+                Assertions.assertEquals(start + i, updates.get(i));
+            }
+        }
+
+        Assertions.assertEquals(4000L, reader.read(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, row -> {}));
+        Assertions.assertEquals(0L, reader.read(100.0, 200.0, row -> {}));
+    }
+}
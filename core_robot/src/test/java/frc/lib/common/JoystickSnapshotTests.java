@@ -0,0 +1,84 @@
+package frc.lib.common;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import frc.lib.robotprovider.IJoystick;
+import frc.lib.robotprovider.JoystickSnapshot;
+
+public class JoystickSnapshotTests
+{
+    @Test
+    public void testCapture()
+    {
+        IJoystick joystick = mock(IJoystick.class, Mockito.CALLS_REAL_METHODS);
+        when(joystick.isConnected()).thenReturn(true);
+        when(joystick.getAxis(0)).thenReturn(0.25);
+        when(joystick.getAxis(1)).thenReturn(-0.5);
+        when(joystick.getRawButton(1)).thenReturn(true);
+        when(joystick.getRawButton(3)).thenReturn(true);
+        when(joystick.getPOV()).thenReturn(180);
+
+        JoystickSnapshot snapshot = new JoystickSnapshot(2, 3);
+        joystick.capture(snapshot);
+        Assertions.assertTrue(snapshot.isConnected());
+        Assertions.assertEquals(0.25, snapshot.getAxis(0));
+        Assertions.assertEquals(-0.5, snapshot.getAxis(1));
+        Assertions.assertEquals(0.0, snapshot.getAxis(2)); // not captured
+        Assertions.assertEquals(0b101, snapshot.getButtons());
+        Assertions.assertTrue(snapshot.getRawButton(1));
+        Assertions.assertFalse(snapshot.getRawButton(2));
+        Assertions.assertTrue(snapshot.getRawButton(3));
+        Assertions.assertFalse(snapshot.getRawButton(0));
+        Assertions.assertEquals(180, snapshot.getPOV());
+
+        // only the axes and buttons that the snapshot holds are read
+        verify(joystick, never()).getAxis(2);
+        verify(joystick, never()).getRawButton(4);
+
+        // a disconnected joystick reads as nothing pressed
+        when(joystick.isConnected()).thenReturn(false);
+        joystick.capture(snapshot);
+        Assertions.assertFalse(snapshot.isConnected());
+        Assertions.assertEquals(0.0, snapshot.getAxis(0));
+        Assertions.assertEquals(0, snapshot.getButtons());
+        Assertions.assertEquals(-1, snapshot.getPOV());
+    }
+
+    @Test
+    public void testEdges()
+    {
+        JoystickSnapshot snapshot = new JoystickSnapshot(0, 4);
+
+        snapshot.begin(true);
+        snapshot.setButtons(0b0011);
+        Assertions.assertTrue(snapshot.getRawButtonPressed(1));
+        Assertions.assertTrue(snapshot.getRawButtonPressed(2));
+        Assertions.assertFalse(snapshot.getRawButtonReleased(1));
+
+        snapshot.begin(true);
+        snapshot.setButtons(0b0110);
+        Assertions.assertFalse(snapshot.getRawButtonPressed(1));
+        Assertions.assertTrue(snapshot.getRawButtonReleased(1));
+        Assertions.assertFalse(snapshot.getRawButtonPressed(2)); // still held
+        Assertions.assertFalse(snapshot.getRawButtonReleased(2));
+        Assertions.assertTrue(snapshot.getRawButtonPressed(3));
+
+        // buttons beyond the snapshot's count are ignored
+        snapshot.begin(true);
+        snapshot.setButtons(0b10110);
+        Assertions.assertEquals(0b0110, snapshot.getButtons());
+        Assertions.assertFalse(snapshot.getRawButtonPressed(5));
+
+        // disconnecting releases everything
+        snapshot.begin(false);
+        Assertions.assertTrue(snapshot.getRawButtonReleased(2));
+        Assertions.assertTrue(snapshot.getRawButtonReleased(3));
+    }
+}
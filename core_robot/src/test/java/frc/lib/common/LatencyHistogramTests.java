@@ -0,0 +1,57 @@
+package frc.lib.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.helpers.LatencyHistogram;
+
+public class LatencyHistogramTests
+{
+    @Test
+    public void testEmpty()
+    {
+        LatencyHistogram histogram = new LatencyHistogram(10);
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0.0, histogram.getPercentile(50.0), 0.0001);
+        Assertions.assertEquals(0.0, histogram.getMax(), 0.0001);
+        Assertions.assertEquals(0.0, histogram.getLast(), 0.0001);
+    }
+
+    @Test
+    public void testPercentiles()
+    {
+        LatencyHistogram histogram = new LatencyHistogram(100);
+        for (int i = 100; i >= 1; i--)
+        {
+            histogram.update(i * 1000000L);
+        }
+
+        Assertions.assertEquals(100, histogram.getCount());
+        Assertions.assertEquals(50.0, histogram.getPercentile(50.0), 0.0001, "expect nearest-rank p50");
+        Assertions.assertEquals(95.0, histogram.getPercentile(95.0), 0.0001, "expect nearest-rank p95");
+        Assertions.assertEquals(99.0, histogram.getPercentile(99.0), 0.0001, "expect nearest-rank p99");
+        Assertions.assertEquals(100.0, histogram.getMax(), 0.0001);
+        Assertions.assertEquals(1.0, histogram.getLast(), 0.0001);
+    }
+
+    @Test
+    public void testRollingWindow()
+    {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        histogram.update(50000000L);
+        histogram.update(1000000L);
+        histogram.update(1000000L);
+        histogram.update(1000000L);
+        Assertions.assertEquals(50.0, histogram.getMax(), 0.0001);
+
+        // push the large sample out of the window
+        histogram.update(2000000L);
+        Assertions.assertEquals(4, histogram.getCount());
+        Assertions.assertEquals(2.0, histogram.getMax(), 0.0001, "expect old samples to fall out of the window");
+        Assertions.assertEquals(1.0, histogram.getPercentile(50.0), 0.0001);
+
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0.0, histogram.getMax(), 0.0001);
+    }
+}
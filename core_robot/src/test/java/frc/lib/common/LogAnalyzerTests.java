@@ -0,0 +1,118 @@
+package frc.lib.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import frc.lib.logs.LogAnalyzer;
+import frc.lib.logs.LogSummary;
+import frc.lib.robotprovider.CSVLogger;
+import frc.robot.LoggingKey;
+import frc.robot.TestFileWriter;
+import frc.robot.TuningConstants;
+
+public class LogAnalyzerTests
+{
+    private static final String[] Schema = new String[]
+    {
+        LoggingKey.RobotTime.value,
+        LoggingKey.RobotState.value,
+        LoggingKey.OffboardVisionMissedHeartbeats.value,
+        LoggingKey.PowerCurrentFloatingAverage.value,
+        LoggingKey.PowerBatteryVoltage.value,
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testAnalyzeDirectory() throws IOException
+    {
+        File eventDirectory = new File(this.directory.toFile(), "2024 - Glacier Peak");
+        eventDirectory.mkdirs();
+        LogAnalyzerTests.writeLog(new File(eventDirectory, "Q03 (R2).tele.csv"), 0, 1000, 50);
+        LogAnalyzerTests.writeLog(new File(eventDirectory, "Q12 (B1).tele.csv"), 0, 500, 0);
+
+        // the second segment of the first log, and an index, which shouldn't be analyzed as logs of their own
+        LogAnalyzerTests.writeLog(new File(eventDirectory, "Q03 (R2).tele.seg2.csv"), 1000, 1500, 0);
+        LogAnalyzerTests.writeLog(new File(eventDirectory, "Q03 (R2).tele.index.csv"), 0, 10, 0);
+
+        List<Path> logs = LogAnalyzer.findLogs(Arrays.asList(this.directory));
+        Assertions.assertEquals(2, logs.size());
+
+        List<LogSummary> summaries = LogAnalyzer.analyzeAll(logs, 4);
+        LogSummary first = summaries.get(0);
+        LogSummary second = summaries.get(1);
+        Assertions.assertEquals("Q03 (R2).tele.csv", first.getName());
+        Assertions.assertEquals(1500L, first.getRowCount());
+        Assertions.assertEquals(500L, second.getRowCount());
+
+        // every 10th loop takes twice as long
+        Assertions.assertEquals(1499L, first.getLoopPeriods().getCount());
+        Assertions.assertEquals(0.02, first.getLoopPeriodPercentile(0.5), 0.0005);
+        Assertions.assertEquals(0.04, first.getLoopPeriodPercentile(0.99), 0.0005);
+        Assertions.assertEquals(0.04, first.getLoopPeriods().getMax(), 1e-9);
+        Assertions.assertEquals(149L, first.getOverrunCount());
+
+        // the vision heartbeat is missing for 50 loops at update 200, and the current is high from update 400 through 449
+        Assertions.assertEquals(1L, first.getVisionOutages().getCount());
+        Assertions.assertEquals(1L, first.getOvercurrents().getCount());
+        Assertions.assertEquals(TuningConstants.POWER_OVERCURRENT_THRESHOLD + 40.0, first.getOvercurrents().getPeakValue(), 1e-9);
+        Assertions.assertEquals(1.0, first.getOvercurrents().getTotalDuration(), 0.2);
+        Assertions.assertEquals(0L, second.getVisionOutages().getCount());
+        Assertions.assertEquals(0L, second.getOvercurrents().getCount());
+
+        // power keys are only logged every DEFAULT_LOGGING_FREQUENCY updates
+        LogSummary.ColumnStatistics voltage = first.getColumn(LoggingKey.PowerBatteryVoltage.value);
+        Assertions.assertEquals(1500L / TuningConstants.DEFAULT_LOGGING_FREQUENCY, voltage.getCount());
+        Assertions.assertEquals(12.0, voltage.getMean(), 1e-9);
+        Assertions.assertEquals(11.5, voltage.getMin(), 1e-9);
+        Assertions.assertEquals(12.5, voltage.getMax(), 1e-9);
+        Assertions.assertEquals(0.5, voltage.getStandardDeviation(), 1e-9);
+
+        LogSummary.ColumnStatistics state = first.getColumn(LoggingKey.RobotState.value);
+        Assertions.assertEquals(1500L, state.getCount());
+        Assertions.assertEquals(0L, state.getNumericCount());
+        Assertions.assertEquals(1L, state.getChangeCount());
+
+        StringBuilder report = new StringBuilder();
+        LogAnalyzer.writeReport(first, report);
+        Assertions.assertTrue(report.toString().contains("overruns 149"), report.toString());
+
+        StringBuilder diff = new StringBuilder();
+        LogAnalyzer.writeDiff(first, second, diff);
+        Assertions.assertTrue(diff.toString().contains(LoggingKey.PowerBatteryVoltage.value), diff.toString());
+    }
+
+    private static void writeLog(File file, int start, int end, int missedHeartbeats) throws IOException
+    {
+        TestFileWriter writer = new TestFileWriter();
+        CSVLogger logger = new CSVLogger(writer, LogAnalyzerTests.Schema);
+        double time = 0.0;
+        for (int update = 0; update < start; update++)
+        {
+            time += update % 10 == 9 ? 0.04 : 0.02;
+        }
+
+        for (int update = start; update < end; update++)
+        {
+            logger.logNumber(LoggingKey.RobotTime, time);
+            logger.logString(LoggingKey.RobotState, update < 100 ? "Autonomous" : "Teleop");
+            logger.logNumber(LoggingKey.OffboardVisionMissedHeartbeats, update >= 200 && update < 200 + missedHeartbeats ? update - 150 : 0);
+            logger.logNumber(LoggingKey.PowerCurrentFloatingAverage, update >= 400 && update < 450 && missedHeartbeats > 0 ? TuningConstants.POWER_OVERCURRENT_THRESHOLD + update - 400 : 50.0);
+            logger.logNumber(LoggingKey.PowerBatteryVoltage, (update / TuningConstants.DEFAULT_LOGGING_FREQUENCY) % 2 == 0 ? 11.5 : 12.5);
+            logger.update();
+            time += update % 10 == 9 ? 0.04 : 0.02;
+        }
+
+        logger.close();
+        Files.write(file.toPath(), writer.toByteArray());
+    }
+}
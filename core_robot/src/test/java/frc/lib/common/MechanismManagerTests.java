@@ -0,0 +1,267 @@
+package frc.lib.common;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.inject.Inject;
+
+import frc.lib.mechanisms.IMechanism;
+import frc.lib.mechanisms.MechanismDependencies;
+import frc.lib.mechanisms.MechanismManager;
+import frc.lib.robotprovider.RobotMode;
+import frc.robot.mechanisms.CompressorMechanism;
+import frc.robot.mechanisms.DriverFeedbackManager;
+import frc.robot.mechanisms.OffboardVisionManager;
+import frc.robot.mechanisms.PigeonManager;
+import frc.robot.mechanisms.PowerManager;
+import frc.robot.mechanisms.RevDriveTrainMechanism;
+import frc.robot.mechanisms.SDSDriveTrainMechanism;
+
+public class MechanismManagerTests
+{
+    @Test
+    public void testSerialReadSensors()
+    {
+        FirstMechanism first = new FirstMechanism();
+        DependentMechanism dependent = new DependentMechanism(first);
+
+        List<IMechanism> mechanismList = new ArrayList<IMechanism>();
+        mechanismList.add(first);
+        mechanismList.add(dependent);
+
+        MechanismManager manager = new MechanismManager(null, mechanismList, 2, false, false);
+        Assertions.assertEquals(0, manager.getWaveCount(MechanismManager.Phase.ReadSensors));
+
+        manager.readSensors();
+        Assertions.assertTrue(first.hasRead.get());
+        Assertions.assertTrue(dependent.hasRead.get());
+        Assertions.assertTrue(dependent.readAfterDependency, "expect dependency to be read first");
+    }
+
+    @Test
+    public void testParallelReadSensors()
+    {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        FirstMechanism first = new FirstMechanism();
+        DependentMechanism dependent = new DependentMechanism(first);
+        BarrierMechanism barrier1 = new BarrierMechanism(barrier);
+        BarrierMechanism barrier2 = new BarrierMechanism(barrier);
+
+        List<IMechanism> mechanismList = new ArrayList<IMechanism>();
+        mechanismList.add(first);
+        mechanismList.add(barrier1);
+        mechanismList.add(dependent);
+        mechanismList.add(barrier2);
+
+        MechanismManager manager = new MechanismManager(null, mechanismList, 2, true, false);
+        Assertions.assertEquals(0, manager.getWaveCount(MechanismManager.Phase.Update));
+        Assertions.assertEquals(2, manager.getWaveCount(MechanismManager.Phase.ReadSensors), "expect dependent mechanism to be in its own wave");
+
+        for (int i = 0; i < 5; i++)
+        {
+            first.hasRead.set(false);
+            dependent.hasRead.set(false);
+            barrier1.hasRead.set(false);
+            barrier2.hasRead.set(false);
+
+            manager.readSensors();
+
+            Assertions.assertTrue(first.hasRead.get());
+            Assertions.assertTrue(dependent.hasRead.get());
+            Assertions.assertTrue(dependent.readAfterDependency, "expect dependency to be read first");
+            Assertions.assertTrue(barrier1.hasRead.get(), "expect independent mechanisms to be read concurrently");
+            Assertions.assertTrue(barrier2.hasRead.get(), "expect independent mechanisms to be read concurrently");
+        }
+    }
+
+    @Test
+    public void testParallelUpdate()
+    {
+        FirstMechanism first = new FirstMechanism();
+        DependentMechanism dependent = new DependentMechanism(first);
+        UpdateCountingMechanism counting1 = new UpdateCountingMechanism();
+        UpdateCountingMechanism counting2 = new UpdateCountingMechanism();
+
+        List<IMechanism> mechanismList = new ArrayList<IMechanism>();
+        mechanismList.add(counting1);
+        mechanismList.add(first);
+        mechanismList.add(dependent);
+        mechanismList.add(counting2);
+
+        MechanismManager manager = new MechanismManager(null, mechanismList, 2, false, true);
+        Assertions.assertEquals(0, manager.getWaveCount(MechanismManager.Phase.ReadSensors));
+        Assertions.assertEquals(2, manager.getWaveCount(MechanismManager.Phase.Update), "expect dependent mechanism to be in its own wave");
+
+        for (int i = 0; i < 10; i++)
+        {
+            manager.update(RobotMode.Teleop);
+            Assertions.assertTrue(dependent.updatedAfterDependency, "expect dependency to be updated first");
+        }
+
+        Assertions.assertEquals(10, counting1.updateCount.get());
+        Assertions.assertEquals(10, counting2.updateCount.get());
+        Assertions.assertEquals(RobotMode.Teleop, counting1.lastMode);
+    }
+
+    @Test
+    public void testParallelReadSensorsException()
+    {
+        List<IMechanism> mechanismList = new ArrayList<IMechanism>();
+        mechanismList.add(new FirstMechanism());
+        mechanismList.add(new ThrowingMechanism());
+
+        MechanismManager manager = new MechanismManager(null, mechanismList, 1, true, false);
+        Assertions.assertThrows(IllegalStateException.class, () -> manager.readSensors());
+    }
+
+    @Test
+    public void testRobotMechanismDependenciesDeclared()
+    {
+        Class<?>[] mechanismClasses = new Class<?>[]
+        {
+            CompressorMechanism.class,
+            DriverFeedbackManager.class,
+            OffboardVisionManager.class,
+            PigeonManager.class,
+            PowerManager.class,
+            RevDriveTrainMechanism.class,
+            SDSDriveTrainMechanism.class,
+        };
+
+        // any mechanism that is injected into another one must be declared as an update dependency, or the two would race when
+        // mechanisms are updated in parallel
+        for (Class<?> mechanismClass : mechanismClasses)
+        {
+            MechanismDependencies dependencies = mechanismClass.getAnnotation(MechanismDependencies.class);
+            for (Constructor<?> constructor : mechanismClass.getConstructors())
+            {
+                if (!constructor.isAnnotationPresent(Inject.class))
+                {
+                    continue;
+                }
+
+                for (Class<?> parameterType : constructor.getParameterTypes())
+                {
+                    if (IMechanism.class.isAssignableFrom(parameterType))
+                    {
+                        Assertions.assertTrue(
+                            dependencies != null && Arrays.asList(dependencies.update()).contains(parameterType),
+                            mechanismClass.getSimpleName() + " should declare an update dependency on " + parameterType.getSimpleName());
+                    }
+                }
+            }
+        }
+    }
+
+    private static class TestMechanism implements IMechanism
+    {
+        public final AtomicBoolean hasRead = new AtomicBoolean(false);
+        public final AtomicBoolean hasUpdated = new AtomicBoolean(false);
+
+        @Override
+        public void readSensors()
+        {
+            this.hasRead.set(true);
+        }
+
+        @Override
+        public void update(RobotMode mode)
+        {
+            this.hasUpdated.set(true);
+        }
+
+        @Override
+        public void stop()
+        {
+        }
+    }
+
+    private static class FirstMechanism extends TestMechanism
+    {
+    }
+
+    @MechanismDependencies(readSensors = { FirstMechanism.class }, update = { FirstMechanism.class })
+    private static class DependentMechanism extends TestMechanism
+    {
+        private final FirstMechanism dependency;
+        public volatile boolean readAfterDependency;
+        public volatile boolean updatedAfterDependency;
+
+        DependentMechanism(FirstMechanism dependency)
+        {
+            this.dependency = dependency;
+        }
+
+        @Override
+        public void readSensors()
+        {
+            this.readAfterDependency = this.dependency.hasRead.get();
+            super.readSensors();
+        }
+
+        @Override
+        public void update(RobotMode mode)
+        {
+            this.updatedAfterDependency = this.dependency.hasUpdated.getAndSet(false);
+            super.update(mode);
+        }
+    }
+
+    private static class BarrierMechanism extends TestMechanism
+    {
+        private final CyclicBarrier barrier;
+
+        BarrierMechanism(CyclicBarrier barrier)
+        {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public void readSensors()
+        {
+            try
+            {
+                // only completes if the other BarrierMechanism is being read at the same time
+                this.barrier.await(5, TimeUnit.SECONDS);
+                super.readSensors();
+            }
+            catch (InterruptedException | BrokenBarrierException | TimeoutException ex)
+            {
+                this.barrier.reset();
+            }
+        }
+    }
+
+    private static class UpdateCountingMechanism extends TestMechanism
+    {
+        public final AtomicInteger updateCount = new AtomicInteger(0);
+        public volatile RobotMode lastMode;
+
+        @Override
+        public void update(RobotMode mode)
+        {
+            this.lastMode = mode;
+            this.updateCount.incrementAndGet();
+        }
+    }
+
+    private static class ThrowingMechanism extends TestMechanism
+    {
+        @Override
+        public void readSensors()
+        {
+            throw new IllegalStateException("sensor failure");
+        }
+    }
+}
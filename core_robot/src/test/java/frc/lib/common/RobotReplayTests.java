@@ -0,0 +1,196 @@
+package frc.lib.common;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.robotprovider.Alliance;
+import frc.lib.robotprovider.IDoubleSubscriber;
+import frc.lib.robotprovider.IDriverStation;
+import frc.lib.robotprovider.IJoystick;
+import frc.lib.robotprovider.ILoopAware;
+import frc.lib.robotprovider.INetworkTableProvider;
+import frc.lib.robotprovider.IPigeon2;
+import frc.lib.robotprovider.IRobotProvider;
+import frc.lib.robotprovider.ISendableChooser;
+import frc.lib.robotprovider.ITalonFX;
+import frc.lib.robotprovider.ITimer;
+import frc.lib.robotprovider.JoystickSnapshot;
+import frc.lib.robotprovider.RecordingRobotProvider;
+import frc.lib.robotprovider.ReplayRobotProvider;
+import frc.lib.robotprovider.RobotMode;
+import frc.robot.TestFileWriter;
+
+public class RobotReplayTests
+{
+    private static final int LOOPS = 20;
+
+    @Test
+    public void testRecordAndReplay() throws IOException
+    {
+        IRobotProvider provider = RobotReplayTests.createProvider();
+        ITimer timer = mock(ITimer.class);
+        double[] time = new double[1];
+        when(timer.get()).thenAnswer(invocation -> time[0] += 0.02);
+
+        TestFileWriter replayLog = new TestFileWriter();
+        RecordingRobotProvider recorder = new RecordingRobotProvider(provider, replayLog, 5);
+        List<Object> recorded = RobotReplayTests.run(recorder.getRobotProvider(), recorder.createTimer(timer));
+        recorder.close();
+
+        ReplayRobotProvider replay = new ReplayRobotProvider(new ByteArrayInputStream(replayLog.toByteArray()));
+        Assertions.assertEquals(RobotMode.Autonomous, replay.getNextLoopMode());
+        List<Object> replayed = RobotReplayTests.run(replay.getRobotProvider(), replay.createTimer());
+        Assertions.assertEquals(recorded, replayed);
+        Assertions.assertEquals(RobotReplayTests.LOOPS, replay.getLoopCount());
+        Assertions.assertNull(replay.getNextLoopMode());
+
+        // the values that stay the same from loop to loop only take a byte or so each
+        Assertions.assertTrue(replayLog.size() < 2000, "expect the replay log to be compact, not " + replayLog.size() + " bytes");
+    }
+
+    @Test
+    public void testReplayDifferentReads() throws IOException
+    {
+        TestFileWriter replayLog = new TestFileWriter();
+        RecordingRobotProvider recorder = new RecordingRobotProvider(RobotReplayTests.createProvider(), replayLog, 5);
+        RobotReplayTests.run(recorder.getRobotProvider(), recorder.createTimer(mock(ITimer.class)));
+        recorder.close();
+
+        ReplayRobotProvider replay = new ReplayRobotProvider(new ByteArrayInputStream(replayLog.toByteArray()));
+        IRobotProvider provider = replay.getRobotProvider();
+        ITalonFX talonFX = provider.getTalonFX(3);
+
+        // reading more often than recorded repeats the last recorded value
+        ((ILoopAware)provider).startLoop(RobotMode.Autonomous);
+        Assertions.assertEquals(0.5, talonFX.getPosition());
+        Assertions.assertEquals(1.0, talonFX.getPosition());
+        Assertions.assertEquals(1.0, talonFX.getPosition());
+
+        // skipping a loop's reads moves on to the values recorded during the next one
+        ((ILoopAware)provider).startLoop(RobotMode.Autonomous);
+        ((ILoopAware)provider).startLoop(RobotMode.Autonomous);
+        Assertions.assertEquals(2.0, talonFX.getPosition());
+
+        // reads that weren't recorded return defaults, and writes are ignored
+        talonFX.setPosition(0.0);
+        Assertions.assertEquals(0.0, provider.getTalonFX(4).getVelocity());
+        Assertions.assertEquals(0.0, talonFX.getVelocity());
+
+        // values recorded before the first loop are still the latest ones
+        Assertions.assertEquals(Optional.of(Alliance.Blue), provider.getDriverStation().getAlliance());
+    }
+
+    private static IRobotProvider createProvider()
+    {
+        IRobotProvider provider = mock(IRobotProvider.class);
+
+        ITalonFX talonFX = mock(ITalonFX.class);
+        when(provider.getTalonFX(3)).thenReturn(talonFX);
+        double[] position = new double[1];
+        when(talonFX.getPosition()).thenAnswer(invocation -> position[0] += 0.5);
+
+        IDriverStation driverStation = mock(IDriverStation.class);
+        when(provider.getDriverStation()).thenReturn(driverStation);
+        when(driverStation.getAlliance()).thenReturn(Optional.of(Alliance.Blue));
+        when(driverStation.getLocation()).thenReturn(OptionalInt.of(2));
+        when(driverStation.getGameSpecificMessage()).thenReturn(null);
+        when(driverStation.getEventName()).thenReturn("Glacier Peak");
+        when(driverStation.getMode()).thenReturn(RobotMode.Autonomous);
+
+        IPigeon2 pigeon = mock(IPigeon2.class);
+        when(provider.getPigeon2(1)).thenReturn(pigeon);
+        double[] yaw = new double[1];
+        doAnswer(
+            invocation ->
+            {
+                double[] ypr = invocation.getArgument(0);
+                ypr[0] = yaw[0] += 1.5;
+                ypr[1] = 0.0;
+                ypr[2] = -0.25;
+                return null;
+            }).when(pigeon).getYawPitchRoll(any());
+
+        IJoystick joystick = mock(IJoystick.class);
+        when(provider.getJoystick(0)).thenReturn(joystick);
+        when(joystick.isConnected()).thenReturn(true);
+        when(joystick.getAxis(1)).thenReturn(0.0, -0.5, -1.0);
+        when(joystick.getRawButton(2)).thenReturn(false, true, true, false);
+        when(joystick.getPOV()).thenReturn(-1, 90);
+
+        INetworkTableProvider networkTableProvider = mock(INetworkTableProvider.class);
+        when(provider.getNetworkTableProvider()).thenReturn(networkTableProvider);
+        IDoubleSubscriber subscriber = mock(IDoubleSubscriber.class);
+        when(networkTableProvider.getDoubleSubscriber("vision.x")).thenReturn(subscriber);
+        when(subscriber.get()).thenReturn(0.25, 0.5, 0.5, Double.NaN, 0.75);
+        @SuppressWarnings("unchecked")
+        ISendableChooser<Alliance> chooser = mock(ISendableChooser.class);
+        when(networkTableProvider.<Alliance>getSendableChooser("Alliance")).thenReturn(chooser);
+        when(chooser.getSelected()).thenReturn(null, Alliance.Red);
+
+        return provider;
+    }
+
+    private static List<Object> run(IRobotProvider provider, ITimer timer)
+    {
+        List<Object> values = new ArrayList<Object>();
+
+        IDriverStation driverStation = provider.getDriverStation();
+        values.add(driverStation.getAlliance());
+        values.add(driverStation.getLocation());
+        values.add(driverStation.getGameSpecificMessage());
+        values.add(driverStation.getEventName());
+        values.add(provider.getPathPlanner());
+
+        ITalonFX talonFX = provider.getTalonFX(3);
+        IPigeon2 pigeon = provider.getPigeon2(1);
+        INetworkTableProvider networkTableProvider = provider.getNetworkTableProvider();
+        IDoubleSubscriber subscriber = networkTableProvider.getDoubleSubscriber("vision.x");
+        ISendableChooser<Alliance> chooser = networkTableProvider.getSendableChooser("Alliance");
+        IJoystick joystick = provider.getJoystick(0);
+
+        double[] ypr = new double[3];
+        JoystickSnapshot snapshot = new JoystickSnapshot(2, 4);
+        for (int loop = 0; loop < RobotReplayTests.LOOPS; loop++)
+        {
+            RobotMode mode = loop < RobotReplayTests.LOOPS / 2 ? RobotMode.Autonomous : RobotMode.Teleop;
+            ((ILoopAware)provider).startLoop(mode);
+
+            talonFX.setPosition(0.0);
+            values.add(talonFX.getPosition());
+            if (loop % 3 == 0)
+            {
+                values.add(talonFX.getPosition());
+            }
+
+            pigeon.getYawPitchRoll(ypr);
+            values.add(ypr[0]);
+            values.add(ypr[2]);
+
+            values.add(subscriber.get());
+            values.add(chooser.getSelected());
+            values.add(timer.get());
+            values.add(driverStation.getMode());
+
+            // the snapshot is captured through the joystick's individual reads, so it is the same when replayed
+            joystick.capture(snapshot);
+            values.add(snapshot.getAxis(1));
+            values.add(snapshot.getButtons());
+            values.add(snapshot.getRawButtonPressed(2));
+            values.add(snapshot.getPOV());
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,175 @@
+package frc.lib.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.robotprovider.IFileWriter;
+import frc.lib.robotprovider.SegmentedFileWriter;
+import frc.robot.TestFile;
+import frc.robot.TestTimer;
+
+public class SegmentedFileWriterTests
+{
+    private static final String Header = "r.time,r.state";
+
+    @Test
+    public void testCompressedRoundTrip() throws IOException
+    {
+        TestFile file = new TestFile(1024L * 1024L * 1024L);
+        SegmentedFileWriter writer = new SegmentedFileWriter(file, "/U/other/1234.csv", true, 0L, null, 0.0, 50L * 1024L * 1024L, null);
+        StringBuilder expected = new StringBuilder();
+        SegmentedFileWriterTests.writeRows(writer, expected, 0, 500);
+
+        // the data written so far should be readable after a flush, even before the file is closed
+        writer.flush();
+        String flushed = SegmentedFileWriterTests.decompress(file.getContents("/U/other/1234.csv.gz"), true);
+        Assertions.assertEquals(expected.toString(), flushed);
+
+        SegmentedFileWriterTests.writeRows(writer, expected, 500, 1000);
+        writer.close();
+
+        Assertions.assertEquals(1, file.getFileCount());
+        byte[] compressed = file.getContents("/U/other/1234.csv.gz");
+        Assertions.assertTrue(compressed.length * 4 < expected.length(), "expect the log to compress well");
+        Assertions.assertEquals(expected.toString(), SegmentedFileWriterTests.decompress(compressed, false));
+    }
+
+    @Test
+    public void testRotateBySize() throws IOException
+    {
+        TestFile file = new TestFile(1024L * 1024L * 1024L);
+        SegmentedFileWriter writer = new SegmentedFileWriter(file, "/U/Q03.auto.csv", false, 1000L, null, 0.0, 0L, null);
+        StringBuilder expected = new StringBuilder();
+        SegmentedFileWriterTests.writeRows(writer, expected, 0, 300);
+        writer.close();
+
+        Assertions.assertTrue(writer.getSegmentCount() > 2);
+        Assertions.assertEquals(writer.getSegmentCount(), file.getFileCount());
+
+        // every segment starts with the header, and the rows (without the repeated headers) match what was written
+        StringBuilder combined = new StringBuilder();
+        for (int segment = 1; segment <= writer.getSegmentCount(); segment++)
+        {
+            String name = segment == 1 ? "/U/Q03.auto.csv" : String.format("/U/Q03.auto.seg%1$d.csv", segment);
+            String contents = new String(file.getContents(name), StandardCharsets.UTF_8);
+            Assertions.assertTrue(contents.startsWith(SegmentedFileWriterTests.Header + "\r\n"), name);
+            Assertions.assertTrue(contents.endsWith("\r\n"), name);
+            combined.append(segment == 1 ? contents : contents.substring(SegmentedFileWriterTests.Header.length() + 2));
+        }
+
+        Assertions.assertEquals(expected.toString(), combined.toString());
+    }
+
+    @Test
+    public void testRotateByTime() throws IOException
+    {
+        TestFile file = new TestFile(1024L * 1024L * 1024L);
+        TestTimer timer = new TestTimer();
+        SegmentedFileWriter writer = new SegmentedFileWriter(file, "/U/log.csv", true, 0L, timer, 60.0, 0L, null);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 200; i++)
+        {
+            timer.setTime(i);
+            SegmentedFileWriterTests.writeRows(writer, expected, i, i + 1);
+        }
+
+        writer.close();
+
+        Assertions.assertEquals(4, writer.getSegmentCount());
+        String last = SegmentedFileWriterTests.decompress(file.getContents("/U/log.seg4.csv.gz"), false);
+        Assertions.assertTrue(last.startsWith(SegmentedFileWriterTests.Header + "\r\n180,"));
+    }
+
+    @Test
+    public void testStopBeforeFull() throws IOException
+    {
+        TestFile file = new TestFile(3L * 1024L * 1024L);
+        SegmentedFileWriter writer = new SegmentedFileWriter(file, "/U/log.csv", true, 0L, null, 0.0, 2L * 1024L * 1024L, null);
+        for (int i = 0; i < 1000000 && !writer.isStopped(); i++)
+        {
+            // random-ish data that doesn't compress well
+            writer.append(String.format("%1$d,%2$d\r\n", i, (i * 2654435761L) ^ (i * 40503L)));
+            if (i % 25 == 0)
+            {
+                writer.flush();
+            }
+        }
+
+        Assertions.assertTrue(writer.isStopped());
+        Assertions.assertTrue(file.getUsedSpace() <= 1024L * 1024L, "expect to leave the required free space");
+
+        // more data is ignored, and the segment was finished cleanly
+        writer.append("more\r\n");
+        writer.close();
+        String contents = SegmentedFileWriterTests.decompress(file.getContents("/U/log.csv.gz"), false);
+        Assertions.assertTrue(contents.endsWith("\r\n"));
+        Assertions.assertFalse(contents.contains("more"));
+
+        // no segment is started when there isn't enough space
+        TestFile fullFile = new TestFile(1024L * 1024L);
+        SegmentedFileWriter fullWriter = new SegmentedFileWriter(fullFile, "/U/log.csv", true, 0L, null, 0.0, 2L * 1024L * 1024L, null);
+        fullWriter.append(SegmentedFileWriterTests.Header + "\r\n");
+        fullWriter.close();
+        Assertions.assertTrue(fullWriter.isStopped());
+        Assertions.assertEquals(0, fullFile.getFileCount());
+    }
+
+    private static void writeRows(IFileWriter writer, StringBuilder expected, int start, int end) throws IOException
+    {
+        if (start == 0)
+        {
+            // written in two parts, as ColumnarCSVLogger does
+            writer.append(SegmentedFileWriterTests.Header);
+            writer.append("\r\n");
+            expected.append(SegmentedFileWriterTests.Header).append("\r\n");
+        }
+
+        for (int i = start; i < end; i++)
+        {
+            String row = String.format("%1$d,%2$s\r\n", i, i < 100 ? "Autonomous" : "Teleop");
+            writer.append(row);
+            expected.append(row);
+        }
+    }
+
+    private static String decompress(byte[] compressed, boolean partial) throws IOException
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed)))
+        {
+            byte[] buffer = new byte[4096];
+            int length;
+            while ((length = SegmentedFileWriterTests.read(input, buffer, partial)) > 0)
+            {
+                output.write(buffer, 0, length);
+            }
+        }
+
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static int read(InputStream input, byte[] buffer, boolean partial) throws IOException
+    {
+        try
+        {
+            return input.read(buffer);
+        }
+        catch (IOException ex)
+        {
+            // a flushed (but unfinished) gzip stream ends without a trailer
+            if (partial)
+            {
+                return -1;
+            }
+
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package frc.lib.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Singleton;
+import com.google.inject.matcher.Matchers;
+
+import frc.lib.helpers.StartupProfiler;
+
+public class StartupProfilerTests
+{
+    @Test
+    public void testNestedPhases() throws InterruptedException
+    {
+        StartupProfiler profiler = new StartupProfiler();
+        StartupProfiler.Phase outer = profiler.startPhase("outer");
+        try
+        {
+            Thread.sleep(20);
+            StartupProfiler.Phase inner = StartupProfiler.phase("inner");
+            try
+            {
+                Thread.sleep(40);
+            }
+            finally
+            {
+                inner.close();
+            }
+        }
+        finally
+        {
+            outer.close();
+        }
+
+        String report = profiler.finish();
+        Assertions.assertTrue(report.indexOf("inner") < report.indexOf("outer"), "expect the most self time first: " + report);
+
+        String[] lines = report.split("\\R");
+        double innerSelf = StartupProfilerTests.getColumn(lines, "inner", 0);
+        double outerSelf = StartupProfilerTests.getColumn(lines, "outer", 0);
+        double outerTotal = StartupProfilerTests.getColumn(lines, "outer", 1);
+        Assertions.assertTrue(innerSelf >= 40.0, report);
+        Assertions.assertTrue(outerSelf >= 20.0 && outerSelf < innerSelf, report);
+        Assertions.assertEquals(outerTotal, innerSelf + outerSelf, 0.2);
+
+        // phases aren't recorded once the profiler has finished
+        StartupProfiler.phase("late").close();
+
+        Assertions.assertFalse(profiler.getReport().contains("late"));
+    }
+
+    @Test
+    public void testUnclosedPhase()
+    {
+        StartupProfiler profiler = new StartupProfiler();
+        StartupProfiler.Phase outer = profiler.startPhase("outer");
+        profiler.startPhase("unclosed");
+        outer.close();
+        outer.close();
+
+        String report = profiler.finish();
+        Assertions.assertTrue(report.contains("unclosed"), report);
+        Assertions.assertEquals(1, (int)StartupProfilerTests.getColumn(report.split("\\R"), "outer", 2));
+    }
+
+    @Test
+    public void testProvisionListener()
+    {
+        StartupProfiler profiler = new StartupProfiler();
+        Injector injector =
+            Guice.createInjector(
+                new AbstractModule()
+                {
+                    @Override
+                    protected void configure()
+                    {
+                        this.bindListener(Matchers.any(), profiler);
+                    }
+                });
+
+        injector.getInstance(SlowParent.class);
+        injector.getInstance(SlowParent.class);
+
+        String report = profiler.finish();
+        Assertions.assertEquals(1, (int)StartupProfilerTests.getColumn(report.split("\\R"), "provision SlowParent", 2), report);
+        Assertions.assertTrue(StartupProfilerTests.getColumn(report.split("\\R"), "provision SlowChild", 0) >= 10.0, report);
+        Assertions.assertTrue(StartupProfilerTests.getColumn(report.split("\\R"), "provision SlowParent", 1) >= 15.0, report);
+    }
+
+    private static double getColumn(String[] lines, String phase, int column)
+    {
+        for (String line : lines)
+        {
+            if (line.endsWith("  " + phase))
+            {
+                return Double.parseDouble(line.trim().split("\\s+")[column]);
+            }
+        }
+
+        Assertions.fail("couldn't find " + phase);
+        return 0.0;
+    }
+
+    @Singleton
+    public static class SlowParent
+    {
+        @Inject
+        public SlowParent(SlowChild child) throws InterruptedException
+        {
+            Thread.sleep(5);
+        }
+    }
+
+    @Singleton
+    public static class SlowChild
+    {
+        @Inject
+        public SlowChild() throws InterruptedException
+        {
+            Thread.sleep(10);
+        }
+    }
+}
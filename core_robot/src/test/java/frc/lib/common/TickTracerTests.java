@@ -0,0 +1,86 @@
+package frc.lib.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.helpers.TickTracer;
+
+public class TickTracerTests
+{
+    private enum TestPhase
+    {
+        First,
+        Second,
+    }
+
+    @Test
+    public void testOverrun()
+    {
+        TickTracer<TestPhase> tracer = new TickTracer<TestPhase>(TestPhase.class, 4, 0L);
+        Assertions.assertFalse(tracer.endTick(), "expect no overrun when no tick has started");
+
+        tracer.startTick();
+        tracer.markPhase(TestPhase.First);
+        tracer.markPhase(TestPhase.Second);
+        Assertions.assertTrue(tracer.endTick(), "expect overrun with a zero budget");
+        Assertions.assertEquals(1, tracer.getOverrunCount());
+
+        tracer = new TickTracer<TestPhase>(TestPhase.class, 4, Long.MAX_VALUE);
+        tracer.startTick();
+        tracer.markPhase(TestPhase.First);
+        Assertions.assertFalse(tracer.endTick(), "expect no overrun with an unlimited budget");
+        Assertions.assertEquals(0, tracer.getOverrunCount());
+    }
+
+    @Test
+    public void testLastTickDuration()
+    {
+        TickTracer<TestPhase> tracer = new TickTracer<TestPhase>(TestPhase.class, 2, Long.MAX_VALUE);
+        Assertions.assertEquals(0.0, tracer.getLastTickDuration(), "expect no duration when no tick has completed");
+
+        tracer.startTick();
+        Assertions.assertEquals(0.0, tracer.getLastTickDuration(), "expect no duration while the first tick is in progress");
+
+        long startTime = System.nanoTime();
+        while (System.nanoTime() - startTime < 1000000L)
+        {
+            // spin for at least a millisecond
+        }
+
+        tracer.endTick();
+        double duration = tracer.getLastTickDuration();
+        Assertions.assertTrue(duration >= 1.0, "expect the completed tick's duration: " + duration);
+
+        // the previous tick's duration is still reported in the middle of the next tick
+        tracer.startTick();
+        tracer.markPhase(TestPhase.First);
+        Assertions.assertEquals(duration, tracer.getLastTickDuration());
+    }
+
+    @Test
+    public void testDump()
+    {
+        TickTracer<TestPhase> tracer = new TickTracer<TestPhase>(TestPhase.class, 2, Long.MAX_VALUE);
+        for (int i = 0; i < 3; i++)
+        {
+            tracer.startTick();
+            tracer.markPhase(TestPhase.First);
+            if (i == 2)
+            {
+                tracer.markPhase(TestPhase.Second);
+            }
+
+            tracer.endTick();
+        }
+
+        String[] lines = tracer.dump(10).split("\r\n");
+        Assertions.assertEquals(2, lines.length, "expect only the capacity's worth of ticks to be kept");
+        Assertions.assertTrue(lines[0].startsWith("tick 1: total="), lines[0]);
+        Assertions.assertTrue(lines[0].endsWith("Second=-"), "expect unmarked phase to be reported as skipped: " + lines[0]);
+        Assertions.assertTrue(lines[1].startsWith("tick 2: total="), lines[1]);
+        Assertions.assertFalse(lines[1].endsWith("Second=-"), lines[1]);
+
+        tracer.startTick();
+        Assertions.assertTrue(tracer.dump(1).contains("total=incomplete"), "expect in-progress tick to be reported as incomplete");
+    }
+}
@@ -0,0 +1,134 @@
+package frc.lib.common;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import frc.lib.driver.TrajectoryArchive;
+import frc.lib.driver.TrajectoryManager;
+import frc.lib.robotprovider.ITrajectory;
+import frc.lib.robotprovider.TrajectoryState;
+import frc.robot.TuningConstants;
+
+public class TrajectoryArchiveTests
+{
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testWriteAndRead() throws IOException
+    {
+        Map<String, ITrajectory> trajectories = new HashMap<String, ITrajectory>();
+        trajectories.put("straight", new LineTrajectory(1.3, 20.0));
+        trajectories.put("turn", new LineTrajectory(0.5, -10.0));
+
+        String path = this.directory.resolve("trajectories.bin").toString();
+        TrajectoryArchive.write(path, 1318L, 0.005, trajectories);
+
+        // 24 bytes per sample, for 1.8 seconds of trajectories sampled every 5ms
+        Assertions.assertTrue(Files.size(this.directory.resolve("trajectories.bin")) < 9000);
+
+        TrajectoryArchive archive = TrajectoryArchive.open(path, 1318L);
+        Assertions.assertNotNull(archive);
+        Assertions.assertEquals(2, archive.size());
+        Assertions.assertNull(archive.getTrajectory("missing"));
+
+        for (String name : trajectories.keySet())
+        {
+            ITrajectory expected = trajectories.get(name);
+            ITrajectory actual = archive.getTrajectory(name);
+            Assertions.assertEquals(expected.getDuration(), actual.getDuration());
+            for (double time = -0.1; time < expected.getDuration() + 0.1; time += 0.0137)
+            {
+                TrajectoryState expectedState = expected.get(time);
+                TrajectoryState actualState = actual.get(time);
+                Assertions.assertEquals(expectedState.xPosition, actualState.xPosition, 0.001);
+                Assertions.assertEquals(expectedState.yPosition, actualState.yPosition, 0.001);
+                Assertions.assertEquals(expectedState.angle, actualState.angle, 0.001);
+                Assertions.assertEquals(expectedState.xVelocity, actualState.xVelocity, 0.001);
+                Assertions.assertEquals(expectedState.yVelocity, actualState.yVelocity, 0.001);
+                Assertions.assertEquals(expectedState.angleVelocity, actualState.angleVelocity, 0.001);
+            }
+        }
+    }
+
+    @Test
+    public void testMissingOrStale() throws IOException
+    {
+        String path = this.directory.resolve("trajectories.bin").toString();
+        Assertions.assertNull(TrajectoryArchive.open(path, 1318L));
+
+        TrajectoryArchive.write(path, 1318L, 0.005, Collections.singletonMap("straight", new LineTrajectory(1.0, 10.0)));
+        Assertions.assertNull(TrajectoryArchive.open(path, 1319L));
+
+        Files.write(this.directory.resolve("trajectories.bin"), new byte[] { 1, 2, 3 });
+        Assertions.assertNull(TrajectoryArchive.open(path, 1318L));
+    }
+
+    @Test
+    public void testHashInputs()
+    {
+        long hash = TrajectoryArchive.hashInputs(Arrays.asList(TuningConstants.class), Arrays.asList(LineTrajectory.class));
+        Assertions.assertEquals(hash, TrajectoryArchive.hashInputs(Arrays.asList(TuningConstants.class), Arrays.asList(LineTrajectory.class)));
+        Assertions.assertNotEquals(hash, TrajectoryArchive.hashInputs(Arrays.asList(TuningConstants.class), Arrays.asList(TrajectoryArchiveTests.class)));
+        Assertions.assertNotEquals(hash, TrajectoryArchive.hashInputs(Arrays.asList(), Arrays.asList(LineTrajectory.class)));
+    }
+
+    @Test
+    public void testManagerUsesArchive() throws IOException
+    {
+        String path = this.directory.resolve("trajectories.bin").toString();
+        TrajectoryArchive.write(path, 1318L, 0.005, Collections.singletonMap("straight", new LineTrajectory(1.0, 10.0)));
+
+        TrajectoryManager trajectoryManager = new TrajectoryManager(0);
+        trajectoryManager.setArchive(TrajectoryArchive.open(path, 1318L));
+        trajectoryManager.addTrajectory("straight", () -> Assertions.fail("archived trajectories shouldn't be generated"), true);
+        trajectoryManager.addTrajectory("other", () -> new LineTrajectory(0.5, 1.0), true);
+
+        Assertions.assertEquals(1.0, trajectoryManager.getTrajectory("straight").getDuration());
+        Assertions.assertEquals(0.5, trajectoryManager.getTrajectory("other").getDuration());
+        Assertions.assertTrue(trajectoryManager.getBuildReport().contains("1 from the archive"));
+    }
+
+    /**
+     * A trajectory that accelerates along a line while turning
+     */
+    private static class LineTrajectory implements ITrajectory
+    {
+        private final double duration;
+        private final double angleVelocity;
+
+        LineTrajectory(double duration, double angleVelocity)
+        {
+            this.duration = duration;
+            this.angleVelocity = angleVelocity;
+        }
+
+        @Override
+        public double getDuration()
+        {
+            return this.duration;
+        }
+
+        @Override
+        public TrajectoryState get(double time)
+        {
+            time = Math.min(Math.max(time, 0.0), this.duration);
+            return new TrajectoryState(
+                10.0 * time,
+                -5.0 * time,
+                170.0 + this.angleVelocity * time,
+                10.0,
+                -5.0,
+                this.angleVelocity);
+        }
+    }
+}
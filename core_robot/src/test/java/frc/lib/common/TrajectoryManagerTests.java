@@ -0,0 +1,79 @@
+package frc.lib.common;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.driver.TrajectoryManager;
+import frc.lib.robotprovider.ITrajectory;
+
+public class TrajectoryManagerTests
+{
+    @Test
+    public void testBackgroundBuild() throws InterruptedException
+    {
+        TrajectoryManager trajectoryManager = new TrajectoryManager(2);
+        ITrajectory fast = mock(ITrajectory.class);
+        ITrajectory slow = mock(ITrajectory.class);
+        CountDownLatch slowLatch = new CountDownLatch(1);
+
+        trajectoryManager.addTrajectory(
+            "slow",
+            () ->
+            {
+                try
+                {
+                    slowLatch.await();
+                }
+                catch (InterruptedException ex)
+                {
+                    Thread.currentThread().interrupt();
+                }
+
+                return slow;
+            },
+            true);
+        trajectoryManager.addTrajectory("fast", () -> fast, true);
+
+        // getting one trajectory doesn't wait for the others to be built
+        Assertions.assertSame(fast, trajectoryManager.getTrajectory("fast"));
+        Assertions.assertTrue(trajectoryManager.getBuildReport().contains("1 not built yet"));
+
+        slowLatch.countDown();
+        Assertions.assertSame(slow, trajectoryManager.getTrajectory("slow"));
+        Assertions.assertNull(trajectoryManager.getTrajectory("missing"));
+
+        String report = trajectoryManager.getBuildReport();
+        Assertions.assertTrue(report.startsWith("Built 2 trajectories"), report);
+        Assertions.assertTrue(report.indexOf("slow") < report.indexOf("fast"), "expect the slowest first: " + report);
+    }
+
+    @Test
+    public void testLazyBuild()
+    {
+        TrajectoryManager trajectoryManager = new TrajectoryManager(0);
+        ITrajectory trajectory = mock(ITrajectory.class);
+        AtomicInteger buildCount = new AtomicInteger();
+
+        trajectoryManager.addTrajectory(
+            "lazy",
+            () ->
+            {
+                buildCount.incrementAndGet();
+                return trajectory;
+            },
+            false);
+        Assertions.assertEquals(0, buildCount.get());
+
+        Assertions.assertSame(trajectory, trajectoryManager.getTrajectory("lazy"));
+        Assertions.assertSame(trajectory, trajectoryManager.getTrajectory("lazy"));
+        Assertions.assertEquals(1, buildCount.get());
+
+        trajectoryManager.addTrajectory("forced", () -> trajectory, true);
+        Assertions.assertTrue(trajectoryManager.getBuildReport().startsWith("Built 2 trajectories"));
+    }
+}
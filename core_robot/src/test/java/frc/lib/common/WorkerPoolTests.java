@@ -0,0 +1,82 @@
+package frc.lib.common;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.helpers.WorkerPool;
+
+public class WorkerPoolTests
+{
+    private static final int MAX_TASKS = 17;
+
+    @Test
+    public void testEachTaskRunsOncePerBatch()
+    {
+        WorkerPool pool = new WorkerPool("test-worker", 3);
+        try
+        {
+            AtomicIntegerArray counts = new AtomicIntegerArray(WorkerPoolTests.MAX_TASKS);
+            Runnable[] tasks = new Runnable[WorkerPoolTests.MAX_TASKS];
+            for (int i = 0; i < WorkerPoolTests.MAX_TASKS; i++)
+            {
+                int index = i;
+                tasks[i] = () -> counts.incrementAndGet(index);
+            }
+
+            // back-to-back batches of different sizes, so that workers that are late from one batch overlap with the next
+            Random random = new Random(1318L);
+            for (int batch = 0; batch < 50000; batch++)
+            {
+                int count = 2 + random.nextInt(WorkerPoolTests.MAX_TASKS - 1);
+                pool.run(tasks, count);
+                for (int i = 0; i < WorkerPoolTests.MAX_TASKS; i++)
+                {
+                    Assertions.assertEquals(i < count ? 1 : 0, counts.getAndSet(i, 0), "batch " + batch + " task " + i);
+                }
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailureRethrown()
+    {
+        WorkerPool pool = new WorkerPool("test-worker", 2);
+        try
+        {
+            AtomicIntegerArray counts = new AtomicIntegerArray(4);
+            Runnable[] tasks = new Runnable[4];
+            for (int i = 0; i < 4; i++)
+            {
+                int index = i;
+                tasks[i] = () ->
+                {
+                    counts.incrementAndGet(index);
+                    if (index == 2)
+                    {
+                        throw new IllegalStateException("task " + index);
+                    }
+                };
+            }
+
+            Assertions.assertThrows(IllegalStateException.class, () -> pool.run(tasks, 4));
+
+            // the other tasks still run, and the pool can be used again
+            pool.run(tasks, 2);
+            Assertions.assertEquals(2, counts.get(0));
+            Assertions.assertEquals(2, counts.get(1));
+            Assertions.assertEquals(1, counts.get(2));
+            Assertions.assertEquals(1, counts.get(3));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+}
@@ -4,6 +4,10 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
@@ -15,6 +19,10 @@ import frc.lib.mechanisms.LoggingManager;
 import frc.lib.robotprovider.IJoystick;
 import frc.lib.robotprovider.ILogger;
 import frc.lib.robotprovider.IRobotProvider;
+import frc.lib.robotprovider.JoystickRumbleType;
+import frc.lib.robotprovider.JoystickSnapshot;
+import frc.lib.robotprovider.NullLogger;
+import frc.lib.robotprovider.RobotMode;
 import frc.robot.LoggingKey;
 import frc.robot.driver.*;
 import frc.robot.driver.controltasks.ControlTaskBase;
@@ -109,7 +117,7 @@ public class DriverTests
             });
 
         IRobotProvider robotProvider = mock(IRobotProvider.class);
-        IJoystick driverJoystick = mock(IJoystick.class);
+        IJoystick driverJoystick = mock(IJoystick.class, Mockito.CALLS_REAL_METHODS);
         when(driverJoystick.isConnected()).thenReturn(true);
 
         when(robotProvider.getJoystick(0)).thenReturn(driverJoystick);
@@ -198,6 +206,184 @@ public class DriverTests
         verify(logger, Mockito.times(7)).logString(LoggingKey.DriverActiveMacros, "");
     }
 
+    @Test
+    public void testShiftedOperations()
+    {
+        ILogger logger = mock(ILogger.class);
+        Injector injector = mock(Injector.class);
+        when(injector.getInstance(AutonomousRoutineSelector.class)).thenReturn(mock(AutonomousRoutineSelector.class));
+        when(injector.getInstance(TrajectoryManager.class)).thenReturn(null);
+
+        // the A button does something different while the debug shift is held
+        IButtonMap buttonMap = mock(IButtonMap.class);
+        when(buttonMap.getAnalogOperationSchema()).thenReturn(new AnalogOperationDescription[0]);
+        when(buttonMap.getMacroOperationSchema()).thenReturn(new MacroOperationDescription[0]);
+        when(buttonMap.getDigitalOperationSchema()).thenReturn(
+            new DigitalOperationDescription[]
+            {
+                new DigitalOperationDescription(
+                    DigitalOperation.DriveTrainSlowMode,
+                    UserInputDevice.Driver,
+                    UserInputDeviceButton.XBONE_A_BUTTON,
+                    EnumSet.of(Shift.DriverDebug),
+                    EnumSet.noneOf(Shift.class),
+                    ButtonType.Simple),
+                new DigitalOperationDescription(
+                    DigitalOperation.DriveTrainReset,
+                    UserInputDevice.Driver,
+                    UserInputDeviceButton.XBONE_A_BUTTON,
+                    EnumSet.of(Shift.DriverDebug),
+                    EnumSet.of(Shift.DriverDebug),
+                    ButtonType.Simple),
+                new DigitalOperationDescription(
+                    DigitalOperation.PositionResetFieldOrientation,
+                    UserInputDevice.Driver,
+                    UserInputDeviceButton.XBONE_Y_BUTTON,
+                    ButtonType.Simple),
+            });
+
+        when(buttonMap.getShiftSchema()).thenReturn(
+            new ShiftDescription[]
+            {
+                new ShiftDescription(
+                    Shift.DriverDebug,
+                    UserInputDevice.Driver,
+                    UserInputDeviceButton.XBONE_LEFT_BUTTON),
+            });
+
+        IRobotProvider robotProvider = mock(IRobotProvider.class);
+        IJoystick driverJoystick = mock(IJoystick.class, Mockito.CALLS_REAL_METHODS);
+        when(driverJoystick.isConnected()).thenReturn(true);
+        when(driverJoystick.getPOV()).thenReturn(-1);
+        when(robotProvider.getJoystick(UserInputDevice.Driver.getId())).thenReturn(driverJoystick);
+
+        Driver driver = new Driver(new LoggingManager(logger), injector, buttonMap, robotProvider);
+        driver.startMode(RobotMode.Teleop);
+
+        when(driverJoystick.getRawButton(UserInputDeviceButton.XBONE_A_BUTTON.Value)).thenReturn(true);
+        when(driverJoystick.getRawButton(UserInputDeviceButton.XBONE_Y_BUTTON.Value)).thenReturn(true);
+        driver.update();
+        Assertions.assertTrue(driver.getDigital(DigitalOperation.DriveTrainSlowMode));
+        Assertions.assertFalse(driver.getDigital(DigitalOperation.DriveTrainReset));
+        Assertions.assertTrue(driver.getDigital(DigitalOperation.PositionResetFieldOrientation));
+        verify(logger).logString(LoggingKey.DriverActiveShifts, "[]");
+
+        // holding the shift switches which operation the button controls, and doesn't affect operations that don't care about it
+        when(driverJoystick.getRawButton(UserInputDeviceButton.XBONE_LEFT_BUTTON.Value)).thenReturn(true);
+        driver.update();
+        Assertions.assertFalse(driver.getDigital(DigitalOperation.DriveTrainSlowMode));
+        Assertions.assertTrue(driver.getDigital(DigitalOperation.DriveTrainReset));
+        Assertions.assertTrue(driver.getDigital(DigitalOperation.PositionResetFieldOrientation));
+        verify(logger).logString(LoggingKey.DriverActiveShifts, "[DriverDebug]");
+
+        // shifts aren't checked in autonomous
+        driver.startMode(RobotMode.Autonomous);
+        driver.update();
+        verify(logger, Mockito.times(2)).logString(LoggingKey.DriverActiveShifts, "[]");
+    }
+
+    @Test
+    public void testUpdateDoesNotAllocate()
+    {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        Assertions.assertTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        Injector injector = mock(Injector.class);
+        when(injector.getInstance(AutonomousRoutineSelector.class)).thenReturn(mock(AutonomousRoutineSelector.class));
+        when(injector.getInstance(TrajectoryManager.class)).thenReturn(null);
+
+        // use simple joysticks rather than mocks, as Mockito allocates when recording invocations
+        IRobotProvider provider = mock(IRobotProvider.class);
+        for (UserInputDevice device : UserInputDevice.values())
+        {
+            if (device != UserInputDevice.None && device != UserInputDevice.MaxCount)
+            {
+                when(provider.getJoystick(device.getId())).thenReturn(new TestJoystick(0.5, -0.25));
+            }
+        }
+
+        Driver driver = new Driver(new LoggingManager(new NullLogger()), injector, new ButtonMap(), provider);
+        driver.startMode(RobotMode.Teleop);
+
+        // warm up, so that any one-time work (class loading, logging strings, etc.) is out of the way
+        for (int i = 0; i < 1000; i++)
+        {
+            driver.update();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long calibrationStart = threadBean.getThreadAllocatedBytes(threadId);
+        long calibrationEnd = threadBean.getThreadAllocatedBytes(threadId);
+        long measurementOverhead = calibrationEnd - calibrationStart;
+
+        // take the best of a few rounds, as the JIT can occasionally make a one-off allocation while recompiling
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 5 && allocated > 0L; round++)
+        {
+            long start = threadBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 1000; i++)
+            {
+                driver.update();
+            }
+
+            allocated = Math.min(allocated, threadBean.getThreadAllocatedBytes(threadId) - start - measurementOverhead);
+        }
+
+        Assertions.assertEquals(0L, allocated, "expect Driver.update to not allocate");
+    }
+
+    private static class TestJoystick implements IJoystick
+    {
+        private final double[] axes;
+
+        public TestJoystick(double... axes)
+        {
+            this.axes = axes;
+        }
+
+        @Override
+        public boolean isConnected()
+        {
+            return true;
+        }
+
+        @Override
+        public double getAxis(int relevantAxis)
+        {
+            if (relevantAxis < 0 || relevantAxis >= this.axes.length)
+            {
+                return 0.0;
+            }
+
+            return this.axes[relevantAxis];
+        }
+
+        @Override
+        public int getPOV()
+        {
+            return -1;
+        }
+
+        @Override
+        public void capture(JoystickSnapshot snapshot)
+        {
+            // not the default method, as Mockito instruments it once another test has mocked IJoystick
+            snapshot.capture(this);
+        }
+
+        @Override
+        public boolean getRawButton(int value)
+        {
+            return false;
+        }
+
+        @Override
+        public void setRumble(JoystickRumbleType type, double value)
+        {
+        }
+    }
+
     private static class TestControlTask extends ControlTaskBase
     {
         public boolean hasCompleted;
@@ -0,0 +1,146 @@
+package frc.lib.driver;
+
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.robot.driver.AnalogOperation;
+import frc.robot.driver.DigitalOperation;
+
+public class InputLatencyTracerTests
+{
+    private static final DigitalOperation DIGITAL_OPERATION = DigitalOperation.values()[0];
+
+    @AfterEach
+    public void cleanup()
+    {
+        InputLatencyTracer.endMechanism();
+    }
+
+    @Test
+    public void testReadThenActuated()
+    {
+        InputLatencyTracer tracer = InputLatencyTracerTests.createTracer();
+        tracer.startUpdate();
+        tracer.stamp(AnalogOperation.DriveTrainMoveForward, System.nanoTime());
+        tracer.stamp(InputLatencyTracerTests.DIGITAL_OPERATION, System.nanoTime());
+
+        InputLatencyTracer.startMechanism();
+        tracer.read(AnalogOperation.DriveTrainMoveForward);
+        tracer.read(InputLatencyTracerTests.DIGITAL_OPERATION);
+        InputLatencyTracer.actuated();
+        InputLatencyTracer.endMechanism();
+
+        Assertions.assertEquals(1, tracer.getLatencies(AnalogOperation.DriveTrainMoveForward).getCount());
+        Assertions.assertEquals(1, tracer.getLatencies(InputLatencyTracerTests.DIGITAL_OPERATION).getCount());
+
+        // the stamp is cleared once it reaches an actuator
+        InputLatencyTracer.startMechanism();
+        tracer.read(AnalogOperation.DriveTrainMoveForward);
+        InputLatencyTracer.actuated();
+        InputLatencyTracer.endMechanism();
+
+        Assertions.assertEquals(1, tracer.getLatencies(AnalogOperation.DriveTrainMoveForward).getCount());
+        Assertions.assertEquals(0L, tracer.getDroppedCount());
+    }
+
+    @Test
+    public void testIgnoredOutsideOfMechanism()
+    {
+        InputLatencyTracer tracer = InputLatencyTracerTests.createTracer();
+        tracer.startUpdate();
+        tracer.stamp(AnalogOperation.DriveTrainMoveForward, System.nanoTime());
+
+        // read outside of a mechanism's update (e.g. by a macro task)
+        tracer.read(AnalogOperation.DriveTrainMoveForward);
+        InputLatencyTracer.startMechanism();
+        InputLatencyTracer.actuated();
+        InputLatencyTracer.endMechanism();
+
+        Assertions.assertEquals(0, tracer.getLatencies(AnalogOperation.DriveTrainMoveForward).getCount());
+
+        // read by a mechanism that doesn't set any actuator
+        InputLatencyTracer.startMechanism();
+        tracer.read(AnalogOperation.DriveTrainMoveForward);
+        InputLatencyTracer.endMechanism();
+        InputLatencyTracer.actuated();
+
+        Assertions.assertEquals(0, tracer.getLatencies(AnalogOperation.DriveTrainMoveForward).getCount());
+
+        // read by a later mechanism update, which does set an actuator
+        InputLatencyTracer.startMechanism();
+        tracer.read(AnalogOperation.DriveTrainMoveForward);
+        InputLatencyTracer.actuated();
+        InputLatencyTracer.endMechanism();
+
+        Assertions.assertEquals(1, tracer.getLatencies(AnalogOperation.DriveTrainMoveForward).getCount());
+    }
+
+    @Test
+    public void testUntracedOperation()
+    {
+        InputLatencyTracer tracer = InputLatencyTracerTests.createTracer();
+        tracer.startUpdate();
+        tracer.stamp(AnalogOperation.DriveTrainMoveRight, System.nanoTime());
+
+        InputLatencyTracer.startMechanism();
+        tracer.read(AnalogOperation.DriveTrainMoveRight);
+        InputLatencyTracer.actuated();
+        InputLatencyTracer.endMechanism();
+
+        Assertions.assertNull(tracer.getLatencies(AnalogOperation.DriveTrainMoveRight));
+        Assertions.assertEquals("dropped=0", tracer.getReport());
+    }
+
+    @Test
+    public void testStaleStampDropped()
+    {
+        InputLatencyTracer tracer = InputLatencyTracerTests.createTracer();
+        tracer.startUpdate();
+        tracer.stamp(AnalogOperation.DriveTrainMoveForward, 0L);
+        for (int i = 0; i < 3; i++)
+        {
+            tracer.startUpdate();
+        }
+
+        Assertions.assertEquals(0L, tracer.getDroppedCount());
+
+        tracer.startUpdate();
+        Assertions.assertEquals(1L, tracer.getDroppedCount());
+
+        InputLatencyTracer.startMechanism();
+        tracer.read(AnalogOperation.DriveTrainMoveForward);
+        InputLatencyTracer.actuated();
+        InputLatencyTracer.endMechanism();
+
+        Assertions.assertEquals(0, tracer.getLatencies(AnalogOperation.DriveTrainMoveForward).getCount());
+    }
+
+    @Test
+    public void testReport()
+    {
+        InputLatencyTracer tracer = InputLatencyTracerTests.createTracer();
+        tracer.startUpdate();
+        tracer.stamp(AnalogOperation.DriveTrainMoveForward, System.nanoTime());
+
+        InputLatencyTracer.startMechanism();
+        tracer.read(AnalogOperation.DriveTrainMoveForward);
+        InputLatencyTracer.actuated();
+        InputLatencyTracer.endMechanism();
+
+        String report = tracer.getReport();
+        Assertions.assertTrue(report.startsWith(AnalogOperation.DriveTrainMoveForward.toString() + "="), report);
+        Assertions.assertTrue(report.endsWith("; dropped=0"), report);
+    }
+
+    private static InputLatencyTracer createTracer()
+    {
+        return new InputLatencyTracer(
+            EnumSet.of(AnalogOperation.DriveTrainMoveForward),
+            EnumSet.of(InputLatencyTracerTests.DIGITAL_OPERATION),
+            10,
+            3);
+    }
+}
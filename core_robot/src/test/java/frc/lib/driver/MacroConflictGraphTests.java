@@ -0,0 +1,232 @@
+package frc.lib.driver;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.robot.driver.AnalogOperation;
+import frc.robot.driver.DigitalOperation;
+
+public class MacroConflictGraphTests
+{
+    private static final AnalogOperation[] ANALOG_OPERATIONS = AnalogOperation.values();
+    private static final DigitalOperation[] DIGITAL_OPERATIONS = DigitalOperation.values();
+
+    @Test
+    public void testConflicts()
+    {
+        MacroConflictGraph graph =
+            new MacroConflictGraph(
+                new AnalogOperation[][]
+                {
+                    { AnalogOperation.DriveTrainMoveForward, AnalogOperation.DriveTrainMoveRight },
+                    { AnalogOperation.DriveTrainMoveRight },
+                    { AnalogOperation.DriveTrainTurnAngleGoal },
+                    null,
+                },
+                new DigitalOperation[][]
+                {
+                    null,
+                    null,
+                    { DigitalOperation.values()[0] },
+                    { DigitalOperation.values()[0] },
+                });
+
+        Assertions.assertTrue(graph.conflicts(0, 1));
+        Assertions.assertTrue(graph.conflicts(1, 0));
+        Assertions.assertFalse(graph.conflicts(0, 2));
+        Assertions.assertTrue(graph.conflicts(2, 3));
+        Assertions.assertFalse(graph.conflicts(1, 3));
+        Assertions.assertFalse(graph.conflicts(0, 0));
+
+        // a new macro usurps the previously active one that it conflicts with, leaving the others
+        BitSet active = MacroConflictGraphTests.bits(0, 1, 2);
+        BitSet toCancel = new BitSet();
+        graph.findMacrosToCancel(active, MacroConflictGraphTests.bits(0, 2), new BitSet(), new BitSet(), toCancel);
+        Assertions.assertEquals(MacroConflictGraphTests.bits(0), toCancel);
+
+        // two new macros that conflict cancel each other
+        toCancel.clear();
+        graph.findMacrosToCancel(MacroConflictGraphTests.bits(2, 3), new BitSet(), new BitSet(), new BitSet(), toCancel);
+        Assertions.assertEquals(MacroConflictGraphTests.bits(2, 3), toCancel);
+
+        // user input usurps the macros affecting the operation
+        toCancel.clear();
+        graph.findMacrosToCancel(
+            MacroConflictGraphTests.bits(1, 2),
+            MacroConflictGraphTests.bits(1, 2),
+            MacroConflictGraphTests.bits(AnalogOperation.DriveTrainMoveRight.ordinal()),
+            new BitSet(),
+            toCancel);
+        Assertions.assertEquals(MacroConflictGraphTests.bits(1), toCancel);
+    }
+
+    @Test
+    public void testEquivalentToPerOperationResolution()
+    {
+        Random random = new Random(1234L);
+        for (int trial = 0; trial < 200; trial++)
+        {
+            // a random set of macros, each cancelling a few random operations
+            int macroCount = 2 + random.nextInt(20);
+            AnalogOperation[][] macroAnalogOperations = new AnalogOperation[macroCount][];
+            DigitalOperation[][] macroDigitalOperations = new DigitalOperation[macroCount][];
+            for (int i = 0; i < macroCount; i++)
+            {
+                macroAnalogOperations[i] = MacroConflictGraphTests.choose(random, MacroConflictGraphTests.ANALOG_OPERATIONS, new AnalogOperation[0]);
+                macroDigitalOperations[i] = MacroConflictGraphTests.choose(random, MacroConflictGraphTests.DIGITAL_OPERATIONS, new DigitalOperation[0]);
+            }
+
+            MacroConflictGraph graph = new MacroConflictGraph(macroAnalogOperations, macroDigitalOperations);
+
+            // a random sequence of macros starting and ending, where the macros that weren't cancelled stay active
+            BitSet previouslyActive = new BitSet();
+            for (int step = 0; step < 100; step++)
+            {
+                BitSet active = new BitSet();
+                for (int i = 0; i < macroCount; i++)
+                {
+                    if (previouslyActive.get(i) ? random.nextDouble() < 0.8 : random.nextDouble() < 0.15)
+                    {
+                        active.set(i);
+                    }
+                }
+
+                BitSet modifiedAnalog = MacroConflictGraphTests.randomBits(random, MacroConflictGraphTests.ANALOG_OPERATIONS.length, 0.02);
+                BitSet modifiedDigital = MacroConflictGraphTests.randomBits(random, MacroConflictGraphTests.DIGITAL_OPERATIONS.length, 0.02);
+
+                BitSet expected =
+                    MacroConflictGraphTests.resolvePerOperation(
+                        macroAnalogOperations,
+                        macroDigitalOperations,
+                        active,
+                        previouslyActive,
+                        modifiedAnalog,
+                        modifiedDigital);
+
+                BitSet actual = new BitSet();
+                graph.findMacrosToCancel(active, previouslyActive, modifiedAnalog, modifiedDigital, actual);
+                Assertions.assertEquals(expected, actual, "trial " + trial + ", step " + step + ", active " + active + ", previously " + previouslyActive);
+
+                previouslyActive = (BitSet)active.clone();
+                previouslyActive.andNot(actual);
+            }
+        }
+    }
+
+    /**
+     * The resolution the Driver used before the conflicts were precomputed: for each operation affected by an active macro, cancel
+     * the macros affecting it if it was modified by user input (rule #1), all of them if 2 or more are new (rule #3), or else the
+     * previously active ones if there are several (rule #2)
+     */
+    private static BitSet resolvePerOperation(
+        AnalogOperation[][] macroAnalogOperations,
+        DigitalOperation[][] macroDigitalOperations,
+        BitSet active,
+        BitSet previouslyActive,
+        BitSet modifiedAnalog,
+        BitSet modifiedDigital)
+    {
+        BitSet[] analogMacros = MacroConflictGraphTests.macrosByOperation(macroAnalogOperations, MacroConflictGraphTests.ANALOG_OPERATIONS.length, active);
+        BitSet[] digitalMacros = MacroConflictGraphTests.macrosByOperation(macroDigitalOperations, MacroConflictGraphTests.DIGITAL_OPERATIONS.length, active);
+
+        BitSet toCancel = new BitSet();
+        for (int i = 0; i < analogMacros.length; i++)
+        {
+            MacroConflictGraphTests.resolveOperation(analogMacros[i], modifiedAnalog.get(i), previouslyActive, toCancel);
+        }
+
+        for (int i = 0; i < digitalMacros.length; i++)
+        {
+            MacroConflictGraphTests.resolveOperation(digitalMacros[i], modifiedDigital.get(i), previouslyActive, toCancel);
+        }
+
+        return toCancel;
+    }
+
+    private static void resolveOperation(BitSet relevantMacros, boolean wasModified, BitSet previouslyActive, BitSet toCancel)
+    {
+        if (wasModified)
+        {
+            toCancel.or(relevantMacros);
+        }
+        else if (relevantMacros.cardinality() > 1)
+        {
+            BitSet newMacros = (BitSet)relevantMacros.clone();
+            newMacros.andNot(previouslyActive);
+            if (newMacros.cardinality() > 1)
+            {
+                toCancel.or(relevantMacros);
+            }
+            else
+            {
+                BitSet oldMacros = (BitSet)relevantMacros.clone();
+                oldMacros.and(previouslyActive);
+                toCancel.or(oldMacros);
+            }
+        }
+    }
+
+    private static BitSet[] macrosByOperation(Enum<?>[][] macroOperations, int operationCount, BitSet active)
+    {
+        BitSet[] macros = new BitSet[operationCount];
+        for (int i = 0; i < operationCount; i++)
+        {
+            macros[i] = new BitSet();
+        }
+
+        for (int i = active.nextSetBit(0); i >= 0; i = active.nextSetBit(i + 1))
+        {
+            for (Enum<?> operation : macroOperations[i])
+            {
+                macros[operation.ordinal()].set(i);
+            }
+        }
+
+        return macros;
+    }
+
+    private static <T> T[] choose(Random random, T[] values, T[] type)
+    {
+        List<T> chosen = new ArrayList<T>();
+        double probability = random.nextDouble() * 0.2;
+        for (T value : values)
+        {
+            if (random.nextDouble() < probability)
+            {
+                chosen.add(value);
+            }
+        }
+
+        return chosen.toArray(type);
+    }
+
+    private static BitSet randomBits(Random random, int count, double probability)
+    {
+        BitSet bits = new BitSet();
+        for (int i = 0; i < count; i++)
+        {
+            if (random.nextDouble() < probability)
+            {
+                bits.set(i);
+            }
+        }
+
+        return bits;
+    }
+
+    private static BitSet bits(int... values)
+    {
+        BitSet bits = new BitSet();
+        for (int value : values)
+        {
+            bits.set(value);
+        }
+
+        return bits;
+    }
+}
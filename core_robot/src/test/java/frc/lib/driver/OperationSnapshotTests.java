@@ -0,0 +1,59 @@
+package frc.lib.driver;
+
+import java.util.EnumMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.driver.descriptions.AnalogOperationDescription;
+import frc.lib.driver.descriptions.DigitalOperationDescription;
+import frc.lib.driver.states.AnalogOperationState;
+import frc.lib.driver.states.DigitalOperationState;
+import frc.robot.driver.AnalogOperation;
+import frc.robot.driver.DigitalOperation;
+
+public class OperationSnapshotTests
+{
+    @Test
+    public void testCapture()
+    {
+        AnalogOperation[] analogOperations = AnalogOperation.values();
+        DigitalOperation[] digitalOperations = DigitalOperation.values();
+
+        EnumMap<AnalogOperation, AnalogOperationState> analogStateMap = new EnumMap<AnalogOperation, AnalogOperationState>(AnalogOperation.class);
+        for (AnalogOperation operation : analogOperations)
+        {
+            analogStateMap.put(operation, new AnalogOperationState(new AnalogOperationDescription(operation)));
+        }
+
+        EnumMap<DigitalOperation, DigitalOperationState> digitalStateMap = new EnumMap<DigitalOperation, DigitalOperationState>(DigitalOperation.class);
+        for (DigitalOperation operation : digitalOperations)
+        {
+            digitalStateMap.put(operation, new DigitalOperationState(new DigitalOperationDescription(operation)));
+        }
+
+        AnalogOperation analogOperation = analogOperations[analogOperations.length - 1];
+        DigitalOperation digitalOperation = digitalOperations[digitalOperations.length - 1];
+        analogStateMap.get(analogOperation).setIsInterrupted(true);
+        analogStateMap.get(analogOperation).setInterruptState(0.5);
+        digitalStateMap.get(digitalOperation).setIsInterrupted(true);
+        digitalStateMap.get(digitalOperation).setInterruptState(true);
+
+        OperationSnapshot snapshot = new OperationSnapshot(analogOperations.length, digitalOperations.length);
+        snapshot.capture(analogOperations, analogStateMap, digitalOperations, digitalStateMap, 3L);
+
+        Assertions.assertEquals(3L, snapshot.getUpdateNumber());
+        Assertions.assertEquals(0.5, snapshot.getAnalog(analogOperation), 0.0001);
+        Assertions.assertEquals(0.0, snapshot.getAnalog(analogOperations[0]), 0.0001);
+        Assertions.assertTrue(snapshot.getDigital(digitalOperation));
+        Assertions.assertFalse(snapshot.getDigital(digitalOperations[0]));
+
+        // changes to the operation states are not visible until the next capture
+        digitalStateMap.get(digitalOperation).setInterruptState(false);
+        Assertions.assertTrue(snapshot.getDigital(digitalOperation));
+
+        snapshot.capture(analogOperations, analogStateMap, digitalOperations, digitalStateMap, 4L);
+        Assertions.assertFalse(snapshot.getDigital(digitalOperation), "expect previously-set bits to be cleared");
+        Assertions.assertEquals(4L, snapshot.getUpdateNumber());
+    }
+}
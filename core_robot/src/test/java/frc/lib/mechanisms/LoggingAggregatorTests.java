@@ -0,0 +1,177 @@
+package frc.lib.mechanisms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import frc.lib.robotprovider.ITimer;
+import frc.lib.robotprovider.LoggingAggregation;
+import frc.lib.robotprovider.StringLogger;
+import frc.robot.LoggingKey;
+import frc.robot.TestTimer;
+
+public class LoggingAggregatorTests
+{
+    // logged every 5 updates
+    private static final LoggingKey Key = LoggingKey.DriveTrainDriveVelocity1;
+
+    // each update is a quarter of a second, and rate-limited values are written at most once a second
+    private static final double UpdatePeriod = 0.25;
+    private static final double RateLimitInterval = 1.0;
+
+    @Test
+    public void testNumberAggregations()
+    {
+        double[] values = new double[] { 1.0, -7.0, 3.0, 6.0, 2.0, 4.0, 4.0, 4.0, 4.0, 4.0, 0.5 };
+
+        Assertions.assertEquals(Arrays.asList("2.0", "4.0"), LoggingAggregatorTests.runNumbers(LoggingAggregation.Last, values));
+        Assertions.assertEquals(Arrays.asList("-7.0", "4.0"), LoggingAggregatorTests.runNumbers(LoggingAggregation.Min, values));
+        Assertions.assertEquals(Arrays.asList("6.0", "4.0"), LoggingAggregatorTests.runNumbers(LoggingAggregation.Max, values));
+        Assertions.assertEquals(Arrays.asList("1.0", "4.0"), LoggingAggregatorTests.runNumbers(LoggingAggregation.Mean, values));
+        Assertions.assertEquals(Arrays.asList("-7.0", "4.0"), LoggingAggregatorTests.runNumbers(LoggingAggregation.Peak, values));
+        Assertions.assertEquals(Arrays.asList("4", "1"), LoggingAggregatorTests.runNumbers(LoggingAggregation.ChangeCount, values));
+    }
+
+    @Test
+    public void testRateLimit()
+    {
+        // changes are written immediately, at most once per second, and the latest suppressed change is written when allowed
+        double[] values = new double[] { 1.0, 2.0, 3.0, 3.0, 3.0, 3.0, 3.0, 3.0, 3.0, 3.0, 3.0, 4.0, 4.0, 4.0, 4.0, 4.0, 4.0 };
+        Assertions.assertEquals(
+            Arrays.asList("0:1.0", "4:3.0", "11:4.0"),
+            LoggingAggregatorTests.run(LoggingAggregation.RateLimit, values, true));
+
+        // a change that returns to the written value before it could be written is dropped
+        values = new double[] { 1.0, 2.0, 1.0, 1.0, 1.0, 1.0, 1.0, 1.0 };
+        Assertions.assertEquals(Arrays.asList("0:1.0"), LoggingAggregatorTests.run(LoggingAggregation.RateLimit, values, true));
+    }
+
+    @Test
+    public void testRateLimitMeasuredInSeconds()
+    {
+        // the interval is measured with the timer, regardless of how many updates happen within it
+        RecordingLogger logger = new RecordingLogger();
+        TestTimer timer = new TestTimer();
+        LoggingAggregator aggregator = LoggingAggregatorTests.createAggregator(LoggingAggregation.RateLimit, timer);
+        double[] times = new double[] { 0.0, 0.5, 0.6, 0.7, 0.8, 0.9, 0.95, 2.0, 2.1, 0.0 };
+        for (int i = 0; i < times.length; i++)
+        {
+            logger.update = i;
+            timer.setTime(times[i]);
+            aggregator.addNumber(logger, LoggingAggregatorTests.Key, i);
+            aggregator.update(logger);
+        }
+
+        // time going backwards (the timer is reset when disabled) allows a write
+        Assertions.assertEquals(Arrays.asList("0:0.0", "7:7.0", "9:9.0"), logger.updateValues);
+
+        // without a timer, every change is written
+        logger = new RecordingLogger();
+        aggregator = LoggingAggregatorTests.createAggregator(LoggingAggregation.RateLimit, null);
+        for (int i = 0; i < 3; i++)
+        {
+            aggregator.addNumber(logger, LoggingAggregatorTests.Key, i);
+            aggregator.update(logger);
+        }
+
+        Assertions.assertEquals(Arrays.asList("0.0", "1.0", "2.0"), logger.values);
+    }
+
+    @Test
+    public void testNullsAndStrings()
+    {
+        RecordingLogger logger = new RecordingLogger();
+        LoggingAggregator aggregator = LoggingAggregatorTests.createAggregator(LoggingAggregation.Max);
+
+        // nulls are ignored while there are numbers in the window
+        for (int i = 0; i < 5; i++)
+        {
+            aggregator.addNumber(logger, LoggingAggregatorTests.Key, i == 2 ? (Double)2.0 : null);
+            aggregator.update(logger);
+        }
+
+        for (int i = 0; i < 5; i++)
+        {
+            aggregator.addNumber(logger, LoggingAggregatorTests.Key, (Double)null);
+            aggregator.update(logger);
+        }
+
+        // strings can't be combined, so the last one is written
+        for (int i = 0; i < 5; i++)
+        {
+            aggregator.addString(logger, LoggingAggregatorTests.Key, "s" + i);
+            aggregator.update(logger);
+        }
+
+        // nothing is written for a window with no values
+        for (int i = 0; i < 5; i++)
+        {
+            aggregator.update(logger);
+        }
+
+        Assertions.assertEquals(Arrays.asList("2.0", "null", "s4"), logger.values);
+    }
+
+    private static List<String> runNumbers(LoggingAggregation aggregation, double[] values)
+    {
+        return LoggingAggregatorTests.run(aggregation, values, false);
+    }
+
+    private static List<String> run(LoggingAggregation aggregation, double[] values, boolean includeUpdate)
+    {
+        RecordingLogger logger = new RecordingLogger();
+        TestTimer timer = new TestTimer();
+        LoggingAggregator aggregator = LoggingAggregatorTests.createAggregator(aggregation, timer);
+        for (int i = 0; i < values.length; i++)
+        {
+            logger.update = i;
+            timer.setTime(i * LoggingAggregatorTests.UpdatePeriod);
+            aggregator.addNumber(logger, LoggingAggregatorTests.Key, values[i]);
+            aggregator.update(logger);
+        }
+
+        if (includeUpdate)
+        {
+            return logger.updateValues;
+        }
+
+        return logger.values;
+    }
+
+    private static LoggingAggregator createAggregator(LoggingAggregation aggregation)
+    {
+        return LoggingAggregatorTests.createAggregator(aggregation, null);
+    }
+
+    private static LoggingAggregator createAggregator(LoggingAggregation aggregation, ITimer timer)
+    {
+        LoggingAggregation[] aggregations = new LoggingAggregation[LoggingKey.values().length];
+        Arrays.fill(aggregations, LoggingAggregation.Sample);
+        aggregations[LoggingAggregatorTests.Key.ordinal()] = aggregation;
+
+        double[] rateLimitIntervals = new double[LoggingKey.values().length];
+        rateLimitIntervals[LoggingAggregatorTests.Key.ordinal()] = LoggingAggregatorTests.RateLimitInterval;
+
+        LoggingAggregator aggregator = new LoggingAggregator(aggregations, rateLimitIntervals, timer);
+        Assertions.assertTrue(aggregator.isAggregated(LoggingAggregatorTests.Key));
+        Assertions.assertFalse(aggregator.isAggregated(LoggingKey.RobotTime));
+        return aggregator;
+    }
+
+    private static class RecordingLogger extends StringLogger
+    {
+        private final List<String> values = new ArrayList<String>();
+        private final List<String> updateValues = new ArrayList<String>();
+        private int update;
+
+        @Override
+        protected void internalLogString(LoggingKey key, String value)
+        {
+            this.values.add(value);
+            this.updateValues.add(this.update + ":" + value);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package frc.robot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+
+import frc.lib.robotprovider.IBinaryFileWriter;
+import frc.lib.robotprovider.IFile;
+import frc.lib.robotprovider.IFileWriter;
+
+/**
+ * An in-memory file system for tests, where each file opened for writing is a TestFileWriter, and writes fail once the files would
+ * use more than the capacity.  As with java.io.File, the free space of a file that doesn't exist (yet) is 0.
+ */
+public class TestFile implements IFile
+{
+    private final long capacity;
+    private final Map<String, TestFileWriter> files;
+    private String fileName;
+
+    public TestFile()
+    {
+        this(Long.MAX_VALUE / 2);
+    }
+
+    public TestFile(long capacity)
+    {
+        this.capacity = capacity;
+        this.files = new LinkedHashMap<String, TestFileWriter>();
+    }
+
+    public synchronized int getFileCount()
+    {
+        return this.files.size();
+    }
+
+    public synchronized byte[] getContents(String name)
+    {
+        Assertions.assertTrue(this.files.containsKey(name), name);
+        return this.files.get(name).toByteArray();
+    }
+
+    public synchronized long getUsedSpace()
+    {
+        long used = 0L;
+        for (TestFileWriter writer : this.files.values())
+        {
+            used += writer.size();
+        }
+
+        return used;
+    }
+
+    /**
+     * Write each of the files to the disk at its name, for tests of readers that take a path
+     * @throws IOException if a file can't be written
+     */
+    public synchronized void saveToDisk() throws IOException
+    {
+        for (Map.Entry<String, TestFileWriter> entry : this.files.entrySet())
+        {
+            Path path = Paths.get(entry.getKey());
+            if (path.getParent() != null)
+            {
+                Files.createDirectories(path.getParent());
+            }
+
+            Files.write(path, entry.getValue().toByteArray());
+        }
+    }
+
+    @Override
+    public synchronized void open(String fileName)
+    {
+        this.fileName = fileName;
+    }
+
+    @Override
+    public synchronized boolean exists()
+    {
+        return this.files.containsKey(this.fileName);
+    }
+
+    @Override
+    public synchronized long getFreeSpace()
+    {
+        // like java.io.File, only a directory (a name ending with a slash) or a file that exists knows its free space
+        if (!this.fileName.endsWith("/") && !this.files.containsKey(this.fileName))
+        {
+            return 0L;
+        }
+
+        return this.capacity - this.getUsedSpace();
+    }
+
+    @Override
+    public void mkdir()
+    {
+    }
+
+    @Override
+    public synchronized IFileWriter openWriter()
+    {
+        return this.create();
+    }
+
+    @Override
+    public synchronized IBinaryFileWriter openBinaryWriter()
+    {
+        return this.create();
+    }
+
+    synchronized boolean hasSpaceFor(int length)
+    {
+        return this.getUsedSpace() + length <= this.capacity;
+    }
+
+    private TestFileWriter create()
+    {
+        TestFileWriter writer = new TestFileWriter(this);
+        this.files.put(this.fileName, writer);
+        return writer;
+    }
+}
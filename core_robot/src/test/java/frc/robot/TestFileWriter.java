@@ -0,0 +1,103 @@
+package frc.robot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import frc.lib.robotprovider.IBinaryFileWriter;
+import frc.lib.robotprovider.IFileWriter;
+
+/**
+ * An in-memory file writer for tests of the loggers, which keeps everything written to it (text as UTF-8) and fails any write or flush
+ * once it has been closed.
+ */
+public class TestFileWriter implements IFileWriter, IBinaryFileWriter
+{
+    private final ByteArrayOutputStream stream;
+    private final TestFile file;
+
+    private volatile boolean closed;
+    private int closeCount;
+
+    public TestFileWriter()
+    {
+        this(null);
+    }
+
+    TestFileWriter(TestFile file)
+    {
+        this.stream = new ByteArrayOutputStream();
+        this.file = file;
+        this.closed = false;
+        this.closeCount = 0;
+    }
+
+    @Override
+    public void append(String string) throws IOException
+    {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        this.write(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException
+    {
+        if (this.closed)
+        {
+            throw new IOException("write after close");
+        }
+
+        // (the file checks the size of each of its writers, so don't hold this writer's lock while checking)
+        if (this.file != null && !this.file.hasSpaceFor(length))
+        {
+            throw new IOException("No space left on device");
+        }
+
+        synchronized (this)
+        {
+            this.stream.write(buffer, offset, length);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        if (this.closed)
+        {
+            throw new IOException("flush after close");
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        this.closed = true;
+        this.closeCount++;
+    }
+
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    public synchronized int getCloseCount()
+    {
+        return this.closeCount;
+    }
+
+    public synchronized int size()
+    {
+        return this.stream.size();
+    }
+
+    public synchronized byte[] toByteArray()
+    {
+        return this.stream.toByteArray();
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return new String(this.stream.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
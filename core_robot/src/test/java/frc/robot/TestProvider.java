@@ -4,6 +4,8 @@ import static org.mockito.Mockito.mock;
 
 import java.util.HashMap;
 
+import org.mockito.Mockito;
+
 import frc.lib.robotprovider.*;
 
 public class TestProvider implements IRobotProvider
@@ -231,7 +233,7 @@ public class TestProvider implements IRobotProvider
     {
         if (!this.joystickMap.containsKey(port))
         {
-            this.joystickMap.put(port, mock(IJoystick.class));
+            this.joystickMap.put(port, mock(IJoystick.class, Mockito.CALLS_REAL_METHODS));
         }
 
         return this.joystickMap.get(port);
@@ -0,0 +1,38 @@
+package frc.robot;
+
+import frc.lib.robotprovider.ITimer;
+
+/**
+ * A timer for tests, where time only moves when it is set
+ */
+public class TestTimer implements ITimer
+{
+    private double time;
+
+    public void setTime(double time)
+    {
+        this.time = time;
+    }
+
+    @Override
+    public void start()
+    {
+    }
+
+    @Override
+    public void stop()
+    {
+    }
+
+    @Override
+    public double get()
+    {
+        return this.time;
+    }
+
+    @Override
+    public void reset()
+    {
+        this.time = 0.0;
+    }
+}
@@ -15,7 +15,8 @@ public class PathPlannerTrajectoryTests
     @Test
     public void verifyTrajectoryGenerationConstraints()
     {
-        TrajectoryManager trajectoryManager = new TrajectoryManager();
+        // build on this thread, so that failed assertions fail the test
+        TrajectoryManager trajectoryManager = new TrajectoryManager(0);
         PathPlannerTrajectoryGenerator.generateTrajectories(
             trajectoryManager,
             new PathPlannerVerifier());
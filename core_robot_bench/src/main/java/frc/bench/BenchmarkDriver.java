@@ -0,0 +1,79 @@
+package frc.bench;
+
+import frc.lib.driver.IDriver;
+import frc.lib.driver.descriptions.UserInputDevice;
+import frc.lib.robotprovider.JoystickRumbleType;
+import frc.lib.robotprovider.RobotMode;
+import frc.robot.driver.AnalogOperation;
+import frc.robot.driver.DigitalOperation;
+
+/**
+ * Driver for benchmarks, which reports whatever operation values the benchmark has set.
+ */
+public class BenchmarkDriver implements IDriver
+{
+    private final double[] analogValues = new double[AnalogOperation.values().length];
+    private final boolean[] digitalValues = new boolean[DigitalOperation.values().length];
+
+    private RobotMode currentMode = RobotMode.Teleop;
+
+    @Override
+    public RobotMode getMode()
+    {
+        return this.currentMode;
+    }
+
+    @Override
+    public void update()
+    {
+    }
+
+    @Override
+    public void stop()
+    {
+        this.currentMode = RobotMode.Disabled;
+    }
+
+    @Override
+    public void startMode(RobotMode mode)
+    {
+        this.currentMode = mode;
+    }
+
+    @Override
+    public boolean getDigital(DigitalOperation digitalOperation)
+    {
+        return this.digitalValues[digitalOperation.ordinal()];
+    }
+
+    @Override
+    public double getAnalog(AnalogOperation analogOperation)
+    {
+        return this.analogValues[analogOperation.ordinal()];
+    }
+
+    @Override
+    public void setRumble(UserInputDevice device, JoystickRumbleType type, double value)
+    {
+    }
+
+    /**
+     * Set the value to report for the provided digital operation
+     * @param digitalOperation to set
+     * @param value to report
+     */
+    public void setDigital(DigitalOperation digitalOperation, boolean value)
+    {
+        this.digitalValues[digitalOperation.ordinal()] = value;
+    }
+
+    /**
+     * Set the value to report for the provided analog operation
+     * @param analogOperation to set
+     * @param value to report
+     */
+    public void setAnalog(AnalogOperation analogOperation, double value)
+    {
+        this.analogValues[analogOperation.ordinal()] = value;
+    }
+}
@@ -0,0 +1,56 @@
+package frc.bench;
+
+import frc.lib.robotprovider.IJoystick;
+import frc.lib.robotprovider.JoystickRumbleType;
+
+/**
+ * Joystick for benchmarks, which reports fixed axis values and no pressed buttons.
+ * Unlike a Mockito mock, reading from it doesn't allocate, so the allocation rate reported for a benchmark belongs to the code under test.
+ */
+public class BenchmarkJoystick implements IJoystick
+{
+    private final double[] axes;
+
+    /**
+     * Initializes a new BenchmarkJoystick
+     * @param axes the value of each axis
+     */
+    public BenchmarkJoystick(double... axes)
+    {
+        this.axes = axes;
+    }
+
+    @Override
+    public boolean isConnected()
+    {
+        return true;
+    }
+
+    @Override
+    public double getAxis(int relevantAxis)
+    {
+        if (relevantAxis < 0 || relevantAxis >= this.axes.length)
+        {
+            return 0.0;
+        }
+
+        return this.axes[relevantAxis];
+    }
+
+    @Override
+    public int getPOV()
+    {
+        return -1;
+    }
+
+    @Override
+    public boolean getRawButton(int value)
+    {
+        return false;
+    }
+
+    @Override
+    public void setRumble(JoystickRumbleType type, double value)
+    {
+    }
+}
@@ -0,0 +1,72 @@
+package frc.bench;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.HashMap;
+
+import frc.lib.robotprovider.*;
+import frc.robot.TestProvider;
+
+/**
+ * TestProvider for benchmarks, which hands out stub-only mocks for the devices that are used every loop.
+ * Regular mocks remember every invocation so that they can be verified, which would leak memory over a benchmark run and
+ * inflate the reported allocation rate.
+ */
+public class BenchmarkProvider extends TestProvider
+{
+    private final HashMap<Integer, ITalonFX> talonFxMap = new HashMap<Integer, ITalonFX>();
+    private final HashMap<Integer, ICANCoder> cancoderMap = new HashMap<Integer, ICANCoder>();
+    private IPigeon2 pigeon2;
+
+    @Override
+    public ITalonFX getTalonFX(int deviceNumber)
+    {
+        return this.getTalonFX(deviceNumber, null);
+    }
+
+    @Override
+    public ITalonFX getTalonFX(int deviceNumber, String canbus)
+    {
+        if (!this.talonFxMap.containsKey(deviceNumber))
+        {
+            this.talonFxMap.put(deviceNumber, mock(ITalonFX.class, withSettings().stubOnly()));
+        }
+
+        return this.talonFxMap.get(deviceNumber);
+    }
+
+    @Override
+    public ICANCoder getCANCoder(int deviceNumber)
+    {
+        return this.getCANCoder(deviceNumber, null);
+    }
+
+    @Override
+    public ICANCoder getCANCoder(int deviceNumber, String canbus)
+    {
+        if (!this.cancoderMap.containsKey(deviceNumber))
+        {
+            this.cancoderMap.put(deviceNumber, mock(ICANCoder.class, withSettings().stubOnly()));
+        }
+
+        return this.cancoderMap.get(deviceNumber);
+    }
+
+    @Override
+    public IPigeon2 getPigeon2(int deviceNumber)
+    {
+        return this.getPigeon2(deviceNumber, null);
+    }
+
+    @Override
+    public IPigeon2 getPigeon2(int deviceNumber, String canbus)
+    {
+        if (this.pigeon2 == null)
+        {
+            this.pigeon2 = mock(IPigeon2.class, withSettings().stubOnly());
+        }
+
+        return this.pigeon2;
+    }
+}
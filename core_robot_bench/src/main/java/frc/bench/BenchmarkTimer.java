@@ -0,0 +1,42 @@
+package frc.bench;
+
+import frc.lib.robotprovider.ITimer;
+
+/**
+ * Timer for benchmarks, which only advances when told to (so that each benchmark iteration represents one ~20ms loop).
+ */
+public class BenchmarkTimer implements ITimer
+{
+    private double currentTime = 0.0;
+
+    @Override
+    public void start()
+    {
+    }
+
+    @Override
+    public void stop()
+    {
+    }
+
+    @Override
+    public double get()
+    {
+        return this.currentTime;
+    }
+
+    @Override
+    public void reset()
+    {
+        this.currentTime = 0.0;
+    }
+
+    /**
+     * Advance the timer
+     * @param time to advance by, in seconds
+     */
+    public void increment(double time)
+    {
+        this.currentTime += time;
+    }
+}
@@ -0,0 +1,61 @@
+package frc.bench;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.google.inject.Injector;
+
+import frc.lib.driver.Driver;
+import frc.lib.driver.TrajectoryManager;
+import frc.lib.driver.descriptions.UserInputDevice;
+import frc.lib.mechanisms.LoggingManager;
+import frc.lib.robotprovider.NullLogger;
+import frc.lib.robotprovider.RobotMode;
+import frc.robot.driver.AnalogOperation;
+import frc.robot.driver.AutonomousRoutineSelector;
+import frc.robot.driver.ButtonMap;
+
+/**
+ * Benchmark for Driver.update using the real ButtonMap, with the driver's sticks held partially forward and no buttons pressed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DriverBenchmark
+{
+    private Driver driver;
+
+    @Setup
+    public void setup()
+    {
+        BenchmarkProvider provider = new BenchmarkProvider();
+        for (UserInputDevice device : UserInputDevice.values())
+        {
+            if (device != UserInputDevice.None && device != UserInputDevice.MaxCount)
+            {
+                provider.setJoystick(device.getId(), new BenchmarkJoystick(0.0, -0.5, 0.0, 0.0, 0.25, 0.0));
+            }
+        }
+
+        Injector injector = mock(Injector.class);
+        when(injector.getInstance(AutonomousRoutineSelector.class)).thenReturn(mock(AutonomousRoutineSelector.class));
+        when(injector.getInstance(TrajectoryManager.class)).thenReturn(mock(TrajectoryManager.class));
+
+        this.driver = new Driver(new LoggingManager(new NullLogger()), injector, new ButtonMap(), provider);
+        this.driver.startMode(RobotMode.Teleop);
+    }
+
+    @Benchmark
+    public double update()
+    {
+        this.driver.update();
+        return this.driver.getAnalog(AnalogOperation.DriveTrainMoveForward);
+    }
+}
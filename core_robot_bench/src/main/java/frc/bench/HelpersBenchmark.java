@@ -0,0 +1,123 @@
+package frc.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import frc.lib.controllers.PIDHandler;
+import frc.lib.controllers.TrapezoidProfile;
+import frc.lib.filters.FloatingAverageCalculator;
+import frc.lib.helpers.AnglePair;
+import frc.lib.helpers.Graph;
+import frc.lib.helpers.GraphNode;
+
+/**
+ * Benchmarks for the filters, controllers and helpers that mechanisms use every loop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HelpersBenchmark
+{
+    private BenchmarkTimer timer;
+    private FloatingAverageCalculator floatingAverageCalculator;
+    private PIDHandler pidHandler;
+    private TrapezoidProfile trapezoidProfile;
+    private TrapezoidProfile.State trapezoidCurrent;
+    private TrapezoidProfile.State trapezoidGoal;
+    private BenchmarkGraph graph;
+    private BenchmarkGraphNode graphStart;
+    private BenchmarkGraphNode graphEnd;
+
+    private double value;
+
+    @Setup
+    public void setup()
+    {
+        this.timer = new BenchmarkTimer();
+        this.floatingAverageCalculator = new FloatingAverageCalculator(this.timer, 5.0, 50.0);
+        this.pidHandler = new PIDHandler(0.1, 0.001, 0.01, 0.0, 1.0, -1.0, 1.0, this.timer);
+        this.trapezoidProfile = new TrapezoidProfile(100.0, 50.0);
+        this.trapezoidCurrent = new TrapezoidProfile.State(0.0, 0.0);
+        this.trapezoidGoal = new TrapezoidProfile.State(100.0, 0.0);
+
+        // a grid of nodes, connected to their neighbors
+        int size = 10;
+        this.graph = new BenchmarkGraph();
+        BenchmarkGraphNode[] nodes = new BenchmarkGraphNode[size * size];
+        for (int i = 0; i < nodes.length; i++)
+        {
+            nodes[i] = this.graph.createNode();
+            if (i % size > 0)
+            {
+                this.graph.connectBidirectional(nodes[i - 1], nodes[i], 1.0 + (i % 3));
+            }
+
+            if (i >= size)
+            {
+                this.graph.connectBidirectional(nodes[i - size], nodes[i], 1.0 + (i % 5));
+            }
+        }
+
+        this.graphStart = nodes[0];
+        this.graphEnd = nodes[nodes.length - 1];
+
+        this.value = 0.0;
+    }
+
+    @Benchmark
+    public double floatingAverageCalculatorUpdate()
+    {
+        this.timer.increment(0.02);
+        this.value += 0.1;
+        return this.floatingAverageCalculator.update(this.value % 10.0);
+    }
+
+    @Benchmark
+    public AnglePair anglePairGetClosestAngle()
+    {
+        this.value += 7.3;
+        return AnglePair.getClosestAngle(this.value % 360.0, 45.0, true);
+    }
+
+    @Benchmark
+    public double pidHandlerCalculatePosition()
+    {
+        this.timer.increment(0.02);
+        this.value += 0.1;
+        return this.pidHandler.calculatePosition(10.0, this.value % 20.0);
+    }
+
+    @Benchmark
+    public boolean trapezoidProfileUpdate()
+    {
+        // restart the profile from the beginning so that each invocation does similar work
+        this.trapezoidCurrent.updatePosition(0.0);
+        this.trapezoidCurrent.setVelocity(0.0);
+        return this.trapezoidProfile.update(0.02, this.trapezoidCurrent, this.trapezoidGoal);
+    }
+
+    @Benchmark
+    public List<BenchmarkGraphNode> graphGetOptimalPath()
+    {
+        return this.graph.getOptimalPath(this.graphStart, this.graphEnd);
+    }
+
+    public static class BenchmarkGraph extends Graph<BenchmarkGraphNode>
+    {
+        public BenchmarkGraphNode createNode()
+        {
+            BenchmarkGraphNode node = new BenchmarkGraphNode();
+            this.addNode(node);
+            return node;
+        }
+    }
+
+    public static class BenchmarkGraphNode extends GraphNode
+    {
+    }
+}
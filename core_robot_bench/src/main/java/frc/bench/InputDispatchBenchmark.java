@@ -0,0 +1,262 @@
+package frc.bench;
+
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import frc.lib.driver.AnalogAxis;
+import frc.lib.driver.InputDispatchTable;
+import frc.lib.driver.UserInputDeviceButton;
+import frc.lib.driver.descriptions.*;
+import frc.lib.driver.states.*;
+import frc.lib.robotprovider.IJoystick;
+import frc.lib.robotprovider.IJoystickSnapshot;
+import frc.lib.robotprovider.JoystickSnapshot;
+import frc.robot.driver.AnalogOperation;
+import frc.robot.driver.ButtonMap;
+import frc.robot.driver.DigitalOperation;
+import frc.robot.driver.MacroOperation;
+import frc.robot.driver.Shift;
+
+/**
+ * Benchmark for checking the user inputs of every shift, operation and macro in the real ButtonMap, comparing the compiled
+ * InputDispatchTable against going through each description (with the shifts as an EnumSet), as the operation states used to.  Both
+ * read from joystick snapshots captured in each invocation, as the Driver does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputDispatchBenchmark
+{
+    private IJoystick[] joysticks;
+    private JoystickSnapshot[] snapshots;
+    private ShiftDescription[] shiftDescriptions;
+    private OperationState[] states;
+    private InputDispatchTable table;
+
+    private Shift[] allShifts;
+    private EnumSet<Shift> activeShifts;
+    private BitSet modifiedAnalogOperations;
+    private BitSet modifiedDigitalOperations;
+
+    @Setup
+    public void setup()
+    {
+        this.joysticks = new IJoystick[UserInputDevice.MaxCount.getId()];
+        for (UserInputDevice device : UserInputDevice.values())
+        {
+            if (device != UserInputDevice.None && device != UserInputDevice.MaxCount)
+            {
+                this.joysticks[device.getId()] = new BenchmarkJoystick(0.0, -0.5, 0.0, 0.0, 0.25, 0.0);
+            }
+        }
+
+        ButtonMap buttonMap = new ButtonMap();
+        this.allShifts = Shift.values();
+        this.shiftDescriptions = new ShiftDescription[this.allShifts.length];
+        for (ShiftDescription description : buttonMap.getShiftSchema())
+        {
+            this.shiftDescriptions[description.getShift().ordinal()] = description;
+        }
+
+        OperationState[] analogStates = new OperationState[AnalogOperation.values().length];
+        for (AnalogOperationDescription description : buttonMap.getAnalogOperationSchema())
+        {
+            analogStates[description.getOperation().ordinal()] = new AnalogOperationState(description);
+        }
+
+        OperationState[] digitalStates = new OperationState[DigitalOperation.values().length];
+        for (DigitalOperationDescription description : buttonMap.getDigitalOperationSchema())
+        {
+            digitalStates[description.getOperation().ordinal()] = new DigitalOperationState(description);
+        }
+
+        OperationState[] macroStates = new OperationState[MacroOperation.values().length];
+        for (MacroOperationDescription description : buttonMap.getMacroOperationSchema())
+        {
+            macroStates[((MacroOperation)description.getOperation()).ordinal()] = new MacroOperationState(description, null, null, null);
+        }
+
+        this.table = new InputDispatchTable(this.shiftDescriptions, analogStates, digitalStates, macroStates);
+        this.snapshots = new JoystickSnapshot[this.joysticks.length];
+        for (int i = 0; i < this.joysticks.length; i++)
+        {
+            if (this.joysticks[i] != null)
+            {
+                this.snapshots[i] = this.table.createSnapshot(i);
+            }
+        }
+
+        int count = 0;
+        OperationState[] states = new OperationState[analogStates.length + digitalStates.length + macroStates.length];
+        for (OperationState[] kindStates : new OperationState[][] { analogStates, digitalStates, macroStates })
+        {
+            for (OperationState state : kindStates)
+            {
+                if (state != null)
+                {
+                    states[count++] = state;
+                }
+            }
+        }
+
+        this.states = new OperationState[count];
+        System.arraycopy(states, 0, this.states, 0, count);
+
+        this.activeShifts = EnumSet.noneOf(Shift.class);
+        this.modifiedAnalogOperations = new BitSet();
+        this.modifiedDigitalOperations = new BitSet();
+    }
+
+    @Benchmark
+    public int dispatchTable()
+    {
+        this.modifiedAnalogOperations.clear();
+        this.modifiedDigitalOperations.clear();
+        this.capture();
+        int activeShiftMask = this.table.checkShifts(this.snapshots);
+        this.table.checkInputs(this.snapshots, activeShiftMask, this.modifiedAnalogOperations, this.modifiedDigitalOperations);
+        return activeShiftMask;
+    }
+
+    @Benchmark
+    public int descriptions()
+    {
+        this.activeShifts.clear();
+        this.capture();
+        for (int i = 0; i < this.shiftDescriptions.length; i++)
+        {
+            ShiftDescription description = this.shiftDescriptions[i];
+            if (description != null && description.checkInput(this.snapshots))
+            {
+                this.activeShifts.add(this.allShifts[i]);
+            }
+        }
+
+        int modified = 0;
+        for (OperationState state : this.states)
+        {
+            if (InputDispatchBenchmark.checkInput(state, this.snapshots, this.activeShifts))
+            {
+                modified++;
+            }
+        }
+
+        return modified;
+    }
+
+    private void capture()
+    {
+        for (int i = 0; i < this.joysticks.length; i++)
+        {
+            if (this.joysticks[i] != null)
+            {
+                this.joysticks[i].capture(this.snapshots[i]);
+            }
+        }
+    }
+
+    /**
+     * Check the input of an operation by going through its description, as the operation states used to
+     */
+    private static boolean checkInput(OperationState state, IJoystickSnapshot[] joysticks, EnumSet<Shift> activeShifts)
+    {
+        OperationDescription<?> description = state.getDescription();
+        UserInputDevice userInputDevice = description.getUserInputDevice();
+        if (userInputDevice == UserInputDevice.None)
+        {
+            return false;
+        }
+
+        EnumSet<Shift> relevantShifts = description.getRelevantShifts();
+        if (relevantShifts != null)
+        {
+            EnumSet<Shift> requiredShifts = description.getRequiredShifts();
+            for (Shift shift : relevantShifts)
+            {
+                if (activeShifts.contains(shift) != requiredShifts.contains(shift))
+                {
+                    state.clearInput();
+                    return false;
+                }
+            }
+        }
+
+        IJoystickSnapshot relevantJoystick = joysticks[userInputDevice.getId()];
+        if (relevantJoystick == null || !relevantJoystick.isConnected())
+        {
+            return false;
+        }
+
+        if (description instanceof AnalogOperationDescription)
+        {
+            AnalogOperationDescription analogDescription = (AnalogOperationDescription)description;
+            AnalogAxis axis = analogDescription.getUserInputDeviceAxis();
+            if (axis == null || axis == AnalogAxis.NONE)
+            {
+                return false;
+            }
+
+            AnalogAxis secondaryAxis = analogDescription.getUserInputDeviceSecondaryAxis();
+            if (secondaryAxis != null && secondaryAxis != AnalogAxis.NONE)
+            {
+                return ((AnalogOperationState)state).updateInput(relevantJoystick.getAxis(axis.Value), relevantJoystick.getAxis(secondaryAxis.Value));
+            }
+
+            return ((AnalogOperationState)state).updateInput(relevantJoystick.getAxis(axis.Value));
+        }
+
+        UserInputDeviceButton button;
+        int povValue;
+        AnalogAxis axis;
+        if (description instanceof DigitalOperationDescription)
+        {
+            DigitalOperationDescription digitalDescription = (DigitalOperationDescription)description;
+            button = digitalDescription.getUserInputDeviceButton();
+            povValue = digitalDescription.getUserInputDevicePovValue();
+            axis = digitalDescription.getUserInputDeviceAxis();
+        }
+        else
+        {
+            MacroOperationDescription macroDescription = (MacroOperationDescription)description;
+            button = macroDescription.getUserInputDeviceButton();
+            povValue = macroDescription.getUserInputDevicePovValue();
+            axis = macroDescription.getUserInputDeviceAxis();
+        }
+
+        boolean buttonPressed;
+        if (button == UserInputDeviceButton.POV)
+        {
+            buttonPressed = relevantJoystick.getPOV() == povValue;
+        }
+        else if (button == UserInputDeviceButton.ANALOG_AXIS_RANGE)
+        {
+            double value = relevantJoystick.getAxis(axis.Value);
+            buttonPressed = value >= description.getUserInputDeviceRangeMin() && value <= description.getUserInputDeviceRangeMax();
+        }
+        else if (button != UserInputDeviceButton.NONE)
+        {
+            buttonPressed = relevantJoystick.getRawButton(button.Value);
+        }
+        else
+        {
+            buttonPressed = false;
+        }
+
+        if (state instanceof DigitalOperationState)
+        {
+            ((DigitalOperationState)state).updateInput(buttonPressed);
+        }
+        else
+        {
+            ((MacroOperationState)state).updateInput(buttonPressed);
+        }
+
+        return buttonPressed;
+    }
+}
@@ -0,0 +1,97 @@
+package frc.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import frc.lib.robotprovider.CSVLogger;
+import frc.lib.robotprovider.ColumnarCSVLogger;
+import frc.lib.robotprovider.ILogger;
+import frc.lib.robotprovider.LoggingType;
+import frc.lib.robotprovider.StringLogger;
+import frc.robot.LoggingKey;
+
+/**
+ * Benchmarks for logging a full loop's worth of values into the CSVLogger and ColumnarCSVLogger, and for the StringLogger's number formatting.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggerBenchmark
+{
+    private LoggingKey[] keys;
+    private NullFileWriter fileWriter;
+    private CSVLogger csvLogger;
+    private ColumnarCSVLogger columnarCsvLogger;
+    private CapturingLogger stringLogger;
+    private double value;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        this.keys = LoggingKey.values();
+        this.fileWriter = new NullFileWriter();
+        this.csvLogger = new CSVLogger(this.fileWriter);
+        this.columnarCsvLogger = new ColumnarCSVLogger(this.fileWriter);
+        this.stringLogger = new CapturingLogger();
+        this.value = 0.0;
+    }
+
+    @Benchmark
+    public long csvLoggerUpdate()
+    {
+        return this.logLoop(this.csvLogger);
+    }
+
+    @Benchmark
+    public long columnarCsvLoggerUpdate()
+    {
+        return this.logLoop(this.columnarCsvLogger);
+    }
+
+    @Benchmark
+    public String stringLoggerLogNumber()
+    {
+        this.value += 0.0123;
+        this.stringLogger.logNumber(LoggingKey.PowerBatteryVoltage, this.value);
+        return this.stringLogger.lastValue;
+    }
+
+    private long logLoop(ILogger logger)
+    {
+        for (LoggingKey key : this.keys)
+        {
+            if (key.type == LoggingType.Number)
+            {
+                logger.logNumber(key, this.value);
+            }
+            else if (key.type == LoggingType.Boolean)
+            {
+                logger.logBoolean(key, true);
+            }
+            else if (key.type == LoggingType.Integer)
+            {
+                logger.logInteger(key, (int)this.value);
+            }
+        }
+
+        this.value += 0.0123;
+        logger.update();
+        return this.fileWriter.getLength();
+    }
+
+    private static class CapturingLogger extends StringLogger
+    {
+        private String lastValue;
+
+        @Override
+        protected void internalLogString(LoggingKey key, String value)
+        {
+            this.lastValue = value;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package frc.bench;
+
+import frc.lib.robotprovider.IFileWriter;
+
+/**
+ * File writer for benchmarks, which counts the characters it is given and then discards them.
+ */
+public class NullFileWriter implements IFileWriter
+{
+    private long length = 0L;
+
+    @Override
+    public void append(String string)
+    {
+        this.length += string.length();
+    }
+
+    @Override
+    public void flush()
+    {
+    }
+
+    @Override
+    public void close()
+    {
+    }
+
+    /**
+     * Retrieve the number of characters that have been written
+     * @return the number of characters
+     */
+    public long getLength()
+    {
+        return this.length;
+    }
+}
@@ -0,0 +1,61 @@
+package frc.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import frc.lib.mechanisms.LoggingManager;
+import frc.lib.robotprovider.NullLogger;
+import frc.lib.robotprovider.RobotMode;
+import frc.robot.driver.AnalogOperation;
+import frc.robot.mechanisms.PigeonManager;
+import frc.robot.mechanisms.PowerManager;
+import frc.robot.mechanisms.SDSDriveTrainMechanism;
+
+/**
+ * Benchmarks for the SDSDriveTrainMechanism's calculateOdometry (run as a part of readSensors) and calculateSetpoints (run as a part of update)
+ * while the robot is being driven forward/right and rotated in field-oriented teleop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SDSDriveTrainBenchmark
+{
+    private BenchmarkTimer timer;
+    private SDSDriveTrainMechanism driveTrain;
+
+    @Setup
+    public void setup()
+    {
+        BenchmarkProvider provider = new BenchmarkProvider();
+        BenchmarkDriver driver = new BenchmarkDriver();
+        driver.setAnalog(AnalogOperation.DriveTrainMoveForward, 0.5);
+        driver.setAnalog(AnalogOperation.DriveTrainMoveRight, 0.25);
+        driver.setAnalog(AnalogOperation.DriveTrainSpinLeft, 0.3);
+
+        this.timer = new BenchmarkTimer();
+        LoggingManager logger = new LoggingManager(new NullLogger());
+        PigeonManager pigeonManager = new PigeonManager(driver, logger, provider);
+        PowerManager powerManager = new PowerManager(driver, this.timer, logger, provider);
+        this.driveTrain = new SDSDriveTrainMechanism(driver, logger, provider, pigeonManager, powerManager, this.timer);
+    }
+
+    @Benchmark
+    public double readSensors()
+    {
+        this.timer.increment(0.02);
+        this.driveTrain.readSensors();
+        return this.driveTrain.getPositionX();
+    }
+
+    @Benchmark
+    public SDSDriveTrainMechanism update()
+    {
+        this.timer.increment(0.02);
+        this.driveTrain.update(RobotMode.Teleop);
+        return this.driveTrain;
+    }
+}
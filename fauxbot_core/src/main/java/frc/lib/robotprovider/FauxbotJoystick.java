@@ -142,6 +142,16 @@ public class FauxbotJoystick implements IJoystick
         }
     }
 
+    @Override
+    public void capture(JoystickSnapshot snapshot)
+    {
+        // hold the lock for the whole capture, so that the snapshot isn't torn by the simulator's UI thread setting values
+        synchronized (this)
+        {
+            snapshot.capture(this);
+        }
+    }
+
     public void setRumble(JoystickRumbleType type, double value)
     {
         synchronized (this)
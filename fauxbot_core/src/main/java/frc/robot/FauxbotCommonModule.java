@@ -3,6 +3,7 @@ package frc.robot;
 import javax.inject.Singleton;
 
 import frc.lib.driver.IButtonMap;
+import frc.lib.mechanisms.LoggingManager;
 import frc.lib.mechanisms.MechanismManager;
 import frc.lib.robotprovider.*;
 import frc.lib.driver.*;
@@ -28,6 +29,6 @@ public abstract class FauxbotCommonModule extends AbstractModule
     @Provides
     public MechanismManager getMechanismManager(Injector injector)
     {
-        return new MechanismManager(SettingsManager.getActiveMechanisms(injector));
+        return new MechanismManager(injector.getInstance(LoggingManager.class), SettingsManager.getActiveMechanisms(injector));
     }
 }
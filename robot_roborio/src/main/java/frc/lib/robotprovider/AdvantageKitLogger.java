@@ -5,7 +5,11 @@ import javax.inject.Singleton;
 
 import org.littletonrobotics.junction.Logger;
 
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc.lib.helpers.Helpers;
 import frc.robot.LoggingKey;
+import frc.robot.TuningConstants;
 
 /**
  * Logger that logs current values to a dashboard.
@@ -14,9 +18,14 @@ import frc.robot.LoggingKey;
 @Singleton
 public class AdvantageKitLogger implements ISmartDashboardLogger
 {
+    private static final double[] EMPTY_NUMBER_ARRAY = new double[0];
+
+    private final DashboardValueCache publishedValues;
+
     @Inject
     public AdvantageKitLogger()
     {
+        this.publishedValues = new DashboardValueCache(TuningConstants.LOG_DASHBOARD_HEARTBEAT_INTERVAL);
     }
 
     /**
@@ -27,7 +36,10 @@ public class AdvantageKitLogger implements ISmartDashboardLogger
     @Override
     public void logBoolean(LoggingKey key, boolean value)
     {
-        Logger.recordOutput(key.value, value);
+        if (this.publishedValues.shouldPublishBoolean(key, value))
+        {
+            Logger.recordOutput(key.value, value);
+        }
     }
 
     /**
@@ -38,7 +50,10 @@ public class AdvantageKitLogger implements ISmartDashboardLogger
     @Override
     public void logBooleanArray(LoggingKey key, boolean[] value)
     {
-        Logger.recordOutput(key.value, value);
+        if (this.publishedValues.shouldPublishBooleanArray(key, value))
+        {
+            Logger.recordOutput(key.value, value);
+        }
     }
 
     /**
@@ -49,7 +64,10 @@ public class AdvantageKitLogger implements ISmartDashboardLogger
     @Override
     public void logNumber(LoggingKey key, double value)
     {
-        Logger.recordOutput(key.value, value);
+        if (this.publishedValues.shouldPublishNumber(key, value))
+        {
+            Logger.recordOutput(key.value, value);
+        }
     }
 
     /**
@@ -59,14 +77,51 @@ public class AdvantageKitLogger implements ISmartDashboardLogger
      */
     @Override
     public void logNumber(LoggingKey key, Double value)
+    {
+        this.logNumber(key, value == null ? -1318.0 : value.doubleValue());
+    }
+
+    /**
+     * Write an array of numbers (doubles) to the smart dashboard
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumberArray(LoggingKey key, double[] value)
     {
         if (value == null)
         {
-            Logger.recordOutput(key.value, -1318.0);
-            return;
+            value = AdvantageKitLogger.EMPTY_NUMBER_ARRAY;
         }
 
-        Logger.recordOutput(key.value, value.doubleValue());
+        if (this.publishedValues.shouldPublishNumberArray(key, value))
+        {
+            Logger.recordOutput(key.value, value);
+        }
+    }
+
+    /**
+     * Write a pose to the smart dashboard, as a Pose2d struct (in meters and radians)
+     * @param key to write to
+     * @param x position (in inches)
+     * @param y position (in inches)
+     * @param angle (in degrees)
+     */
+    @Override
+    public void logPose(LoggingKey key, double x, double y, double angle)
+    {
+        if (this.publishedValues.shouldPublishPose(key, x, y, angle))
+        {
+            // Pose2d is immutable, so only build a new one when the pose has changed (not for a heartbeat)
+            Pose2d pose = (Pose2d)this.publishedValues.getPose(key);
+            if (pose == null)
+            {
+                pose = new Pose2d(x * Helpers.METERS_PER_INCH, y * Helpers.METERS_PER_INCH, new Rotation2d(angle * Helpers.DEGREES_TO_RADIANS));
+                this.publishedValues.setPose(key, pose);
+            }
+
+            Logger.recordOutput(key.value, pose);
+        }
     }
 
     /**
@@ -77,7 +132,10 @@ public class AdvantageKitLogger implements ISmartDashboardLogger
     @Override
     public void logInteger(LoggingKey key, int value)
     {
-        Logger.recordOutput(key.value, value);
+        if (this.publishedValues.shouldPublishInteger(key, value))
+        {
+            Logger.recordOutput(key.value, value);
+        }
     }
 
     /**
@@ -88,13 +146,7 @@ public class AdvantageKitLogger implements ISmartDashboardLogger
     @Override
     public void logInteger(LoggingKey key, Integer value)
     {
-        if (value == null)
-        {
-            Logger.recordOutput(key.value, -1318);
-            return;
-        }
-
-        Logger.recordOutput(key.value, value.intValue());
+        this.logInteger(key, value == null ? -1318 : value.intValue());
     }
 
     /**
@@ -106,7 +158,7 @@ public class AdvantageKitLogger implements ISmartDashboardLogger
     @Override
     public void logInteger(LoggingKey key, int value, String formatString)
     {
-        Logger.recordOutput(key.value, value);
+        this.logInteger(key, value);
     }
 
     /**
@@ -122,7 +174,10 @@ public class AdvantageKitLogger implements ISmartDashboardLogger
             value = "";
         }
 
-        Logger.recordOutput(key.value, value);
+        if (this.publishedValues.shouldPublishString(key, value))
+        {
+            Logger.recordOutput(key.value, value);
+        }
     }
 
     /**
@@ -131,6 +186,7 @@ public class AdvantageKitLogger implements ISmartDashboardLogger
     @Override
     public void update()
     {
+        this.publishedValues.update();
     }
 
     /**
@@ -140,4 +196,12 @@ public class AdvantageKitLogger implements ISmartDashboardLogger
     public void flush()
     {
     }
+
+    /**
+     * Flush the log and release any resources that it is using
+     */
+    @Override
+    public void close()
+    {
+    }
 }
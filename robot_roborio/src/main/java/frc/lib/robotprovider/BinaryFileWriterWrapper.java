@@ -0,0 +1,30 @@
+package frc.lib.robotprovider;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+public class BinaryFileWriterWrapper implements IBinaryFileWriter
+{
+    private BufferedOutputStream wrappedObject;
+
+    public BinaryFileWriterWrapper(String fileName) throws IOException
+    {
+        this.wrappedObject = new BufferedOutputStream(new FileOutputStream(fileName));
+    }
+
+    public void write(byte[] buffer, int offset, int length) throws IOException
+    {
+        this.wrappedObject.write(buffer, offset, length);
+    }
+
+    public void flush() throws IOException
+    {
+        this.wrappedObject.flush();
+    }
+
+    public void close() throws IOException
+    {
+        this.wrappedObject.close();
+    }
+}
@@ -3,6 +3,9 @@ package frc.lib.robotprovider;
 import edu.wpi.first.wpilibj.DoubleSolenoid;
 import edu.wpi.first.wpilibj.DoubleSolenoid.Value;
 
+import frc.robot.TuningConstants;
+import frc.lib.driver.InputLatencyTracer;
+
 public class DoubleSolenoidWrapper implements IDoubleSolenoid
 {
     private final DoubleSolenoid wrappedObject;
@@ -19,6 +22,11 @@ public class DoubleSolenoidWrapper implements IDoubleSolenoid
 
     public void set(DoubleSolenoidValue value)
     {
+        if (TuningConstants.INPUT_LATENCY_TRACING)
+        {
+            InputLatencyTracer.actuated();
+        }
+
         Value wpilibValue = Value.kOff;
         if (value == DoubleSolenoidValue.Forward)
         {
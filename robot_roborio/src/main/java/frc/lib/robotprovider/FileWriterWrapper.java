@@ -21,4 +21,9 @@ public class FileWriterWrapper implements IFileWriter
     {
         this.wrappedObject.flush();
     }
+
+    public void close() throws IOException
+    {
+        this.wrappedObject.close();
+    }
 }
@@ -1,5 +1,6 @@
 package frc.lib.robotprovider;
 
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Joystick;
 import edu.wpi.first.wpilibj.GenericHID.RumbleType;
 
@@ -32,6 +33,27 @@ public class JoystickWrapper implements IJoystick
         return this.wrappedObject.getRawButton(value);
     }
 
+    @Override
+    public void capture(JoystickSnapshot snapshot)
+    {
+        // read the buttons as one mask, rather than taking the DriverStation's lock for each button
+        int port = this.wrappedObject.getPort();
+        boolean connected = DriverStation.isJoystickConnected(port);
+        snapshot.begin(connected);
+        if (!connected)
+        {
+            return;
+        }
+
+        for (int axis = 0; axis < snapshot.getAxisCount(); axis++)
+        {
+            snapshot.setAxis(axis, DriverStation.getStickAxis(port, axis));
+        }
+
+        snapshot.setButtons(DriverStation.getStickButtons(port));
+        snapshot.setPOV(DriverStation.getStickPOV(port, 0));
+    }
+
     public void setRumble(JoystickRumbleType type, double value)
     {
         RumbleType rumbleType;
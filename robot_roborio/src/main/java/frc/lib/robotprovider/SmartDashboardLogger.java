@@ -5,6 +5,7 @@ import javax.inject.Singleton;
 
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.LoggingKey;
+import frc.robot.TuningConstants;
 
 /**
  * Logger that logs current values to a dashboard.
@@ -13,11 +14,18 @@ import frc.robot.LoggingKey;
 @Singleton
 public class SmartDashboardLogger implements ISmartDashboardLogger
 {
+    private static final double[] EMPTY_NUMBER_ARRAY = new double[0];
+
+    private final DashboardValueCache publishedValues;
+    private final double[] poseValues;
+
     private int loggingCounter;
 
     @Inject
     public SmartDashboardLogger()
     {
+        this.publishedValues = new DashboardValueCache(TuningConstants.LOG_DASHBOARD_HEARTBEAT_INTERVAL);
+        this.poseValues = new double[3];
         this.loggingCounter = 0;
     }
 
@@ -29,9 +37,9 @@ public class SmartDashboardLogger implements ISmartDashboardLogger
     @Override
     public void logBoolean(LoggingKey key, boolean value)
     {
-        if ((this.loggingCounter % key.loggingFrequency) == 0)
+        if (this.shouldLog(key))
         {
-            if (SmartDashboard.getBoolean(key.value, !value) != value)
+            if (this.publishedValues.shouldPublishBoolean(key, value))
             {
                 SmartDashboard.putBoolean(key.value, value);
             }
@@ -46,9 +54,12 @@ public class SmartDashboardLogger implements ISmartDashboardLogger
     @Override
     public void logBooleanArray(LoggingKey key, boolean[] value)
     {
-        if ((this.loggingCounter % key.loggingFrequency) == 0)
+        if (this.shouldLog(key))
         {
-            SmartDashboard.putBooleanArray(key.value, value);
+            if (this.publishedValues.shouldPublishBooleanArray(key, value))
+            {
+                SmartDashboard.putBooleanArray(key.value, value);
+            }
         }
     }
 
@@ -60,9 +71,9 @@ public class SmartDashboardLogger implements ISmartDashboardLogger
     @Override
     public void logNumber(LoggingKey key, double value)
     {
-        if ((this.loggingCounter % key.loggingFrequency) == 0)
+        if (this.shouldLog(key))
         {
-            if (SmartDashboard.getNumber(key.value, value + 0.5) != value)
+            if (this.publishedValues.shouldPublishNumber(key, value))
             {
                 SmartDashboard.putNumber(key.value, value);
             }
@@ -86,6 +97,50 @@ public class SmartDashboardLogger implements ISmartDashboardLogger
         this.logString(key, valueString);
     }
 
+    /**
+     * Write an array of numbers (doubles) to the smart dashboard
+     * @param key to write to
+     * @param value to write
+     */
+    @Override
+    public void logNumberArray(LoggingKey key, double[] value)
+    {
+        if (this.shouldLog(key))
+        {
+            if (value == null)
+            {
+                value = SmartDashboardLogger.EMPTY_NUMBER_ARRAY;
+            }
+
+            if (this.publishedValues.shouldPublishNumberArray(key, value))
+            {
+                SmartDashboard.putNumberArray(key.value, value);
+            }
+        }
+    }
+
+    /**
+     * Write a pose to the smart dashboard, as an array of numbers (x, y, angle)
+     * @param key to write to
+     * @param x position (in inches)
+     * @param y position (in inches)
+     * @param angle (in degrees)
+     */
+    @Override
+    public void logPose(LoggingKey key, double x, double y, double angle)
+    {
+        if (this.shouldLog(key))
+        {
+            if (this.publishedValues.shouldPublishPose(key, x, y, angle))
+            {
+                this.poseValues[0] = x;
+                this.poseValues[1] = y;
+                this.poseValues[2] = angle;
+                SmartDashboard.putNumberArray(key.value, this.poseValues);
+            }
+        }
+    }
+
     /**
      * Write a number (integer) to the smart dashboard
      * @param key to write to
@@ -123,9 +178,9 @@ public class SmartDashboardLogger implements ISmartDashboardLogger
     @Override
     public void logInteger(LoggingKey key, int value, String formatString)
     {
-        if ((this.loggingCounter % key.loggingFrequency) == 0)
+        if (this.shouldLog(key))
         {
-            if (SmartDashboard.getNumber(key.value, value + 0.5) != value)
+            if (this.publishedValues.shouldPublishInteger(key, value))
             {
                 SmartDashboard.putNumber(key.value, value);
             }
@@ -140,22 +195,31 @@ public class SmartDashboardLogger implements ISmartDashboardLogger
     @Override
     public void logString(LoggingKey key, String value)
     {
-        if ((this.loggingCounter % key.loggingFrequency) == 0)
+        if (this.shouldLog(key))
         {
             if (value == null)
             {
                 value = "";
             }
 
-            String currValue = SmartDashboard.getString(key.value, "");
-            if ((value != null && currValue != null && !currValue.equals(value)) ||
-                (value != null) != (currValue != null))
+            if (this.publishedValues.shouldPublishString(key, value))
             {
                 SmartDashboard.putString(key.value, value);
             }
         }
     }
 
+    /**
+     * Check whether the key should be logged during this update
+     * @param key to check
+     * @return true if the key should be logged
+     */
+    private boolean shouldLog(LoggingKey key)
+    {
+        // aggregated keys are only provided once per window by the LoggingManager
+        return key.aggregation != LoggingAggregation.Sample || (this.loggingCounter % key.loggingFrequency) == 0;
+    }
+
     /**
      * Update the log, if appropriate..
      */
@@ -163,6 +227,7 @@ public class SmartDashboardLogger implements ISmartDashboardLogger
     public void update()
     {
         this.loggingCounter++;
+        this.publishedValues.update();
     }
 
     /**
@@ -172,4 +237,12 @@ public class SmartDashboardLogger implements ISmartDashboardLogger
     public void flush()
     {
     }
+
+    /**
+     * Flush the log and release any resources that it is using
+     */
+    @Override
+    public void close()
+    {
+    }
 }
@@ -5,6 +5,9 @@ import com.revrobotics.CANSparkBase.IdleMode;
 import com.revrobotics.SparkPIDController.AccelStrategy;
 import com.revrobotics.SparkPIDController.ArbFFUnits;
 
+import frc.robot.TuningConstants;
+import frc.lib.driver.InputLatencyTracer;
+
 public class SparkMaxWrapper implements ISparkMax
 {
     final CANSparkMax wrappedObject;
@@ -98,6 +101,11 @@ public class SparkMaxWrapper implements ISparkMax
 
     public void set(SparkMaxControlMode controlMode, double value, double feedForward)
     {
+        if (TuningConstants.INPUT_LATENCY_TRACING)
+        {
+            InputLatencyTracer.actuated();
+        }
+
         if (controlMode == SparkMaxControlMode.PercentOutput)
         {
             this.wrappedObject.set(value);
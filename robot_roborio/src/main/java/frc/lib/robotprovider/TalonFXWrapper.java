@@ -7,6 +7,8 @@ import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.*;
 
 import frc.lib.helpers.ExceptionHelpers;
+import frc.robot.TuningConstants;
+import frc.lib.driver.InputLatencyTracer;
 
 public class TalonFXWrapper implements ITalonFX
 {
@@ -84,6 +86,11 @@ public class TalonFXWrapper implements ITalonFX
 
     private void internalSet(TalonFXControlMode mode, int slotId, double value, double feedForward)
     {
+        if (TuningConstants.INPUT_LATENCY_TRACING)
+        {
+            InputLatencyTracer.actuated();
+        }
+
         switch (mode)
         {
             case PercentOutput:
@@ -1,8 +1,12 @@
 package frc.robot;
 
+import java.io.IOException;
+import java.util.Calendar;
+
 import javax.inject.Singleton;
 
 import frc.lib.driver.*;
+import frc.lib.mechanisms.LoggingManager;
 import frc.lib.mechanisms.MechanismManager;
 import frc.lib.robotprovider.*;
 import frc.robot.driver.*;
@@ -17,8 +21,20 @@ public class RobotModule extends AbstractModule
     protected void configure()
     {
         this.bind(IDriver.class).to(Driver.class);
-        this.bind(IRobotProvider.class).to(RobotProvider.class);
-        this.bind(ITimer.class).to(TimerWrapper.class);
+
+        RecordingRobotProvider recorder = RobotModule.createRecorder();
+        if (recorder != null)
+        {
+            // record everything read from the robot, so that the match can be replayed with frc.lib.logs.RobotReplay
+            this.bind(IRobotProvider.class).toInstance(recorder.getRobotProvider());
+            this.bind(ITimer.class).toInstance(recorder.createTimer(new TimerWrapper()));
+        }
+        else
+        {
+            this.bind(IRobotProvider.class).to(RobotProvider.class);
+            this.bind(ITimer.class).to(TimerWrapper.class);
+        }
+
         this.bind(IButtonMap.class).to(ButtonMap.class);
         this.bind(IFile.class).to(FileWrapper.class);
 
@@ -36,6 +52,38 @@ public class RobotModule extends AbstractModule
     @Provides
     public MechanismManager getMechanismManager(Injector injector)
     {
-        return new MechanismManager(SettingsManager.getActiveMechanisms(injector));
+        return new MechanismManager(injector.getInstance(LoggingManager.class), SettingsManager.getActiveMechanisms(injector));
+    }
+
+    private static RecordingRobotProvider createRecorder()
+    {
+        if (!TuningConstants.REPLAY_RECORD)
+        {
+            return null;
+        }
+
+        // record onto the USB stick, alongside the other logs (see SettingsManager.getLogger)
+        IFile directory = new FileWrapper();
+        directory.open("/U/");
+        if (!directory.exists() || directory.getFreeSpace() < TuningConstants.LOG_FILE_REQUIRED_FREE_SPACE)
+        {
+            return null;
+        }
+
+        directory.open("/U/replay/");
+        directory.mkdir();
+
+        IFile file = new FileWrapper();
+        file.open(String.format("/U/replay/%1$d.replay", Calendar.getInstance().getTime().getTime()));
+
+        try
+        {
+            return new RecordingRobotProvider(new RobotProvider(), file.openBinaryWriter(), TuningConstants.REPLAY_FLUSH_THRESHOLD);
+        }
+        catch (IOException ex)
+        {
+            // continue without recording...
+            return null;
+        }
     }
 }
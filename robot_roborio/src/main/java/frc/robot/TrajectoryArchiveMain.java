@@ -0,0 +1,46 @@
+package frc.robot;
+
+import java.io.File;
+import java.io.IOException;
+
+import frc.lib.robotprovider.PathPlannerWrapper;
+import frc.robot.driver.TrajectoryArchiveGenerator;
+
+/**
+ * Generates the robot's trajectories into an archive on the dev machine (run by the generateTrajectoryArchive task before deploying)
+ *
+ * Usage: TrajectoryArchiveMain trajectories.bin
+ */
+public final class TrajectoryArchiveMain
+{
+    private TrajectoryArchiveMain()
+    {
+    }
+
+    public static void main(String... args)
+    {
+        if (args.length != 1)
+        {
+            System.err.println("Usage: TrajectoryArchiveMain trajectories.bin");
+            System.exit(1);
+            return;
+        }
+
+        try
+        {
+            File parent = new File(args[0]).getAbsoluteFile().getParentFile();
+            if (parent != null)
+            {
+                parent.mkdirs();
+            }
+
+            int count = TrajectoryArchiveGenerator.generate(new PathPlannerWrapper(), args[0]);
+            System.out.println(String.format("Wrote %1$d trajectories to %2$s", count, args[0]));
+        }
+        catch (IOException ex)
+        {
+            System.err.println(String.format("Failed to write %1$s: %2$s", args[0], ex.getMessage()));
+            System.exit(1);
+        }
+    }
+}